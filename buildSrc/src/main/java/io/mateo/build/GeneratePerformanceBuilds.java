@@ -0,0 +1,267 @@
+package io.mateo.build;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Task to generate the builds that the gradle-profiler scenarios run against.
+ * <p>
+ * For every size, a build with that many {@code wsdl2java} tasks and a build with that many worker options are
+ * generated, each with its own copy of the WSDL. A skewed workers build declares a large WSDL after a few copies of the
+ * WSDL, to compare the makespan of submitting the options in declaration order and longest first. The plugin, the
+ * tool classpath and the slim wsdl2java tool classpath are copied next to the builds so that they do not need any
+ * repository and can be run offline.
+ */
+public abstract class GeneratePerformanceBuilds extends DefaultTask {
+
+    private static final String REVISION = "<!-- revision: 0 -->";
+
+    private static final String SETTINGS = """
+            rootProject.name = "%s"
+            """;
+
+    private static final String TASKS_BUILD = """
+            import io.mateo.cxf.codegen.wsdl2java.Wsdl2Java
+
+            buildscript {
+                dependencies {
+                    classpath(fileTree("../plugin"))
+                }
+            }
+
+            plugins {
+                base
+            }
+
+            apply(plugin = "io.mateo.cxf-codegen")
+
+            %s
+
+            repeat(%d) { index ->
+                tasks.register<Wsdl2Java>("service$index") {
+                    mustRunAfter(changeWsdl)
+                    startupProfile = providers.gradleProperty("startupProfile").map(String::toBoolean)
+                    skipBytecodeVerification =
+                        providers.gradleProperty("skipBytecodeVerification").map(String::toBoolean)
+                    toolOptions {
+                        wsdl = file("wsdls/service$index.wsdl").toPath().toAbsolutePath().toString()
+                    }
+                }
+            }
+            """;
+
+    private static final String WORKERS_BUILD = """
+            import io.mateo.cxf.codegen.dsl.CxfCodegenExtension
+            import io.mateo.cxf.codegen.workers.Wsdl2Java
+            import io.mateo.cxf.codegen.workers.Wsdl2JavaOption
+
+            buildscript {
+                dependencies {
+                    classpath(fileTree("../plugin"))
+                }
+            }
+
+            plugins {
+                base
+            }
+
+            apply(plugin = "io.mateo.cxf-codegen")
+
+            %s
+
+            configure<CxfCodegenExtension> {
+                options {
+                    repeat(%d) { index ->
+                        register<Wsdl2JavaOption>("service$index") {
+                            wsdl = file("wsdls/service$index.wsdl").toPath().toAbsolutePath().toString()
+                        }
+                    }
+                }
+            }
+
+            tasks.named<Wsdl2Java>("wsdl2java") {
+                mustRunAfter(changeWsdl)
+                startupProfile = providers.gradleProperty("startupProfile").map(String::toBoolean)
+                skipBytecodeVerification = providers.gradleProperty("skipBytecodeVerification").map(String::toBoolean)
+                batchSize = providers.gradleProperty("batchSize").map(String::toInt)
+            }
+            """;
+
+    private static final String SKEWED_BUILD = WORKERS_BUILD + """
+
+            configure<CxfCodegenExtension> {
+                options {
+                    register<Wsdl2JavaOption>("large") {
+                        wsdl = file("wsdls/large.wsdl").toPath().toAbsolutePath().toString()
+                    }
+                }
+            }
+
+            // Submits the options in declaration order instead of longest first.
+            if (providers.gradleProperty("declarationOrder").map(String::toBoolean).getOrElse(false)) {
+                tasks.named<Wsdl2Java>("wsdl2java") {
+                    executionHistory.unset()
+                }
+            }
+            """;
+
+    private static final int SKEWED_SIZE = 7;
+
+    private static final int LARGE_WSDL_OPERATIONS = 1500;
+
+    private static final String COMMON_BUILD = """
+            // The tool classpaths are copied next to the builds. The flat directory satisfies the dependencies the
+            // plugin declares and the file tree adds their transitive dependencies. With slim tool classpaths,
+            // wsdl2java only gets the modules of its own configuration.
+            val slimToolClasspaths = providers.gradleProperty("io.mateo.cxf-codegen.slimToolClasspaths")
+                .map(String::toBoolean)
+                .getOrElse(false)
+            val toolLibs = if (slimToolClasspaths) "../wsdl2java-libs" else "../libs"
+
+            repositories {
+                flatDir {
+                    dirs(toolLibs)
+                }
+            }
+
+            dependencies {
+                (if (slimToolClasspaths) "cxfCodegenWsdl2Java" else "cxfCodegen")(fileTree(toolLibs))
+            }
+
+            // Changes a single WSDL for the scenario that measures an incremental run.
+            val changeWsdl = tasks.register("changeWsdl") {
+                val wsdl = file("wsdls/service0.wsdl")
+                doLast {
+                    val revision = Regex("<!-- revision: \\\\d+ -->")
+                    wsdl.writeText(wsdl.readText().replace(revision, "<!-- revision: ${System.nanoTime()} -->"))
+                }
+            }""";
+
+    private final FileSystemOperations fileSystemOperations;
+
+    @Inject
+    public GeneratePerformanceBuilds(FileSystemOperations fileSystemOperations) {
+        this.fileSystemOperations = fileSystemOperations;
+    }
+
+    @InputFile
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getWsdl();
+
+    @Input
+    public abstract ListProperty<Integer> getSizes();
+
+    @Classpath
+    public abstract ConfigurableFileCollection getPluginClasspath();
+
+    @Classpath
+    public abstract ConfigurableFileCollection getToolClasspath();
+
+    @Classpath
+    public abstract ConfigurableFileCollection getWsdl2JavaToolClasspath();
+
+    @OutputDirectory
+    public abstract DirectoryProperty getOutputDirectory();
+
+    @TaskAction
+    public void generate() throws IOException {
+        Path outputDirectory = getOutputDirectory().get().getAsFile().toPath();
+        this.fileSystemOperations.delete(spec -> spec.delete(outputDirectory));
+        this.fileSystemOperations.copy(spec -> spec.from(getPluginClasspath()).into(outputDirectory.resolve("plugin")));
+        this.fileSystemOperations.copy(spec -> spec.from(getToolClasspath()).into(outputDirectory.resolve("libs")));
+        this.fileSystemOperations.copy(
+                spec -> spec.from(getWsdl2JavaToolClasspath()).into(outputDirectory.resolve("wsdl2java-libs")));
+        String wsdl = Files.readString(getWsdl().get().getAsFile().toPath()) + REVISION + System.lineSeparator();
+        for (int size : getSizes().get()) {
+            generate(outputDirectory.resolve("tasks-" + size), TASKS_BUILD, size, wsdl, false);
+            generate(outputDirectory.resolve("workers-" + size), WORKERS_BUILD, size, wsdl, true);
+        }
+        Path skewed = outputDirectory.resolve("workers-skewed");
+        generate(skewed, SKEWED_BUILD, SKEWED_SIZE, wsdl, true);
+        Files.writeString(skewed.resolve("wsdls").resolve("large.wsdl"), largeWsdl(LARGE_WSDL_OPERATIONS));
+    }
+
+    private void generate(Path build, String template, int size, String wsdl, boolean workers) throws IOException {
+        Files.createDirectories(build.resolve("wsdls"));
+        Files.writeString(build.resolve("settings.gradle.kts"), SETTINGS.formatted(build.getFileName()));
+        Files.writeString(build.resolve("build.gradle.kts"), template.formatted(COMMON_BUILD, size));
+        Files.writeString(build.resolve("gradle.properties"), "io.mateo.cxf-codegen.workers=" + workers
+                + System.lineSeparator());
+        for (int index = 0; index < size; index++) {
+            Files.writeString(build.resolve("wsdls").resolve("service" + index + ".wsdl"), wsdl);
+        }
+    }
+
+    private static String largeWsdl(int operations) {
+        StringBuilder types = new StringBuilder();
+        StringBuilder messages = new StringBuilder();
+        StringBuilder portType = new StringBuilder();
+        StringBuilder binding = new StringBuilder();
+        for (int i = 0; i < operations; i++) {
+            for (String element : new String[] {"Op" + i, "Op" + i + "Response"}) {
+                types.append("<xsd:element name=\"").append(element).append("\"><xsd:complexType><xsd:sequence>");
+                for (int field = 0; field < 8; field++) {
+                    types.append("<xsd:element name=\"field").append(field).append("\" type=\"xsd:string\"/>");
+                }
+                types.append("</xsd:sequence></xsd:complexType></xsd:element>\n");
+                messages.append("<wsdl:message name=\"")
+                        .append(element)
+                        .append("Message\"><wsdl:part name=\"parameters\" element=\"tns:")
+                        .append(element)
+                        .append("\"/></wsdl:message>\n");
+            }
+            portType.append("<wsdl:operation name=\"op")
+                    .append(i)
+                    .append("\"><wsdl:input message=\"tns:Op")
+                    .append(i)
+                    .append("Message\"/><wsdl:output message=\"tns:Op")
+                    .append(i)
+                    .append("ResponseMessage\"/></wsdl:operation>\n");
+            binding.append("<wsdl:operation name=\"op")
+                    .append(i)
+                    .append("\"><soap:operation soapAction=\"urn:large/op")
+                    .append(i)
+                    .append("\"/><wsdl:input><soap:body use=\"literal\"/></wsdl:input>")
+                    .append("<wsdl:output><soap:body use=\"literal\"/></wsdl:output></wsdl:operation>\n");
+        }
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <wsdl:definitions xmlns:wsdl="http://schemas.xmlsoap.org/wsdl/"
+                        xmlns:soap="http://schemas.xmlsoap.org/wsdl/soap/"
+                        xmlns:xsd="http://www.w3.org/2001/XMLSchema" xmlns:tns="urn:large"
+                        targetNamespace="urn:large" name="Large">
+                <wsdl:types>
+                <xsd:schema targetNamespace="urn:large" elementFormDefault="qualified">
+                %s</xsd:schema>
+                </wsdl:types>
+                %s<wsdl:portType name="LargePortType">
+                %s</wsdl:portType>
+                <wsdl:binding name="LargeBinding" type="tns:LargePortType">
+                <soap:binding style="document" transport="http://schemas.xmlsoap.org/soap/http"/>
+                %s</wsdl:binding>
+                <wsdl:service name="LargeService">
+                <wsdl:port name="LargePort" binding="tns:LargeBinding">
+                <soap:address location="http://localhost/large"/>
+                </wsdl:port>
+                </wsdl:service>
+                </wsdl:definitions>
+                """.formatted(types, messages, portType, binding);
+    }
+
+}
@@ -2,6 +2,7 @@ plugins {
     `java-library-conventions`
     jacoco
     `java-gradle-plugin`
+    `java-test-fixtures`
     `maven-publish`
 }
 
@@ -57,6 +58,7 @@ testing {
                 implementation(platform(libs.junit.bom))
                 implementation(libs.junit.jupiter)
                 implementation(project())
+                implementation(testFixtures(project()))
                 implementation(libs.assertj.core)
                 runtimeOnly(libs.junit.platformReporting)
             }
@@ -74,6 +76,100 @@ testing {
 
 gradlePlugin.testSourceSets(sourceSets["functionalTest"])
 
+val jmh =
+    sourceSets.create("jmh") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+
+configurations {
+    named(jmh.implementationConfigurationName) {
+        extendsFrom(configurations.implementation.get(), configurations.compileOnly.get())
+    }
+    named(jmh.runtimeOnlyConfigurationName) {
+        extendsFrom(configurations.runtimeOnly.get())
+    }
+}
+
+dependencies {
+    "jmhImplementation"(libs.jmh.core)
+    "jmhImplementation"(testFixtures(project))
+    "jmhImplementation"(gradleApi())
+    "jmhImplementation"(libs.cxf.toolsWsdltoFrontendJs) {
+        // Same exclusion as the plugin applies to the tool classpath.
+        exclude(group = "org.apache.cxf", module = "cxf-rt-frontend-simple")
+    }
+    "jmhRuntimeOnly"(libs.cxf.toolsWsdltoFrontendJaxws)
+    "jmhRuntimeOnly"(libs.cxf.toolsWsdltoDatabindingJaxb)
+    "jmhRuntimeOnly"(libs.slf4j.nop)
+    "jmhAnnotationProcessor"(libs.jmh.generatorAnnprocess)
+}
+
+val jmhResults = layout.buildDirectory.file("reports/jmh/results.json")
+
+tasks.register<JavaExec>("jmh") {
+    description = "Runs the JMH benchmarks and writes the results as JSON."
+    group = LifecycleBasePlugin.VERIFICATION_GROUP
+    classpath = jmh.runtimeClasspath
+    mainClass = "org.openjdk.jmh.Main"
+    outputs.file(jmhResults)
+    outputs.upToDateWhen { false }
+    val includes = providers.gradleProperty("jmh.includes")
+    argumentProviders.add(
+        CommandLineArgumentProvider {
+            val arguments = mutableListOf("-rf", "json", "-rff", jmhResults.get().asFile.absolutePath)
+            includes.orNull?.let { arguments.add(it) }
+            arguments
+        },
+    )
+    doFirst {
+        jmhResults.get().asFile.parentFile.mkdirs()
+    }
+}
+
+val performanceWsdl2JavaToolClasspath =
+    configurations.create("performanceWsdl2JavaToolClasspath") {
+        description = "Slim wsdl2java tool classpath of the builds generated for the performance scenarios."
+        isCanBeConsumed = false
+    }
+
+val performanceToolClasspath =
+    configurations.create("performanceToolClasspath") {
+        description = "Tool classpath of the builds generated for the performance scenarios."
+        isCanBeConsumed = false
+        extendsFrom(performanceWsdl2JavaToolClasspath)
+    }
+
+dependencies {
+    // Same dependencies the plugin adds to the cxfCodegenWsdl2Java configuration with slim tool classpaths.
+    performanceWsdl2JavaToolClasspath(libs.slf4j.nop)
+    performanceWsdl2JavaToolClasspath(libs.cxf.core)
+    performanceWsdl2JavaToolClasspath(libs.cxf.toolsCommon)
+    performanceWsdl2JavaToolClasspath(libs.cxf.toolsWsdltoCore)
+    performanceWsdl2JavaToolClasspath(libs.cxf.toolsWsdltoDatabindingJaxb)
+    performanceWsdl2JavaToolClasspath(libs.cxf.toolsWsdltoFrontendJaxws)
+    // Same dependencies the plugin adds to the cxfCodegen configuration.
+    performanceToolClasspath(libs.cxf.toolsWsdltoFrontendJs) {
+        exclude(group = "org.apache.cxf", module = "cxf-rt-frontend-simple")
+    }
+}
+
+tasks.register<io.mateo.build.GeneratePerformanceBuilds>("generatePerformanceBuilds") {
+    description = "Generates the builds that the gradle-profiler scenarios in src/performance run against."
+    wsdl = layout.projectDirectory.file("src/performance/wsdls/calculator.wsdl")
+    sizes = listOf(10, 50, 100, 200, 1000)
+    pluginClasspath.from(tasks.jar)
+    toolClasspath.from(performanceToolClasspath)
+    wsdl2JavaToolClasspath.from(performanceWsdl2JavaToolClasspath)
+    outputDirectory = layout.buildDirectory.dir("performance")
+}
+
+// The corpus generator in the test fixtures is only for the tests and benchmarks of this project.
+components.named<AdhocComponentWithVariants>("java") {
+    withVariantsFromConfiguration(configurations.testFixturesApiElements.get()) { skip() }
+    withVariantsFromConfiguration(configurations.testFixturesRuntimeElements.get()) { skip() }
+}
+
 tasks {
     withType<Jar>().configureEach {
         manifest.attributes["Automatic-Module-Name"] = "io.mateo.cxf.codegen"
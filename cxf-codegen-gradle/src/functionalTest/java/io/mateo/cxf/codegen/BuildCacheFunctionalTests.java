@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.mateo.junit.GradleBuild;
+import io.mateo.junit.GradleCompatibility;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.BuildTask;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.io.TempDir;
+
+@GradleCompatibility
+class BuildCacheFunctionalTests {
+
+    private static final Path GENERATED_SOURCES = Path.of("build", "calculator-wsdl2java-generated-sources");
+
+    @TestTemplate
+    void relocatedBuildIsLoadedFromCache(GradleBuild gradleBuild, @TempDir Path buildCache) throws IOException {
+        String buildCacheDir = "-PbuildCacheDir=" + buildCache.toAbsolutePath();
+        gradleBuild.settings(Path.of("buildCacheSettings"));
+
+        BuildResult original = gradleBuild.build("calculator", "--build-cache", buildCacheDir);
+        assertThat(original.task(":calculator"))
+                .isNotNull()
+                .extracting(BuildTask::getOutcome)
+                .isEqualTo(TaskOutcome.SUCCESS);
+
+        BuildResult relocated = gradleBuild
+                .prepareRelocatedRunner("calculator", "--build-cache", buildCacheDir)
+                .build();
+        assertThat(relocated.task(":calculator"))
+                .isNotNull()
+                .extracting(BuildTask::getOutcome)
+                .isEqualTo(TaskOutcome.FROM_CACHE);
+        assertSameSources(gradleBuild.getProjectDir(), gradleBuild.getRelocatedProjectDir());
+
+        // Generating from scratch in the relocated project must produce the same sources.
+        BuildResult regenerated = gradleBuild
+                .prepareRelocatedRunner("calculator", "--build-cache", buildCacheDir, "--rerun-tasks")
+                .build();
+        assertThat(regenerated.task(":calculator"))
+                .isNotNull()
+                .extracting(BuildTask::getOutcome)
+                .isEqualTo(TaskOutcome.SUCCESS);
+        assertSameSources(gradleBuild.getProjectDir(), gradleBuild.getRelocatedProjectDir());
+    }
+
+    private static void assertSameSources(Path projectDir, Path relocatedProjectDir) throws IOException {
+        Path expectedSources = projectDir.resolve(GENERATED_SOURCES);
+        Path actualSources = relocatedProjectDir.resolve(GENERATED_SOURCES);
+        List<Path> expectedFiles = relativeFiles(expectedSources);
+        assertThat(expectedFiles).isNotEmpty();
+        assertThat(relativeFiles(actualSources)).containsExactlyElementsOf(expectedFiles);
+        for (Path file : expectedFiles) {
+            assertThat(actualSources.resolve(file)).hasSameBinaryContentAs(expectedSources.resolve(file));
+            assertThat(actualSources.resolve(file))
+                    .content()
+                    .doesNotContain(projectDir.toString())
+                    .doesNotContain(relocatedProjectDir.toString());
+        }
+    }
+
+    private static List<Path> relativeFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .map(directory::relativize)
+                    .sorted()
+                    .toList();
+        }
+    }
+}
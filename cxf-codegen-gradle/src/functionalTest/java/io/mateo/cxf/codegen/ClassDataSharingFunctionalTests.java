@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.mateo.junit.BuildScript;
+import io.mateo.junit.GradleBuild;
+import io.mateo.junit.GradleCompatibility;
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.TestTemplate;
+
+@GradleCompatibility
+class ClassDataSharingFunctionalTests {
+
+    private static final String ENABLED = "-P" + CxfCodegenPlugin.CLASS_DATA_SHARING_PROPERTY + "=true";
+
+    private static final String WORKERS = "-P" + CxfCodegenPlugin.WORKERS_PROPERTY + "=true";
+
+    @TestTemplate
+    @BuildScript("javaSourceGenerationFromWsdl")
+    void classDataArchiveIsUsedByWsdl2JavaTasks(GradleBuild gradleBuild) {
+        BuildResult result = gradleBuild.build(ENABLED, "--info", "calculator");
+
+        assertThat(result.task(":calculator").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
+        assertThat(result.getOutput()).contains("Using class data archive");
+        assertThat(gradleBuild
+                        .getProjectDir()
+                        .resolve("build/calculator-wsdl2java-generated-sources/org/tempuri/Calculator.java"))
+                .isRegularFile();
+
+        BuildResult rerun = gradleBuild.build(ENABLED, "--info", "--rerun-tasks", "calculator");
+
+        assertThat(rerun.getOutput())
+                .contains("Using class data archive")
+                .doesNotContain("Creating class data archive");
+    }
+
+    @TestTemplate
+    @BuildScript("calculatorWsdlsWorkers")
+    void classDataArchiveIsUsedByWorkers(GradleBuild gradleBuild) {
+        BuildResult result = gradleBuild.build(WORKERS, ENABLED, "--info", "wsdl2java");
+
+        assertThat(result.task(":wsdl2java").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
+        // The test kit runs Gradle, and so the worker processes, on the JVM running the tests.
+        if (Runtime.version().feature() >= 19) {
+            assertThat(result.getOutput()).contains("Using class data archive");
+        } else {
+            assertThat(result.getOutput()).contains("only created by worker processes on Java 19 and newer");
+        }
+        assertThat(gradleBuild
+                        .getProjectDir()
+                        .resolve("build/calculator-wsdl2java-generated-sources/org/tempuri/Calculator.java"))
+                .isRegularFile();
+    }
+}
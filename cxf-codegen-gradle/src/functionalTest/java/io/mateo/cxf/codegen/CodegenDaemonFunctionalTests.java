@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.mateo.junit.BuildScript;
+import io.mateo.junit.GradleBuild;
+import io.mateo.junit.GradleCompatibility;
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.TestTemplate;
+
+@GradleCompatibility
+class CodegenDaemonFunctionalTests {
+
+    private static final String ENABLED = "-P" + CxfCodegenPlugin.DAEMON_PROPERTY + "=true";
+
+    @TestTemplate
+    @BuildScript("javaSourceGenerationFromWsdl")
+    void daemonIsUsedByWsdl2JavaTasks(GradleBuild gradleBuild) {
+        BuildResult result = gradleBuild.build(ENABLED, "--info", "calculator");
+
+        assertThat(result.task(":calculator").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
+        assertThat(result.getOutput())
+                .contains("Starting code generation daemon")
+                .contains("in code generation daemon");
+        assertThat(gradleBuild
+                        .getProjectDir()
+                        .resolve("build/calculator-wsdl2java-generated-sources/org/tempuri/Calculator.java"))
+                .isRegularFile();
+
+        BuildResult rerun = gradleBuild.build(ENABLED, "--info", "--rerun-tasks", "calculator");
+
+        assertThat(rerun.getOutput())
+                .contains("in code generation daemon")
+                .doesNotContain("Starting code generation daemon");
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.mateo.cxf.codegen.fixtures.WsdlCorpus;
+import io.mateo.junit.GradleBuild;
+import io.mateo.junit.GradleCompatibility;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.TestTemplate;
+
+@GradleCompatibility
+class CorpusFunctionalTests {
+
+    private static final String WORKERS = "-P" + CxfCodegenPlugin.WORKERS_PROPERTY + "=true";
+
+    @TestTemplate
+    void javaSourceGenerationFromCorpusWorkers(GradleBuild gradleBuild) throws IOException {
+        new WsdlCorpus()
+                .services(2)
+                .portTypes(2)
+                .complexTypes(6)
+                .namespaces(2)
+                .sharedImports(2)
+                .write(gradleBuild.getProjectDir().resolve("corpus"));
+
+        BuildResult result = gradleBuild.build(WORKERS, "wsdl2java");
+
+        assertThat(result.task(":wsdl2java").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
+        for (String service : new String[] {"service0", "service1"}) {
+            Path generatedSources =
+                    gradleBuild.getProjectDir().resolve(Path.of("build", service + "-wsdl2java-generated-sources"));
+            assertThat(fileNames(generatedSources))
+                    .contains("Port0PortType.java", "Port1PortType.java", "Type0.java", "Type5.java", "Common1.java");
+        }
+    }
+
+    private static List<String> fileNames(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.map(file -> file.getFileName().toString()).toList();
+        }
+    }
+}
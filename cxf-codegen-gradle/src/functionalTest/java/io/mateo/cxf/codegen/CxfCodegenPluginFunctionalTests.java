@@ -17,6 +17,7 @@ package io.mateo.cxf.codegen;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import io.mateo.junit.BuildScript;
 import io.mateo.junit.GradleBuild;
 import io.mateo.junit.GradleCompatibility;
 import java.nio.file.Files;
@@ -139,6 +140,115 @@ class CxfCodegenPluginFunctionalTests {
         });
     }
 
+    @TestTemplate
+    @BuildScript("calculatorWsdlsWorkers")
+    void batchedJavaSourceGenerationFromWsdlWorkers(GradleBuild gradleBuild) {
+        BuildResult result = gradleBuild.build("-Pio.mateo.cxf-codegen.workers=true", "-PbatchSize=2", "wsdl2java");
+
+        assertThat(result.task(":wsdl2java"))
+                .isNotNull()
+                .extracting(BuildTask::getOutcome)
+                .isEqualTo(TaskOutcome.SUCCESS);
+        assertThat(gradleBuild.getProjectDir()).satisfies(projectDir -> {
+            for (String name : List.of("calculator", "calculatorCopy", "calculatorSeparateXsd")) {
+                Path generatedSources = projectDir.resolve(
+                        Path.of("build", name + "-wsdl2java-generated-sources", "org", "tempuri"));
+                assertThat(generatedSources).exists().isNotEmptyDirectory();
+            }
+        });
+    }
+
+    @TestTemplate
+    @BuildScript("calculatorWsdlsWorkers")
+    void concurrencyLimitedJavaSourceGenerationFromWsdlWorkers(GradleBuild gradleBuild) {
+        BuildResult result = gradleBuild.build(
+                "-Pio.mateo.cxf-codegen.workers=true",
+                "-Pio.mateo.cxf-codegen.maxConcurrentTools=1",
+                "wsdl2java",
+                "--info");
+
+        assertThat(result.task(":wsdl2java"))
+                .isNotNull()
+                .extracting(BuildTask::getOutcome)
+                .isEqualTo(TaskOutcome.SUCCESS);
+        assertThat(result.getOutput())
+                .contains("Waiting for 1 unit(s) of work of :wsdl2java before running more code generation");
+        assertThat(gradleBuild.getProjectDir()).satisfies(projectDir -> {
+            for (String name : List.of("calculator", "calculatorCopy", "calculatorSeparateXsd")) {
+                Path generatedSources = projectDir.resolve(
+                        Path.of("build", name + "-wsdl2java-generated-sources", "org", "tempuri"));
+                assertThat(generatedSources).exists().isNotEmptyDirectory();
+            }
+        });
+    }
+
+    @TestTemplate
+    void groupedJavaSourceGenerationFromWsdlWorkers(GradleBuild gradleBuild) {
+        BuildResult result = gradleBuild.build("-Pio.mateo.cxf-codegen.workers=true", "wsdl2java", "--info");
+
+        assertThat(result.task(":wsdl2java"))
+                .isNotNull()
+                .extracting(BuildTask::getOutcome)
+                .isEqualTo(TaskOutcome.SUCCESS);
+        // calculatorSeparateXsd only differs in its output directory, so it is generated by the same unit of work.
+        assertThat(result.getOutput())
+                .contains("Generating options [calculator, calculatorCopy, calculatorSeparateXsd] with a single unit"
+                        + " of work")
+                .contains("Generating options [calculator, calculatorCopy] with a single wsdl2java invocation")
+                .contains("-wsdlList")
+                .doesNotContain("Generating options [calculatorSeparateXsd] with a single wsdl2java invocation");
+        assertThat(gradleBuild.getProjectDir()).satisfies(projectDir -> {
+            for (String name : List.of("calculators", "calculatorSeparateXsd-wsdl2java-generated-sources")) {
+                Path generatedSources = projectDir.resolve(Path.of("build", name, "org", "tempuri"));
+                assertThat(generatedSources).exists().isNotEmptyDirectory();
+            }
+            Path history = projectDir.resolve(Path.of(".gradle", "cxf-codegen", "wsdl2java", "execution-history.txt"));
+            assertThat(history)
+                    .content()
+                    .contains(" calculator\n", " calculatorCopy\n", " calculatorSeparateXsd");
+        });
+    }
+
+    @TestTemplate
+    void classLoaderIsolatedJavaSourceGenerationFromWsdlWorkers(GradleBuild gradleBuild) {
+        BuildResult result = gradleBuild.build("-Pio.mateo.cxf-codegen.workers=true", "wsdl2java");
+
+        assertThat(result.task(":wsdl2java"))
+                .isNotNull()
+                .extracting(BuildTask::getOutcome)
+                .isEqualTo(TaskOutcome.SUCCESS);
+        assertThat(gradleBuild.getProjectDir()).satisfies(projectDir -> {
+            Path generatedSources = projectDir.resolve(
+                    Path.of("build", "calculator-wsdl2java-generated-sources", "org", "tempuri"));
+            assertThat(generatedSources).exists().isNotEmptyDirectory();
+        });
+    }
+
+    @TestTemplate
+    void sharedSchemaTypesAreGeneratedOnceWorkers(GradleBuild gradleBuild) {
+        BuildResult result = gradleBuild.build("-Pio.mateo.cxf-codegen.workers=true", "wsdl2java");
+
+        assertThat(result.task(":xjc"))
+                .isNotNull()
+                .extracting(BuildTask::getOutcome)
+                .isEqualTo(TaskOutcome.SUCCESS);
+        assertThat(result.task(":wsdl2java"))
+                .isNotNull()
+                .extracting(BuildTask::getOutcome)
+                .isEqualTo(TaskOutcome.SUCCESS);
+        assertThat(gradleBuild.getProjectDir()).satisfies(projectDir -> {
+            Path build = projectDir.resolve("build");
+            assertThat(build.resolve(Path.of("xjc-episodes", "calculatorTypes.episode")))
+                    .isRegularFile();
+            assertThat(build.resolve(Path.of("calculatorTypes-xjc-generated-sources", "org", "tempuri", "Add.java")))
+                    .isRegularFile();
+            Path generatedSources =
+                    build.resolve(Path.of("calculatorSeparateXsd-wsdl2java-generated-sources", "org", "tempuri"));
+            assertThat(generatedSources.resolve("CalculatorSoap.java")).isRegularFile();
+            assertThat(generatedSources.resolve("Add.java")).doesNotExist();
+        });
+    }
+
     @TestTemplate
     void generatedJavaIsNotAddedToMainWhenConfiguredFalse(GradleBuild gradleBuild) {
         BuildResult result = gradleBuild.build("verify");
@@ -24,6 +24,8 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
 import org.gradle.testkit.runner.BuildResult;
 import org.gradle.testkit.runner.GradleRunner;
 import org.junit.jupiter.api.TestTemplate;
@@ -53,6 +55,77 @@ class IncrementalBuildFunctionalTests {
         assertThat(fourth.getOutput()).contains("Skipping task ':calculator' as it is up-to-date.");
     }
 
+    @TestTemplate
+    void changingImportedXsdCausesTaskToBeOutdated(GradleBuild gradleBuild) throws IOException {
+        GradleRunner runner = gradleBuild.prepareRunner("calculator", "-i");
+
+        BuildResult first = runner.build();
+        assertThat(first.getOutput()).contains("Task ':calculator' is not up-to-date");
+        BuildResult second = runner.build();
+        assertThat(second.getOutput()).contains("Skipping task ':calculator' as it is up-to-date.");
+
+        Path xsd = gradleBuild.getProjectDir().resolve(Path.of("wsdls", "calculator.xsd"));
+        Files.writeString(xsd, "<!-- changed -->", StandardOpenOption.APPEND);
+
+        BuildResult third = runner.build();
+        assertThat(third.getOutput()).contains("Task ':calculator' is not up-to-date");
+    }
+
+    @TestTemplate
+    void onlyChangedOptionsAreRegeneratedWorkers(GradleBuild gradleBuild) throws IOException {
+        GradleRunner runner = gradleBuild.prepareRunner("-Pio.mateo.cxf-codegen.workers=true", "wsdl2java", "-i");
+
+        BuildResult first = runner.build();
+        assertThat(first.getOutput()).doesNotContain("Skipping option");
+
+        Path wsdl = gradleBuild.getProjectDir().resolve(Path.of("wsdls", "calculatorCopy.wsdl"));
+        Files.writeString(wsdl, "<!-- changed -->", StandardOpenOption.APPEND);
+
+        BuildResult second = runner.build();
+        assertThat(second.getOutput())
+                .contains("Task ':wsdl2java' is not up-to-date")
+                .contains("Skipping option 'calculator' as it is up-to-date.")
+                .doesNotContain("Skipping option 'calculatorCopy' as it is up-to-date.");
+    }
+
+    @TestTemplate
+    void sharedOutputDirectoryIsUpToDateWorkers(GradleBuild gradleBuild) throws IOException {
+        GradleRunner runner = gradleBuild.prepareRunner("-Pio.mateo.cxf-codegen.workers=true", "wsdl2java", "-i");
+
+        runner.build();
+        Path wsdl = gradleBuild.getProjectDir().resolve(Path.of("wsdls", "calculatorCopy.wsdl"));
+        Files.writeString(wsdl, "<!-- changed -->", StandardOpenOption.APPEND);
+        BuildResult second = runner.build();
+        assertThat(second.getOutput())
+                .contains("Skipping option 'calculator' as it is up-to-date.")
+                .doesNotContain("Skipping option 'calculatorCopy' as it is up-to-date.");
+
+        // Regenerating calculatorCopy rewrote the directory calculator is fingerprinted by.
+        BuildResult third = runner.withArguments(
+                        "-Pio.mateo.cxf-codegen.workers=true", "wsdl2java", "-i", "--rerun-tasks")
+                .build();
+        assertThat(third.getOutput())
+                .contains("Skipping option 'calculator' as it is up-to-date.")
+                .contains("Skipping option 'calculatorCopy' as it is up-to-date.");
+    }
+
+    @TestTemplate
+    void unchangedFilesAreNotRewrittenWorkers(GradleBuild gradleBuild) throws IOException {
+        GradleRunner runner = gradleBuild.prepareRunner("-Pio.mateo.cxf-codegen.workers=true", "wsdl2java");
+
+        BuildResult first = runner.build();
+        assertThat(first.getOutput()).contains("Generated files of 1 option(s):").contains("0 deleted");
+        Path add = gradleBuild
+                .getProjectDir()
+                .resolve(Path.of("build", "calculator-wsdl2java-generated-sources", "org", "tempuri", "Add.java"));
+        FileTime lastModified = Files.getLastModifiedTime(add);
+
+        BuildResult second = runner.withArguments("-Pio.mateo.cxf-codegen.workers=true", "wsdl2java", "--rerun-tasks")
+                .build();
+        assertThat(second.getOutput()).contains("Generated files of 1 option(s): 0 added,");
+        assertThat(Files.getLastModifiedTime(add)).isEqualTo(lastModified);
+    }
+
     void runTest(GradleBuild gradleBuild) {
         GradleRunner runner = gradleBuild.prepareRunner("calculator", "-i");
 
@@ -17,6 +17,7 @@ package io.mateo.cxf.codegen;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import io.mateo.junit.BuildScript;
 import io.mateo.junit.GradleBuild;
 import io.mateo.junit.GradleCompatibility;
 import org.gradle.testkit.runner.BuildResult;
@@ -59,4 +60,26 @@ class IsolatedProjectsFunctionalTests {
                 .contains("Reusing configuration cache.")
                 .contains("Task :wsdl2java UP-TO-DATE");
     }
+
+    @TestTemplate
+    @BuildScript("isolatedProjectsCompatibility")
+    void isolatedProjectsSharedToolClasspathCompatibility(GradleBuild gradleBuild) {
+        GradleRunner runner = gradleBuild
+                .useConfigurationCache()
+                .prepareRunner(
+                        "-Dorg.gradle.unsafe.isolated-projects=true",
+                        "-Pio.mateo.cxf-codegen.sharedToolClasspath=true",
+                        "--info",
+                        "calculator");
+
+        BuildResult initialResult = runner.build();
+        BuildResult finalResult = runner.build();
+
+        assertThat(initialResult.getOutput())
+                .containsIgnoringCase("Isolated projects is an incubating feature")
+                .contains("Resolving shared tool classpath from configuration ':cxfCodegen'");
+        assertThat(finalResult.getOutput())
+                .contains("Reusing configuration cache.")
+                .doesNotContain("Resolving shared tool classpath");
+    }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.mateo.junit.GradleBuild;
+import io.mateo.junit.GradleCompatibility;
+import java.nio.file.Path;
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.TestTemplate;
+
+@GradleCompatibility
+class ProfilingFunctionalTests {
+
+    private static final String WORKERS = "-P" + CxfCodegenPlugin.WORKERS_PROPERTY + "=true";
+
+    @TestTemplate
+    void flightRecordingIsWritten(GradleBuild gradleBuild) {
+        BuildResult result = gradleBuild.build("calculator");
+
+        assertThat(result.task(":calculator").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
+        assertThat(result.getOutput()).contains("Summary of 1 flight recording(s)", "Hot methods (", "Allocations (");
+        Path recordings = gradleBuild.getProjectDir().resolve("build/reports/cxf-codegen/jfr");
+        assertThat(recordings.resolve("calculator.jfr")).isNotEmptyFile();
+
+        BuildResult rerun = gradleBuild.build("calculator");
+
+        assertThat(rerun.task(":calculator").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
+    }
+
+    @TestTemplate
+    void flightRecordingsAreWrittenWorkers(GradleBuild gradleBuild) {
+        BuildResult result = gradleBuild.build(WORKERS, "wsdl2java");
+
+        assertThat(result.task(":wsdl2java").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
+        assertThat(result.getOutput()).contains("Summary of 3 flight recording(s)", "Hot methods (", "Allocations (");
+        Path recordings = gradleBuild.getProjectDir().resolve("build/reports/cxf-codegen/jfr");
+        assertThat(recordings.resolve("calculator.jfr")).isNotEmptyFile();
+        assertThat(recordings.resolve("calculatorCopy.jfr")).isNotEmptyFile();
+        assertThat(recordings.resolve("calculatorSeparateXsd.jfr")).isNotEmptyFile();
+
+        BuildResult rerun = gradleBuild.build(WORKERS, "wsdl2java");
+
+        assertThat(rerun.task(":wsdl2java").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
+        assertThat(rerun.getOutput()).contains("Summary of 3 flight recording(s)");
+    }
+}
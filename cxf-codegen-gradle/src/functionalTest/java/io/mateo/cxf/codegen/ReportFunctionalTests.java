@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.mateo.junit.BuildScript;
+import io.mateo.junit.GradleBuild;
+import io.mateo.junit.GradleCompatibility;
+import java.nio.file.Path;
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.TestTemplate;
+
+@GradleCompatibility
+class ReportFunctionalTests {
+
+    private static final String WORKERS = "-P" + CxfCodegenPlugin.WORKERS_PROPERTY + "=true";
+
+    @TestTemplate
+    @BuildScript("javaSourceGenerationFromWsdl")
+    void executionReportIsWritten(GradleBuild gradleBuild) {
+        BuildResult result = gradleBuild.build("calculator");
+
+        assertThat(result.task(":calculator").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
+        Path reports = gradleBuild.getProjectDir().resolve("build/reports/cxf-codegen");
+        assertThat(reports.resolve("calculator.json"))
+                .content()
+                .contains("\"task\": \":calculator\"", "\"tool\": \"wsdl2java\"")
+                .containsPattern("\"cpuTimeMillis\": [0-9]")
+                .containsPattern("\"peakHeapBytes\": [1-9]")
+                .containsPattern("\"generatedFiles\": [1-9]");
+        assertThat(reports.resolve("index.html")).content().contains("\"task\": \":calculator\"");
+    }
+
+    @TestTemplate
+    @BuildScript("calculatorWsdlsWorkers")
+    void executionReportIsWrittenWorkers(GradleBuild gradleBuild) {
+        BuildResult result = gradleBuild.build(WORKERS, "wsdl2java");
+
+        assertThat(result.task(":wsdl2java").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
+        Path reports = gradleBuild.getProjectDir().resolve("build/reports/cxf-codegen");
+        assertThat(reports.resolve("wsdl2java.json"))
+                .content()
+                .contains(
+                        "\"task\": \":wsdl2java\"",
+                        "{\"name\": \"calculator\"",
+                        "{\"name\": \"calculatorCopy\"",
+                        "{\"name\": \"calculatorSeparateXsd\"")
+                .containsPattern("\"peakHeapBytes\": [1-9]");
+        assertThat(reports.resolve("index.html")).content().contains("\"task\": \":wsdl2java\"");
+    }
+}
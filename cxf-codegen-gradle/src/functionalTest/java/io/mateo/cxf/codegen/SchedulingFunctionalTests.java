@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.mateo.cxf.codegen.fixtures.WsdlCorpus;
+import io.mateo.junit.BuildScript;
+import io.mateo.junit.GradleBuild;
+import io.mateo.junit.GradleCompatibility;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.TestTemplate;
+
+@GradleCompatibility
+class SchedulingFunctionalTests {
+
+    private static final String WORKERS = "-P" + CxfCodegenPlugin.WORKERS_PROPERTY + "=true";
+
+    @TestTemplate
+    @BuildScript("calculatorWsdlsWorkers")
+    void executionHistoryIsRecordedWorkers(GradleBuild gradleBuild) throws IOException {
+        BuildResult result = gradleBuild.build(WORKERS, "wsdl2java");
+
+        assertThat(result.task(":wsdl2java").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
+        Path history = gradleBuild.getProjectDir().resolve(".gradle/cxf-codegen/wsdl2java/execution-history.txt");
+        assertThat(Files.readAllLines(history))
+                .hasSize(3)
+                .allMatch(line -> line.matches("\\d+ [1-9]\\d* calculator(Copy|SeparateXsd)?"));
+
+        BuildResult rerun = gradleBuild.build(WORKERS, "--rerun-tasks", "--info", "wsdl2java");
+
+        assertThat(rerun.getOutput()).contains("Submitting options longest first: [");
+    }
+
+    @TestTemplate
+    void largeWsdlIsSubmittedFirstWorkers(GradleBuild gradleBuild) {
+        WsdlCorpus.of("medium").services(1).write(gradleBuild.getProjectDir().resolve("wsdls/large"));
+        gradleBuild.build(WORKERS, "wsdl2java");
+
+        BuildResult rerun = gradleBuild.build(WORKERS, "--rerun-tasks", "--info", "wsdl2java");
+
+        assertThat(rerun.task(":wsdl2java").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
+        assertThat(rerun.getOutput()).contains("Submitting options longest first: [large, ");
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.mateo.junit.BuildScript;
+import io.mateo.junit.GradleBuild;
+import io.mateo.junit.GradleCompatibility;
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.TestTemplate;
+
+@GradleCompatibility
+class StartupProfileFunctionalTests {
+
+    private static final String WORKERS = "-P" + CxfCodegenPlugin.WORKERS_PROPERTY + "=true";
+
+    @TestTemplate
+    void startupProfileIsUsedByWsdl2JavaTasks(GradleBuild gradleBuild) {
+        BuildResult result = gradleBuild.build("--info", "calculator");
+
+        assertThat(result.task(":calculator").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
+        assertThat(result.getOutput())
+                .contains("-XX:TieredStopAtLevel=1", "-XX:+UseSerialGC", "-Xmx256m")
+                .doesNotContain("-XX:-BytecodeVerificationRemote");
+        assertThat(gradleBuild
+                        .getProjectDir()
+                        .resolve("build/calculator-wsdl2java-generated-sources/org/tempuri/Calculator.java"))
+                .isRegularFile();
+
+        BuildResult skipped =
+                gradleBuild.build("--info", "--rerun-tasks", "-PskipBytecodeVerification=true", "calculator");
+
+        assertThat(skipped.task(":calculator").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
+        assertThat(skipped.getOutput()).contains("-XX:-BytecodeVerificationRemote");
+    }
+
+    @TestTemplate
+    @BuildScript("calculatorWsdlsWorkers")
+    void startupProfileIsUsedByWorkers(GradleBuild gradleBuild) {
+        BuildResult result = gradleBuild.build(WORKERS, "-PstartupProfile=true", "wsdl2java");
+
+        assertThat(result.task(":wsdl2java").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
+        assertThat(gradleBuild
+                        .getProjectDir()
+                        .resolve("build/calculator-wsdl2java-generated-sources/org/tempuri/Calculator.java"))
+                .isRegularFile();
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.mateo.junit.BuildScript;
+import io.mateo.junit.GradleBuild;
+import io.mateo.junit.GradleCompatibility;
+import org.gradle.testkit.runner.BuildResult;
+import org.junit.jupiter.api.TestTemplate;
+
+/**
+ * Guards configuration time: registering many code generation tasks must not realize any of them, or resolve the
+ * code generation classpath, unless they are part of the requested work.
+ */
+@GradleCompatibility
+class TaskRealizationFunctionalTests {
+
+    @TestTemplate
+    void wsdl2JavaTasksAreNotRealizedForHelp(GradleBuild gradleBuild) {
+        BuildResult result = gradleBuild.build("help");
+
+        assertThat(result.getOutput()).doesNotContain("Realized");
+    }
+
+    @TestTemplate
+    @BuildScript("wsdl2JavaTasksAreNotRealizedForHelp")
+    void wsdl2JavaTasksAreRealizedForCompilation(GradleBuild gradleBuild) {
+        BuildResult result = gradleBuild.build("compileJava", "--dry-run");
+
+        assertThat(result.getOutput()).contains("Realized calculator0").contains("Realized calculator149");
+    }
+
+    @TestTemplate
+    void workerTasksAreNotRealizedForHelpWorkers(GradleBuild gradleBuild) {
+        BuildResult result = gradleBuild.build("-Pio.mateo.cxf-codegen.workers=true", "help");
+
+        assertThat(result.getOutput()).doesNotContain("Realized");
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.mateo.junit.GradleBuild;
+import io.mateo.junit.GradleCompatibility;
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.TestTemplate;
+
+@GradleCompatibility
+class WorkerReuseFunctionalTests {
+
+    private static final String WORKERS = "-P" + CxfCodegenPlugin.WORKERS_PROPERTY + "=true";
+
+    private static final String NORMALIZED = "-P" + CxfCodegenPlugin.NORMALIZE_FORK_OPTIONS_PROPERTY + "=true";
+
+    @TestTemplate
+    void workerProcessesAreReusedAcrossBuilds(GradleBuild gradleBuild) {
+        BuildResult result = gradleBuild.build(WORKERS, NORMALIZED, "--info", "wsdl2java");
+
+        assertThat(result.task(":wsdl2java").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
+        assertThat(result.getOutput()).contains("Worker process reuse: 3 option(s)");
+
+        BuildResult rerun = gradleBuild.build(WORKERS, NORMALIZED, "--info", "--rerun-tasks", "wsdl2java");
+
+        assertThat(rerun.getOutput()).contains("0 started", "100% hit rate");
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.mateo.junit.GradleBuild;
+import io.mateo.junit.GradleCompatibility;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.TestTemplate;
+
+@GradleCompatibility
+class WsdlDirectoryFunctionalTests {
+
+    private static final String WORKERS = "-P" + CxfCodegenPlugin.WORKERS_PROPERTY + "=true";
+
+    @TestTemplate
+    void javaSourceGenerationFromWsdlDirectoryWorkers(GradleBuild gradleBuild) throws IOException {
+        BuildResult result = gradleBuild.build(WORKERS, "wsdl2java");
+
+        assertThat(result.task(":wsdl2java").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
+        Path generatedSources = gradleBuild.getProjectDir().resolve("build/services-wsdl2java-generated-sources");
+        assertThat(generatedSources.resolve("calculator/com/example/calculator/CalculatorSoap.java"))
+                .isNotEmptyFile();
+        assertThat(generatedSources.resolve("calculatorCopy/com/example/calculatorcopy/CalculatorSoap.java"))
+                .isNotEmptyFile();
+        assertThat(generatedSources.resolve(
+                        "calculatorSeparateXsd/com/example/calculatorseparatexsd/CalculatorSoap.java"))
+                .isNotEmptyFile();
+
+        BuildResult upToDate = gradleBuild.build(WORKERS, "wsdl2java");
+
+        assertThat(upToDate.task(":wsdl2java").getOutcome()).isEqualTo(TaskOutcome.UP_TO_DATE);
+
+        Files.delete(gradleBuild.getProjectDir().resolve("wsdls/calculatorCopy.wsdl"));
+        BuildResult removed = gradleBuild.build(WORKERS, "wsdl2java");
+
+        assertThat(removed.task(":wsdl2java").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
+        assertThat(generatedSources.resolve("calculatorCopy")).doesNotExist();
+        assertThat(generatedSources.resolve("calculator")).isNotEmptyDirectory();
+    }
+}
@@ -38,6 +38,8 @@ public class GradleBuild {
 
     private Path projectDir;
 
+    private Path relocatedProjectDir;
+
     private Path script;
 
     private Path settings;
@@ -60,6 +62,10 @@ public class GradleBuild {
         this.script = null;
         try {
             deleteDirectory(this.projectDir);
+            if (this.relocatedProjectDir != null) {
+                deleteDirectory(this.relocatedProjectDir);
+                this.relocatedProjectDir = null;
+            }
         } catch (IOException ex) {
             throw new UncheckedIOException(ex);
         }
@@ -117,7 +123,7 @@ public class GradleBuild {
         try {
             Files.copy(
                     settingsContent,
-                    this.projectDir.resolve(settingsContent.getFileName()),
+                    this.projectDir.resolve("settings" + this.dsl.getExtension()),
                     StandardCopyOption.COPY_ATTRIBUTES,
                     StandardCopyOption.REPLACE_EXISTING);
             final Path functionalTestResources = Path.of("src", "functionalTest", "resources");
@@ -140,6 +146,25 @@ public class GradleBuild {
         return gradleRunner.withArguments(List.of(arguments));
     }
 
+    /**
+     * Prepares a runner for a copy of the project in another directory. Only the sources of the project are copied,
+     * not its build outputs.
+     * @param arguments the build arguments
+     * @return the runner for the relocated project
+     */
+    public GradleRunner prepareRelocatedRunner(String... arguments) {
+        GradleRunner gradleRunner = prepareRunner(arguments);
+        try {
+            if (this.relocatedProjectDir == null) {
+                this.relocatedProjectDir = Files.createTempDirectory("gradle-relocated-");
+            }
+            copyProject(this.projectDir, this.relocatedProjectDir);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return gradleRunner.withProjectDir(this.relocatedProjectDir.toFile());
+    }
+
     public GradleBuild gradleVersion(String version) {
         this.gradleVersion = version;
         return this;
@@ -154,6 +179,10 @@ public class GradleBuild {
         return this.projectDir;
     }
 
+    public Path getRelocatedProjectDir() {
+        return this.relocatedProjectDir;
+    }
+
     public GradleDsl getDsl() {
         return this.dsl;
     }
@@ -200,6 +229,30 @@ public class GradleBuild {
         });
     }
 
+    private void copyProject(Path source, Path target) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Path relative = source.relativize(dir);
+                if (relative.startsWith("build") || relative.startsWith(".gradle")) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                Files.createDirectories(target.resolve(relative));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.copy(
+                        file,
+                        target.resolve(source.relativize(file)),
+                        StandardCopyOption.COPY_ATTRIBUTES,
+                        StandardCopyOption.REPLACE_EXISTING);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
     private void deleteDirectory(Path target) throws IOException {
         Files.walkFileTree(target, new SimpleFileVisitor<>() {
             @Override
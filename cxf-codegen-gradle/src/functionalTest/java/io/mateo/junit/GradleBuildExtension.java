@@ -24,6 +24,7 @@ import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.ParameterContext;
 import org.junit.jupiter.api.extension.ParameterResolutionException;
 import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.platform.commons.support.AnnotationSupport;
 
 /**
  * {@link Extension} for managing the lifecycle of a {@link GradleBuild}.
@@ -67,7 +68,9 @@ public class GradleBuildExtension implements BeforeEachCallback, AfterEachCallba
     private URL getBuildScript(ExtensionContext context) {
         String name = String.format(
                 "%s%s",
-                context.getRequiredTestMethod().getName(),
+                AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), BuildScript.class)
+                        .map(BuildScript::value)
+                        .orElseGet(() -> context.getRequiredTestMethod().getName()),
                 this.gradleBuild.getDsl().getExtension());
         return context.getRequiredTestClass().getResource(name);
     }
@@ -0,0 +1,15 @@
+pluginManagement {
+    repositories {
+        mavenCentral()
+        gradlePluginPortal()
+    }
+}
+
+buildCache {
+    local {
+        directory = file(providers.gradleProperty("buildCacheDir").get())
+    }
+}
+
+startParameter.showStacktrace = ShowStacktrace.ALWAYS_FULL
+startParameter.warningMode = WarningMode.All
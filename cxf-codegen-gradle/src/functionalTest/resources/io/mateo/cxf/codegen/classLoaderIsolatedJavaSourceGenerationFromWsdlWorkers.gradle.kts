@@ -0,0 +1,24 @@
+import io.mateo.cxf.codegen.workers.IsolationMode
+import io.mateo.cxf.codegen.workers.Wsdl2Java
+import io.mateo.cxf.codegen.workers.Wsdl2JavaOption
+
+plugins {
+    java
+    id("io.mateo.cxf-codegen")
+}
+
+repositories {
+    mavenCentral()
+}
+
+cxfCodegen {
+    options {
+        register<Wsdl2JavaOption>("calculator") {
+            wsdl = file("wsdls/calculator.wsdl").toPath().toAbsolutePath().toString()
+        }
+    }
+}
+
+tasks.named<Wsdl2Java>("wsdl2java") {
+    isolationMode = IsolationMode.CLASSLOADER
+}
@@ -0,0 +1,24 @@
+import io.mateo.cxf.codegen.workers.Wsdl2JavaOption
+
+plugins {
+    java
+    id("io.mateo.cxf-codegen")
+}
+
+repositories {
+    mavenCentral()
+}
+
+cxfCodegen {
+    options {
+        listOf("calculator", "calculatorCopy", "calculatorSeparateXsd").forEach { name ->
+            register<Wsdl2JavaOption>(name) {
+                wsdl = file("wsdls/$name.wsdl").toPath().toAbsolutePath().toString()
+            }
+        }
+    }
+}
+
+tasks.named<io.mateo.cxf.codegen.workers.Wsdl2Java>("wsdl2java") {
+    profiling = true
+}
@@ -0,0 +1,20 @@
+import io.mateo.cxf.codegen.workers.Wsdl2JavaOption
+
+plugins {
+    java
+    id("io.mateo.cxf-codegen")
+}
+
+repositories {
+    mavenCentral()
+}
+
+cxfCodegen {
+    options {
+        fileTree("corpus") { include("*.wsdl") }.files.sorted().forEach { file ->
+            register<Wsdl2JavaOption>(file.nameWithoutExtension) {
+                wsdl = file.toPath().toAbsolutePath().toString()
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+plugins {
+    java
+    id("io.mateo.cxf-codegen")
+}
+
+repositories {
+    mavenCentral()
+}
+
+cxfCodegen {
+    wsdlDirectories {
+        register("services") {
+            directory = layout.projectDirectory.dir("wsdls")
+            packagePrefix = "com.example"
+        }
+    }
+}
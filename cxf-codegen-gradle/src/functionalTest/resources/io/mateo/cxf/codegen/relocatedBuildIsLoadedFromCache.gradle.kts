@@ -0,0 +1,18 @@
+import io.mateo.cxf.codegen.wsdl2java.Wsdl2Java
+
+plugins {
+    java
+    id("io.mateo.cxf-codegen")
+}
+
+repositories {
+    mavenCentral()
+}
+
+tasks.register("calculator", Wsdl2Java::class) {
+    toolOptions {
+        wsdl.set(file("wsdls/calculatorSeparateXsd.wsdl").toPath().toAbsolutePath().toString())
+        wsdlLocation.set("classpath:wsdls/calculatorSeparateXsd.wsdl")
+        relocatable.set(true)
+    }
+}
@@ -0,0 +1,21 @@
+import io.mateo.cxf.codegen.workers.Wsdl2JavaOption
+
+plugins {
+    java
+    id("io.mateo.cxf-codegen")
+}
+
+repositories {
+    mavenCentral()
+}
+
+cxfCodegen {
+    options {
+        listOf("calculator", "calculatorCopy").forEach { name ->
+            register<Wsdl2JavaOption>(name) {
+                wsdl = file("wsdls/$name.wsdl").toPath().toAbsolutePath().toString()
+                outputDirectory = layout.buildDirectory.dir("calculators")
+            }
+        }
+    }
+}
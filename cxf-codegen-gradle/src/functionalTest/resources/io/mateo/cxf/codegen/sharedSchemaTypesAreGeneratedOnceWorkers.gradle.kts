@@ -0,0 +1,23 @@
+import io.mateo.cxf.codegen.workers.Wsdl2JavaOption
+
+plugins {
+    java
+    id("io.mateo.cxf-codegen")
+}
+
+repositories {
+    mavenCentral()
+}
+
+cxfCodegen {
+    sharedSchemas {
+        register("calculatorTypes") {
+            schemas.from("wsdls/calculator.xsd")
+        }
+    }
+    options {
+        register<Wsdl2JavaOption>("calculatorSeparateXsd") {
+            wsdl = file("wsdls/calculatorSeparateXsd.wsdl").toPath().toAbsolutePath().toString()
+        }
+    }
+}
@@ -0,0 +1,23 @@
+import io.mateo.cxf.codegen.wsdl2java.Wsdl2Java
+import io.mateo.cxf.codegen.wsdl2js.Wsdl2Js
+
+plugins {
+    java
+    id("io.mateo.cxf-codegen")
+}
+
+repositories {
+    mavenCentral()
+}
+
+tasks.register("calculator", Wsdl2Java::class) {
+    toolOptions {
+        wsdl.set(file("wsdls/calculator.wsdl").toPath().toAbsolutePath().toString())
+    }
+}
+
+tasks.register("calculatorJs", Wsdl2Js::class) {
+    toolOptions {
+        wsdl.set(file("wsdls/calculator.wsdl").toPath().toAbsolutePath().toString())
+    }
+}
@@ -0,0 +1,25 @@
+import io.mateo.cxf.codegen.workers.Wsdl2Java
+import io.mateo.cxf.codegen.workers.Wsdl2JavaOption
+
+plugins {
+    java
+    id("io.mateo.cxf-codegen")
+}
+
+repositories {
+    mavenCentral()
+}
+
+cxfCodegen {
+    options {
+        register<Wsdl2JavaOption>("calculator") {
+            wsdl = file("wsdls/calculator.wsdl").toPath().toAbsolutePath().toString()
+            suppressGeneratedDate = true
+            xjcArgs = listOf("-no-header")
+        }
+    }
+}
+
+tasks.named<Wsdl2Java>("wsdl2java") {
+    writeChangedFilesOnly = true
+}
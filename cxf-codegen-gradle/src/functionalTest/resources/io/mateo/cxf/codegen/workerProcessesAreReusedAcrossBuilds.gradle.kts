@@ -0,0 +1,28 @@
+import io.mateo.cxf.codegen.workers.Wsdl2Java
+import io.mateo.cxf.codegen.workers.Wsdl2JavaOption
+
+plugins {
+    java
+    id("io.mateo.cxf-codegen")
+}
+
+repositories {
+    mavenCentral()
+}
+
+cxfCodegen {
+    options {
+        listOf("calculator", "calculatorCopy", "calculatorSeparateXsd").forEach { name ->
+            register<Wsdl2JavaOption>(name) {
+                wsdl = file("wsdls/$name.wsdl").toPath().toAbsolutePath().toString()
+            }
+        }
+    }
+}
+
+tasks.named<Wsdl2Java>("wsdl2java") {
+    forkOptions {
+        jvmArgs("-ea", "-XX:+UseSerialGC", "-ea")
+        maxHeapSize = "300m"
+    }
+}
@@ -0,0 +1,39 @@
+import io.mateo.cxf.codegen.workers.Wsdl2Java
+import io.mateo.cxf.codegen.workers.Wsdl2JavaOption
+import io.mateo.cxf.codegen.workers.Wsdl2Js
+import io.mateo.cxf.codegen.workers.Wsdl2JsOption
+import io.mateo.cxf.codegen.workers.Xjc
+
+plugins {
+    java
+    id("io.mateo.cxf-codegen")
+}
+
+repositories {
+    mavenCentral()
+}
+
+cxfCodegen {
+    options {
+        repeat(150) { index ->
+            register<Wsdl2JavaOption>("calculator$index") {
+                wsdl = file("wsdls/calculator.wsdl").toPath().toAbsolutePath().toString()
+            }
+            register<Wsdl2JsOption>("calculatorJs$index") {
+                wsdl = file("wsdls/calculator.wsdl").toPath().toAbsolutePath().toString()
+            }
+        }
+    }
+}
+
+tasks.withType<Wsdl2Java>().configureEach {
+    println("Realized $name")
+}
+
+tasks.withType<Wsdl2Js>().configureEach {
+    println("Realized $name")
+}
+
+tasks.withType<Xjc>().configureEach {
+    println("Realized $name")
+}
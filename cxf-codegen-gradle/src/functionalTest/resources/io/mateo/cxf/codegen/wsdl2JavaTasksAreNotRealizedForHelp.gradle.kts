@@ -0,0 +1,32 @@
+import io.mateo.cxf.codegen.wsdl2java.Wsdl2Java
+import io.mateo.cxf.codegen.wsdl2js.Wsdl2Js
+
+plugins {
+    java
+    id("io.mateo.cxf-codegen")
+}
+
+repositories {
+    mavenCentral()
+}
+
+repeat(150) { index ->
+    tasks.register("calculator$index", Wsdl2Java::class) {
+        toolOptions {
+            wsdl = file("wsdls/calculator.wsdl").toPath().toAbsolutePath().toString()
+        }
+    }
+    tasks.register("calculatorJs$index", Wsdl2Js::class) {
+        toolOptions {
+            wsdl = file("wsdls/calculator.wsdl").toPath().toAbsolutePath().toString()
+        }
+    }
+}
+
+tasks.withType<Wsdl2Java>().configureEach {
+    println("Realized $name")
+}
+
+tasks.withType<Wsdl2Js>().configureEach {
+    println("Realized $name")
+}
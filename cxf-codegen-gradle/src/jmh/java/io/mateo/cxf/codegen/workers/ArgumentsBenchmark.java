@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import io.mateo.cxf.codegen.wsdl2java.Wsdl2Java;
+import io.mateo.cxf.codegen.wsdl2java.Wsdl2JavaOptions;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.gradle.api.Project;
+import org.gradle.api.file.Directory;
+import org.gradle.process.CommandLineArgumentProvider;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures building the {@code wsdl2java} tool arguments of an option with many package mappings, namespace
+ * excludes, binding files, and XJC arguments, both for the worker API and for the {@link Wsdl2Java} task.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArgumentsBenchmark {
+
+    /**
+     * Number of values of each list option.
+     */
+    @Param({"10", "100", "1000"})
+    public int entries;
+
+    private Path projectDir;
+
+    private Directory projectDirectory;
+
+    private File outputDirectory;
+
+    private Wsdl2JavaOption option;
+
+    private CommandLineArgumentProvider argumentProvider;
+
+    @Setup
+    public void setup() throws IOException {
+        this.projectDir = Files.createTempDirectory("arguments-benchmark-");
+        Project project =
+                ProjectBuilder.builder().withProjectDir(this.projectDir.toFile()).build();
+        this.projectDirectory = project.getLayout().getProjectDirectory();
+        this.outputDirectory = this.projectDir.resolve("generated").toFile();
+        String wsdl = this.projectDir.resolve("benchmark.wsdl").toString();
+
+        this.option = project.getObjects().newInstance(Wsdl2JavaOption.class, "benchmark");
+        this.option.getWsdl().set(wsdl);
+        this.option.getOutputDirectory().set(this.outputDirectory);
+        this.option.getPackageNames().set(values("urn:benchmark:%d=com.example.ns%d"));
+        this.option.getNamespaceExcludes().set(values("urn:excluded:%d"));
+        this.option.getBindingFiles().set(values("bindings/binding%d.xjb"));
+        this.option.getXjcArgs().set(values("-Xplugin%d"));
+        this.option.getExtraArgs().set(List.of("-verbose"));
+
+        Wsdl2Java task = project.getTasks().register("benchmark", Wsdl2Java.class).get();
+        Wsdl2JavaOptions options = task.getWsdl2JavaOptions();
+        options.getWsdl().set(wsdl);
+        options.getOutputDir().set(this.outputDirectory);
+        options.getPackageNames().set(values("urn:benchmark:%d=com.example.ns%d"));
+        options.getNamespaceExcludes().set(values("urn:excluded:%d"));
+        options.getBindingFiles().set(values("bindings/binding%d.xjb"));
+        options.getXjcArgs().set(values("-Xplugin%d"));
+        options.getExtraArgs().set(List.of("-verbose"));
+        this.argumentProvider = task.getArgumentProviders().get(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkFiles.delete(this.projectDir);
+    }
+
+    @Benchmark
+    public List<String> workerArguments() {
+        return Wsdl2JavaAction.getArguments(this.option, this.projectDirectory, null, this.outputDirectory);
+    }
+
+    @Benchmark
+    public Iterable<String> taskArguments() {
+        return this.argumentProvider.asArguments();
+    }
+
+    private List<String> values(String format) {
+        List<String> values = new ArrayList<>(this.entries);
+        for (int i = 0; i < this.entries; i++) {
+            values.add(format.replace("%d", Integer.toString(i)));
+        }
+        return values;
+    }
+}
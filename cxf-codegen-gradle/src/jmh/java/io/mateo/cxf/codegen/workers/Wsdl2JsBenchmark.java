@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import io.mateo.cxf.codegen.fixtures.WsdlCorpus;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.gradle.api.Project;
+import org.gradle.api.file.Directory;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures running the {@code wsdl2js} tool in-process, as a worker with process isolation does, for each WSDL
+ * of a {@link WsdlCorpus} size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class Wsdl2JsBenchmark {
+
+    /**
+     * Size of the corpus.
+     */
+    @Param({"small", "medium", "large"})
+    public String corpus;
+
+    private Path projectDir;
+
+    private Directory projectDirectory;
+
+    private final List<Wsdl2JsOption> options = new ArrayList<>();
+
+    @Setup
+    public void setup() throws IOException {
+        this.projectDir = Files.createTempDirectory("wsdl2js-benchmark-");
+        Project project =
+                ProjectBuilder.builder().withProjectDir(this.projectDir.toFile()).build();
+        this.projectDirectory = project.getLayout().getProjectDirectory();
+        for (Path wsdl : WsdlCorpus.of(this.corpus).write(this.projectDir.resolve("wsdls"))) {
+            String name = wsdl.getFileName().toString().replace(".wsdl", "");
+            Wsdl2JsOption option = project.getObjects().newInstance(Wsdl2JsOption.class, name);
+            option.getWsdl().set(wsdl.toString());
+            option.getOutputDirectory().set(this.projectDir.resolve("generated").resolve(name).toFile());
+            this.options.add(option);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkFiles.delete(this.projectDir);
+    }
+
+    @Benchmark
+    public void generate() {
+        for (Wsdl2JsOption option : this.options) {
+            Wsdl2JsAction.generate(option, this.projectDirectory, null, option.getOutputDirectory().get().getAsFile());
+        }
+    }
+}
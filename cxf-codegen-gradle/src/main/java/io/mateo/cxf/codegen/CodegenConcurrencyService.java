@@ -0,0 +1,208 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Locale;
+import org.gradle.api.GradleException;
+import org.gradle.api.Incubating;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+/**
+ * Shared build service that limits how much code generation runs at the same time across all projects of a build.
+ * <p>
+ * The service is only registered, and used by every code generation task, when the
+ * {@link CxfCodegenPlugin#MAX_CONCURRENT_TOOLS_PROPERTY} or {@link CxfCodegenPlugin#HEAP_BUDGET_PROPERTY} Gradle
+ * property is set, so {@link Params#getMaxConcurrentTools()} also caps the number of such tasks running in parallel.
+ * Before the tool runs, a lease for the expected memory of the work is acquired: for a {@code JavaExec} task, that is
+ * the task as a whole; for a worker task, every unit of work submitted to a worker, released as soon as the unit of
+ * work completed. A lease is granted once the number of leases is below {@link Params#getMaxConcurrentTools()} and
+ * the memory of all leases fits into {@link Params#getHeapBudget()}. A lease is always granted when no other lease is
+ * held, so work expected to exceed the budget on its own still runs, just not alongside other work.
+ */
+@Incubating
+public abstract class CodegenConcurrencyService implements BuildService<CodegenConcurrencyService.Params> {
+
+    /**
+     * Name the service is registered with.
+     */
+    public static final String NAME = "cxfCodegenConcurrency";
+
+    /**
+     * Memory expected for running a code generation tool, regardless of the documents it processes.
+     */
+    public static final long BASE_MEMORY = 128L * 1024 * 1024;
+
+    /**
+     * Memory expected per byte of the WSDL and the documents it imports or includes.
+     */
+    public static final long MEMORY_PER_DOCUMENT_BYTE = 64;
+
+    private static final Logger logger = Logging.getLogger(CodegenConcurrencyService.class);
+
+    private int leases;
+
+    private long reservedMemory;
+
+    /**
+     * Acquires a lease, waiting until it can be granted.
+     * @param owner the owner of the lease, used for logging
+     * @param expectedMemory the memory expected to be used while the lease is held, in bytes
+     * @return the lease
+     */
+    public synchronized Lease acquire(String owner, long expectedMemory) {
+        boolean waiting = false;
+        while (!canGrant(expectedMemory)) {
+            if (!waiting && logger.isInfoEnabled()) {
+                logger.info(
+                        "Waiting to run code generation for {} expecting {} MiB ({} running, {} MiB reserved)",
+                        owner,
+                        expectedMemory / (1024 * 1024),
+                        this.leases,
+                        this.reservedMemory / (1024 * 1024));
+            }
+            waiting = true;
+            try {
+                wait();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new GradleException("Interrupted while waiting to run code generation for " + owner, ex);
+            }
+        }
+        return grant(expectedMemory);
+    }
+
+    /**
+     * Acquires a lease if it can be granted immediately.
+     * @param expectedMemory the memory expected to be used while the lease is held, in bytes
+     * @return the lease, or {@code null} if it cannot be granted now
+     */
+    public synchronized Lease tryAcquire(long expectedMemory) {
+        return canGrant(expectedMemory) ? grant(expectedMemory) : null;
+    }
+
+    private boolean canGrant(long expectedMemory) {
+        if (this.leases == 0) {
+            return true;
+        }
+        Params parameters = getParameters();
+        if (parameters.getMaxConcurrentTools().isPresent()
+                && this.leases >= parameters.getMaxConcurrentTools().get()) {
+            return false;
+        }
+        return !parameters.getHeapBudget().isPresent()
+                || this.reservedMemory + expectedMemory <= parameters.getHeapBudget().get();
+    }
+
+    private Lease grant(long expectedMemory) {
+        this.leases++;
+        this.reservedMemory += expectedMemory;
+        return new Lease(expectedMemory);
+    }
+
+    private synchronized void release(Lease lease) {
+        if (lease.released) {
+            return;
+        }
+        lease.released = true;
+        this.leases--;
+        this.reservedMemory -= lease.expectedMemory;
+        notifyAll();
+    }
+
+    /**
+     * Estimates the memory needed to generate code from a WSDL: {@link #BASE_MEMORY} plus
+     * {@link #MEMORY_PER_DOCUMENT_BYTE} for every byte of the documents.
+     * @param documents the WSDL and the documents it imports or includes
+     * @return the expected memory in bytes
+     */
+    public static long expectedMemory(Collection<File> documents) {
+        long size = 0;
+        for (File document : documents) {
+            size += document.length();
+        }
+        return BASE_MEMORY + size * MEMORY_PER_DOCUMENT_BYTE;
+    }
+
+    /**
+     * Parses a memory size using the notation of JVM heap options, such as {@code 512m} or {@code 4g}.
+     * @param size the size
+     * @return the size in bytes
+     */
+    public static long parseMemorySize(String size) {
+        String value = size.trim().toLowerCase(Locale.ROOT);
+        long multiplier = 1;
+        if (!value.isEmpty()) {
+            int index = "kmgt".indexOf(value.charAt(value.length() - 1));
+            if (index >= 0) {
+                multiplier = 1L << (10 * (index + 1));
+                value = value.substring(0, value.length() - 1);
+            }
+        }
+        try {
+            return Long.parseLong(value) * multiplier;
+        } catch (NumberFormatException ex) {
+            throw new GradleException("Invalid memory size '" + size + "'", ex);
+        }
+    }
+
+    /**
+     * Permission to run code generation, which must be {@link #close() closed} once the work completed. Closing a
+     * lease is thread-safe, and closing it again has no effect.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final long expectedMemory;
+
+        private boolean released;
+
+        private Lease(long expectedMemory) {
+            this.expectedMemory = expectedMemory;
+        }
+
+        @Override
+        public void close() {
+            release(this);
+        }
+    }
+
+    /**
+     * Parameters for {@link CodegenConcurrencyService}.
+     */
+    public interface Params extends BuildServiceParameters {
+
+        /**
+         * Maximum number of code generation tools running at the same time.
+         * <p>
+         * If not set, the number is only limited by Gradle's {@code --max-workers}.
+         * @return the maximum number of concurrent tools
+         */
+        Property<Integer> getMaxConcurrentTools();
+
+        /**
+         * Total memory, in bytes, that the code generation running at the same time is expected to use.
+         * <p>
+         * If not set, the memory is not limited.
+         * @return the heap budget
+         */
+        Property<Long> getHeapBudget();
+    }
+}
@@ -16,31 +16,67 @@
 package io.mateo.cxf.codegen;
 
 import io.mateo.cxf.codegen.dsl.CxfCodegenExtension;
+import io.mateo.cxf.codegen.internal.ClassDataArchiveService;
+import io.mateo.cxf.codegen.internal.ClassDataSharingArguments;
+import io.mateo.cxf.codegen.internal.CodegenDaemonService;
 import io.mateo.cxf.codegen.internal.GeneratedVersionAccessor;
+import io.mateo.cxf.codegen.internal.RuntimeImageLauncher;
+import io.mateo.cxf.codegen.internal.RuntimeImageService;
+import io.mateo.cxf.codegen.internal.ToolClasspathService;
+import io.mateo.cxf.codegen.internal.WsdlDocuments;
+import io.mateo.cxf.codegen.workers.SharedSchema;
+import io.mateo.cxf.codegen.workers.ToolClassLoaderService;
 import io.mateo.cxf.codegen.workers.Wsdl2JavaOption;
 import io.mateo.cxf.codegen.workers.Wsdl2JsOption;
+import io.mateo.cxf.codegen.workers.WsdlDirectory;
+import io.mateo.cxf.codegen.workers.Xjc;
 import io.mateo.cxf.codegen.wsdl2java.Wsdl2Java;
 import io.mateo.cxf.codegen.wsdl2js.Wsdl2Js;
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import org.gradle.api.GradleException;
 import org.gradle.api.Incubating;
+import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.NamedDomainObjectContainer;
 import org.gradle.api.NamedDomainObjectProvider;
 import org.gradle.api.NamedDomainObjectSet;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
+import org.gradle.api.Task;
 import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.ExcludeRule;
 import org.gradle.api.artifacts.ModuleDependency;
 import org.gradle.api.artifacts.dsl.DependencyHandler;
+import org.gradle.api.artifacts.dsl.RepositoryHandler;
+import org.gradle.api.file.Directory;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.file.RegularFile;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
 import org.gradle.api.plugins.JavaPluginExtension;
+import org.gradle.api.plugins.JvmToolchainsPlugin;
+import org.gradle.api.provider.Property;
 import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.JavaExec;
 import org.gradle.api.tasks.SourceSet;
 import org.gradle.api.tasks.TaskCollection;
 import org.gradle.api.tasks.TaskProvider;
+import org.gradle.jvm.toolchain.JavaLauncher;
+import org.gradle.jvm.toolchain.JavaToolchainService;
+import org.jspecify.annotations.Nullable;
 
 /**
  * {@link Plugin} for code generation from WSDLs using Apache CXF.
@@ -59,11 +95,110 @@ public class CxfCodegenPlugin implements Plugin<Project> {
     @Incubating
     public static final String WORKERS_PROPERTY = "io.mateo.cxf-codegen.workers";
 
+    /**
+     * Gradle property name to enable class data archives for the JVMs forked by {@link Wsdl2Java} and {@link Wsdl2Js}
+     * tasks and by workers.
+     */
+    @Incubating
+    public static final String CLASS_DATA_SHARING_PROPERTY = "io.mateo.cxf-codegen.classDataSharing";
+
+    /**
+     * Gradle property name to run the JVMs forked by {@link Wsdl2Java} and {@link Wsdl2Js} tasks and by workers with a
+     * runtime image that only contains the modules the code generation tools need.
+     */
+    @Incubating
+    public static final String RUNTIME_IMAGE_PROPERTY = "io.mateo.cxf-codegen.runtimeImage";
+
+    /**
+     * Gradle property name to run the tools of {@link Wsdl2Java} and {@link Wsdl2Js} tasks in long-lived code
+     * generation daemons instead of forking a JVM for every task.
+     */
+    @Incubating
+    public static final String DAEMON_PROPERTY = "io.mateo.cxf-codegen.daemon";
+
+    /**
+     * Gradle property name for the time, such as {@code 30m}, after which an idle code generation daemon stops.
+     */
+    @Incubating
+    public static final String DAEMON_IDLE_TIMEOUT_PROPERTY = "io.mateo.cxf-codegen.daemon.idleTimeout";
+
+    /**
+     * Gradle property name for the number of requests after which a code generation daemon is recycled.
+     */
+    @Incubating
+    public static final String DAEMON_MAX_INVOCATIONS_PROPERTY = "io.mateo.cxf-codegen.daemon.maxInvocations";
+
+    /**
+     * Gradle property name for the heap usage after a request, in percent of the maximum heap size, above which a code
+     * generation daemon is recycled.
+     */
+    @Incubating
+    public static final String DAEMON_MAX_HEAP_USAGE_PROPERTY = "io.mateo.cxf-codegen.daemon.maxHeapUsage";
+
+    /**
+     * Gradle property name for the time, such as {@code 10m}, to wait for a code generation daemon to run the tool
+     * before forking it instead.
+     */
+    @Incubating
+    public static final String DAEMON_REQUEST_TIMEOUT_PROPERTY = "io.mateo.cxf-codegen.daemon.requestTimeout";
+
+    /**
+     * Gradle property name to rewrite the fork options of worker processes into a canonical form, so that workers
+     * of different projects reuse the same worker processes.
+     */
+    @Incubating
+    public static final String NORMALIZE_FORK_OPTIONS_PROPERTY = "io.mateo.cxf-codegen.normalizeForkOptions";
+
+    /**
+     * Gradle property name to resolve the {@code cxfCodegen} classpath once per build for all projects that declare
+     * the same tool dependencies.
+     */
+    @Incubating
+    public static final String SHARED_TOOL_CLASSPATH_PROPERTY = "io.mateo.cxf-codegen.sharedToolClasspath";
+
+    /**
+     * Gradle property name to resolve separate classpaths for the {@code wsdl2java} and {@code wsdl2js} tools, each
+     * without the CXF modules of the other tool. The {@code wsdl2java} classpath keeps the JAX-WS frontend and JAXB
+     * databinding whatever the {@code frontend} and {@code databinding} of its options.
+     */
+    @Incubating
+    public static final String SLIM_TOOL_CLASSPATHS_PROPERTY = "io.mateo.cxf-codegen.slimToolClasspaths";
+
+    /**
+     * Gradle property name to limit the number of code generation tools running at the same time across all projects
+     * of a build.
+     */
+    @Incubating
+    public static final String MAX_CONCURRENT_TOOLS_PROPERTY = "io.mateo.cxf-codegen.maxConcurrentTools";
+
+    /**
+     * Gradle property name to limit the memory, such as {@code 4g}, that the code generation running at the same time
+     * across all projects of a build is expected to use.
+     */
+    @Incubating
+    public static final String HEAP_BUDGET_PROPERTY = "io.mateo.cxf-codegen.heapBudget";
+
     /**
      * Name of the {@link Configuration} where dependencies are used for code generation.
      */
     public static final String CXF_CODEGEN_CONFIGURATION_NAME = "cxfCodegen";
 
+    /**
+     * Name of the {@link Configuration} resolved for the {@code wsdl2java} tool when
+     * {@link #SLIM_TOOL_CLASSPATHS_PROPERTY slim tool classpaths} are enabled. It contains the dependencies,
+     * dependency constraints and excludes of the {@value #CXF_CODEGEN_CONFIGURATION_NAME} configuration.
+     */
+    @Incubating
+    public static final String WSDL2JAVA_CONFIGURATION_NAME = "cxfCodegenWsdl2Java";
+
+    /**
+     * Name of the {@link Configuration} resolved for the {@code wsdl2js} tool when
+     * {@link #SLIM_TOOL_CLASSPATHS_PROPERTY slim tool classpaths} are enabled. It contains the dependencies,
+     * dependency constraints and excludes of the {@value #CXF_CODEGEN_CONFIGURATION_NAME} configuration.
+     */
+    @Incubating
+    public static final String WSDL2JS_CONFIGURATION_NAME = "cxfCodegenWsdl2Js";
+
     /**
      * Task name to execute all {@link Wsdl2Java} tasks.
      */
@@ -84,20 +219,71 @@ public class CxfCodegenPlugin implements Plugin<Project> {
      */
     public static final String WSDL2JS_GROUP = "wsdl2js";
 
+    /**
+     * Task name to compile all {@link SharedSchema shared schemas}.
+     */
+    @Incubating
+    public static final String XJC_TASK_NAME = "xjc";
+
     @Override
     public void apply(Project project) {
         CxfCodegenExtension extension = createExtension(project);
-        NamedDomainObjectProvider<Configuration> cxfCodegenConfiguration = createConfiguration(project, extension);
+        boolean slimToolClasspaths = booleanProperty(project, SLIM_TOOL_CLASSPATHS_PROPERTY);
+        NamedDomainObjectProvider<Configuration> cxfCodegenConfiguration =
+                createConfiguration(project, extension, slimToolClasspaths);
+        Object wsdl2JavaClasspath = toolClasspath(project, cxfCodegenConfiguration);
+        Object wsdl2JsClasspath = wsdl2JavaClasspath;
+        if (slimToolClasspaths) {
+            wsdl2JavaClasspath = toolClasspath(
+                    project,
+                    createToolConfiguration(
+                            project,
+                            WSDL2JAVA_CONFIGURATION_NAME,
+                            "wsdl2java",
+                            cxfCodegenConfiguration,
+                            createDependencies(project.getDependencies(), extension, this::wsdl2JavaDependencies)));
+            wsdl2JsClasspath = toolClasspath(
+                    project,
+                    createToolConfiguration(
+                            project,
+                            WSDL2JS_CONFIGURATION_NAME,
+                            "wsdl2js",
+                            cxfCodegenConfiguration,
+                            createDependencies(project.getDependencies(), extension, this::wsdl2JsDependencies)));
+        }
+        @Nullable Provider<CodegenConcurrencyService> concurrencyService = registerConcurrencyService(project);
         if (useWorkers(project)) {
             if (logger.isInfoEnabled()) {
                 logger.info("Workers enabled for CXF code generation");
             }
-            setupJavaWorkers(project, extension, cxfCodegenConfiguration);
-            setupJsWorkers(project, extension, cxfCodegenConfiguration);
+            if (booleanProperty(project, DAEMON_PROPERTY)) {
+                logger.info("Code generation daemons are only used by wsdl2java and wsdl2js tasks, not by workers");
+            }
+            Provider<ToolClassLoaderService> classLoaderService = registerToolClassLoaderService(project);
+            setupJavaWorkers(project, extension, wsdl2JavaClasspath, classLoaderService, concurrencyService);
+            setupJsWorkers(project, extension, wsdl2JsClasspath, classLoaderService, concurrencyService);
+            if (booleanProperty(project, RUNTIME_IMAGE_PROPERTY)) {
+                configureWorkerRuntimeImages(project);
+            }
+            if (booleanProperty(project, CLASS_DATA_SHARING_PROPERTY)) {
+                configureWorkerClassDataSharing(project);
+            }
+            if (booleanProperty(project, NORMALIZE_FORK_OPTIONS_PROPERTY)) {
+                normalizeWorkerForkOptions(project);
+            }
             return;
         }
-        configureWsdl2JavaTaskConventions(project, cxfCodegenConfiguration);
-        configureWsdl2JsTaskConventions(project, cxfCodegenConfiguration);
+        configureWsdl2JavaTaskConventions(project, wsdl2JavaClasspath, concurrencyService);
+        configureWsdl2JsTaskConventions(project, wsdl2JsClasspath, concurrencyService);
+        if (booleanProperty(project, CLASS_DATA_SHARING_PROPERTY)) {
+            configureClassDataSharing(project);
+        }
+        if (booleanProperty(project, RUNTIME_IMAGE_PROPERTY)) {
+            configureRuntimeImages(project);
+        }
+        if (booleanProperty(project, DAEMON_PROPERTY)) {
+            configureDaemons(project);
+        }
         addToSourceSet(project);
         registerAggregateTask(project);
     }
@@ -105,67 +291,416 @@ public class CxfCodegenPlugin implements Plugin<Project> {
     private void setupJsWorkers(
             Project project,
             CxfCodegenExtension extension,
-            NamedDomainObjectProvider<Configuration> cxfCodegenConfiguration) {
+            Object toolClasspath,
+            Provider<ToolClassLoaderService> classLoaderService,
+            @Nullable Provider<CodegenConcurrencyService> concurrencyService) {
         extension.getOptions().registerBinding(Wsdl2JsOption.class, Wsdl2JsOption.class);
 
         NamedDomainObjectSet<Wsdl2JsOption> wsdl2JsOptions =
                 extension.getOptions().withType(Wsdl2JsOption.class);
 
-        wsdl2JsOptions.configureEach(option -> option.getOutputDirectory()
-                .convention(project.getLayout()
-                        .getBuildDirectory()
-                        .dir("%s-wsdl2js-generated-sources".formatted(option.getName()))));
+        Directory projectDirectory = project.getLayout().getProjectDirectory();
+        wsdl2JsOptions.configureEach(option -> {
+            option.getOutputDirectory()
+                    .convention(project.getLayout()
+                            .getBuildDirectory()
+                            .dir("%s-wsdl2js-generated-sources".formatted(option.getName())));
+            option.getSourceDocuments().convention(sourceDocuments(projectDirectory, option.getWsdl()));
+        });
 
         project.getTasks().register(WSDL2JS_TASK_NAME, io.mateo.cxf.codegen.workers.Wsdl2Js.class, task -> {
             task.setDescription("Generates JavaScript sources using workers for all JS options");
             task.setGroup(WSDL2JS_GROUP);
-            task.getWsdl2JsClasspath().from(cxfCodegenConfiguration);
+            task.getWsdl2JsClasspath().from(toolClasspath);
             task.getOptions().set(wsdl2JsOptions);
+            task.getOptionFingerprints()
+                    .convention(project.getLayout()
+                            .getBuildDirectory()
+                            .file("tmp/" + task.getName() + "/option-fingerprints.txt"));
+            task.getExecutionHistory().convention(executionHistory(project, task.getName()));
+            task.getReportDirectory().convention(reportDirectory(project));
+            task.getRecordingDirectory().convention(recordingDirectory(project));
+            rerunWhenProfiling(task);
+            task.getMaxWorkers().convention(project.getGradle().getStartParameter().getMaxWorkerCount());
+            task.getRemoteDocumentCache().convention(remoteDocumentCache(project));
+            task.getOffline().convention(project.getGradle().getStartParameter().isOffline());
+            task.getClassLoaderService().convention(classLoaderService);
+            task.usesService(classLoaderService);
+            if (concurrencyService != null) {
+                task.getConcurrencyService().convention(concurrencyService);
+                task.usesService(concurrencyService);
+            }
         });
     }
 
     private void setupJavaWorkers(
             Project project,
             CxfCodegenExtension extension,
-            NamedDomainObjectProvider<Configuration> cxfCodegenConfiguration) {
+            Object toolClasspath,
+            Provider<ToolClassLoaderService> classLoaderService,
+            @Nullable Provider<CodegenConcurrencyService> concurrencyService) {
         extension.getOptions().registerBinding(Wsdl2JavaOption.class, Wsdl2JavaOption.class);
 
         NamedDomainObjectSet<Wsdl2JavaOption> wsdl2JavaOptions =
                 extension.getOptions().withType(Wsdl2JavaOption.class);
 
-        wsdl2JavaOptions.configureEach(option -> option.getOutputDirectory()
-                .convention(project.getLayout()
-                        .getBuildDirectory()
-                        .dir("%s-wsdl2java-generated-sources".formatted(option.getName()))));
+        NamedDomainObjectContainer<SharedSchema> sharedSchemas = extension.getSharedSchemas();
+        sharedSchemas.configureEach(schema -> {
+            schema.getOutputDirectory()
+                    .convention(project.getLayout()
+                            .getBuildDirectory()
+                            .dir("%s-xjc-generated-sources".formatted(schema.getName())));
+            schema.getEpisodeFile()
+                    .convention(project.getLayout()
+                            .getBuildDirectory()
+                            .file("xjc-episodes/%s.episode".formatted(schema.getName())));
+        });
+
+        TaskProvider<Xjc> xjc = project.getTasks().register(XJC_TASK_NAME, Xjc.class, task -> {
+            task.setDescription("Generates Java sources for all shared schemas");
+            task.setGroup(WSDL2JAVA_GROUP);
+            task.getXjcClasspath().from(toolClasspath);
+            task.getSchemas().set(sharedSchemas);
+            task.onlyIf("Shared schemas are configured", element -> !((Xjc) element)
+                    .getSchemas()
+                    .get()
+                    .isEmpty());
+        });
+
+        Directory projectDirectory = project.getLayout().getProjectDirectory();
+        wsdl2JavaOptions.configureEach(option -> {
+            option.getOutputDirectory()
+                    .convention(project.getLayout()
+                            .getBuildDirectory()
+                            .dir("%s-wsdl2java-generated-sources".formatted(option.getName())));
+            option.getSourceDocuments()
+                    .convention(sourceDocuments(projectDirectory, option.getWsdl(), option.getBindingFiles()));
+            option.getEpisodes()
+                    .convention(project.files(episodes(project, sharedSchemas, option.getSourceDocuments()))
+                            .builtBy(xjc));
+        });
+
+        NamedDomainObjectContainer<WsdlDirectory> wsdlDirectories = extension.getWsdlDirectories();
+        wsdlDirectories.configureEach(directory -> {
+            directory.getIncludes().convention(Set.of("**/*.wsdl"));
+            directory.getOutputDirectory()
+                    .convention(project.getLayout()
+                            .getBuildDirectory()
+                            .dir("%s-wsdl2java-generated-sources".formatted(directory.getName())));
+        });
 
         TaskProvider<io.mateo.cxf.codegen.workers.Wsdl2Java> wsdl2Java = project.getTasks()
                 .register(WSDL2JAVA_TASK_NAME, io.mateo.cxf.codegen.workers.Wsdl2Java.class, task -> {
                     task.setDescription("Generates Java sources using workers for all Java options");
                     task.setGroup(WSDL2JAVA_GROUP);
-                    task.getWsdl2JavaClasspath().from(cxfCodegenConfiguration);
+                    task.getWsdl2JavaClasspath().from(toolClasspath);
                     task.getOptions().set(wsdl2JavaOptions);
+                    task.getWsdlDirectories().set(wsdlDirectories);
+                    task.getOptionFingerprints()
+                            .convention(project.getLayout()
+                                    .getBuildDirectory()
+                                    .file("tmp/" + task.getName() + "/option-fingerprints.txt"));
+                    task.getExecutionHistory().convention(executionHistory(project, task.getName()));
+                    task.getReportDirectory().convention(reportDirectory(project));
+                    task.getRecordingDirectory().convention(recordingDirectory(project));
+                    rerunWhenProfiling(task);
+                    task.getMaxWorkers()
+                            .convention(project.getGradle().getStartParameter().getMaxWorkerCount());
+                    task.getRemoteDocumentCache().convention(remoteDocumentCache(project));
+                    task.getOffline().convention(project.getGradle().getStartParameter().isOffline());
+                    task.getClassLoaderService().convention(classLoaderService);
+                    task.usesService(classLoaderService);
+                    if (concurrencyService != null) {
+                        task.getConcurrencyService().convention(concurrencyService);
+                        task.usesService(concurrencyService);
+                    }
                 });
 
-        project.afterEvaluate(evaluated -> {
-            if (evaluated.getPluginManager().hasPlugin("java")) {
-                if (extension.getAddToMainSourceSet().get()) {
-                    evaluated
-                            .getExtensions()
-                            .getByType(JavaPluginExtension.class)
-                            .getSourceSets()
-                            .named(SourceSet.MAIN_SOURCE_SET_NAME)
-                            .configure(main -> main.getJava().srcDir(wsdl2Java));
-                }
+        FileCollection sharedSchemaSources =
+                project.files(sharedSchemaSources(project, sharedSchemas)).builtBy(xjc);
+        addToMainSourceSet(
+                project,
+                () -> extension.getAddToMainSourceSet().get() ? List.of(wsdl2Java, sharedSchemaSources) : List.of());
+    }
+
+    private static Provider<List<Directory>> sharedSchemaSources(
+            Project project, NamedDomainObjectContainer<SharedSchema> sharedSchemas) {
+        return project.provider(() -> sharedSchemas.stream()
+                .map(schema -> schema.getOutputDirectory().get())
+                .toList());
+    }
+
+    private static Provider<List<File>> episodes(
+            Project project, NamedDomainObjectContainer<SharedSchema> sharedSchemas, FileCollection sourceDocuments) {
+        return project.provider(() -> {
+            Set<Path> documents =
+                    sourceDocuments.getFiles().stream().map(CxfCodegenPlugin::normalize).collect(Collectors.toSet());
+            return sharedSchemas.stream()
+                    .filter(schema -> schema.getSchemas().getFiles().stream()
+                            .map(CxfCodegenPlugin::normalize)
+                            .anyMatch(documents::contains))
+                    .map(schema -> schema.getEpisodeFile().get().getAsFile())
+                    .toList();
+        });
+    }
+
+    private static Path normalize(File file) {
+        return file.toPath().toAbsolutePath().normalize();
+    }
+
+    private static Provider<Directory> remoteDocumentCache(Project project) {
+        File directory = new File(project.getGradle().getGradleUserHomeDir(), "caches/cxf-codegen/remote-documents");
+        return project.getLayout().dir(project.provider(() -> directory));
+    }
+
+    // Kept out of the build directory, so that clean builds are still submitted longest first.
+    private static RegularFile executionHistory(Project project, String taskName) {
+        return project.getLayout()
+                .getProjectDirectory()
+                .file(".gradle/cxf-codegen/" + taskName + "/execution-history.txt");
+    }
+
+    private static Provider<Directory> reportDirectory(Project project) {
+        return project.getLayout().getBuildDirectory().dir("reports/cxf-codegen");
+    }
+
+    private static Provider<Directory> recordingDirectory(Project project) {
+        return project.getLayout().getBuildDirectory().dir("reports/cxf-codegen/jfr");
+    }
+
+    // Recordings are only made when the tool runs, so a profiled task is never up-to-date nor loaded from cache.
+    private static void rerunWhenProfiling(Task task) {
+        task.getOutputs().upToDateWhen(element -> !isProfiling(element));
+        task.getOutputs().doNotCacheIf("Profiling is enabled", CxfCodegenPlugin::isProfiling);
+    }
+
+    private static boolean isProfiling(Task task) {
+        Property<Boolean> profiling;
+        if (task instanceof Wsdl2Java wsdl2Java) {
+            profiling = wsdl2Java.getProfiling();
+        } else if (task instanceof Wsdl2Js wsdl2Js) {
+            profiling = wsdl2Js.getProfiling();
+        } else if (task instanceof io.mateo.cxf.codegen.workers.Wsdl2Java wsdl2Java) {
+            profiling = wsdl2Java.getProfiling();
+        } else if (task instanceof io.mateo.cxf.codegen.workers.Wsdl2Js wsdl2Js) {
+            profiling = wsdl2Js.getProfiling();
+        } else {
+            return false;
+        }
+        return profiling.getOrElse(false);
+    }
+
+    private Provider<ToolClassLoaderService> registerToolClassLoaderService(Project project) {
+        return project.getGradle()
+                .getSharedServices()
+                .registerIfAbsent(ToolClassLoaderService.NAME, ToolClassLoaderService.class, spec -> spec.getParameters()
+                        .getMaxClassLoaders()
+                        .convention(ToolClassLoaderService.DEFAULT_MAX_CLASS_LOADERS));
+    }
+
+    private @Nullable Provider<CodegenConcurrencyService> registerConcurrencyService(Project project) {
+        Object maxConcurrentTools = project.findProperty(MAX_CONCURRENT_TOOLS_PROPERTY);
+        Object heapBudget = project.findProperty(HEAP_BUDGET_PROPERTY);
+        if (maxConcurrentTools == null && heapBudget == null) {
+            return null;
+        }
+        Integer max = (maxConcurrentTools != null) ? maxConcurrentTools(maxConcurrentTools.toString()) : null;
+        Long budget = (heapBudget != null) ? heapBudget(heapBudget.toString()) : null;
+        return project.getGradle()
+                .getSharedServices()
+                .registerIfAbsent(CodegenConcurrencyService.NAME, CodegenConcurrencyService.class, spec -> {
+                    if (max != null) {
+                        spec.getMaxParallelUsages().set(max);
+                        spec.getParameters().getMaxConcurrentTools().set(max);
+                    }
+                    if (budget != null) {
+                        spec.getParameters().getHeapBudget().set(budget);
+                    }
+                });
+    }
+
+    private static int maxConcurrentTools(String value) {
+        return positiveInteger(MAX_CONCURRENT_TOOLS_PROPERTY, value, Integer.MAX_VALUE);
+    }
+
+    private static @Nullable Integer integerProperty(Project project, String name, int max) {
+        Object property = project.findProperty(name);
+        return (property != null) ? positiveInteger(name, property.toString(), max) : null;
+    }
+
+    private static int positiveInteger(String name, String value, int max) {
+        try {
+            int number = Integer.parseInt(value.trim());
+            if (number > 0 && number <= max) {
+                return number;
             }
+        } catch (NumberFormatException ex) {
+            // Reported below.
+        }
+        throw new InvalidUserDataException("Invalid value '" + value + "' for Gradle property '" + name
+                + "': expected a positive integer" + ((max < Integer.MAX_VALUE) ? " up to " + max : ""));
+    }
+
+    private static @Nullable Duration durationProperty(Project project, String name) {
+        Object property = project.findProperty(name);
+        if (property == null) {
+            return null;
+        }
+        String value = property.toString().trim().toLowerCase(Locale.ROOT);
+        ChronoUnit unit = switch (value.isEmpty() ? ' ' : value.charAt(value.length() - 1)) {
+            case 's' -> ChronoUnit.SECONDS;
+            case 'm' -> ChronoUnit.MINUTES;
+            case 'h' -> ChronoUnit.HOURS;
+            default -> null;
+        };
+        try {
+            long amount = (unit != null) ? Long.parseLong(value.substring(0, value.length() - 1)) : -1;
+            if (unit != null && amount > 0) {
+                return Duration.of(amount, unit);
+            }
+        } catch (NumberFormatException ex) {
+            // Reported below.
+        }
+        throw new InvalidUserDataException("Invalid value '" + property + "' for Gradle property '" + name
+                + "': expected a duration such as 30s, 15m or 1h");
+    }
+
+    private static long heapBudget(String value) {
+        long budget;
+        try {
+            budget = CodegenConcurrencyService.parseMemorySize(value);
+        } catch (GradleException ex) {
+            throw new InvalidUserDataException(
+                    "Invalid value '" + value + "' for Gradle property '" + HEAP_BUDGET_PROPERTY
+                            + "': expected a memory size such as 512m or 4g",
+                    ex);
+        }
+        if (budget <= 0) {
+            throw new InvalidUserDataException("Invalid value '" + value + "' for Gradle property '"
+                    + HEAP_BUDGET_PROPERTY + "': expected a memory size such as 512m or 4g");
+        }
+        return budget;
+    }
+
+    private void configureClassDataSharing(Project project) {
+        Provider<ClassDataArchiveService> service = registerClassDataArchiveService(project);
+        project.getTasks().withType(JavaExec.class).configureEach(task -> {
+            if (task instanceof Wsdl2Java || task instanceof Wsdl2Js) {
+                task.getJvmArgumentProviders().add(new ClassDataSharingArguments(service, task));
+                task.usesService(service);
+            }
+        });
+    }
+
+    private void configureWorkerClassDataSharing(Project project) {
+        Provider<ClassDataArchiveService> service = registerClassDataArchiveService(project);
+        project.getTasks().withType(io.mateo.cxf.codegen.workers.Wsdl2Java.class).configureEach(task -> {
+            task.getClassDataArchiveService().convention(service);
+            task.usesService(service);
+        });
+        project.getTasks().withType(io.mateo.cxf.codegen.workers.Wsdl2Js.class).configureEach(task -> {
+            task.getClassDataArchiveService().convention(service);
+            task.usesService(service);
+        });
+    }
+
+    private Provider<ClassDataArchiveService> registerClassDataArchiveService(Project project) {
+        File directory = new File(project.getGradle().getGradleUserHomeDir(), "caches/cxf-codegen/class-data");
+        return project.getGradle()
+                .getSharedServices()
+                .registerIfAbsent(ClassDataArchiveService.NAME, ClassDataArchiveService.class, spec -> spec
+                        .getParameters()
+                        .getCacheDirectory()
+                        .set(directory));
+    }
+
+    private void configureRuntimeImages(Project project) {
+        Provider<RuntimeImageService> service = registerRuntimeImageService(project);
+        project.getPluginManager().apply(JvmToolchainsPlugin.class);
+        JavaToolchainService toolchains = project.getExtensions().getByType(JavaToolchainService.class);
+        project.getTasks().withType(JavaExec.class).configureEach(task -> {
+            if (task instanceof Wsdl2Java || task instanceof Wsdl2Js) {
+                // Same launcher as the default of JavaExec, from the Java toolchain of the project if there is one.
+                JavaPluginExtension java = project.getExtensions().findByType(JavaPluginExtension.class);
+                Provider<JavaLauncher> launcher = java != null
+                        ? toolchains.launcherFor(java.getToolchain())
+                        : toolchains.launcherFor(spec -> {});
+                Provider<String> executable = project.provider(task::getExecutable);
+                FileCollection classpath = task.getClasspath();
+                task.getJavaLauncher()
+                        .convention(launcher.map(
+                                it -> new RuntimeImageLauncher(it, service, classpath, executable)));
+                task.usesService(service);
+            }
+        });
+    }
+
+    private void configureWorkerRuntimeImages(Project project) {
+        Provider<RuntimeImageService> service = registerRuntimeImageService(project);
+        project.getTasks().withType(io.mateo.cxf.codegen.workers.Wsdl2Java.class).configureEach(task -> {
+            task.getRuntimeImageService().convention(service);
+            task.usesService(service);
+        });
+        project.getTasks().withType(io.mateo.cxf.codegen.workers.Wsdl2Js.class).configureEach(task -> {
+            task.getRuntimeImageService().convention(service);
+            task.usesService(service);
+        });
+    }
+
+    private void normalizeWorkerForkOptions(Project project) {
+        project.getTasks()
+                .withType(io.mateo.cxf.codegen.workers.Wsdl2Java.class)
+                .configureEach(task -> task.getNormalizeForkOptions().convention(true));
+        project.getTasks()
+                .withType(io.mateo.cxf.codegen.workers.Wsdl2Js.class)
+                .configureEach(task -> task.getNormalizeForkOptions().convention(true));
+    }
+
+    private Provider<RuntimeImageService> registerRuntimeImageService(Project project) {
+        File directory = new File(project.getGradle().getGradleUserHomeDir(), "caches/cxf-codegen/runtime-images");
+        return project.getGradle()
+                .getSharedServices()
+                .registerIfAbsent(RuntimeImageService.NAME, RuntimeImageService.class, spec -> spec.getParameters()
+                        .getCacheDirectory()
+                        .set(directory));
+    }
+
+    private void configureDaemons(Project project) {
+        File directory = new File(project.getGradle().getGradleUserHomeDir(), "caches/cxf-codegen/daemons");
+        Duration idleTimeout = durationProperty(project, DAEMON_IDLE_TIMEOUT_PROPERTY);
+        Integer maxInvocations = integerProperty(project, DAEMON_MAX_INVOCATIONS_PROPERTY, Integer.MAX_VALUE);
+        Integer maxHeapUsage = integerProperty(project, DAEMON_MAX_HEAP_USAGE_PROPERTY, 100);
+        Duration requestTimeout = durationProperty(project, DAEMON_REQUEST_TIMEOUT_PROPERTY);
+        Provider<CodegenDaemonService> service = project.getGradle()
+                .getSharedServices()
+                .registerIfAbsent(CodegenDaemonService.NAME, CodegenDaemonService.class, spec -> {
+                    CodegenDaemonService.Params parameters = spec.getParameters();
+                    parameters.getDaemonDirectory().set(directory);
+                    parameters.getIdleTimeout().set(idleTimeout);
+                    parameters.getMaxInvocations().set(maxInvocations);
+                    parameters.getMaxHeapUsage().set(maxHeapUsage);
+                    parameters.getRequestTimeout().set(requestTimeout);
+                });
+        project.getTasks().withType(Wsdl2Java.class).configureEach(task -> {
+            task.getDaemonService().convention(service);
+            task.usesService(service);
+        });
+        project.getTasks().withType(Wsdl2Js.class).configureEach(task -> {
+            task.getDaemonService().convention(service);
+            task.usesService(service);
         });
     }
 
     private boolean useWorkers(Project project) {
-        Object workersProperty = project.findProperty(WORKERS_PROPERTY);
-        if (workersProperty == null) {
+        return booleanProperty(project, WORKERS_PROPERTY);
+    }
+
+    private static boolean booleanProperty(Project project, String name) {
+        Object property = project.findProperty(name);
+        if (property == null) {
             return false;
         }
-        return Boolean.parseBoolean(workersProperty.toString());
+        return Boolean.parseBoolean(property.toString());
     }
 
     private CxfCodegenExtension createExtension(Project project) {
@@ -177,24 +712,51 @@ public class CxfCodegenPlugin implements Plugin<Project> {
     }
 
     private void configureWsdl2JsTaskConventions(
-            Project project, NamedDomainObjectProvider<Configuration> cxfCodegenConfiguration) {
+            Project project,
+            Object toolClasspath,
+            @Nullable Provider<CodegenConcurrencyService> concurrencyService) {
         project.getTasks().withType(Wsdl2Js.class).configureEach(task -> {
+            if (concurrencyService != null) {
+                task.getConcurrencyService().convention(concurrencyService);
+                task.usesService(concurrencyService);
+            }
+            task.getReportDirectory().convention(reportDirectory(project));
+            task.getRecordingDirectory().convention(recordingDirectory(project));
+            rerunWhenProfiling(task);
+            task.getRemoteDocumentCache().convention(remoteDocumentCache(project));
+            task.getOffline().convention(project.getGradle().getStartParameter().isOffline());
             task.getMainClass().set(WSDL2JS_TOOL_MAIN_CLASS);
-            task.setClasspath(cxfCodegenConfiguration.get());
+            task.setClasspath(project.files(toolClasspath));
             task.setGroup(WSDL2JS_GROUP);
             task.setDescription("Generates JavaScript sources for '" + task.getName() + "'");
             task.getWsdl2JsOptions()
                     .getOutputDir()
                     .convention(
                             project.getLayout().getBuildDirectory().dir(task.getName() + "-wsdl2js-generated-sources"));
+            task.getWsdl2JsOptions()
+                    .getSourceDocuments()
+                    .convention(sourceDocuments(
+                            project.getLayout().getProjectDirectory(),
+                            task.getWsdl2JsOptions().getWsdl()));
         });
     }
 
     private void configureWsdl2JavaTaskConventions(
-            Project project, NamedDomainObjectProvider<Configuration> cxfCodegenConfiguration) {
+            Project project,
+            Object toolClasspath,
+            @Nullable Provider<CodegenConcurrencyService> concurrencyService) {
         project.getTasks().withType(Wsdl2Java.class).configureEach(task -> {
+            if (concurrencyService != null) {
+                task.getConcurrencyService().convention(concurrencyService);
+                task.usesService(concurrencyService);
+            }
+            task.getReportDirectory().convention(reportDirectory(project));
+            task.getRecordingDirectory().convention(recordingDirectory(project));
+            rerunWhenProfiling(task);
+            task.getRemoteDocumentCache().convention(remoteDocumentCache(project));
+            task.getOffline().convention(project.getGradle().getStartParameter().isOffline());
             task.getMainClass().set(WSDL2JAVA_TOOL_MAIN_CLASS);
-            task.setClasspath(cxfCodegenConfiguration.get());
+            task.setClasspath(project.files(toolClasspath));
             task.setGroup(WSDL2JAVA_GROUP);
             task.setDescription("Generates Java sources for '" + task.getName() + "'");
             task.getWsdl2JavaOptions()
@@ -203,6 +765,25 @@ public class CxfCodegenPlugin implements Plugin<Project> {
                             .getBuildDirectory()
                             .dir(task.getName() + "-wsdl2java-generated-sources"));
             task.getAddToMainSourceSet().convention(true);
+            task.getWsdl2JavaOptions()
+                    .getSourceDocuments()
+                    .convention(sourceDocuments(
+                            project.getLayout().getProjectDirectory(),
+                            task.getWsdl2JavaOptions().getWsdl(),
+                            task.getWsdl2JavaOptions().getBindingFiles()));
+        });
+    }
+
+    private static Provider<Set<File>> sourceDocuments(Directory projectDirectory, Provider<String> wsdl) {
+        return wsdl.map(location -> WsdlDocuments.discover(projectDirectory, location));
+    }
+
+    private static Provider<Set<File>> sourceDocuments(
+            Directory projectDirectory, Provider<String> wsdl, Provider<Set<String>> bindingFiles) {
+        return sourceDocuments(projectDirectory, wsdl).zip(bindingFiles.orElse(Set.of()), (files, bindings) -> {
+            Set<File> all = new LinkedHashSet<>(files);
+            bindings.forEach(binding -> all.add(projectDirectory.file(binding).getAsFile()));
+            return all;
         });
     }
 
@@ -222,36 +803,109 @@ public class CxfCodegenPlugin implements Plugin<Project> {
     }
 
     private void addToSourceSet(Project project) {
-        project.afterEvaluate(
-                evaluated -> evaluated.getTasks().withType(Wsdl2Java.class).all(wsdl2Java -> {
-                    if (wsdl2Java.getAddToMainSourceSet().get()) {
-                        evaluated
-                                .getExtensions()
-                                .getByType(JavaPluginExtension.class)
-                                .getSourceSets()
-                                .named(SourceSet.MAIN_SOURCE_SET_NAME)
-                                .configure(main -> main.getJava().srcDir(wsdl2Java));
-                    }
-                }));
+        TaskCollection<Wsdl2Java> wsdl2Javas = project.getTasks().withType(Wsdl2Java.class);
+        addToMainSourceSet(project, () -> wsdl2Javas.stream()
+                .filter(wsdl2Java -> wsdl2Java.getAddToMainSourceSet().get())
+                .toList());
+    }
+
+    private static void addToMainSourceSet(Project project, Callable<List<?>> sources) {
+        // Sources are only evaluated when the source set is queried, so no task is realized during configuration.
+        project.getPluginManager()
+                .withPlugin("java", plugin -> project.getExtensions()
+                        .getByType(JavaPluginExtension.class)
+                        .getSourceSets()
+                        .named(SourceSet.MAIN_SOURCE_SET_NAME)
+                        .configure(main -> main.getJava().srcDir(sources)));
+    }
+
+    private Object toolClasspath(Project project, NamedDomainObjectProvider<Configuration> cxfCodegenConfiguration) {
+        if (!booleanProperty(project, SHARED_TOOL_CLASSPATH_PROPERTY)) {
+            return cxfCodegenConfiguration;
+        }
+        Provider<ToolClasspathService> service = project.getGradle()
+                .getSharedServices()
+                .registerIfAbsent(ToolClasspathService.NAME, ToolClasspathService.class);
+        RepositoryHandler repositories = project.getRepositories();
+        // Only evaluated when a task classpath is queried, after the build script declared its dependencies.
+        return cxfCodegenConfiguration.zip(
+                service, (configuration, classpaths) -> classpaths.classpath(configuration, repositories));
     }
 
     private NamedDomainObjectProvider<Configuration> createConfiguration(
-            Project project, CxfCodegenExtension extension) {
+            Project project, CxfCodegenExtension extension, boolean slimToolClasspaths) {
         return project.getConfigurations().register(CXF_CODEGEN_CONFIGURATION_NAME, configuration -> {
             configuration.setCanBeConsumed(false);
             configuration.setCanBeResolved(true);
             configuration.setDescription("Classpath for CXF Codegen.");
-            configuration.getDependencies().addAllLater(createDependencies(project.getDependencies(), extension));
+            configuration
+                    .getDependencies()
+                    .addAllLater(createDependencies(
+                            project.getDependencies(),
+                            extension,
+                            slimToolClasspaths ? this::commonDependencies : this::cxfVersionToDependencies));
         });
     }
 
+    private NamedDomainObjectProvider<Configuration> createToolConfiguration(
+            Project project,
+            String name,
+            String tool,
+            NamedDomainObjectProvider<Configuration> cxfCodegenConfiguration,
+            Provider<List<Dependency>> dependencies) {
+        return project.getConfigurations().register(name, configuration -> {
+            configuration.setCanBeConsumed(false);
+            configuration.setCanBeResolved(true);
+            configuration.setDescription("Classpath for the CXF " + tool + " tool.");
+            // Copied when the dependencies are queried instead of extending cxfCodegen, which would realize it here.
+            // The excludes are copied along with the dependencies, so that the shared tool classpath keys see them.
+            configuration.getDependencies().addAllLater(cxfCodegenConfiguration.map(parent -> {
+                inheritExcludes(configuration, parent);
+                return parent.getAllDependencies().stream().map(Dependency::copy).toList();
+            }));
+            configuration
+                    .getDependencyConstraints()
+                    .addAllLater(
+                            cxfCodegenConfiguration.map(parent -> List.copyOf(parent.getAllDependencyConstraints())));
+            configuration.getDependencies().addAllLater(dependencies);
+            configuration.withDependencies(
+                    ignored -> inheritExcludes(configuration, cxfCodegenConfiguration.get()));
+        });
+    }
+
+    private static void inheritExcludes(Configuration configuration, Configuration parent) {
+        for (ExcludeRule rule : parent.getExcludeRules()) {
+            if (configuration.getExcludeRules().contains(rule)) {
+                continue;
+            }
+            Map<String, String> properties = new HashMap<>();
+            if (rule.getGroup() != null) {
+                properties.put(ExcludeRule.GROUP_KEY, rule.getGroup());
+            }
+            if (rule.getModule() != null) {
+                properties.put(ExcludeRule.MODULE_KEY, rule.getModule());
+            }
+            configuration.exclude(properties);
+        }
+    }
+
     private Provider<List<Dependency>> createDependencies(
-            DependencyHandler dependencyHandler, CxfCodegenExtension extension) {
-        return extension.getCxfVersion().map(cxfVersion -> cxfVersionToDependencies(dependencyHandler, cxfVersion));
+            DependencyHandler dependencyHandler,
+            CxfCodegenExtension extension,
+            BiFunction<DependencyHandler, String, List<Dependency>> dependencies) {
+        return extension.getCxfVersion().map(cxfVersion -> dependencies.apply(dependencyHandler, cxfVersion));
     }
 
     private List<Dependency> cxfVersionToDependencies(DependencyHandler dependencyHandler, String cxfVersion) {
         List<Dependency> dependencies = new ArrayList<>(7);
+        dependencies.addAll(commonDependencies(dependencyHandler, cxfVersion));
+        dependencies.addAll(wsdl2JavaDependencies(dependencyHandler, cxfVersion));
+        dependencies.addAll(wsdl2JsDependencies(dependencyHandler, cxfVersion));
+        return dependencies;
+    }
+
+    private List<Dependency> commonDependencies(DependencyHandler dependencyHandler, String cxfVersion) {
+        List<Dependency> dependencies = new ArrayList<>(4);
 
         // Suppress/silence logs by default for a cleaner build output.
         dependencies.add(dependencyHandler.create("org.slf4j:slf4j-nop:" + GeneratedVersionAccessor.SLF4J_VERSION));
@@ -260,9 +914,17 @@ public class CxfCodegenPlugin implements Plugin<Project> {
         dependencies.add(dependencyHandler.create("org.apache.cxf:cxf-core:" + cxfVersion));
         dependencies.add(dependencyHandler.create("org.apache.cxf:cxf-tools-common:" + cxfVersion));
         dependencies.add(dependencyHandler.create("org.apache.cxf:cxf-tools-wsdlto-core:" + cxfVersion));
-        dependencies.add(dependencyHandler.create("org.apache.cxf:cxf-tools-wsdlto-databinding-jaxb:" + cxfVersion));
-        dependencies.add(dependencyHandler.create("org.apache.cxf:cxf-tools-wsdlto-frontend-jaxws:" + cxfVersion));
+        return dependencies;
+    }
 
+    private List<Dependency> wsdl2JavaDependencies(DependencyHandler dependencyHandler, String cxfVersion) {
+        // The default databinding and frontend of wsdl2java. Other databindings are added to cxfCodegen by users.
+        return List.of(
+                dependencyHandler.create("org.apache.cxf:cxf-tools-wsdlto-databinding-jaxb:" + cxfVersion),
+                dependencyHandler.create("org.apache.cxf:cxf-tools-wsdlto-frontend-jaxws:" + cxfVersion));
+    }
+
+    private List<Dependency> wsdl2JsDependencies(DependencyHandler dependencyHandler, String cxfVersion) {
         // The Maven plugin excludes cxf-rt-frontend-simple, so exclude it here as well.
         ModuleDependency dependency = (ModuleDependency)
                 dependencyHandler.create("org.apache.cxf:cxf-tools-wsdlto-frontend-javascript:" + cxfVersion);
@@ -270,7 +932,6 @@ public class CxfCodegenPlugin implements Plugin<Project> {
         excludeProperties.put("group", "org.apache.cxf");
         excludeProperties.put("module", "cxf-rt-frontend-simple");
         dependency.exclude(excludeProperties);
-        dependencies.add(dependency);
-        return dependencies;
+        return List.of(dependency);
     }
 }
@@ -16,9 +16,12 @@
 package io.mateo.cxf.codegen.dsl;
 
 import io.mateo.cxf.codegen.workers.Option;
+import io.mateo.cxf.codegen.workers.SharedSchema;
+import io.mateo.cxf.codegen.workers.WsdlDirectory;
 import org.gradle.api.Action;
 import org.gradle.api.ExtensiblePolymorphicDomainObjectContainer;
 import org.gradle.api.Incubating;
+import org.gradle.api.NamedDomainObjectContainer;
 import org.gradle.api.provider.Property;
 
 /**
@@ -44,6 +47,20 @@ public interface CxfCodegenExtension {
     @Incubating
     ExtensiblePolymorphicDomainObjectContainer<Option> getOptions();
 
+    /**
+     * The schemas shared by several WSDLs, which are compiled once and reused by every Java option referencing them.
+     * @return shared schemas
+     */
+    @Incubating
+    NamedDomainObjectContainer<SharedSchema> getSharedSchemas();
+
+    /**
+     * The directories of WSDLs that Java code is generated for without declaring an option for each WSDL.
+     * @return WSDL directories
+     */
+    @Incubating
+    NamedDomainObjectContainer<WsdlDirectory> getWsdlDirectories();
+
     /**
      * Whether the generated sources should be added to the main source set. The convention is {@code true}.
      * @return whether to add to main source set
@@ -58,4 +75,22 @@ public interface CxfCodegenExtension {
     default void options(Action<ExtensiblePolymorphicDomainObjectContainer<Option>> configurer) {
         configurer.execute(getOptions());
     }
+
+    /**
+     * Configures the shared schemas of this project.
+     * @param configurer the action to configure the shared schemas with
+     */
+    @Incubating
+    default void sharedSchemas(Action<NamedDomainObjectContainer<SharedSchema>> configurer) {
+        configurer.execute(getSharedSchemas());
+    }
+
+    /**
+     * Configures the WSDL directories of this project.
+     * @param configurer the action to configure the WSDL directories with
+     */
+    @Incubating
+    default void wsdlDirectories(Action<NamedDomainObjectContainer<WsdlDirectory>> configurer) {
+        configurer.execute(getWsdlDirectories());
+    }
 }
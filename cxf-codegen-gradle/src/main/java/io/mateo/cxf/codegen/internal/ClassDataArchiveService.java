@@ -0,0 +1,463 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.api.tasks.JavaExec;
+import org.gradle.jvm.toolchain.JavaInstallationMetadata;
+import org.gradle.jvm.toolchain.JavaLauncher;
+import org.gradle.process.JavaForkOptions;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Shared build service that creates class data archives for the classpaths of forked code generation tools, so that
+ * forked JVMs map the tool classes from an archive instead of loading, parsing and verifying them on every run.
+ * <p>
+ * On Java 25 and newer the archive is an ahead-of-time cache; on older runtimes it is a dynamic AppCDS archive. An
+ * archive is created once by a training run of the tool against a small WSDL and stored in the cache directory,
+ * keyed by a hash of the Java runtime, the JVM arguments, the main class and the classpath. If the training run
+ * fails, the tool runs without an archive and the failure is not retried for the same key.
+ * <p>
+ * Worker processes run Gradle's worker main class, which a training run cannot reproduce. On Java 19 and newer they
+ * create a dynamic AppCDS archive themselves when they exit, and later worker processes with the same key map their
+ * classes from it.
+ */
+public abstract class ClassDataArchiveService implements BuildService<ClassDataArchiveService.Params> {
+
+    /**
+     * Name the service is registered with.
+     */
+    public static final String NAME = "cxfCodegenClassDataArchives";
+
+    private static final Logger logger = Logging.getLogger(ClassDataArchiveService.class);
+
+    private static final long TRAINING_TIMEOUT_MINUTES = 5;
+
+    private static final String FAILED_MARKER = "failed";
+
+    private static final int WORKER_ARCHIVE_FEATURE_VERSION = 19;
+
+    private static final String WORKER_ARCHIVE = "worker.jsa";
+
+    private static final List<String> ARCHIVE_OPTIONS = List.of(
+            "-Xshare:", "-XX:SharedArchiveFile=", "-XX:ArchiveClassesAtExit=", "-XX:AOTCache", "-XX:AOTMode=");
+
+    private static final String TRAINING_WSDL = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <definitions xmlns="http://schemas.xmlsoap.org/wsdl/" xmlns:soap="http://schemas.xmlsoap.org/wsdl/soap/"
+                    xmlns:tns="urn:training" xmlns:xsd="http://www.w3.org/2001/XMLSchema" name="Training"
+                    targetNamespace="urn:training">
+                <types>
+                    <xsd:schema targetNamespace="urn:training" elementFormDefault="qualified">
+                        <xsd:element name="echo">
+                            <xsd:complexType>
+                                <xsd:sequence>
+                                    <xsd:element name="text" type="xsd:string"/>
+                                    <xsd:element name="count" type="xsd:int" minOccurs="0"/>
+                                </xsd:sequence>
+                            </xsd:complexType>
+                        </xsd:element>
+                        <xsd:element name="echoResponse">
+                            <xsd:complexType>
+                                <xsd:sequence>
+                                    <xsd:element name="text" type="xsd:string" maxOccurs="unbounded"/>
+                                </xsd:sequence>
+                            </xsd:complexType>
+                        </xsd:element>
+                    </xsd:schema>
+                </types>
+                <message name="echo">
+                    <part name="parameters" element="tns:echo"/>
+                </message>
+                <message name="echoResponse">
+                    <part name="parameters" element="tns:echoResponse"/>
+                </message>
+                <portType name="Echo">
+                    <operation name="echo">
+                        <input message="tns:echo"/>
+                        <output message="tns:echoResponse"/>
+                    </operation>
+                </portType>
+                <binding name="EchoBinding" type="tns:Echo">
+                    <soap:binding style="document" transport="http://schemas.xmlsoap.org/soap/http"/>
+                    <operation name="echo">
+                        <soap:operation soapAction=""/>
+                        <input>
+                            <soap:body use="literal"/>
+                        </input>
+                        <output>
+                            <soap:body use="literal"/>
+                        </output>
+                    </operation>
+                </binding>
+                <service name="EchoService">
+                    <port name="EchoPort" binding="tns:EchoBinding">
+                        <soap:address location="http://localhost/echo"/>
+                    </port>
+                </service>
+            </definitions>
+            """;
+
+    // Static so that concurrent builds in the same daemon create an archive only once.
+    private static final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the JVM arguments that make a forked tool use the class data archive for its classpath, creating the
+     * archive if necessary. If no archive can be used, an empty list is returned.
+     * @param runtime the Java runtime of the forked JVM
+     * @param jvmArgs the other JVM arguments of the forked JVM
+     * @param mainClass the main class of the tool
+     * @param classpath the tool classpath, in order
+     * @return the JVM arguments
+     */
+    public List<String> jvmArguments(
+            JavaRuntime runtime, List<String> jvmArgs, String mainClass, List<File> classpath) {
+        return jvmArguments(
+                getParameters().getCacheDirectory().get().getAsFile(), runtime, jvmArgs, mainClass, classpath);
+    }
+
+    static List<String> jvmArguments(
+            File cacheDirectory, JavaRuntime runtime, List<String> jvmArgs, String mainClass, List<File> classpath) {
+        ArchiveFormat format = ArchiveFormat.of(runtime.featureVersion());
+        if (format == null) {
+            logger.info("Class data archives are not supported by Java {}", runtime.version());
+            return List.of();
+        }
+        String key = key(runtime, jvmArgs, mainClass, classpath);
+        File directory = new File(cacheDirectory, key);
+        File archive = new File(directory, format.fileName);
+        synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+            if (!archive.isFile() && !new File(directory, FAILED_MARKER).isFile()) {
+                create(format, runtime, jvmArgs, mainClass, classpath, directory, archive);
+            }
+        }
+        if (!archive.isFile()) {
+            return List.of();
+        }
+        logger.info("Using class data archive {} for {}", archive, mainClass);
+        return format.useArguments(archive);
+    }
+
+    /**
+     * Makes the worker processes use a class data archive for their classes, which the first worker process creates
+     * when it exits. Nothing is changed for runtimes older than Java 19, for runtimes whose version is unknown, and
+     * for JVM arguments that already configure a class data archive.
+     * @param forkOptions the fork options of the worker processes
+     * @param classpath the tool classpath, in order
+     */
+    public void useWorkerArchive(JavaForkOptions forkOptions, List<File> classpath) {
+        String executable = forkOptions.getExecutable();
+        JavaRuntime runtime =
+                (executable != null) ? JavaRuntime.forExecutable(new File(executable)) : JavaRuntime.current();
+        forkOptions.jvmArgs(workerJvmArguments(
+                getParameters().getCacheDirectory().get().getAsFile(),
+                runtime,
+                forkOptions.getJvmArgs(),
+                classpath));
+    }
+
+    static List<String> workerJvmArguments(
+            File cacheDirectory, @Nullable JavaRuntime runtime, List<String> jvmArgs, List<File> classpath) {
+        if (runtime == null || runtime.featureVersion() < WORKER_ARCHIVE_FEATURE_VERSION) {
+            logger.info("Class data archives are only created by worker processes on Java 19 and newer");
+            return List.of();
+        }
+        if (jvmArgs.stream().anyMatch(argument -> ARCHIVE_OPTIONS.stream().anyMatch(argument::startsWith))) {
+            logger.info("Not using a class data archive for worker processes with the JVM arguments {}", jvmArgs);
+            return List.of();
+        }
+        // The worker main class is the same for every worker process, so the classpath tells the archives apart.
+        File directory = new File(cacheDirectory, key(runtime, jvmArgs, WORKER_ARCHIVE, classpath));
+        try {
+            Files.createDirectories(directory.toPath());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        File archive = new File(directory, WORKER_ARCHIVE);
+        logger.info("Using class data archive {} for worker processes", archive);
+        // The JVM validates the archive and recreates it on exit when it does not match, without logging warnings.
+        return List.of(
+                "-XX:+AutoCreateSharedArchive",
+                "-XX:SharedArchiveFile=" + archive.getAbsolutePath(),
+                "-Xlog:cds=off",
+                "-Xlog:cds+dynamic=off");
+    }
+
+    static String key(JavaRuntime runtime, List<String> jvmArgs, String mainClass, List<File> classpath) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        List<String> values = new ArrayList<>();
+        values.add(runtime.executable().getAbsolutePath());
+        values.add(runtime.version());
+        values.addAll(jvmArgs);
+        values.add(mainClass);
+        for (File entry : classpath) {
+            values.add(entry.getAbsolutePath());
+            values.add(entry.length() + ":" + entry.lastModified());
+        }
+        for (String value : values) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void create(
+            ArchiveFormat format,
+            JavaRuntime runtime,
+            List<String> jvmArgs,
+            String mainClass,
+            List<File> classpath,
+            File directory,
+            File archive) {
+        try {
+            Files.createDirectories(directory.toPath());
+            try (FileChannel channel = FileChannel.open(
+                    directory.toPath().resolve("lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    // Another build may have created the archive while waiting for the lock.
+                    if (archive.isFile() || new File(directory, FAILED_MARKER).isFile()) {
+                        return;
+                    }
+                    logger.info("Creating class data archive {} for {}", archive, mainClass);
+                    File log = new File(directory, "training.log");
+                    if (train(format, runtime, jvmArgs, mainClass, classpath, directory, archive, log)) {
+                        logger.info("Created class data archive {} for {}", archive, mainClass);
+                    } else {
+                        Files.createFile(directory.toPath().resolve(FAILED_MARKER));
+                        logger.warn(
+                                "Unable to create a class data archive for {}, see {} for details", mainClass, log);
+                    }
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static boolean train(
+            ArchiveFormat format,
+            JavaRuntime runtime,
+            List<String> jvmArgs,
+            String mainClass,
+            List<File> classpath,
+            File directory,
+            File archive,
+            File log)
+            throws IOException {
+        Path training = Files.createTempDirectory(directory.toPath(), "training");
+        try {
+            Path wsdl = Files.writeString(training.resolve("training.wsdl"), TRAINING_WSDL);
+            File trainingArchive = training.resolve(archive.getName()).toFile();
+            List<String> command = new ArrayList<>();
+            command.add(runtime.executable().getAbsolutePath());
+            command.addAll(jvmArgs);
+            command.add(format.dumpArgument(trainingArchive));
+            command.add("-cp");
+            command.add(classpath.stream().map(File::getAbsolutePath).collect(Collectors.joining(File.pathSeparator)));
+            command.add(mainClass);
+            command.add("-d");
+            command.add(training.resolve("generated").toString());
+            command.add(wsdl.toString());
+            Process process = new ProcessBuilder(command)
+                    .directory(training.toFile())
+                    .redirectErrorStream(true)
+                    .redirectOutput(log)
+                    .start();
+            if (!process.waitFor(TRAINING_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+                process.destroyForcibly();
+                return false;
+            }
+            if (process.exitValue() != 0 || !trainingArchive.isFile()) {
+                return false;
+            }
+            Files.move(trainingArchive.toPath(), archive.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            OutputSync.delete(training.toFile());
+        }
+    }
+
+    /**
+     * The Java runtime of a forked JVM.
+     * @param executable the {@code java} executable
+     * @param featureVersion the feature version, such as {@code 21}
+     * @param version the full runtime version
+     */
+    public record JavaRuntime(File executable, int featureVersion, String version) {
+
+        /**
+         * Returns the runtime Gradle runs on.
+         * @return the current runtime
+         */
+        public static JavaRuntime current() {
+            File executable = new File(System.getProperty("java.home"), "bin/java");
+            return new JavaRuntime(executable, Runtime.version().feature(), Runtime.version().toString());
+        }
+
+        /**
+         * Returns the runtime of a Java launcher.
+         * @param launcher the launcher
+         * @return the runtime
+         */
+        public static JavaRuntime of(JavaLauncher launcher) {
+            JavaInstallationMetadata metadata = launcher.getMetadata();
+            return new JavaRuntime(
+                    launcher.getExecutablePath().getAsFile(),
+                    metadata.getLanguageVersion().asInt(),
+                    metadata.getJavaRuntimeVersion());
+        }
+
+        /**
+         * Returns the runtime of a {@code java} executable, from the {@code release} file of its Java home.
+         * @param executable the executable
+         * @return the runtime, or {@code null} if its version is unknown
+         */
+        public static @Nullable JavaRuntime forExecutable(File executable) {
+            File javaHome = executable.getAbsoluteFile().getParentFile().getParentFile();
+            Properties release = new Properties();
+            try (Reader reader = Files.newBufferedReader(new File(javaHome, "release").toPath())) {
+                release.load(reader);
+            } catch (IOException ex) {
+                return null;
+            }
+            String version = unquote(release.getProperty("JAVA_VERSION"));
+            if (version == null) {
+                return null;
+            }
+            try {
+                int featureVersion = Runtime.Version.parse(version).feature();
+                String runtimeVersion = unquote(release.getProperty("JAVA_RUNTIME_VERSION"));
+                return new JavaRuntime(executable, featureVersion, (runtimeVersion != null) ? runtimeVersion : version);
+            } catch (IllegalArgumentException ex) {
+                // Versions such as 1.8.0_392.
+                return null;
+            }
+        }
+
+        private static @Nullable String unquote(@Nullable String value) {
+            if (value == null) {
+                return null;
+            }
+            return value.startsWith("\"") && value.endsWith("\"") && value.length() > 1
+                    ? value.substring(1, value.length() - 1)
+                    : value;
+        }
+
+        /**
+         * Returns the runtime a {@link JavaExec} task forks.
+         * @param task the task
+         * @return the runtime, or {@code null} if the task uses a custom executable
+         */
+        public static @Nullable JavaRuntime forTask(JavaExec task) {
+            if (task.getJavaLauncher().isPresent()) {
+                return of(task.getJavaLauncher().get());
+            }
+            String executable = task.getExecutable();
+            if (executable != null && !new File(executable).equals(current().executable())) {
+                return null;
+            }
+            return current();
+        }
+    }
+
+    enum ArchiveFormat {
+
+        /**
+         * Dynamic AppCDS archive, available since Java 13.
+         */
+        APP_CDS("tool.jsa", "-XX:ArchiveClassesAtExit=", "-XX:SharedArchiveFile="),
+
+        /**
+         * Ahead-of-time cache, created in a single training run since Java 25.
+         */
+        AOT_CACHE("tool.aot", "-XX:AOTCacheOutput=", "-XX:AOTCache=");
+
+        private final String fileName;
+
+        private final String dumpOption;
+
+        private final String useOption;
+
+        ArchiveFormat(String fileName, String dumpOption, String useOption) {
+            this.fileName = fileName;
+            this.dumpOption = dumpOption;
+            this.useOption = useOption;
+        }
+
+        static @Nullable ArchiveFormat of(int featureVersion) {
+            if (featureVersion >= 25) {
+                return AOT_CACHE;
+            }
+            return featureVersion >= 13 ? APP_CDS : null;
+        }
+
+        String dumpArgument(File archive) {
+            return this.dumpOption + archive.getAbsolutePath();
+        }
+
+        List<String> useArguments(File archive) {
+            return List.of(this.useOption + archive.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Parameters for {@link ClassDataArchiveService}.
+     */
+    public interface Params extends BuildServiceParameters {
+
+        /**
+         * Directory the class data archives are stored in.
+         * @return the cache directory
+         */
+        DirectoryProperty getCacheDirectory();
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import io.mateo.cxf.codegen.internal.ClassDataArchiveService.JavaRuntime;
+import java.util.List;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.JavaExec;
+import org.gradle.process.CommandLineArgumentProvider;
+
+/**
+ * Provides the JVM arguments that make a {@link JavaExec} code generation task use a class data archive for its
+ * classpath. The archive is resolved when the task executes, so it is neither an input of the task nor part of its
+ * build cache key.
+ */
+public final class ClassDataSharingArguments implements CommandLineArgumentProvider {
+
+    private static final Logger logger = Logging.getLogger(ClassDataSharingArguments.class);
+
+    private final Provider<ClassDataArchiveService> service;
+
+    private final JavaExec task;
+
+    /**
+     * Creates a new instance.
+     * @param service the service creating the class data archives
+     * @param task the task to provide the JVM arguments for
+     */
+    public ClassDataSharingArguments(Provider<ClassDataArchiveService> service, JavaExec task) {
+        this.service = service;
+        this.task = task;
+    }
+
+    @Override
+    public Iterable<String> asArguments() {
+        JavaRuntime runtime = JavaRuntime.forTask(this.task);
+        if (runtime == null) {
+            logger.info("Not using a class data archive for task '{}' with a custom executable", this.task.getName());
+            return List.of();
+        }
+        return this.service
+                .get()
+                .jvmArguments(
+                        runtime,
+                        this.task.getJvmArguments().getOrElse(List.of()),
+                        this.task.getMainClass().get(),
+                        List.copyOf(this.task.getClasspath().getFiles()));
+    }
+}
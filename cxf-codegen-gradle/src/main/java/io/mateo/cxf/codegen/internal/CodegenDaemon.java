@@ -0,0 +1,421 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Long-lived JVM that runs the {@code wsdl2java} and {@code wsdl2js} tools in-process for tasks that would otherwise
+ * fork a new JVM for every run, so that the loaded tool classes and the code compiled by the JIT are reused.
+ * <p>
+ * The daemon is started by {@link CodegenDaemonService} with the tool classpath, listens on a loopback port and
+ * describes itself in a properties file: the port, a token that every request must present, and the process ID.
+ * Requests are handled one at a time. Each request runs the tool on a new thread, in a thread group of its own, with a
+ * new tool context, and the system properties are restored afterwards. The standard and error output of the daemon
+ * are routed by thread group: only the threads of the current request write to the output of the request. The daemon
+ * stops after being idle for the idle timeout, and after handling the maximum number of requests, when a request
+ * leaves non-daemon threads running, or when the heap usage after a request stays above the maximum heap usage, in
+ * which case the next request starts a new daemon.
+ * <p>
+ * The tools are loaded once by the system class loader, which is what lets later requests reuse the loaded and
+ * compiled classes. Static state of the tools and their libraries, such as caches and registered extensions,
+ * therefore carries over from one request to the next until the daemon is recycled; a maximum of one request per
+ * daemon isolates every request.
+ * <p>
+ * Only classes of the JDK are used so that the daemon runs with nothing but the tool classpath and this class; the
+ * nullness annotations are not needed at runtime.
+ */
+public final class CodegenDaemon {
+
+    static final String PORT = "port";
+
+    static final String TOKEN = "token";
+
+    static final String PID = "pid";
+
+    private static final String COMMAND_INTERFACE_UTILS_CLASS_NAME =
+            "org.apache.cxf.tools.common.CommandInterfaceUtils";
+
+    private static final long LEFTOVER_THREADS_TIMEOUT_MILLIS = 1_000;
+
+    private final File propertiesFile;
+
+    private final File lockFile;
+
+    private final long idleTimeoutMillis;
+
+    private final int maxInvocations;
+
+    private final int maxHeapUsage;
+
+    private final RequestOutput standardOutput;
+
+    private final RequestOutput errorOutput;
+
+    private final String token = UUID.randomUUID().toString();
+
+    private int invocations;
+
+    private CodegenDaemon(
+            File propertiesFile,
+            long idleTimeoutMillis,
+            int maxInvocations,
+            int maxHeapUsage,
+            RequestOutput standardOutput,
+            RequestOutput errorOutput) {
+        this.propertiesFile = propertiesFile;
+        this.lockFile = sibling(propertiesFile, ".lock");
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxInvocations = maxInvocations;
+        this.maxHeapUsage = maxHeapUsage;
+        this.standardOutput = standardOutput;
+        this.errorOutput = errorOutput;
+    }
+
+    /**
+     * Starts the daemon.
+     * @param args the properties file to describe the daemon in, the idle timeout in milliseconds, the maximum number
+     * of requests, and the maximum heap usage in percent of the maximum heap size
+     * @throws IOException if the daemon cannot listen for requests
+     */
+    public static void main(String[] args) throws IOException {
+        File propertiesFile = new File(args[0]);
+        RequestOutput standardOutput = new RequestOutput(System.out);
+        RequestOutput errorOutput = new RequestOutput(System.err);
+        // Installed once, before logging captures the streams, instead of being swapped for every request.
+        System.setOut(new PrintStream(standardOutput, true, StandardCharsets.UTF_8));
+        System.setErr(new PrintStream(errorOutput, true, StandardCharsets.UTF_8));
+        configureLogging();
+        new CodegenDaemon(
+                        propertiesFile,
+                        Long.parseLong(args[1]),
+                        Integer.parseInt(args[2]),
+                        Integer.parseInt(args[3]),
+                        standardOutput,
+                        errorOutput)
+                .serve();
+        // Threads left behind by the tools must not keep the JVM alive.
+        System.exit(0);
+    }
+
+    /**
+     * Configures logging the same way as the main methods of the CXF tools, if they are on the classpath.
+     */
+    private static void configureLogging() {
+        try {
+            Class.forName(COMMAND_INTERFACE_UTILS_CLASS_NAME).getMethod("commandCommonMain").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            log("Using the default logging configuration: " + ex);
+        }
+    }
+
+    private void serve() throws IOException {
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout((int) Math.min(Integer.MAX_VALUE, this.idleTimeoutMillis));
+            publish(server.getLocalPort());
+            log("Listening on port " + server.getLocalPort());
+            while (true) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketTimeoutException ex) {
+                    if (stopIfIdle()) {
+                        log("Stopped after being idle for " + this.idleTimeoutMillis + " ms");
+                        return;
+                    }
+                    continue;
+                }
+                try (socket) {
+                    if (handle(socket)) {
+                        log("Stopped after " + this.invocations + " requests");
+                        return;
+                    }
+                } catch (IOException ex) {
+                    log("Unable to handle request: " + ex);
+                }
+            }
+        } finally {
+            unpublish();
+        }
+    }
+
+    private void publish(int port) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(PORT, Integer.toString(port));
+        properties.setProperty(TOKEN, this.token);
+        properties.setProperty(PID, Long.toString(ProcessHandle.current().pid()));
+        Path temporary = Files.createTempFile(this.propertiesFile.getParentFile().toPath(), "daemon", ".tmp");
+        try (OutputStream output = Files.newOutputStream(temporary)) {
+            properties.store(output, null);
+        }
+        Files.move(temporary, this.propertiesFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void unpublish() throws IOException {
+        Files.deleteIfExists(this.propertiesFile.toPath());
+        try {
+            Files.deleteIfExists(this.lockFile.toPath());
+            Files.deleteIfExists(sibling(this.propertiesFile, ".log").toPath());
+        } catch (IOException ex) {
+            // Still open on a platform that does not delete open files.
+        }
+    }
+
+    /**
+     * Clients lock the lock file of the daemon for the duration of a request, so an idle daemon only stops when it
+     * can lock the file itself. Once the properties file is deleted, no client sends it requests anymore.
+     */
+    private boolean stopIfIdle() throws IOException {
+        try (FileChannel channel =
+                FileChannel.open(this.lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                return false;
+            }
+            try {
+                Files.deleteIfExists(this.propertiesFile.toPath());
+                return true;
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    private boolean handle(Socket socket) throws IOException {
+        DataInputStream input = new DataInputStream(socket.getInputStream());
+        DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+        if (!this.token.equals(input.readUTF())) {
+            log("Rejected request with an invalid token");
+            return false;
+        }
+        String toolClassName = input.readUTF();
+        List<String> arguments = new ArrayList<>();
+        for (int i = input.readInt(); i > 0; i--) {
+            arguments.add(input.readUTF());
+        }
+        this.invocations++;
+        ByteArrayOutputStream standardOutput = new ByteArrayOutputStream();
+        ByteArrayOutputStream errorOutput = new ByteArrayOutputStream();
+        ThreadGroup group = new ThreadGroup("cxf-codegen-request-" + this.invocations);
+        String failure = run(group, toolClassName, arguments, standardOutput, errorOutput);
+        boolean leftoverThreads = leftoverThreads(group);
+        boolean stop = this.invocations >= this.maxInvocations || leftoverThreads || heapUsageExceeded();
+        if (stop) {
+            // Unpublished before responding so that the next request, even from the same client, starts a new daemon.
+            Files.deleteIfExists(this.propertiesFile.toPath());
+        }
+        output.writeInt(failure != null ? 1 : 0);
+        output.writeLong(ProcessHandle.current().pid());
+        output.writeInt(this.invocations);
+        writeBytes(output, standardOutput.toByteArray());
+        writeBytes(output, errorOutput.toByteArray());
+        output.writeUTF(failure != null ? failure : "");
+        output.flush();
+        return stop;
+    }
+
+    private @Nullable String run(
+            ThreadGroup group,
+            String toolClassName,
+            List<String> arguments,
+            OutputStream standardOutput,
+            OutputStream errorOutput) {
+        Properties systemProperties = (Properties) System.getProperties().clone();
+        PrintStream err = new PrintStream(errorOutput, true, StandardCharsets.UTF_8);
+        String[] failure = new String[1];
+        Thread thread = new Thread(
+                group,
+                () -> {
+                    try {
+                        invoke(toolClassName, arguments);
+                    } catch (Throwable ex) {
+                        Throwable cause = ex instanceof InvocationTargetException ite ? ite.getCause() : ex;
+                        cause.printStackTrace(err);
+                        failure[0] = cause.getMessage() != null
+                                ? cause.getMessage()
+                                : cause.getClass().getName();
+                    }
+                },
+                "cxf-codegen-request");
+        this.standardOutput.start(group, standardOutput);
+        this.errorOutput.start(group, errorOutput);
+        try {
+            thread.start();
+            thread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            failure[0] = "Interrupted";
+        } finally {
+            this.standardOutput.stop();
+            this.errorOutput.stop();
+            System.setProperties(systemProperties);
+        }
+        return failure[0];
+    }
+
+    /**
+     * Returns whether non-daemon threads started by the tool are still running shortly after it returned. They could
+     * change the system properties or the state of the tool during later requests, so the daemon is recycled instead.
+     * Daemon threads, such as idle thread pools of the libraries, are only logged: they no longer write to the output
+     * of any request.
+     */
+    private static boolean leftoverThreads(ThreadGroup group) {
+        long deadline = System.currentTimeMillis() + LEFTOVER_THREADS_TIMEOUT_MILLIS;
+        Thread[] threads = new Thread[group.activeCount() + 1];
+        int count = group.enumerate(threads);
+        boolean leftover = false;
+        for (int i = 0; i < count; i++) {
+            Thread thread = threads[i];
+            if (!thread.isDaemon()) {
+                try {
+                    thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return true;
+                }
+            }
+            if (thread.isAlive()) {
+                log("Thread '" + thread.getName() + "' is still running");
+                leftover |= !thread.isDaemon();
+            }
+        }
+        return leftover;
+    }
+
+    /**
+     * Runs the tool like its main method would, without exiting the JVM: the tools are created from the arguments and
+     * run with a new context, such as the {@code ToolContext} of the CXF tools. The tool class is shared by all
+     * requests, including its static state.
+     */
+    private static void invoke(String toolClassName, List<String> arguments) throws ReflectiveOperationException {
+        Class<?> toolClass = Class.forName(toolClassName, true, ClassLoader.getSystemClassLoader());
+        Object tool = toolClass.getConstructor(String[].class).newInstance((Object) arguments.toArray(String[]::new));
+        for (Method method : toolClass.getMethods()) {
+            if (method.getName().equals("run") && method.getParameterCount() == 1) {
+                method.invoke(tool, method.getParameterTypes()[0].getConstructor().newInstance());
+                return;
+            }
+        }
+        throw new NoSuchMethodException(toolClassName + ".run(context)");
+    }
+
+    private boolean heapUsageExceeded() {
+        if (heapUsage() <= this.maxHeapUsage) {
+            return false;
+        }
+        // Only what survives a collection counts.
+        System.gc();
+        return heapUsage() > this.maxHeapUsage;
+    }
+
+    private static long heapUsage() {
+        Runtime runtime = Runtime.getRuntime();
+        return (runtime.totalMemory() - runtime.freeMemory()) * 100 / runtime.maxMemory();
+    }
+
+    private static void log(String message) {
+        System.out.println(Instant.now() + " " + message);
+    }
+
+    /**
+     * Standard or error output of the daemon, written to the output of the current request by the threads of its
+     * thread group and to the log of the daemon by any other thread.
+     */
+    private static final class RequestOutput extends OutputStream {
+
+        private final OutputStream daemonOutput;
+
+        private volatile @Nullable Target target;
+
+        RequestOutput(OutputStream daemonOutput) {
+            this.daemonOutput = daemonOutput;
+        }
+
+        void start(ThreadGroup group, OutputStream output) {
+            this.target = new Target(group, output);
+        }
+
+        void stop() {
+            this.target = null;
+        }
+
+        private OutputStream output() {
+            Target target = this.target;
+            ThreadGroup current = Thread.currentThread().getThreadGroup();
+            return (target != null && current != null && target.group().parentOf(current))
+                    ? target.output()
+                    : this.daemonOutput;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            output().write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            output().write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            output().flush();
+        }
+
+        private record Target(ThreadGroup group, OutputStream output) {}
+    }
+
+    static File sibling(File propertiesFile, String extension) {
+        String name = propertiesFile.getName();
+        return new File(propertiesFile.getParentFile(), name.substring(0, name.lastIndexOf('.')) + extension);
+    }
+
+    static void writeBytes(DataOutputStream output, byte[] bytes) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    static byte[] readBytes(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return bytes;
+    }
+}
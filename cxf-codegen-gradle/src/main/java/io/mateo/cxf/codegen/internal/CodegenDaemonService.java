@@ -0,0 +1,490 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.api.tasks.JavaExec;
+import org.gradle.process.CommandLineArgumentProvider;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Shared build service that runs the code generation tools of forking tasks in long-lived {@link CodegenDaemon
+ * codegen daemons} instead of a new JVM for every run.
+ * <p>
+ * Daemons are started on first use and outlive the build, so that later builds reuse their loaded classes and
+ * JIT-compiled code. A daemon is only reused for the same {@code java} executable, JVM arguments, tool classpath,
+ * working directory and environment, and runs a single request at a time: when every matching daemon is busy, another
+ * one is started. Daemons are described by properties files in the daemon directory, keyed by a hash of what they can
+ * be reused for, and a client holds the lock file of a daemon for the duration of its request. A daemon is started
+ * with the environment of the task that started it.
+ * <p>
+ * If a daemon cannot be started or reached, the task forks the tool as usual. The same applies when a daemon does not
+ * respond within the request timeout, in which case the daemon is stopped first so that it does not write to the
+ * output of the forked tool.
+ */
+public abstract class CodegenDaemonService implements BuildService<CodegenDaemonService.Params> {
+
+    /**
+     * Name the service is registered with.
+     */
+    public static final String NAME = "cxfCodegenDaemons";
+
+    /**
+     * Default time after which an idle daemon stops.
+     */
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(15);
+
+    /**
+     * Default number of requests after which a daemon is recycled.
+     */
+    public static final int DEFAULT_MAX_INVOCATIONS = 100;
+
+    /**
+     * Default heap usage, in percent of the maximum heap size, above which a daemon is recycled.
+     */
+    public static final int DEFAULT_MAX_HEAP_USAGE = 75;
+
+    /**
+     * Default time after which a request that got no response is abandoned.
+     */
+    public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofMinutes(10);
+
+    private static final Logger logger = Logging.getLogger(CodegenDaemonService.class);
+
+    private static final long START_TIMEOUT_MILLIS = 30_000;
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 5_000;
+
+    /**
+     * Runs the tool of the task in a daemon. The output of the tool is written to the standard and error output of
+     * the task. Tasks that customize their environment or use another working directory than the project directory
+     * are not run in a daemon, as a daemon keeps the environment and working directory it was started with.
+     * @param task the task
+     * @param projectDirectory the directory of the project of the task
+     * @return whether the tool ran in a daemon, {@code false} if the task needs to fork the tool itself
+     * @throws GradleException if the tool failed and the task does not ignore the exit value
+     */
+    public boolean execute(JavaExec task, File projectDirectory) {
+        if (!task.getWorkingDir().equals(projectDirectory)
+                || customizesEnvironment(task.getEnvironment(), System.getenv())) {
+            logger.info(
+                    "'{}' customizes its environment or working directory, forking the tool instead", task.getPath());
+            return false;
+        }
+        Request request = request(task);
+        Limits limits = new Limits(
+                getParameters().getIdleTimeout().getOrElse(DEFAULT_IDLE_TIMEOUT),
+                getParameters().getMaxInvocations().getOrElse(DEFAULT_MAX_INVOCATIONS),
+                getParameters().getMaxHeapUsage().getOrElse(DEFAULT_MAX_HEAP_USAGE));
+        Result result = execute(
+                getParameters().getDaemonDirectory().get().getAsFile(),
+                limits,
+                getParameters().getRequestTimeout().getOrElse(DEFAULT_REQUEST_TIMEOUT),
+                request,
+                task.getStandardOutput(),
+                task.getErrorOutput());
+        if (result == null) {
+            logger.warn("Unable to run '{}' in a code generation daemon, forking the tool instead", task.getPath());
+            return false;
+        }
+        logger.info(
+                "Ran '{}' in code generation daemon {} (request {})",
+                task.getPath(),
+                result.pid(),
+                result.invocation());
+        if (result.exitValue() != 0 && !task.isIgnoreExitValue()) {
+            throw new GradleException("Code generation for '" + task.getPath() + "' failed: " + result.failure());
+        }
+        return true;
+    }
+
+    static boolean customizesEnvironment(Map<String, Object> environment, Map<String, String> inherited) {
+        // JavaExec inherits the environment of the build without the variables the launcher sets for itself.
+        Map<String, String> expected = inherited.entrySet().stream()
+                .filter(entry -> !entry.getKey().startsWith("JAVA_MAIN_CLASS"))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        if (environment.size() != expected.size()) {
+            return true;
+        }
+        return environment.entrySet().stream()
+                .anyMatch(entry -> !String.valueOf(entry.getValue()).equals(expected.get(entry.getKey())));
+    }
+
+    private static Request request(JavaExec task) {
+        // Same executable as JavaExec uses to fork the tool.
+        String executable = task.getJavaLauncher().isPresent()
+                ? task.getJavaLauncher().get().getExecutablePath().getAsFile().getAbsolutePath()
+                : ClassDataArchiveService.JavaRuntime.current().executable().getAbsolutePath();
+        List<String> arguments = new ArrayList<>(task.getArgs());
+        for (CommandLineArgumentProvider provider : task.getArgumentProviders()) {
+            provider.asArguments().forEach(arguments::add);
+        }
+        Map<String, String> environment = new TreeMap<>();
+        task.getEnvironment().forEach((name, value) -> environment.put(name, String.valueOf(value)));
+        return new Request(
+                executable,
+                task.getAllJvmArgs(),
+                List.copyOf(task.getClasspath().getFiles()),
+                task.getWorkingDir(),
+                environment,
+                task.getMainClass().get(),
+                arguments);
+    }
+
+    static @Nullable Result execute(
+            File daemonDirectory,
+            Limits limits,
+            Duration requestTimeout,
+            Request request,
+            OutputStream standardOutput,
+            OutputStream errorOutput) {
+        File directory = new File(daemonDirectory, key(request));
+        try {
+            Files.createDirectories(directory.toPath());
+            File[] candidates = directory.listFiles((dir, name) -> name.endsWith(".properties"));
+            for (File candidate : candidates != null ? candidates : new File[0]) {
+                Result result = tryExecute(candidate, null, requestTimeout, request, standardOutput, errorOutput);
+                if (result != null) {
+                    return result;
+                }
+            }
+            File propertiesFile = new File(directory, UUID.randomUUID() + ".properties");
+            return tryExecute(propertiesFile, limits, requestTimeout, request, standardOutput, errorOutput);
+        } catch (IOException ex) {
+            logger.info("Unable to use a code generation daemon", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Sends the request to the daemon described by the properties file, starting it first if limits are given.
+     * Returns {@code null} if the daemon is busy, gone, or did not respond in time.
+     */
+    private static @Nullable Result tryExecute(
+            File propertiesFile,
+            @Nullable Limits limits,
+            Duration requestTimeout,
+            Request request,
+            OutputStream standardOutput,
+            OutputStream errorOutput)
+            throws IOException {
+        File lockFile = CodegenDaemon.sibling(propertiesFile, ".lock");
+        try (FileChannel channel =
+                FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException ex) {
+                // Busy with a request of another task of this build.
+                return null;
+            }
+            if (lock == null) {
+                return null;
+            }
+            try {
+                Process process = null;
+                if (limits != null) {
+                    process = start(propertiesFile, limits, request);
+                    if (process == null) {
+                        return null;
+                    }
+                } else if (!propertiesFile.isFile()) {
+                    Files.deleteIfExists(lockFile.toPath());
+                    return null;
+                }
+                Properties daemon = load(propertiesFile);
+                try {
+                    return send(daemon, requestTimeout, request, standardOutput, errorOutput);
+                } catch (SocketTimeoutException ex) {
+                    logger.warn(
+                            "Code generation daemon {} did not respond within {}, stopping it",
+                            propertiesFile,
+                            requestTimeout);
+                    Files.deleteIfExists(propertiesFile.toPath());
+                    stop(daemon, process);
+                    return null;
+                } catch (IOException ex) {
+                    if (process != null) {
+                        process.destroy();
+                        throw ex;
+                    }
+                    logger.info("Code generation daemon {} is gone", propertiesFile, ex);
+                    Files.deleteIfExists(propertiesFile.toPath());
+                    return null;
+                }
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    private static @Nullable Process start(File propertiesFile, Limits limits, Request request) throws IOException {
+        File log = CodegenDaemon.sibling(propertiesFile, ".log");
+        List<String> command = new ArrayList<>();
+        command.add(request.executable());
+        command.addAll(request.jvmArguments());
+        command.add("-cp");
+        List<File> classpath = new ArrayList<>(request.classpath());
+        classpath.add(daemonClasspath());
+        command.add(classpath.stream().map(File::getAbsolutePath).collect(Collectors.joining(File.pathSeparator)));
+        command.add(CodegenDaemon.class.getName());
+        command.add(propertiesFile.getAbsolutePath());
+        command.add(Long.toString(limits.idleTimeout().toMillis()));
+        command.add(Integer.toString(limits.maxInvocations()));
+        command.add(Integer.toString(limits.maxHeapUsage()));
+        logger.info("Starting code generation daemon {}", propertiesFile);
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .directory(request.workingDir())
+                .redirectErrorStream(true)
+                .redirectOutput(log);
+        builder.environment().clear();
+        builder.environment().putAll(request.environment());
+        Process process = builder.start();
+        process.getOutputStream().close();
+        long deadline = System.currentTimeMillis() + START_TIMEOUT_MILLIS;
+        while (!propertiesFile.isFile()) {
+            if (!process.isAlive() || System.currentTimeMillis() > deadline) {
+                process.destroy();
+                logger.warn("Unable to start a code generation daemon, see {} for details", log);
+                return null;
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                process.destroy();
+                return null;
+            }
+        }
+        return process;
+    }
+
+    private static File daemonClasspath() {
+        try {
+            return new File(CodegenDaemon.class
+                    .getProtectionDomain()
+                    .getCodeSource()
+                    .getLocation()
+                    .toURI());
+        } catch (URISyntaxException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Properties load(File propertiesFile) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(propertiesFile.toPath())) {
+            properties.load(input);
+        }
+        return properties;
+    }
+
+    /**
+     * Stops the daemon and waits for it to exit, so that the tool it still runs no longer writes any files.
+     */
+    private static void stop(Properties daemon, @Nullable Process process) {
+        ProcessHandle handle = process != null
+                ? process.toHandle()
+                : ProcessHandle.of(Long.parseLong(daemon.getProperty(CodegenDaemon.PID)))
+                        .orElse(null);
+        if (handle == null) {
+            return;
+        }
+        handle.destroyForcibly();
+        try {
+            handle.onExit().get(CONNECT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ex) {
+            logger.info("Code generation daemon {} did not exit", handle.pid(), ex);
+        }
+    }
+
+    private static Result send(
+            Properties daemon,
+            Duration requestTimeout,
+            Request request,
+            OutputStream standardOutput,
+            OutputStream errorOutput)
+            throws IOException {
+        try (Socket socket = new Socket()) {
+            socket.connect(
+                    new InetSocketAddress(
+                            InetAddress.getLoopbackAddress(), Integer.parseInt(daemon.getProperty(CodegenDaemon.PORT))),
+                    CONNECT_TIMEOUT_MILLIS);
+            socket.setSoTimeout((int) Math.min(Integer.MAX_VALUE, requestTimeout.toMillis()));
+            DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+            output.writeUTF(daemon.getProperty(CodegenDaemon.TOKEN));
+            output.writeUTF(request.mainClass());
+            output.writeInt(request.arguments().size());
+            for (String argument : request.arguments()) {
+                output.writeUTF(argument);
+            }
+            output.flush();
+            DataInputStream input = new DataInputStream(socket.getInputStream());
+            int exitValue = input.readInt();
+            long pid = input.readLong();
+            int invocation = input.readInt();
+            standardOutput.write(CodegenDaemon.readBytes(input));
+            errorOutput.write(CodegenDaemon.readBytes(input));
+            String failure = input.readUTF();
+            return new Result(exitValue, pid, invocation, failure);
+        }
+    }
+
+    static String key(Request request) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        List<String> values = new ArrayList<>();
+        values.add(request.executable());
+        values.addAll(request.jvmArguments());
+        values.add(request.workingDir().getAbsolutePath());
+        new TreeMap<>(request.environment()).forEach((name, value) -> values.add(name + "=" + value));
+        List<File> classpath = new ArrayList<>(request.classpath());
+        classpath.add(daemonClasspath());
+        for (File entry : classpath) {
+            values.add(entry.getAbsolutePath());
+            values.add(entry.length() + ":" + entry.lastModified());
+        }
+        for (String value : values) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Parameters for {@link CodegenDaemonService}.
+     */
+    public interface Params extends BuildServiceParameters {
+
+        /**
+         * Directory the daemons are described in.
+         * @return the daemon directory
+         */
+        DirectoryProperty getDaemonDirectory();
+
+        /**
+         * Time after which an idle daemon stops.
+         * <p>
+         * If not set, the convention is 15 minutes.
+         * @return the idle timeout
+         */
+        Property<Duration> getIdleTimeout();
+
+        /**
+         * Number of requests after which a daemon is recycled.
+         * <p>
+         * If not set, the convention is {@value CodegenDaemonService#DEFAULT_MAX_INVOCATIONS}.
+         * @return the maximum number of requests
+         */
+        Property<Integer> getMaxInvocations();
+
+        /**
+         * Heap usage after a request, in percent of the maximum heap size, above which a daemon is recycled.
+         * <p>
+         * If not set, the convention is {@value CodegenDaemonService#DEFAULT_MAX_HEAP_USAGE}.
+         * @return the maximum heap usage
+         */
+        Property<Integer> getMaxHeapUsage();
+
+        /**
+         * Time to wait for the response to a request, after which the daemon is stopped and the tool is forked
+         * instead.
+         * <p>
+         * If not set, the convention is 10 minutes.
+         * @return the request timeout
+         */
+        Property<Duration> getRequestTimeout();
+    }
+
+    /**
+     * A tool run.
+     * @param executable the {@code java} executable
+     * @param jvmArguments the JVM arguments
+     * @param classpath the tool classpath
+     * @param workingDir the working directory
+     * @param environment the environment variables
+     * @param mainClass the main class of the tool
+     * @param arguments the tool arguments
+     */
+    record Request(
+            String executable,
+            List<String> jvmArguments,
+            List<File> classpath,
+            File workingDir,
+            Map<String, String> environment,
+            String mainClass,
+            List<String> arguments) {}
+
+    /**
+     * When a started daemon stops or is recycled.
+     * @param idleTimeout the idle timeout
+     * @param maxInvocations the maximum number of requests
+     * @param maxHeapUsage the maximum heap usage in percent
+     */
+    record Limits(Duration idleTimeout, int maxInvocations, int maxHeapUsage) {}
+
+    /**
+     * The outcome of a tool run in a daemon.
+     * @param exitValue {@code 0} if the tool succeeded
+     * @param pid the process ID of the daemon
+     * @param invocation the number of requests the daemon handled, including this one
+     * @param failure the failure message, empty if the tool succeeded
+     */
+    record Result(int exitValue, long pid, int invocation, String failure) {}
+}
@@ -0,0 +1,355 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Measures the execution of a code generation tool: wall time, CPU time, peak heap usage, and the number and size of
+ * the files it wrote. Measurements that are not available in the {@link Scope} of the tool are {@code -1}.
+ * <p>
+ * The files written are those of the output directory that were added or whose modification time or size changed
+ * while the tool ran, so files that other tasks or options keep in the same output directory are not counted, unless
+ * they are written at the same time. A file rewritten within the timestamp resolution of the file system keeps its
+ * modification time, so the contents of the files modified shortly before the tool ran are compared as well.
+ * <p>
+ * The peak heap usage is the peak of the heap of the JVM running the tool, which also holds the objects of the JVM
+ * infrastructure, such as the worker runtime. It is only measured when the tool runs alone in its JVM: in a worker
+ * process, where the heap is collected before the tool runs so that garbage left by previous work is not counted, and
+ * in a forked JVM, where it is measured by the {@link ForkedMetricsAgent}.
+ */
+public final class CodegenMetrics {
+
+    // The coarsest modification time resolution of common file systems, such as FAT.
+    private static final long TIMESTAMP_RESOLUTION_MILLIS = 2000;
+
+    private static final String AGENT_CLASS_NAME = ForkedMetricsAgent.class.getName();
+
+    private CodegenMetrics() {}
+
+    /**
+     * Runs the code generation and measures its execution.
+     * @param name the name of the execution, such as the option or task name
+     * @param outputDirectory the directory the tool writes the generated files to
+     * @param scope where the tool runs relative to the current thread
+     * @param generation the code generation
+     * @return the measurements
+     */
+    public static Execution measure(String name, File outputDirectory, Scope scope, Runnable generation) {
+        List<MemoryPoolMXBean> heapPools = scope == Scope.PROCESS
+                ? ManagementFactory.getMemoryPoolMXBeans().stream()
+                        .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isValid())
+                        .toList()
+                : List.of();
+        if (scope == Scope.PROCESS) {
+            // A reused worker process still holds the garbage of its previous work.
+            System.gc();
+        }
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        Map<Path, FileState> previousFiles = snapshot(outputDirectory.toPath());
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        boolean cpuTime = scope != Scope.FORKED && threads.isCurrentThreadCpuTimeSupported();
+        long startCpu = cpuTime ? threads.getCurrentThreadCpuTime() : 0;
+        long start = System.nanoTime();
+        generation.run();
+        long wallTime = (System.nanoTime() - start) / 1_000_000;
+        long cpu = cpuTime ? (threads.getCurrentThreadCpuTime() - startCpu) / 1_000_000 : -1;
+        long peakHeap = scope == Scope.PROCESS
+                ? heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum()
+                : -1;
+        long files = 0;
+        long bytes = 0;
+        try {
+            for (Path file : regularFiles(outputDirectory.toPath())) {
+                FileState previous = previousFiles.get(file);
+                if (previous == null || previous.isChanged(file)) {
+                    files++;
+                    bytes += Files.size(file);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return new Execution(name, wallTime, cpu, peakHeap, files, bytes);
+    }
+
+    private static Map<Path, FileState> snapshot(Path directory) {
+        long recent = System.currentTimeMillis() - TIMESTAMP_RESOLUTION_MILLIS;
+        Map<Path, FileState> files = new HashMap<>();
+        try {
+            for (Path file : regularFiles(directory)) {
+                FileTime lastModified = Files.getLastModifiedTime(file);
+                byte[] digest = lastModified.toMillis() >= recent ? digest(file) : null;
+                files.put(file, new FileState(lastModified, Files.size(file), digest));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return files;
+    }
+
+    private static List<Path> regularFiles(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    private static byte[] digest(Path file) throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Writes a jar that runs the {@link ForkedMetricsAgent}, replacing the jar written by a previous execution.
+     * @param directory the directory to write the jar to
+     * @return the agent jar
+     */
+    public static File agentJar(File directory) {
+        File jar = new File(directory, "metrics-agent.jar");
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(new Attributes.Name("Premain-Class"), AGENT_CLASS_NAME);
+        String entryName = AGENT_CLASS_NAME.replace('.', '/') + ".class";
+        try (InputStream agent = ForkedMetricsAgent.class.getClassLoader().getResourceAsStream(entryName)) {
+            if (agent == null) {
+                throw new IllegalStateException("Unable to find " + entryName);
+            }
+            Files.createDirectories(directory.toPath());
+            try (JarOutputStream output = new JarOutputStream(Files.newOutputStream(jar.toPath()), manifest)) {
+                output.putNextEntry(new JarEntry(entryName));
+                agent.transferTo(output);
+                output.closeEntry();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return jar;
+    }
+
+    /**
+     * Returns whether a forked JVM can run the {@link ForkedMetricsAgent}, which requires Java 17.
+     * @param runtime the runtime of the forked JVM, or {@code null} if unknown
+     * @return whether the CPU time and peak heap usage of the forked JVM can be measured
+     */
+    public static boolean canMeasureForked(ClassDataArchiveService.@Nullable JavaRuntime runtime) {
+        return runtime != null && runtime.featureVersion() >= 17;
+    }
+
+    /**
+     * Prepares the file a forked JVM writes its measurements to, deleting the measurements of a previous execution.
+     * @param directory the directory to write the measurements to
+     * @return the file the measurements are to be written to
+     */
+    public static File prepareForkedMetrics(File directory) {
+        File metrics = new File(directory, "metrics.txt");
+        try {
+            Files.createDirectories(directory.toPath());
+            Files.deleteIfExists(metrics.toPath());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns the JVM argument that makes a forked JVM write its CPU time and peak heap usage to a file when it exits.
+     * @param agentJar the {@link #agentJar(File) agent jar}
+     * @param metrics the file the measurements are written to
+     * @return the JVM argument
+     */
+    public static String jvmArgument(File agentJar, File metrics) {
+        return "-javaagent:" + agentJar.getAbsolutePath() + "=" + metrics.getAbsolutePath();
+    }
+
+    /**
+     * The state of a file before a tool ran.
+     * @param lastModified the modification time
+     * @param size the size in bytes
+     * @param digest the digest of the contents if the file was modified shortly before, so that a change within the
+     * timestamp resolution can still be detected
+     */
+    private record FileState(FileTime lastModified, long size, byte @Nullable [] digest) {
+
+        boolean isChanged(Path file) throws IOException {
+            if (!Files.getLastModifiedTime(file).equals(this.lastModified) || Files.size(file) != this.size) {
+                return true;
+            }
+            return this.digest != null && !MessageDigest.isEqual(this.digest, CodegenMetrics.digest(file));
+        }
+    }
+
+    /**
+     * Where a code generation tool runs relative to the thread measuring it.
+     */
+    public enum Scope {
+
+        /**
+         * The tool runs alone in the current JVM, such as in a worker process, so that the peak heap usage of the JVM
+         * approximates the peak heap usage of the tool.
+         */
+        PROCESS,
+
+        /**
+         * The tool runs in the current thread of a JVM shared with other work, such as the Gradle daemon.
+         */
+        THREAD,
+
+        /**
+         * The tool runs in a forked JVM, so only the wall time and the generated files are measured, unless the JVM
+         * {@link Execution#withForkedMetrics(File) reports} its CPU time and peak heap usage.
+         */
+        FORKED
+    }
+
+    /**
+     * The measurements of a code generation tool execution.
+     * @param name the name of the execution, such as the option or task name
+     * @param wallTimeMillis the wall time in milliseconds
+     * @param cpuTimeMillis the CPU time in milliseconds, or {@code -1} if unknown
+     * @param peakHeapBytes the peak heap usage of the JVM in bytes, or {@code -1} if unknown
+     * @param generatedFiles the number of files written to the output directory
+     * @param bytesWritten the total size of the files written to the output directory
+     */
+    public record Execution(
+            String name,
+            long wallTimeMillis,
+            long cpuTimeMillis,
+            long peakHeapBytes,
+            long generatedFiles,
+            long bytesWritten) {
+
+        /**
+         * Returns the measurements as a single line of space separated values, without the name.
+         * @return the line
+         */
+        public String toLine() {
+            return this.wallTimeMillis + " " + this.cpuTimeMillis + " " + this.peakHeapBytes + " "
+                    + this.generatedFiles + " " + this.bytesWritten;
+        }
+
+        /**
+         * Returns the measurements completed with the CPU time and peak heap usage that a forked JVM wrote with the
+         * {@link ForkedMetricsAgent}. The CPU time is that of the whole JVM, including JIT compilation and garbage
+         * collection.
+         * @param metrics the file the agent wrote, which does not exist if the tool did not run in a forked JVM
+         * @return the completed measurements, or these measurements if the file does not exist or is malformed
+         */
+        public Execution withForkedMetrics(File metrics) {
+            if (!metrics.isFile()) {
+                return this;
+            }
+            try {
+                String[] parts = Files.readString(metrics.toPath(), StandardCharsets.UTF_8)
+                        .trim()
+                        .split(" ");
+                if (parts.length != 2) {
+                    return this;
+                }
+                return new Execution(
+                        this.name,
+                        this.wallTimeMillis,
+                        Long.parseLong(parts[0]),
+                        Long.parseLong(parts[1]),
+                        this.generatedFiles,
+                        this.bytesWritten);
+            } catch (IOException | NumberFormatException ex) {
+                return this;
+            }
+        }
+
+        /**
+         * Divides the measurements of a tool invocation that generated several options evenly among them. The peak
+         * heap usage is not divided, since it was reached while generating all of them.
+         * @param names the names of the options, in the order they were generated
+         * @return the measurements of each option
+         */
+        public List<Execution> divide(List<String> names) {
+            int count = names.size();
+            List<Execution> executions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                executions.add(new Execution(
+                        names.get(i),
+                        share(this.wallTimeMillis, i, count),
+                        share(this.cpuTimeMillis, i, count),
+                        this.peakHeapBytes,
+                        share(this.generatedFiles, i, count),
+                        share(this.bytesWritten, i, count)));
+            }
+            return executions;
+        }
+
+        private static long share(long value, int index, int count) {
+            if (value < 0) {
+                return value;
+            }
+            // The remainder goes to the first options, so that the shares add up to the value.
+            return value / count + (index < value % count ? 1 : 0);
+        }
+
+        /**
+         * Parses measurements written by {@link #toLine()}.
+         * @param name the name of the execution
+         * @param line the line
+         * @return the measurements, or {@code null} if the line is malformed
+         */
+        public static @Nullable Execution parse(String name, String line) {
+            String[] parts = line.trim().split(" ");
+            if (parts.length != 5) {
+                return null;
+            }
+            try {
+                return new Execution(
+                        name,
+                        Long.parseLong(parts[0]),
+                        Long.parseLong(parts[1]),
+                        Long.parseLong(parts[2]),
+                        Long.parseLong(parts[3]),
+                        Long.parseLong(parts[4]));
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+    }
+}
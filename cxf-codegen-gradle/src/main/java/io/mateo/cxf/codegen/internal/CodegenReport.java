@@ -0,0 +1,246 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes the {@link CodegenMetrics measurements} of code generation tasks to a report directory. Every task writes
+ * a JSON file named after the task, and the {@code index.html} page of the directory is rewritten to show the
+ * executions of all tasks in a single sortable table.
+ */
+public final class CodegenReport {
+
+    /**
+     * Name of the HTML page of the report.
+     */
+    public static final String INDEX_FILE_NAME = "index.html";
+
+    // Tasks share the report directory and may complete at the same time, in this JVM or in other builds. A file
+    // lock is held by the whole JVM, so the threads of this JVM also need to wait for each other.
+    private static final Object lock = new Object();
+
+    private static final String LOCK_FILE_NAME = ".lock";
+
+    private static final String HTML = """
+            <!DOCTYPE html>
+            <html lang="en">
+            <head>
+            <meta charset="UTF-8">
+            <title>CXF Code Generation Report</title>
+            <style>
+            body { font-family: sans-serif; margin: 2em; }
+            table { border-collapse: collapse; }
+            th, td { padding: 0.3em 0.8em; border-bottom: 1px solid #ddd; }
+            th { cursor: pointer; text-align: left; background: #f4f4f4; user-select: none; }
+            td.number { text-align: right; font-variant-numeric: tabular-nums; }
+            </style>
+            </head>
+            <body>
+            <h1>CXF Code Generation Report</h1>
+            <p>Click a column header to sort. Values that cannot be measured are shown as n/a: the peak heap of a tool
+            sharing its JVM with other work, in the classloader isolation mode, and the CPU time and peak heap of a
+            tool running in the code generation daemon or in a forked JVM older than Java 17. The CPU time of a forked
+            JVM covers the whole JVM, including its start-up.</p>
+            <table>
+            <thead><tr></tr></thead>
+            <tbody></tbody>
+            </table>
+            <script>
+            const reports = [
+            /*REPORTS*/
+            ];
+            const columns = [
+              {key: "task", label: "Task"},
+              {key: "tool", label: "Tool"},
+              {key: "name", label: "Option"},
+              {key: "wallTimeMillis", label: "Wall time (ms)", number: true},
+              {key: "cpuTimeMillis", label: "CPU time (ms)", number: true},
+              {key: "peakHeapBytes", label: "Peak heap (MiB)", number: true, scale: 1024 * 1024},
+              {key: "generatedFiles", label: "Files", number: true},
+              {key: "bytesWritten", label: "Bytes written", number: true}
+            ];
+            const rows = reports.flatMap(report => report.executions.map(execution =>
+                Object.assign({task: report.task, tool: report.tool}, execution)));
+            let sortKey = "wallTimeMillis";
+            let descending = true;
+            function format(column, value) {
+              if (value === null || value === undefined) {
+                return "n/a";
+              }
+              return column.scale ? (value / column.scale).toFixed(1) : String(value);
+            }
+            function render() {
+              const column = columns.find(c => c.key === sortKey);
+              rows.sort((a, b) => {
+                const x = a[sortKey] === null ? -1 : a[sortKey];
+                const y = b[sortKey] === null ? -1 : b[sortKey];
+                const order = column.number ? x - y : String(x).localeCompare(String(y));
+                return descending ? -order : order;
+              });
+              const header = document.querySelector("thead tr");
+              header.replaceChildren(...columns.map(c => {
+                const th = document.createElement("th");
+                th.textContent = c.label + (c.key === sortKey ? (descending ? " \\u25bc" : " \\u25b2") : "");
+                th.onclick = () => {
+                  descending = c.key === sortKey ? !descending : c.number === true;
+                  sortKey = c.key;
+                  render();
+                };
+                return th;
+              }));
+              document.querySelector("tbody").replaceChildren(...rows.map(row => {
+                const tr = document.createElement("tr");
+                for (const c of columns) {
+                  const td = document.createElement("td");
+                  td.textContent = format(c, row[c.key]);
+                  if (c.number) {
+                    td.className = "number";
+                  }
+                  tr.appendChild(td);
+                }
+                return tr;
+              }));
+            }
+            render();
+            </script>
+            </body>
+            </html>
+            """;
+
+    private CodegenReport() {}
+
+    /**
+     * Writes the executions of a task to the report directory and updates the HTML page.
+     * @param reportDirectory the report directory
+     * @param taskName the name of the task, used as the name of its JSON file
+     * @param taskPath the path of the task
+     * @param tool the code generation tool, such as {@code wsdl2java}
+     * @param executions the executions of the task
+     */
+    public static void write(
+            File reportDirectory,
+            String taskName,
+            String taskPath,
+            String tool,
+            List<CodegenMetrics.Execution> executions) {
+        synchronized (lock) {
+            try {
+                Path directory = Files.createDirectories(reportDirectory.toPath());
+                try (FileChannel channel = FileChannel.open(
+                        directory.resolve(LOCK_FILE_NAME), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    FileLock fileLock = channel.lock();
+                    try {
+                        write(directory.resolve(taskName + ".json"), json(taskPath, tool, executions));
+                        write(directory.resolve(INDEX_FILE_NAME), html(directory));
+                    } finally {
+                        fileLock.release();
+                    }
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    static String json(String taskPath, String tool, List<CodegenMetrics.Execution> executions) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"task\": ")
+                .append(string(taskPath))
+                .append(",\n  \"tool\": ")
+                .append(string(tool))
+                .append(",\n  \"executions\": [");
+        for (int i = 0; i < executions.size(); i++) {
+            CodegenMetrics.Execution execution = executions.get(i);
+            json.append(i == 0 ? "\n" : ",\n")
+                    .append("    {\"name\": ")
+                    .append(string(execution.name()))
+                    .append(", \"wallTimeMillis\": ")
+                    .append(execution.wallTimeMillis())
+                    .append(", \"cpuTimeMillis\": ")
+                    .append(number(execution.cpuTimeMillis()))
+                    .append(", \"peakHeapBytes\": ")
+                    .append(number(execution.peakHeapBytes()))
+                    .append(", \"generatedFiles\": ")
+                    .append(execution.generatedFiles())
+                    .append(", \"bytesWritten\": ")
+                    .append(execution.bytesWritten())
+                    .append('}');
+        }
+        return json.append(executions.isEmpty() ? "]\n}\n" : "\n  ]\n}\n").toString();
+    }
+
+    private static String html(Path directory) throws IOException {
+        List<String> reports = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(".json"))
+                    .sorted()
+                    .toList()) {
+                reports.add(Files.readString(file, StandardCharsets.UTF_8).trim());
+            }
+        }
+        return HTML.replace("/*REPORTS*/", String.join(",\n", reports));
+    }
+
+    private static String number(long value) {
+        return value < 0 ? "null" : Long.toString(value);
+    }
+
+    private static String string(String value) {
+        StringBuilder json = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    // Escaping '<' keeps the JSON safe to embed in the HTML page.
+                    if (c < 0x20 || c == '<') {
+                        json.append("\\u%04x".formatted((int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(temporary, content, StandardCharsets.UTF_8);
+        try {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.text.ParseException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongFunction;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Records code generation with Java Flight Recorder, using the {@code profile} settings of the JDK, and summarizes
+ * the hot methods and allocations of the recordings.
+ */
+public final class FlightRecordings {
+
+    private static final Logger logger = Logging.getLogger(FlightRecordings.class);
+
+    /**
+     * File extension of flight recordings.
+     */
+    public static final String FILE_EXTENSION = ".jfr";
+
+    private static final int SUMMARY_ENTRIES = 5;
+
+    private FlightRecordings() {}
+
+    /**
+     * Returns the JVM argument that records a forked JVM until it exits.
+     * @param recording the file the recording is written to
+     * @return the JVM argument
+     */
+    public static String jvmArgument(File recording) {
+        return "-XX:StartFlightRecording=settings=profile,dumponexit=true,filename=" + recording.getAbsolutePath();
+    }
+
+    /**
+     * Prepares the recording directory for a recording, deleting the previous recording of the same name.
+     * @param recordingDirectory the recording directory
+     * @param name the name of the recording, such as the task name
+     * @return the file the recording is to be written to
+     */
+    public static File prepare(File recordingDirectory, String name) {
+        File recording = new File(recordingDirectory, name + FILE_EXTENSION);
+        try {
+            Files.createDirectories(recordingDirectory.toPath());
+            Files.deleteIfExists(recording.toPath());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return recording;
+    }
+
+    /**
+     * Runs the code generation while recording the current JVM. The recording is written to
+     * {@code <name>.jfr} in the recording directory, even if the code generation fails.
+     * @param recordingDirectory the recording directory, or {@code null} to run the code generation without
+     * recording
+     * @param name the name of the recording, such as the option name
+     * @param generation the code generation
+     */
+    public static void record(@Nullable File recordingDirectory, String name, Runnable generation) {
+        if (recordingDirectory == null) {
+            generation.run();
+            return;
+        }
+        try (Recording recording = new Recording(profile())) {
+            recording.setName(name);
+            recording.start();
+            try {
+                generation.run();
+            } finally {
+                recording.stop();
+                File file = new File(recordingDirectory, name + FILE_EXTENSION);
+                try {
+                    Files.createDirectories(recordingDirectory.toPath());
+                    recording.dump(file.toPath());
+                } catch (IOException ex) {
+                    logger.warn("Unable to write flight recording '{}'", file, ex);
+                }
+            }
+        }
+    }
+
+    private static Configuration profile() {
+        try {
+            return Configuration.getConfiguration("profile");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (ParseException ex) {
+            throw new IllegalStateException("Unable to read the 'profile' flight recorder settings", ex);
+        }
+    }
+
+    /**
+     * Summarizes the methods most often on top of the stack in execution samples and the classes with the most
+     * sampled allocations across recordings. Recordings that do not exist are ignored.
+     * @param recordings the recordings
+     * @return the summary, one entry per line
+     */
+    public static String summarize(Collection<File> recordings) {
+        Map<String, Long> methods = new HashMap<>();
+        Map<String, Long> allocations = new HashMap<>();
+        int read = 0;
+        for (File file : recordings) {
+            if (!file.isFile()) {
+                continue;
+            }
+            read++;
+            try (RecordingFile recording = new RecordingFile(file.toPath())) {
+                while (recording.hasMoreEvents()) {
+                    RecordedEvent event = recording.readEvent();
+                    switch (event.getEventType().getName()) {
+                        case "jdk.ExecutionSample" -> {
+                            String method = topMethod(event.getStackTrace());
+                            if (method != null) {
+                                methods.merge(method, 1L, Long::sum);
+                            }
+                        }
+                        case "jdk.ObjectAllocationSample" -> {
+                            RecordedClass type = event.getClass("objectClass");
+                            if (type != null) {
+                                allocations.merge(typeName(type.getName()), event.getLong("weight"), Long::sum);
+                            }
+                        }
+                        default -> {}
+                    }
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        StringBuilder summary =
+                new StringBuilder("Summary of ").append(read).append(" flight recording(s)");
+        append(summary, "Hot methods", total -> total + " execution samples", methods);
+        append(summary, "Allocations", total -> (total >> 20) + " MiB sampled", allocations);
+        return summary.toString();
+    }
+
+    private static @Nullable String topMethod(@Nullable RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return null;
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        if (frames.isEmpty()) {
+            return null;
+        }
+        RecordedMethod method = frames.get(0).getMethod();
+        return method.getType().getName() + "." + method.getName();
+    }
+
+    // Array classes are recorded with their descriptor, such as [B for byte[].
+    private static String typeName(String name) {
+        int dimensions = 0;
+        while (dimensions < name.length() && name.charAt(dimensions) == '[') {
+            dimensions++;
+        }
+        if (dimensions == 0 || dimensions == name.length()) {
+            return name;
+        }
+        String element =
+                switch (name.charAt(dimensions)) {
+                    case 'B' -> "byte";
+                    case 'C' -> "char";
+                    case 'D' -> "double";
+                    case 'F' -> "float";
+                    case 'I' -> "int";
+                    case 'J' -> "long";
+                    case 'S' -> "short";
+                    case 'Z' -> "boolean";
+                    default -> name.substring(dimensions + 1, name.length() - 1);
+                };
+        return element + "[]".repeat(dimensions);
+    }
+
+    private static void append(
+            StringBuilder summary, String title, LongFunction<String> description, Map<String, Long> totals) {
+        long total = totals.values().stream().mapToLong(Long::longValue).sum();
+        summary.append('\n').append(title).append(" (").append(description.apply(total)).append(')');
+        if (total == 0) {
+            summary.append("\n  none recorded");
+            return;
+        }
+        totals.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(SUMMARY_ENTRIES)
+                .forEach(entry -> summary.append(String.format(
+                        Locale.ROOT, "\n  %5.1f%% %s", 100.0 * entry.getValue() / total, entry.getKey())));
+    }
+}
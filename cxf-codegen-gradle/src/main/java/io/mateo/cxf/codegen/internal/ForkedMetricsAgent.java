@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryType;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Java agent that writes the CPU time and the peak heap usage of a forked JVM running a code generation tool to a
+ * file when the JVM exits, as space separated values in milliseconds and bytes, {@code -1} if unknown.
+ * <p>
+ * The {@link CodegenMetrics#agentJar(java.io.File) agent jar} only contains this class, so it must not use any other
+ * class of the plugin.
+ */
+public final class ForkedMetricsAgent {
+
+    private ForkedMetricsAgent() {}
+
+    /**
+     * Registers the shutdown hook writing the measurements.
+     * @param metrics the file the measurements are written to
+     */
+    public static void premain(String metrics) {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> write(Path.of(metrics)), "cxf-codegen-metrics"));
+    }
+
+    static void write(Path metrics) {
+        long peakHeap = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isValid())
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+        try {
+            Files.writeString(metrics, cpuTime() + " " + peakHeap, StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            // The measurements are reported as unknown.
+        }
+    }
+
+    private static long cpuTime() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        try {
+            if (os instanceof com.sun.management.OperatingSystemMXBean processOs) {
+                long cpuTime = processOs.getProcessCpuTime();
+                return cpuTime < 0 ? -1 : cpuTime / 1_000_000;
+            }
+        } catch (LinkageError ex) {
+            // The jdk.management module is not available.
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Moves generated files from a staging directory into an output directory, only writing the files whose contents
+ * changed. Unchanged files are left untouched so that tasks consuming the output, such as Java compilation, see as
+ * few changes as possible.
+ * <p>
+ * Output directories may be shared with other tasks or options. Therefore, only files recorded in a manifest by the
+ * previous synchronization are ever deleted.
+ */
+public final class OutputSync {
+
+    private OutputSync() {}
+
+    /**
+     * Synchronizes the output directory with the staging directory. Files that only exist in the staging directory
+     * are added and files whose contents differ are replaced. Files recorded in the manifest that no longer exist in
+     * the staging directory are deleted. Afterward, the manifest records the staged files and the staging directory
+     * is deleted.
+     * @param stagingDirectory the directory the files were generated into
+     * @param outputDirectory the output directory
+     * @param manifest the file recording the files written by the previous synchronization
+     * @return the number of files added, modified, unchanged and deleted
+     */
+    public static Result sync(File stagingDirectory, File outputDirectory, File manifest) {
+        Path staging = stagingDirectory.toPath();
+        Path output = outputDirectory.toPath();
+        int added = 0;
+        int modified = 0;
+        int unchanged = 0;
+        int deleted = 0;
+        try {
+            Set<String> staged = new TreeSet<>();
+            for (Path file : files(staging)) {
+                Path relativePath = staging.relativize(file);
+                staged.add(relativePath.toString().replace(File.separatorChar, '/'));
+                Path target = output.resolve(relativePath);
+                if (!Files.exists(target)) {
+                    Files.createDirectories(target.getParent());
+                    Files.move(file, target);
+                    added++;
+                } else if (Files.mismatch(file, target) == -1L) {
+                    unchanged++;
+                } else {
+                    Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+                    modified++;
+                }
+            }
+            for (String previous : readManifest(manifest.toPath())) {
+                Path file = output.resolve(previous).normalize();
+                if (!staged.contains(previous) && file.startsWith(output) && Files.deleteIfExists(file)) {
+                    deleted++;
+                    deleteEmptyParents(file, output);
+                }
+            }
+            Files.createDirectories(manifest.toPath().getParent());
+            Files.write(manifest.toPath(), staged);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        delete(stagingDirectory);
+        return new Result(added, modified, unchanged, deleted);
+    }
+
+    /**
+     * Deletes the directory and its contents, if it exists.
+     * @param directory the directory to delete
+     */
+    public static void delete(File directory) {
+        Path root = directory.toPath();
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static List<Path> files(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    private static List<String> readManifest(Path manifest) throws IOException {
+        if (!Files.isRegularFile(manifest)) {
+            return List.of();
+        }
+        return Files.readAllLines(manifest);
+    }
+
+    private static void deleteEmptyParents(Path file, Path root) throws IOException {
+        for (Path directory = file.getParent();
+                directory != null && !directory.equals(root);
+                directory = directory.getParent()) {
+            try (Stream<Path> children = Files.list(directory)) {
+                if (children.findAny().isPresent()) {
+                    return;
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    /**
+     * The outcome of synchronizing an output directory.
+     * @param added the number of files added
+     * @param modified the number of files whose contents changed
+     * @param unchanged the number of files left untouched
+     * @param deleted the number of files deleted
+     */
+    public record Result(int added, int modified, int unchanged, int deleted) {
+
+        /**
+         * A result where no files were synchronized.
+         */
+        public static final Result NONE = new Result(0, 0, 0, 0);
+
+        /**
+         * Returns the sum of this result and the given result.
+         * @param other the other result
+         * @return the combined result
+         */
+        public Result plus(Result other) {
+            return new Result(
+                    this.added + other.added,
+                    this.modified + other.modified,
+                    this.unchanged + other.unchanged,
+                    this.deleted + other.deleted);
+        }
+
+        @Override
+        public String toString() {
+            return "%d added, %d modified, %d unchanged, %d deleted"
+                    .formatted(this.added, this.modified, this.unchanged, this.deleted);
+        }
+    }
+}
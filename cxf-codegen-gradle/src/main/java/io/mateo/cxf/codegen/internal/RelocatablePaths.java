@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import java.io.File;
+import java.nio.file.Path;
+import org.gradle.api.file.Directory;
+
+/**
+ * Converts paths to a form that does not depend on where the project is located, so that generated code and build
+ * cache keys are the same for every checkout of the project.
+ */
+public final class RelocatablePaths {
+
+    private RelocatablePaths() {}
+
+    /**
+     * Returns the path of the file relative to the base directory using {@code /} as the separator. If no relative
+     * path exists, such as for a file on another drive, the absolute path is returned.
+     * @param baseDirectory the base directory
+     * @param file the file
+     * @return the relative path
+     */
+    public static String relativize(File baseDirectory, File file) {
+        Path base = baseDirectory.toPath().toAbsolutePath().normalize();
+        Path path = file.toPath().toAbsolutePath().normalize();
+        try {
+            return base.relativize(path).toString().replace(File.separatorChar, '/');
+        } catch (IllegalArgumentException ex) {
+            return path.toString();
+        }
+    }
+
+    /**
+     * Returns the WSDL location relative to the project directory if it is a local file; otherwise the location is
+     * returned as-is.
+     * @param projectDirectory the project directory
+     * @param wsdl the WSDL location
+     * @return the relocatable WSDL location
+     */
+    public static String wsdlLocation(Directory projectDirectory, String wsdl) {
+        File file = WsdlDocuments.toLocalFile(projectDirectory, wsdl);
+        if (file == null) {
+            return wsdl;
+        }
+        return relativize(projectDirectory.getAsFile(), file);
+    }
+}
@@ -0,0 +1,415 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import org.gradle.api.GradleException;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.jspecify.annotations.Nullable;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * Mirrors remote WSDL documents, and the documents they import or include, into a local cache so that code
+ * generation does not depend on the remote endpoint being available.
+ * <p>
+ * The cache directory holds:
+ * <ul>
+ * <li>{@code content/<sha256>}: the downloaded documents, addressed by the hash of their contents.</li>
+ * <li>{@code urls/<sha256>.properties}: the {@code ETag}, {@code Last-Modified} and content hash of each URL, used
+ * to revalidate the cached copy with a conditional request.</li>
+ * <li>{@code documents/<sha256>/<name>}: the local copy of each URL with its imports rewritten to the local copies of
+ * the imported documents.</li>
+ * </ul>
+ * An instance fetches each URL at most once. Instances are not thread-safe.
+ */
+public final class RemoteDocumentCache {
+
+    private static final Logger logger = Logging.getLogger(RemoteDocumentCache.class);
+
+    private static final String WSDL_11_NAMESPACE = "http://schemas.xmlsoap.org/wsdl/";
+
+    private static final String WSDL_20_NAMESPACE = "http://www.w3.org/ns/wsdl";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final Path directory;
+
+    private final boolean offline;
+
+    private final Map<URI, Path> mirrored = new HashMap<>();
+
+    private final Map<URI, String> contentHashes = new HashMap<>();
+
+    private final Map<URI, Set<URI>> references = new HashMap<>();
+
+    private @Nullable HttpClient client;
+
+    /**
+     * Creates a new cache.
+     * @param directory the cache directory
+     * @param offline whether to use cached copies without contacting the remote endpoints
+     */
+    public RemoteDocumentCache(File directory, boolean offline) {
+        this.directory = directory.toPath();
+        this.offline = offline;
+    }
+
+    /**
+     * Determines whether the location is a remote document that can be mirrored.
+     * @param location the location
+     * @return whether the location is an {@code http} or {@code https} URL
+     */
+    public static boolean isRemote(String location) {
+        try {
+            String scheme = new URI(location).getScheme();
+            return "http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme);
+        } catch (URISyntaxException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Mirrors the remote document and every remote document it imports or includes, directly or transitively.
+     * @param location the URL of the document
+     * @return the local copy of the document
+     * @throws GradleException if a document can not be fetched and no cached copy exists
+     */
+    public File mirror(String location) {
+        try {
+            return mirror(new URI(location).normalize()).toFile();
+        } catch (URISyntaxException ex) {
+            throw new GradleException("Invalid remote document location '" + location + "'", ex);
+        }
+    }
+
+    /**
+     * Mirrors the remote document like {@link #mirror(String)}, and returns a fingerprint of the contents of the
+     * document and of every remote document it imports or includes, directly or transitively. As the cached copies
+     * are revalidated, the fingerprint changes when a remote document changes, so it can be tracked as a task input.
+     * @param location the URL of the document
+     * @return the fingerprint
+     * @throws GradleException if a document can not be fetched and no cached copy exists
+     */
+    public String fingerprint(String location) {
+        URI root;
+        try {
+            root = new URI(location).normalize();
+        } catch (URISyntaxException ex) {
+            throw new GradleException("Invalid remote document location '" + location + "'", ex);
+        }
+        mirror(root);
+        Map<URI, String> documents = new TreeMap<>();
+        Deque<URI> pending = new ArrayDeque<>(List.of(root));
+        while (!pending.isEmpty()) {
+            URI uri = pending.pop();
+            if (!documents.containsKey(uri)) {
+                documents.put(uri, this.contentHashes.get(uri));
+                pending.addAll(this.references.getOrDefault(uri, Set.of()));
+            }
+        }
+        StringBuilder fingerprint = new StringBuilder();
+        documents.forEach((uri, hash) -> fingerprint.append(uri).append('=').append(hash).append('\n'));
+        return sha256(fingerprint.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Path mirror(URI uri) {
+        Path local = this.mirrored.get(uri);
+        if (local != null) {
+            return local;
+        }
+        String key = sha256(uri.toString().getBytes(StandardCharsets.UTF_8));
+        local = this.directory.resolve("documents").resolve(key).resolve(fileName(uri));
+        // Registered before the imports are followed so that cyclic imports terminate.
+        this.mirrored.put(uri, local);
+        byte[] content = fetch(uri, key);
+        this.contentHashes.put(uri, sha256(content));
+        writeIfChanged(local, rewrite(uri, content));
+        return local;
+    }
+
+    private byte[] fetch(URI uri, String key) {
+        Path metadataFile = this.directory.resolve("urls").resolve(key + ".properties");
+        Properties metadata = loadMetadata(metadataFile);
+        byte[] cached = cachedContent(metadata);
+        if (this.offline) {
+            if (cached == null) {
+                throw new GradleException("No cached copy of '" + uri + "' is available in offline mode");
+            }
+            return cached;
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(TIMEOUT).GET();
+        if (cached != null) {
+            String etag = metadata.getProperty("etag");
+            if (etag != null) {
+                request.header("If-None-Match", etag);
+            }
+            String lastModified = metadata.getProperty("lastModified");
+            if (lastModified != null) {
+                request.header("If-Modified-Since", lastModified);
+            }
+        }
+        HttpResponse<byte[]> response;
+        try {
+            response = client().send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException ex) {
+            return fallback(uri, cached, ex.toString());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new GradleException("Interrupted while fetching '" + uri + "'", ex);
+        }
+        if (response.statusCode() == 304 && cached != null) {
+            logger.info("Cached copy of '{}' is up-to-date", uri);
+            return cached;
+        }
+        if (response.statusCode() != 200) {
+            return fallback(uri, cached, "HTTP status " + response.statusCode());
+        }
+        byte[] content = response.body();
+        String hash = sha256(content);
+        writeIfChanged(this.directory.resolve("content").resolve(hash), content);
+        Properties updated = new Properties();
+        updated.setProperty("url", uri.toString());
+        updated.setProperty("content", hash);
+        response.headers().firstValue("ETag").ifPresent(etag -> updated.setProperty("etag", etag));
+        response.headers()
+                .firstValue("Last-Modified")
+                .ifPresent(lastModified -> updated.setProperty("lastModified", lastModified));
+        storeMetadata(metadataFile, updated);
+        return content;
+    }
+
+    private byte[] fallback(URI uri, byte @Nullable [] cached, String reason) {
+        if (cached == null) {
+            throw new GradleException("Unable to fetch '" + uri + "': " + reason);
+        }
+        logger.warn("Unable to fetch '{}' ({}); using the cached copy", uri, reason);
+        return cached;
+    }
+
+    private byte @Nullable [] cachedContent(Properties metadata) {
+        String hash = metadata.getProperty("content");
+        if (hash == null) {
+            return null;
+        }
+        Path content = this.directory.resolve("content").resolve(hash);
+        if (!Files.isRegularFile(content)) {
+            return null;
+        }
+        try {
+            return Files.readAllBytes(content);
+        } catch (IOException ex) {
+            logger.info("Unable to read cached content {}", content, ex);
+            return null;
+        }
+    }
+
+    private byte[] rewrite(URI uri, byte[] content) {
+        Document document;
+        try {
+            document = newDocumentBuilder().parse(new ByteArrayInputStream(content), uri.toString());
+        } catch (IOException | SAXException | ParserConfigurationException ex) {
+            // Not an XML document; the tool reports actual errors.
+            logger.debug("Unable to parse {} for imports", uri, ex);
+            return content;
+        }
+        boolean changed = false;
+        NodeList elements = document.getElementsByTagNameNS("*", "*");
+        for (int i = 0; i < elements.getLength(); i++) {
+            Element element = (Element) elements.item(i);
+            String attribute = referenceAttribute(element);
+            if (attribute == null || !element.hasAttribute(attribute)) {
+                continue;
+            }
+            URI referenced;
+            try {
+                referenced = uri.resolve(new URI(element.getAttribute(attribute).trim())).normalize();
+            } catch (URISyntaxException | IllegalArgumentException ex) {
+                continue;
+            }
+            if (isRemote(referenced.toString())) {
+                this.references.computeIfAbsent(uri, key -> new TreeSet<>()).add(referenced);
+                element.setAttribute(attribute, mirror(referenced).toUri().toString());
+                changed = true;
+            }
+        }
+        if (!changed) {
+            return content;
+        }
+        try {
+            TransformerFactory factory = TransformerFactory.newInstance();
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_STYLESHEET, "");
+            Transformer transformer = factory.newTransformer();
+            transformer.setOutputProperty(OutputKeys.ENCODING, StandardCharsets.UTF_8.name());
+            ByteArrayOutputStream output = new ByteArrayOutputStream(content.length);
+            transformer.transform(new DOMSource(document), new StreamResult(output));
+            return output.toByteArray();
+        } catch (TransformerException ex) {
+            throw new GradleException("Unable to rewrite imports of '" + uri + "'", ex);
+        }
+    }
+
+    private static @Nullable String referenceAttribute(Element element) {
+        String namespace = element.getNamespaceURI();
+        String name = element.getLocalName();
+        if (WSDL_11_NAMESPACE.equals(namespace) || WSDL_20_NAMESPACE.equals(namespace)) {
+            return "import".equals(name) || "include".equals(name) ? "location" : null;
+        }
+        if (XMLConstants.W3C_XML_SCHEMA_NS_URI.equals(namespace)) {
+            return "import".equals(name) || "include".equals(name) || "redefine".equals(name)
+                    ? "schemaLocation"
+                    : null;
+        }
+        return null;
+    }
+
+    private HttpClient client() {
+        if (this.client == null) {
+            this.client = HttpClient.newBuilder()
+                    .connectTimeout(TIMEOUT)
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .build();
+        }
+        return this.client;
+    }
+
+    private static String fileName(URI uri) {
+        String path = uri.getPath();
+        String name = path != null ? path.substring(path.lastIndexOf('/') + 1) : "";
+        name = name.replaceAll("[^A-Za-z0-9._-]", "_");
+        if (name.isEmpty() || name.startsWith(".")) {
+            name = "document" + name;
+        }
+        String lowerCase = name.toLowerCase(Locale.ROOT);
+        if (!lowerCase.endsWith(".wsdl") && !lowerCase.endsWith(".xsd") && !lowerCase.endsWith(".xml")) {
+            name = name + ".xml";
+        }
+        return name;
+    }
+
+    private static Properties loadMetadata(Path file) {
+        Properties properties = new Properties();
+        if (Files.isRegularFile(file)) {
+            try (InputStream input = Files.newInputStream(file)) {
+                properties.load(input);
+            } catch (IOException ex) {
+                logger.info("Unable to read cache metadata {}", file, ex);
+                properties.clear();
+            }
+        }
+        return properties;
+    }
+
+    private static void storeMetadata(Path file, Properties properties) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (OutputStream stream = output) {
+            properties.store(stream, null);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        // Drop the timestamp comment so that unchanged metadata is not rewritten.
+        String content = output.toString(StandardCharsets.ISO_8859_1);
+        content = content.substring(content.indexOf('\n') + 1);
+        writeIfChanged(file, content.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static void writeIfChanged(Path file, byte[] content) {
+        try {
+            if (Files.isRegularFile(file) && Arrays.equals(Files.readAllBytes(file), content)) {
+                return;
+            }
+            Files.createDirectories(file.getParent());
+            // Other builds may use the same cache concurrently, so never expose partially written files.
+            Path temporary = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temporary, content);
+                try {
+                    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static DocumentBuilder newDocumentBuilder() throws ParserConfigurationException {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+        factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        factory.setExpandEntityReferences(false);
+        return factory.newDocumentBuilder();
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
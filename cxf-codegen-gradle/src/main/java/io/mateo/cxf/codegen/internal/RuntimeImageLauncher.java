@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import io.mateo.cxf.codegen.internal.ClassDataArchiveService.JavaRuntime;
+import java.io.File;
+import java.util.List;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.file.RegularFile;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Provider;
+import org.gradle.jvm.toolchain.JavaInstallationMetadata;
+import org.gradle.jvm.toolchain.JavaLauncher;
+
+/**
+ * Java launcher that runs a code generation tool with a runtime image linked for its classpath. The image is only
+ * linked when the executable is first requested, so it is neither an input of the task nor part of its build cache
+ * key, and the metadata of the Java installation the image is linked from is tracked instead.
+ */
+public final class RuntimeImageLauncher implements JavaLauncher {
+
+    private static final Logger logger = Logging.getLogger(RuntimeImageLauncher.class);
+
+    private final JavaLauncher launcher;
+
+    private final Provider<RuntimeImageService> service;
+
+    private final FileCollection classpath;
+
+    private final Provider<String> executable;
+
+    /**
+     * Creates a new instance.
+     * @param launcher the launcher of the Java installation to link the image from
+     * @param service the service linking the runtime images
+     * @param classpath the tool classpath
+     * @param executable the custom executable of the task, used instead of the image when present
+     */
+    public RuntimeImageLauncher(
+            JavaLauncher launcher,
+            Provider<RuntimeImageService> service,
+            FileCollection classpath,
+            Provider<String> executable) {
+        this.launcher = launcher;
+        this.service = service;
+        this.classpath = classpath;
+        this.executable = executable;
+    }
+
+    @Override
+    public JavaInstallationMetadata getMetadata() {
+        return this.launcher.getMetadata();
+    }
+
+    @Override
+    public RegularFile getExecutablePath() {
+        if (this.executable.isPresent()) {
+            logger.info("Not using a runtime image with the custom executable {}", this.executable.get());
+            File custom = new File(this.executable.get());
+            return () -> custom;
+        }
+        File image = this.service
+                .get()
+                .executable(JavaRuntime.of(this.launcher), List.copyOf(this.classpath.getFiles()), false);
+        return image != null ? () -> image : this.launcher.getExecutablePath();
+    }
+}
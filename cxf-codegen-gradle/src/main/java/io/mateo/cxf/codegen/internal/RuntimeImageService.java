@@ -0,0 +1,326 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import io.mateo.cxf.codegen.internal.ClassDataArchiveService.JavaRuntime;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.process.JavaForkOptions;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Shared build service that links trimmed Java runtime images for the classpaths of forked code generation tools, so
+ * that forked JVMs only boot the modules the tool needs instead of the module graph of a full JDK.
+ * <p>
+ * The modules of an image are the modules {@code jdeps} finds to be required by the classpath, and the modules that
+ * the tools load reflectively, such as the Java compiler. An image for worker processes additionally contains the
+ * {@code java.se} modules that the Gradle worker runtime needs. Images are linked with the {@code jdeps} and
+ * {@code jlink} tools of the Java runtime they are created from, with a default class data archive when {@code jlink}
+ * supports it, and stored in the cache directory, keyed by a hash of the Java runtime and the classpath. If an image
+ * cannot be linked, for example because the runtime has no {@code jlink} tool, the full Java runtime is used and the
+ * failure is not retried for the same key.
+ */
+public abstract class RuntimeImageService implements BuildService<RuntimeImageService.Params> {
+
+    /**
+     * Name the service is registered with.
+     */
+    public static final String NAME = "cxfCodegenRuntimeImages";
+
+    private static final Logger logger = Logging.getLogger(RuntimeImageService.class);
+
+    private static final long LINK_TIMEOUT_MINUTES = 5;
+
+    private static final String FAILED_MARKER = "failed";
+
+    private static final String IMAGE = "image";
+
+    private static final String GENERATE_CDS_ARCHIVE = "--generate-cds-archive";
+
+    /**
+     * Modules that the code generation tools load without a static reference from the classpath, and that the
+     * {@link ForkedMetricsAgent} needs, added to an image when the Java runtime provides them.
+     */
+    static final List<String> TOOL_MODULES = List.of(
+            "java.instrument",
+            "java.management",
+            "jdk.charsets",
+            "jdk.compiler",
+            "jdk.crypto.ec",
+            "jdk.jfr",
+            "jdk.localedata",
+            "jdk.management",
+            "jdk.zipfs");
+
+    /**
+     * Modules that the Gradle worker runtime needs in addition to the modules of the tool.
+     */
+    static final List<String> WORKER_MODULES = List.of("java.se", "jdk.management", "jdk.unsupported");
+
+    // Static so that concurrent builds in the same daemon link an image only once.
+    private static final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the {@code java} executable of the runtime image for a classpath, linking the image if necessary. If no
+     * image can be used, {@code null} is returned.
+     * @param runtime the Java runtime to link the image from
+     * @param classpath the tool classpath
+     * @param worker whether the image is for a Gradle worker process
+     * @return the {@code java} executable of the image, or {@code null}
+     */
+    public @Nullable File executable(JavaRuntime runtime, List<File> classpath, boolean worker) {
+        return executable(getParameters().getCacheDirectory().get().getAsFile(), runtime, classpath, worker);
+    }
+
+    /**
+     * Configures a worker process to run with the runtime image for its classpath, linking the image if necessary. The
+     * worker process keeps its executable if no image can be used or if it does not run on the Java runtime of the
+     * Gradle daemon.
+     * @param forkOptions the fork options of the worker process
+     * @param classpath the tool classpath
+     */
+    public void useRuntimeImage(JavaForkOptions forkOptions, List<File> classpath) {
+        JavaRuntime runtime = JavaRuntime.current();
+        String executable = forkOptions.getExecutable();
+        File bin = runtime.executable().getParentFile();
+        if (executable != null && !new File(executable).getAbsoluteFile().getParentFile().equals(bin)) {
+            logger.info("Not using a runtime image for worker processes with the custom executable {}", executable);
+            return;
+        }
+        File image = executable(runtime, classpath, true);
+        if (image != null) {
+            forkOptions.setExecutable(image);
+        }
+    }
+
+    static @Nullable File executable(File cacheDirectory, JavaRuntime runtime, List<File> classpath, boolean worker) {
+        String key = key(runtime, classpath, worker);
+        File directory = new File(cacheDirectory, key);
+        File image = new File(directory, IMAGE);
+        synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+            if (!image.isDirectory() && !new File(directory, FAILED_MARKER).isFile()) {
+                create(runtime, classpath, worker, directory, image);
+            }
+        }
+        if (!image.isDirectory()) {
+            return null;
+        }
+        File executable = new File(image, "bin/" + runtime.executable().getName());
+        logger.info("Using runtime image {}", image);
+        return executable;
+    }
+
+    static String key(JavaRuntime runtime, List<File> classpath, boolean worker) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        List<String> values = new ArrayList<>();
+        values.add(runtime.executable().getAbsolutePath());
+        values.add(runtime.version());
+        values.add(worker ? "worker" : "tool");
+        for (File entry : classpath) {
+            values.add(entry.getAbsolutePath());
+            values.add(entry.length() + ":" + entry.lastModified());
+        }
+        for (String value : values) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Returns the modules to link into an image.
+     * @param required the modules required by the classpath, as printed by {@code jdeps}
+     * @param available the modules of the Java runtime, as listed by {@code java --list-modules}
+     * @param worker whether the image is for a Gradle worker process
+     * @return the modules, sorted by name
+     */
+    static Set<String> modules(String required, String available, boolean worker) {
+        Set<String> runtimeModules = available.lines()
+                .map(String::strip)
+                .filter(line -> !line.isEmpty())
+                .map(line -> line.contains("@") ? line.substring(0, line.indexOf('@')) : line)
+                .collect(Collectors.toSet());
+        Set<String> modules = new TreeSet<>();
+        modules.add("java.base");
+        for (String module : required.strip().split(",")) {
+            if (!module.isBlank()) {
+                modules.add(module.strip());
+            }
+        }
+        List<String> optional = new ArrayList<>(TOOL_MODULES);
+        if (worker) {
+            optional.addAll(WORKER_MODULES);
+        }
+        optional.stream().filter(runtimeModules::contains).forEach(modules::add);
+        return modules;
+    }
+
+    private static void create(
+            JavaRuntime runtime, List<File> classpath, boolean worker, File directory, File image) {
+        try {
+            Files.createDirectories(directory.toPath());
+            try (FileChannel channel = FileChannel.open(
+                    directory.toPath().resolve("lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    // Another build may have linked the image while waiting for the lock.
+                    if (image.isDirectory() || new File(directory, FAILED_MARKER).isFile()) {
+                        return;
+                    }
+                    logger.info("Linking runtime image {}", image);
+                    File log = new File(directory, "link.log");
+                    Files.deleteIfExists(log.toPath());
+                    if (link(runtime, classpath, worker, directory, image, log)) {
+                        logger.info("Linked runtime image {}", image);
+                    } else {
+                        Files.createFile(directory.toPath().resolve(FAILED_MARKER));
+                        logger.warn(
+                                "Unable to link a runtime image from {}, see {} for details",
+                                runtime.executable(),
+                                log);
+                    }
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static boolean link(
+            JavaRuntime runtime, List<File> classpath, boolean worker, File directory, File image, File log)
+            throws IOException {
+        File jdeps = tool(runtime, "jdeps");
+        File jlink = tool(runtime, "jlink");
+        if (jdeps == null || jlink == null) {
+            Files.writeString(log.toPath(), "No jdeps or jlink tool next to " + runtime.executable());
+            return false;
+        }
+        Path linking = Files.createTempDirectory(directory.toPath(), "linking");
+        try {
+            List<String> jdepsCommand = new ArrayList<>();
+            jdepsCommand.add(jdeps.getAbsolutePath());
+            jdepsCommand.add("--print-module-deps");
+            jdepsCommand.add("--ignore-missing-deps");
+            jdepsCommand.add("--multi-release");
+            jdepsCommand.add(String.valueOf(runtime.featureVersion()));
+            classpath.stream().filter(File::exists).map(File::getAbsolutePath).forEach(jdepsCommand::add);
+            String required = run(jdepsCommand, log);
+            String available = run(List.of(runtime.executable().getAbsolutePath(), "--list-modules"), log);
+            if (required == null || available == null) {
+                return false;
+            }
+            Path linked = linking.resolve(IMAGE);
+            List<String> jlinkCommand = new ArrayList<>();
+            jlinkCommand.add(jlink.getAbsolutePath());
+            jlinkCommand.add("--add-modules");
+            jlinkCommand.add(String.join(",", modules(required, available, worker)));
+            jlinkCommand.add("--strip-debug");
+            jlinkCommand.add("--no-header-files");
+            jlinkCommand.add("--no-man-pages");
+            String plugins = run(List.of(jlink.getAbsolutePath(), "--list-plugins"), log);
+            if (plugins != null && plugins.contains(GENERATE_CDS_ARCHIVE)) {
+                jlinkCommand.add(GENERATE_CDS_ARCHIVE);
+            }
+            jlinkCommand.add("--output");
+            jlinkCommand.add(linked.toString());
+            if (run(jlinkCommand, log) == null || !Files.isDirectory(linked)) {
+                return false;
+            }
+            Files.move(linked, image.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } finally {
+            OutputSync.delete(linking.toFile());
+        }
+    }
+
+    private static @Nullable File tool(JavaRuntime runtime, String name) {
+        File bin = runtime.executable().getParentFile();
+        for (String fileName : List.of(name, name + ".exe")) {
+            File tool = new File(bin, fileName);
+            if (tool.isFile()) {
+                return tool;
+            }
+        }
+        return null;
+    }
+
+    private static @Nullable String run(List<String> command, File log) throws IOException {
+        Files.writeString(
+                log.toPath(),
+                String.join(" ", command) + System.lineSeparator(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+        Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.appendTo(log))
+                .start();
+        try {
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            Files.writeString(log.toPath(), output, StandardOpenOption.APPEND);
+            if (!process.waitFor(LINK_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+                process.destroyForcibly();
+                return null;
+            }
+            return process.exitValue() == 0 ? output : null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            process.destroyForcibly();
+            return null;
+        }
+    }
+
+    /**
+     * Parameters for {@link RuntimeImageService}.
+     */
+    public interface Params extends BuildServiceParameters {
+
+        /**
+         * Directory the runtime images are stored in.
+         * @return the cache directory
+         */
+        DirectoryProperty getCacheDirectory();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * JVM arguments tuned for the start-up of the short-lived JVMs forked to run the code generation tools.
+ * <p>
+ * The profile limits JIT compilation to the C1 compiler, uses the serial garbage collector, and sizes the maximum
+ * heap from the memory expected to generate the code. Only when explicitly requested, the profile also skips the
+ * bytecode verification of the classes loaded from the classpath of the forked JVM: the JDK classes are never verified,
+ * so this only helps when the tool classpath is trusted. An argument of the profile is left out when the same option is
+ * already configured for the forked JVM, so that the configured JVM arguments always take precedence.
+ */
+public final class StartupProfile {
+
+    /**
+     * Smallest maximum heap size of the profile, in bytes.
+     */
+    static final long MIN_HEAP_SIZE = 256L * 1024 * 1024;
+
+    private static final String[] GARBAGE_COLLECTORS = {
+        "-XX:+UseSerialGC",
+        "-XX:+UseParallelGC",
+        "-XX:+UseG1GC",
+        "-XX:+UseZGC",
+        "-XX:+UseShenandoahGC",
+        "-XX:+UseEpsilonGC"
+    };
+
+    private StartupProfile() {}
+
+    /**
+     * Returns the JVM arguments of the profile.
+     * @param jvmArguments the JVM arguments already configured for the forked JVM
+     * @param maxHeapSize the maximum heap size already configured for the forked JVM, if any
+     * @param expectedMemory the memory expected to generate the code, in bytes
+     * @param skipBytecodeVerification whether to skip the bytecode verification of the classes loaded from the
+     * classpath, which the JDK deprecated and warns about on start-up
+     * @return the JVM arguments to add
+     */
+    public static List<String> jvmArguments(
+            List<String> jvmArguments,
+            @Nullable String maxHeapSize,
+            long expectedMemory,
+            boolean skipBytecodeVerification) {
+        List<String> arguments = new ArrayList<>();
+        if (!configured(jvmArguments, "-XX:TieredStopAtLevel=")) {
+            arguments.add("-XX:TieredStopAtLevel=1");
+        }
+        if (!configured(jvmArguments, GARBAGE_COLLECTORS)) {
+            arguments.add("-XX:+UseSerialGC");
+        }
+        if (skipBytecodeVerification
+                && !configured(jvmArguments, "-XX:+BytecodeVerificationRemote", "-XX:-BytecodeVerificationRemote")) {
+            arguments.add("-XX:-BytecodeVerificationRemote");
+        }
+        if (maxHeapSize == null && !configured(jvmArguments, "-Xmx", "-XX:MaxHeapSize=")) {
+            arguments.add("-Xmx" + heapSize(expectedMemory) / (1024 * 1024) + "m");
+        }
+        return arguments;
+    }
+
+    /**
+     * Returns the maximum heap size for the memory expected to generate the code, rounded up to a power of two so
+     * that forked JVMs for code generation of similar size share the same JVM arguments.
+     * @param expectedMemory the memory expected to generate the code, in bytes
+     * @return the maximum heap size, in bytes
+     */
+    static long heapSize(long expectedMemory) {
+        if (expectedMemory <= MIN_HEAP_SIZE) {
+            return MIN_HEAP_SIZE;
+        }
+        return Long.highestOneBit(expectedMemory - 1) << 1;
+    }
+
+    private static boolean configured(List<String> jvmArguments, String... prefixes) {
+        for (String argument : jvmArguments) {
+            for (String prefix : prefixes) {
+                if (argument.startsWith(prefix)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
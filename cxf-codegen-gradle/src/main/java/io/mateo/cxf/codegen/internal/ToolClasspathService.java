@@ -0,0 +1,209 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.DependencyConstraint;
+import org.gradle.api.artifacts.ExcludeRule;
+import org.gradle.api.artifacts.ExternalModuleDependency;
+import org.gradle.api.artifacts.repositories.ArtifactRepository;
+import org.gradle.api.artifacts.repositories.FlatDirectoryArtifactRepository;
+import org.gradle.api.artifacts.repositories.UrlArtifactRepository;
+import org.gradle.api.attributes.Attribute;
+import org.gradle.api.attributes.AttributeContainer;
+import org.gradle.api.capabilities.Capability;
+import org.gradle.api.internal.artifacts.configurations.ResolutionStrategyInternal;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Shared build service that resolves the classpath of the code generation tools once per build for all projects that
+ * declare the same tool dependencies, such as the default dependencies of a CXF version.
+ * <p>
+ * The classpath of a {@code cxfCodegen} configuration is keyed by the repositories of its project and by its
+ * attributes, declared dependencies, dependency constraints, excludes and conflict resolution. Only configurations
+ * whose dependencies are all external modules and whose resolution strategy has no rules are shared: the resolved files
+ * of the first configuration with a key are returned for every other configuration with the same key. Any other
+ * configuration, such as one with file or project dependencies, forced modules, {@code eachDependency} or dependency
+ * substitution rules, component selection rules or dependency locking, is returned as is and resolved by its own
+ * project.
+ */
+public abstract class ToolClasspathService implements BuildService<BuildServiceParameters.None> {
+
+    /**
+     * Name the service is registered with.
+     */
+    public static final String NAME = "cxfCodegenToolClasspaths";
+
+    private static final Logger logger = Logging.getLogger(ToolClasspathService.class);
+
+    private final ConcurrentMap<String, CompletableFuture<Set<File>>> classpaths = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the classpath of the configuration, resolving it only if no configuration with the same key has been
+     * resolved by this service before. Projects asking for a classpath that another project is resolving wait for that
+     * resolution, and resolve the classpath themselves if it fails.
+     * @param configuration the tool configuration
+     * @param repositories the repositories of the project of the configuration
+     * @return the shared resolved files, or the configuration itself if it cannot be shared
+     */
+    public Object classpath(Configuration configuration, List<? extends ArtifactRepository> repositories) {
+        String key = key(configuration, repositories);
+        if (key == null) {
+            return configuration;
+        }
+        while (true) {
+            CompletableFuture<Set<File>> resolution = new CompletableFuture<>();
+            CompletableFuture<Set<File>> existing = this.classpaths.putIfAbsent(key, resolution);
+            if (existing == null) {
+                return resolve(key, configuration, resolution);
+            }
+            try {
+                return existing.join();
+            } catch (CompletionException ex) {
+                // The resolution of another project failed and was removed, so this project resolves on its own.
+                logger.debug("Shared tool classpath resolution failed, resolving {} again", configuration, ex);
+            }
+        }
+    }
+
+    private Set<File> resolve(String key, Configuration configuration, CompletableFuture<Set<File>> resolution) {
+        // Resolved outside of the map so that projects with other keys are not blocked while the files are downloaded.
+        logger.info("Resolving shared tool classpath from {}", configuration);
+        try {
+            Set<File> files = Collections.unmodifiableSet(new LinkedHashSet<>(configuration.getFiles()));
+            resolution.complete(files);
+            return files;
+        } catch (RuntimeException ex) {
+            this.classpaths.remove(key, resolution);
+            resolution.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the key of the classpath of the configuration.
+     * @param configuration the tool configuration
+     * @param repositories the repositories of the project of the configuration
+     * @return the key, or {@code null} if the classpath cannot be shared
+     */
+    static @Nullable String key(Configuration configuration, List<? extends ArtifactRepository> repositories) {
+        if (!(configuration.getResolutionStrategy() instanceof ResolutionStrategyInternal strategy)
+                || hasRules(strategy)) {
+            return null;
+        }
+        List<String> coordinates = new ArrayList<>();
+        for (Dependency dependency : configuration.getAllDependencies()) {
+            if (!(dependency instanceof ExternalModuleDependency module) || !module.getArtifacts().isEmpty()) {
+                return null;
+            }
+            StringBuilder coordinate = new StringBuilder()
+                    .append(module.getGroup())
+                    .append(':')
+                    .append(module.getName())
+                    .append(':')
+                    .append(module.getVersionConstraint().getDisplayName());
+            if (!module.isTransitive()) {
+                coordinate.append("@intransitive");
+            }
+            appendAttributes(coordinate, module.getAttributes());
+            for (Capability capability : module.getRequestedCapabilities()) {
+                coordinate
+                        .append(" capability=")
+                        .append(capability.getGroup())
+                        .append(':')
+                        .append(capability.getName())
+                        .append(':')
+                        .append(capability.getVersion());
+            }
+            for (ExcludeRule exclude : module.getExcludeRules()) {
+                coordinate.append(" !").append(exclude.getGroup()).append(':').append(exclude.getModule());
+            }
+            coordinates.add(coordinate.toString());
+        }
+        for (DependencyConstraint constraint : configuration.getAllDependencyConstraints()) {
+            StringBuilder coordinate = new StringBuilder("constraint ")
+                    .append(constraint.getGroup())
+                    .append(':')
+                    .append(constraint.getName())
+                    .append(':')
+                    .append(constraint.getVersionConstraint().getDisplayName());
+            appendAttributes(coordinate, constraint.getAttributes());
+            coordinates.add(coordinate.toString());
+        }
+        for (ExcludeRule exclude : configuration.getExcludeRules()) {
+            coordinates.add("!" + exclude.getGroup() + ':' + exclude.getModule());
+        }
+        coordinates.add("conflict resolution " + strategy.getConflictResolution());
+        StringBuilder attributes = new StringBuilder("attributes");
+        appendAttributes(attributes, configuration.getAttributes());
+        coordinates.add(attributes.toString());
+        Collections.sort(coordinates);
+        // Repositories are searched in order, so their order is part of the key.
+        for (ArtifactRepository repository : repositories) {
+            coordinates.add("repository " + repository(repository));
+        }
+        return String.join(System.lineSeparator(), coordinates);
+    }
+
+    /**
+     * Returns whether the resolution strategy has rules that cannot be part of a key: the rules are arbitrary code, so
+     * two configurations with rules cannot be told to resolve the same classpath. The dependency substitution rule
+     * combines forced modules, {@code eachDependency} and {@code dependencySubstitution} rules, as well as the
+     * substitutions of included builds.
+     * @param strategy the resolution strategy of the configuration
+     * @return whether the classpath cannot be shared
+     */
+    private static boolean hasRules(ResolutionStrategyInternal strategy) {
+        return !strategy.getDependencySubstitutionRule().isEmpty()
+                || !strategy.getComponentSelection().getRules().isEmpty()
+                || strategy.isDependencyLockingEnabled();
+    }
+
+    private static void appendAttributes(StringBuilder builder, AttributeContainer container) {
+        List<String> attributes = new ArrayList<>();
+        for (Attribute<?> attribute : container.keySet()) {
+            attributes.add(attribute.getName() + '=' + container.getAttribute(attribute));
+        }
+        Collections.sort(attributes);
+        attributes.forEach(attribute -> builder.append(" @").append(attribute));
+    }
+
+    private static String repository(ArtifactRepository repository) {
+        StringBuilder identity = new StringBuilder(repository.getName());
+        if (repository instanceof UrlArtifactRepository url) {
+            identity.append(' ').append(url.getUrl());
+        }
+        if (repository instanceof FlatDirectoryArtifactRepository flatDir) {
+            flatDir.getDirs().forEach(dir -> identity.append(' ').append(dir.getAbsolutePath()));
+        }
+        return identity.toString();
+    }
+}
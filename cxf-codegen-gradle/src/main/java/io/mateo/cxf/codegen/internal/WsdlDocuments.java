@@ -0,0 +1,155 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import org.gradle.api.file.Directory;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.jspecify.annotations.Nullable;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Discovers the local documents a WSDL document depends on by following {@code wsdl:import}, {@code xsd:import},
+ * {@code xsd:include} and {@code xsd:redefine} references.
+ */
+public final class WsdlDocuments {
+
+    private static final Logger logger = Logging.getLogger(WsdlDocuments.class);
+
+    private static final String WSDL_11_NAMESPACE = "http://schemas.xmlsoap.org/wsdl/";
+
+    private static final String WSDL_20_NAMESPACE = "http://www.w3.org/ns/wsdl";
+
+    private WsdlDocuments() {}
+
+    /**
+     * Resolves a WSDL location to a local file.
+     * @param projectDirectory the project directory to resolve relative locations from
+     * @param location the location
+     * @return the local file, or {@code null} if the location is remote
+     */
+    public static @Nullable File toLocalFile(Directory projectDirectory, String location) {
+        try {
+            URI uri = new URI(location);
+            String scheme = uri.getScheme();
+            // Single letter schemes are Windows drive letters.
+            if (scheme != null && scheme.length() > 1) {
+                return "file".equalsIgnoreCase(scheme) ? new File(uri) : null;
+            }
+        } catch (URISyntaxException | IllegalArgumentException ex) {
+            // Not a URI, such as a Windows path, so treat as a path.
+        }
+        return projectDirectory.file(location).getAsFile();
+    }
+
+    /**
+     * Discovers the local WSDL document and every local document it imports or includes, directly or transitively.
+     * Remote documents are not followed. Documents that do not exist are included so that creating them is noticed.
+     * @param projectDirectory the project directory to resolve relative locations from
+     * @param wsdl the WSDL location
+     * @return the documents, starting with the WSDL document itself; empty if the WSDL is remote
+     */
+    public static Set<File> discover(Directory projectDirectory, String wsdl) {
+        File root = toLocalFile(projectDirectory, wsdl);
+        if (root == null) {
+            return Set.of();
+        }
+        Set<File> documents = new LinkedHashSet<>();
+        Deque<File> pending = new ArrayDeque<>();
+        pending.add(root.getAbsoluteFile().toPath().normalize().toFile());
+        while (!pending.isEmpty()) {
+            File document = pending.poll();
+            if (!documents.add(document) || !document.isFile()) {
+                continue;
+            }
+            for (String reference : references(document)) {
+                File referenced = resolve(document, reference);
+                if (referenced != null) {
+                    pending.add(referenced);
+                }
+            }
+        }
+        return documents;
+    }
+
+    private static @Nullable File resolve(File document, String reference) {
+        URI resolved;
+        try {
+            resolved = document.toURI().resolve(new URI(reference)).normalize();
+        } catch (URISyntaxException | IllegalArgumentException ex) {
+            // Unescaped characters such as spaces; treat as a relative path.
+            return document.toPath().resolveSibling(reference).normalize().toFile();
+        }
+        if (!"file".equalsIgnoreCase(resolved.getScheme())) {
+            return null;
+        }
+        return new File(resolved);
+    }
+
+    private static List<String> references(File document) {
+        List<String> references = new ArrayList<>();
+        try {
+            newParser().parse(document, new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                    String location = null;
+                    if (WSDL_11_NAMESPACE.equals(uri) || WSDL_20_NAMESPACE.equals(uri)) {
+                        if ("import".equals(localName) || "include".equals(localName)) {
+                            location = attributes.getValue("location");
+                        }
+                    } else if (XMLConstants.W3C_XML_SCHEMA_NS_URI.equals(uri)) {
+                        if ("import".equals(localName) || "include".equals(localName) || "redefine".equals(localName)) {
+                            location = attributes.getValue("schemaLocation");
+                        }
+                    }
+                    if (location != null && !location.isBlank()) {
+                        references.add(location.trim());
+                    }
+                }
+            });
+        } catch (IOException | SAXException | ParserConfigurationException ex) {
+            // Not a parsable document, such as a -wsdlList file. The tool reports actual errors.
+            logger.debug("Unable to discover references of {}", document, ex);
+        }
+        return references;
+    }
+
+    private static SAXParser newParser() throws ParserConfigurationException, SAXException {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+        factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        return factory.newSAXParser();
+    }
+}
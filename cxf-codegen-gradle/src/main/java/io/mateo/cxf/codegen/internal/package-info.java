@@ -0,0 +1,7 @@
+/**
+ * Internal classes of the CXF Codegen Gradle plugin that are not part of the public API.
+ */
+@NullMarked
+package io.mateo.cxf.codegen.internal;
+
+import org.jspecify.annotations.NullMarked;
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import io.mateo.cxf.codegen.CodegenConcurrencyService;
+import org.gradle.api.Incubating;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.workers.WorkParameters;
+
+/**
+ * Parameters for a unit of work admitted by the {@link CodegenConcurrencyService}.
+ */
+@Incubating
+public interface AdmittedWorkParameters extends WorkParameters {
+
+    /**
+     * Gets the file created once the unit of work completed, so that its lease is released right away rather than
+     * once all work of the task completed, if any.
+     * @return the completion marker
+     */
+    RegularFileProperty getCompletionMarker();
+}
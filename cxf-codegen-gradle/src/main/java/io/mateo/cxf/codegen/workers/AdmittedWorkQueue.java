@@ -0,0 +1,217 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import io.mateo.cxf.codegen.CodegenConcurrencyService;
+import io.mateo.cxf.codegen.internal.OutputSync;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import org.gradle.api.Action;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkQueue;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A {@link WorkQueue} that acquires a {@link CodegenConcurrencyService} lease for every submitted unit of work.
+ * <p>
+ * A lease is released as soon as its unit of work completed, which the work action signals by creating its
+ * {@link AdmittedWorkParameters#getCompletionMarker() completion marker}, and at the latest when the queue is
+ * awaited. When a lease cannot be granted while this queue still holds leases, the work submitted so far is awaited
+ * first, so that a task never waits for leases only it can release: Gradle may not start submitted work before the
+ * queue is awaited.
+ */
+final class AdmittedWorkQueue {
+
+    private static final Logger logger = Logging.getLogger(AdmittedWorkQueue.class);
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final WorkQueue workQueue;
+
+    private final @Nullable CodegenConcurrencyService service;
+
+    private final String owner;
+
+    private final ToLongFunction<Option> expectedMemory;
+
+    private final File completionMarkers;
+
+    private final Map<File, CodegenConcurrencyService.Lease> leases = new LinkedHashMap<>();
+
+    private int submitted;
+
+    private @Nullable Thread watcher;
+
+    /**
+     * Creates a new queue, deleting the completion markers left by a previous execution.
+     * @param workQueue the queue the work is submitted to
+     * @param service the service admitting the work, if any
+     * @param owner the path of the task submitting the work
+     * @param expectedMemory the memory expected to be used to generate an option
+     * @param completionMarkers the directory the units of work create their completion markers in
+     */
+    AdmittedWorkQueue(
+            WorkQueue workQueue,
+            @Nullable CodegenConcurrencyService service,
+            String owner,
+            ToLongFunction<Option> expectedMemory,
+            File completionMarkers) {
+        this.workQueue = workQueue;
+        this.service = service;
+        this.owner = owner;
+        this.expectedMemory = expectedMemory;
+        this.completionMarkers = completionMarkers;
+        if (service != null) {
+            OutputSync.delete(completionMarkers);
+        }
+    }
+
+    /**
+     * Submits a unit of work once a lease for its expected memory is granted.
+     * @param options the options processed by the unit of work
+     * @param actionClass the work action, which must call {@link #completed(AdmittedWorkParameters)} once done
+     * @param parameterAction the action configuring the parameters
+     * @param <T> the parameters type
+     */
+    <T extends AdmittedWorkParameters> void submit(
+            Collection<? extends Option> options,
+            Class<? extends WorkAction<T>> actionClass,
+            Action<? super T> parameterAction) {
+        CodegenConcurrencyService service = this.service;
+        if (service == null) {
+            this.workQueue.submit(actionClass, parameterAction);
+            return;
+        }
+        // Options in a unit of work are processed one after another.
+        long expectedMemory = options.stream()
+                .mapToLong(this.expectedMemory)
+                .max()
+                .orElse(CodegenConcurrencyService.BASE_MEMORY);
+        releaseCompleted();
+        CodegenConcurrencyService.Lease lease = service.tryAcquire(expectedMemory);
+        if (lease == null) {
+            int held = heldLeases();
+            if (held > 0) {
+                logger.info(
+                        "Waiting for {} unit(s) of work of {} before running more code generation", held, this.owner);
+                await();
+            }
+            lease = service.acquire(this.owner, expectedMemory);
+        }
+        File marker = new File(this.completionMarkers, this.submitted++ + ".completed");
+        hold(marker, lease);
+        this.workQueue.submit(actionClass, params -> {
+            parameterAction.execute(params);
+            params.getCompletionMarker().set(marker);
+        });
+    }
+
+    /**
+     * Waits for all submitted work to complete and releases the leases.
+     */
+    void await() {
+        try {
+            this.workQueue.await();
+        } finally {
+            releaseAll();
+        }
+    }
+
+    /**
+     * Signals that a unit of work completed, whether it succeeded or not, by creating its completion marker, if any.
+     * @param parameters the parameters of the unit of work
+     */
+    static void completed(AdmittedWorkParameters parameters) {
+        File marker = parameters.getCompletionMarker().getAsFile().getOrNull();
+        if (marker == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(marker.toPath().getParent());
+            Files.createFile(marker.toPath());
+        } catch (FileAlreadyExistsException ex) {
+            // Already signalled.
+        } catch (IOException ex) {
+            // The lease is released once the queue is awaited instead.
+            logger.warn("Unable to create completion marker {}", marker, ex);
+        }
+    }
+
+    private synchronized int heldLeases() {
+        return this.leases.size();
+    }
+
+    private synchronized void hold(File marker, CodegenConcurrencyService.Lease lease) {
+        this.leases.put(marker, lease);
+        if (this.watcher == null) {
+            Thread watcher = new Thread(this::watch, "Code generation completions of " + this.owner);
+            watcher.setDaemon(true);
+            watcher.start();
+            this.watcher = watcher;
+        }
+    }
+
+    private void watch() {
+        while (true) {
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException ex) {
+                return;
+            }
+            synchronized (this) {
+                if (this.watcher != Thread.currentThread()) {
+                    return;
+                }
+                releaseCompleted();
+                if (this.leases.isEmpty()) {
+                    this.watcher = null;
+                    return;
+                }
+            }
+        }
+    }
+
+    private synchronized void releaseCompleted() {
+        Iterator<Map.Entry<File, CodegenConcurrencyService.Lease>> iterator =
+                this.leases.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<File, CodegenConcurrencyService.Lease> entry = iterator.next();
+            if (entry.getKey().isFile()) {
+                entry.getValue().close();
+                iterator.remove();
+            }
+        }
+    }
+
+    private synchronized void releaseAll() {
+        this.leases.values().forEach(CodegenConcurrencyService.Lease::close);
+        this.leases.clear();
+        Thread watcher = this.watcher;
+        if (watcher != null) {
+            watcher.interrupt();
+            this.watcher = null;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import org.gradle.api.Incubating;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.MapProperty;
+
+/**
+ * Parameters for running a code generation tool such as {@code wsdl2java} or {@code wsdl2js} for a batch of options
+ * in a single work item.
+ */
+@Incubating
+public interface BatchCodegenParameters extends AdmittedWorkParameters {
+
+    /**
+     * Gets the command-line options holders for the code generation tool, in the order they are processed.
+     * @return the options
+     */
+    ListProperty<Option> getOptions();
+
+    /**
+     * Gets the project directory.
+     * @return the project directory
+     */
+    DirectoryProperty getProjectDirectory();
+
+    /**
+     * Gets the local copies of remote WSDLs to generate code from instead of the WSDL of the option, keyed by option
+     * name.
+     * @return the local WSDLs
+     */
+    MapProperty<String, String> getLocalWsdls();
+
+    /**
+     * Gets the files listing the WSDLs of groups of options to generate with a single {@code wsdl2java} invocation
+     * instead of the WSDL of the option, keyed by the name of the first option of each group.
+     * @return the WSDL list files
+     */
+    MapProperty<String, String> getWsdlLists();
+
+    /**
+     * Gets the directory the options are generated into before only the changed files are written to their output
+     * directories, if any. Each option is generated into a subdirectory named after the option.
+     * @return the staging directory
+     */
+    DirectoryProperty getStagingDirectory();
+
+    /**
+     * Gets the directory the execution metrics of the generated options are written to, if any.
+     * @return the execution records directory
+     */
+    DirectoryProperty getExecutionRecords();
+
+    /**
+     * Gets the directory the flight recordings of the generated options are written to, if profiling.
+     * @return the recording directory
+     */
+    DirectoryProperty getRecordingDirectory();
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import io.mateo.cxf.codegen.CodegenConcurrencyService;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.gradle.process.JavaForkOptions;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Rewrites the fork options of worker processes into a canonical form, so that tasks of different projects whose
+ * options only differ in order, duplicates or slightly different heap sizes request compatible worker processes and
+ * Gradle can reuse the same worker processes for all of them.
+ * <p>
+ * JVM arguments are deduplicated, with the last value of an {@code -XX} option or of a thread stack or heap size option
+ * winning, and sorted; options followed by a separate value, such as {@code --add-opens}, are kept together with their
+ * value. System properties passed as JVM arguments are moved to the system properties, and the maximum heap size,
+ * including one passed as an {@code -Xmx} argument, is rounded up to a power of two mebibytes.
+ */
+final class CanonicalForkOptions {
+
+    private static final long MIB = 1024 * 1024;
+
+    private CanonicalForkOptions() {}
+
+    /**
+     * Rewrites the fork options into their canonical form.
+     * @param fork the fork options
+     */
+    static void apply(JavaForkOptions fork) {
+        Map<String, Object> systemProperties = new TreeMap<>(fork.getSystemProperties());
+        String maxHeapSize = fork.getMaxHeapSize();
+        List<String> jvmArguments = new ArrayList<>();
+        for (String argument : fork.getJvmArgs()) {
+            if (argument.startsWith("-D") && argument.length() > 2) {
+                int separator = argument.indexOf('=');
+                systemProperties.put(
+                        separator > 0 ? argument.substring(2, separator) : argument.substring(2),
+                        separator > 0 ? argument.substring(separator + 1) : "");
+            } else if (argument.startsWith("-Xmx")) {
+                maxHeapSize = argument.substring(4);
+            } else {
+                jvmArguments.add(argument);
+            }
+        }
+        fork.setJvmArgs(jvmArguments(jvmArguments));
+        fork.setSystemProperties(systemProperties);
+        fork.setMaxHeapSize(maxHeapSize(maxHeapSize));
+    }
+
+    static List<String> jvmArguments(List<String> arguments) {
+        Map<String, List<String>> units = new LinkedHashMap<>();
+        for (int i = 0; i < arguments.size(); i++) {
+            List<String> unit = new ArrayList<>(2);
+            unit.add(arguments.get(i));
+            if (takesSeparateValue(arguments.get(i)) && i + 1 < arguments.size()) {
+                unit.add(arguments.get(++i));
+            }
+            String key = key(unit);
+            // Removed first so that the last occurrence wins.
+            units.remove(key);
+            units.put(key, unit);
+        }
+        return units.values().stream()
+                .sorted(Comparator.comparing(unit -> String.join(" ", unit)))
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    static @Nullable String maxHeapSize(@Nullable String maxHeapSize) {
+        if (maxHeapSize == null) {
+            return null;
+        }
+        long mebibytes = Math.max(1, (CodegenConcurrencyService.parseMemorySize(maxHeapSize) + MIB - 1) / MIB);
+        long bucket = Long.highestOneBit(mebibytes);
+        return (bucket < mebibytes ? bucket << 1 : bucket) + "m";
+    }
+
+    private static boolean takesSeparateValue(String argument) {
+        return argument.startsWith("--") && !argument.contains("=")
+                || argument.equals("-cp")
+                || argument.equals("-classpath")
+                || argument.equals("-p");
+    }
+
+    private static String key(List<String> unit) {
+        String argument = unit.get(0);
+        if (unit.size() == 1 && argument.startsWith("-XX:")) {
+            String option = argument.substring(4);
+            if (option.startsWith("+") || option.startsWith("-")) {
+                option = option.substring(1);
+            }
+            int separator = option.indexOf('=');
+            return "-XX:" + (separator > 0 ? option.substring(0, separator) : option);
+        }
+        if (unit.size() == 1 && (argument.startsWith("-Xss") || argument.startsWith("-Xms"))) {
+            return argument.substring(0, 4);
+        }
+        return String.join(" ", unit);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import io.mateo.cxf.codegen.internal.CodegenMetrics;
+import io.mateo.cxf.codegen.internal.FlightRecordings;
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.Map;
+import org.gradle.api.Incubating;
+import org.gradle.api.file.Directory;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.workers.WorkAction;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An action to run the {@code wsdl2java} or {@code wsdl2js} tool in the Gradle daemon using a cached tool class
+ * loader.
+ */
+@Incubating
+public abstract class ClassLoaderCodegenAction implements WorkAction<ClassLoaderCodegenParameters> {
+
+    private static final Logger logger = Logging.getLogger(ClassLoaderCodegenAction.class);
+
+    private static final String TOOL_CONTEXT_CLASS_NAME = "org.apache.cxf.tools.common.ToolContext";
+
+    @Override
+    public void execute() {
+        try {
+            generateOptions();
+        } finally {
+            AdmittedWorkQueue.completed(getParameters());
+        }
+    }
+
+    private void generateOptions() {
+        ClassLoaderCodegenParameters parameters = getParameters();
+        Directory projectDirectory = parameters.getProjectDirectory().get();
+        Map<String, String> localWsdls = parameters.getLocalWsdls().get();
+        Map<String, String> wsdlLists = parameters.getWsdlLists().get();
+        Directory stagingDirectory = parameters.getStagingDirectory().getOrNull();
+        Directory executionRecords = parameters.getExecutionRecords().getOrNull();
+        File recordingDirectory = parameters.getRecordingDirectory().getAsFile().getOrNull();
+        ToolClassLoaderService service = parameters.getClassLoaderService().get();
+        ClassLoader classLoader = service.acquire(
+                parameters.getOwner().get(), parameters.getClasspath().getFiles());
+        try {
+            WorkBatches.runAll(
+                    parameters.getOptions().get(),
+                    option -> {
+                        File outputDirectory = StagedOutputs.outputDirectory(option, stagingDirectory);
+                        // Other work shares the daemon heap, so the peak heap usage does not reflect the option, and
+                        // its recording also covers the other work running at the same time.
+                        FlightRecordings.record(
+                                recordingDirectory,
+                                option.getName(),
+                                () -> ExecutionHistory.measure(
+                                        option,
+                                        outputDirectory,
+                                        executionRecords,
+                                        CodegenMetrics.Scope.THREAD,
+                                        () -> run(
+                                                classLoader,
+                                                parameters.getToolClassName().get(),
+                                                WsdlLists.withWsdlList(
+                                                        getArguments(
+                                                                option,
+                                                                projectDirectory,
+                                                                localWsdls.get(option.getName()),
+                                                                outputDirectory),
+                                                        wsdlLists.get(option.getName())))));
+                    });
+        } finally {
+            service.release(classLoader);
+        }
+    }
+
+    private static List<String> getArguments(
+            Option option, Directory projectDirectory, @Nullable String localWsdl, File outputDirectory) {
+        if (option instanceof Wsdl2JavaOption wsdl2JavaOption) {
+            return Wsdl2JavaAction.getArguments(wsdl2JavaOption, projectDirectory, localWsdl, outputDirectory);
+        }
+        return Wsdl2JsAction.getArguments((Wsdl2JsOption) option, localWsdl, outputDirectory);
+    }
+
+    private static void run(ClassLoader classLoader, String toolClassName, List<String> arguments) {
+        if (logger.isInfoEnabled()) {
+            logger.info("Invoking {} with arguments: {}", toolClassName, arguments);
+        }
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            Class<?> toolClass = classLoader.loadClass(toolClassName);
+            Class<?> contextClass = classLoader.loadClass(TOOL_CONTEXT_CLASS_NAME);
+            Object tool =
+                    toolClass.getConstructor(String[].class).newInstance((Object) arguments.toArray(String[]::new));
+            toolClass.getMethod("run", contextClass).invoke(tool, contextClass.getConstructor().newInstance());
+        } catch (InvocationTargetException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException rex) {
+                throw rex;
+            }
+            throw new RuntimeException(cause);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Unable to invoke " + toolClassName, ex);
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+}
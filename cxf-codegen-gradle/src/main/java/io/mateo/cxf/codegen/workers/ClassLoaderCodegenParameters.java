@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import org.gradle.api.Incubating;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.provider.Property;
+
+/**
+ * Parameters for running a code generation tool in the Gradle daemon with a cached tool class loader.
+ */
+@Incubating
+public interface ClassLoaderCodegenParameters extends BatchCodegenParameters {
+
+    /**
+     * Gets the classpath of the code generation tool.
+     * @return the classpath
+     */
+    ConfigurableFileCollection getClasspath();
+
+    /**
+     * Gets the fully qualified name of the code generation tool class.
+     * @return the tool class name
+     */
+    Property<String> getToolClassName();
+
+    /**
+     * Gets the identifier of the owner of the tool class loader, typically the task path.
+     * @return the owner
+     */
+    Property<String> getOwner();
+
+    /**
+     * Gets the service caching the tool class loaders.
+     * @return the service
+     */
+    Property<ToolClassLoaderService> getClassLoaderService();
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import io.mateo.cxf.codegen.CodegenConcurrencyService;
+import io.mateo.cxf.codegen.internal.ClassDataArchiveService;
+import io.mateo.cxf.codegen.internal.RuntimeImageService;
+import io.mateo.cxf.codegen.internal.StartupProfile;
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+import org.gradle.api.Action;
+import org.gradle.api.file.Directory;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.provider.Provider;
+import org.gradle.process.JavaForkOptions;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkQueue;
+import org.gradle.workers.WorkerExecutor;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Runs the out-of-date groups of a {@link CodegenPlan} with the worker API: groups expected to take longest are
+ * submitted first, in batches of groups when configured, and every unit of work is admitted by the
+ * {@link CodegenConcurrencyService}, if any.
+ */
+final class CodegenExecutor {
+
+    private final WorkerExecutor workerExecutor;
+
+    private final Settings settings;
+
+    private final ExecutionHistory history;
+
+    CodegenExecutor(WorkerExecutor workerExecutor, Settings settings, ExecutionHistory history) {
+        this.workerExecutor = workerExecutor;
+        this.settings = settings;
+        this.history = history;
+    }
+
+    /**
+     * Generates the groups and waits for the generation to complete. Each group is generated by a single unit of
+     * work, running the {@link CodegenPlan#invocations(List) tool invocations} of the group one after another.
+     * @param groups the groups to generate
+     * @param work what every unit of work is given
+     * @param <T> the option type
+     */
+    <T extends Option> void execute(List<List<T>> groups, Work work) {
+        List<List<T>> ordered = this.history.longestFirstGroups(groups);
+        ToDoubleFunction<Option> expectedDurations = this.history.expectedDurations(flatten(ordered));
+        ToDoubleFunction<List<T>> groupDurations = group -> group.stream().mapToDouble(expectedDurations).sum();
+        int batchSize = WorkBatches.batchSize(this.settings.batchSize(), ordered.size(), this.settings.maxWorkers());
+        List<List<List<T>>> batches = WorkBatches.partition(ordered, batchSize, groupDurations);
+        AdmittedWorkQueue workQueue;
+        if (this.settings.isolationMode() == IsolationMode.CLASSLOADER) {
+            workQueue = admittedWorkQueue(this.workerExecutor.noIsolation());
+            for (List<List<T>> batch : batches) {
+                List<T> invocations = firstOptions(batch);
+                workQueue.submit(flatten(batch), ClassLoaderCodegenAction.class, params -> {
+                    params.getOptions().addAll(invocations);
+                    work.configure(params);
+                    params.getClasspath().from(this.settings.classpath());
+                    params.getToolClassName().set(this.settings.toolClassName());
+                    params.getOwner().set(this.settings.owner());
+                    params.getClassLoaderService().set(this.settings.classLoaderService());
+                });
+            }
+        } else {
+            workQueue = admittedWorkQueue(processIsolation(flatten(ordered)));
+            for (List<List<T>> batch : batches) {
+                List<T> invocations = firstOptions(batch);
+                if (batchSize == 1 && invocations.size() == 1) {
+                    T option = invocations.get(0);
+                    workQueue.submit(flatten(batch), this.settings.action(), params -> {
+                        params.getOption().set(option);
+                        params.getProjectDirectory().set(work.projectDirectory());
+                        params.getLocalWsdl().set(work.localWsdls().get(option.getName()));
+                        params.getWsdlList().set(work.wsdlLists().get(option.getName()));
+                        params.getStagingDirectory().set(work.stagingDirectory());
+                        params.getExecutionRecords().set(work.executionRecords());
+                        params.getRecordingDirectory().set(work.recordingDirectory());
+                    });
+                } else {
+                    workQueue.submit(flatten(batch), this.settings.batchAction(), params -> {
+                        params.getOptions().addAll(invocations);
+                        work.configure(params);
+                    });
+                }
+            }
+        }
+        workQueue.await();
+    }
+
+    private WorkQueue processIsolation(List<? extends Option> options) {
+        long expectedMemory = options.stream()
+                .mapToLong(this.history::expectedMemory)
+                .max()
+                .orElse(CodegenConcurrencyService.BASE_MEMORY);
+        return this.workerExecutor.processIsolation(spec -> {
+            spec.getClasspath().from(this.settings.classpath());
+            for (Action<? super JavaForkOptions> action : this.settings.forkOptionsActions()) {
+                spec.forkOptions(action);
+            }
+            if (this.settings.startupProfile()) {
+                boolean skipBytecodeVerification = this.settings.skipBytecodeVerification();
+                spec.forkOptions(fork -> fork.jvmArgs(StartupProfile.jvmArguments(
+                        fork.getJvmArgs(), fork.getMaxHeapSize(), expectedMemory, skipBytecodeVerification)));
+            }
+            RuntimeImageService runtimeImageService = this.settings.runtimeImageService();
+            if (runtimeImageService != null) {
+                List<File> toolClasspath = List.copyOf(this.settings.classpath().getFiles());
+                spec.forkOptions(fork -> runtimeImageService.useRuntimeImage(fork, toolClasspath));
+            }
+            ClassDataArchiveService classDataArchiveService = this.settings.classDataArchiveService();
+            if (classDataArchiveService != null) {
+                // After the runtime image, whose executable the archive belongs to.
+                List<File> toolClasspath = List.copyOf(this.settings.classpath().getFiles());
+                spec.forkOptions(fork -> classDataArchiveService.useWorkerArchive(fork, toolClasspath));
+            }
+            if (this.settings.normalizeForkOptions()) {
+                spec.forkOptions(CanonicalForkOptions::apply);
+            }
+        });
+    }
+
+    private AdmittedWorkQueue admittedWorkQueue(WorkQueue workQueue) {
+        return new AdmittedWorkQueue(
+                workQueue,
+                this.settings.concurrencyService(),
+                this.settings.owner(),
+                this.history::expectedMemory,
+                new File(this.settings.temporaryDirectory(), "completed-work"));
+    }
+
+    private static <T extends Option> List<T> flatten(List<List<T>> groups) {
+        return groups.stream().flatMap(List::stream).toList();
+    }
+
+    private static <T extends Option> List<T> firstOptions(List<List<T>> groups) {
+        return groups.stream()
+                .flatMap(group -> CodegenPlan.invocations(group).stream())
+                .map(invocation -> invocation.get(0))
+                .toList();
+    }
+
+    /**
+     * How a task runs its code generation tool.
+     * @param owner the path of the task
+     * @param toolClassName the fully qualified name of the tool class
+     * @param action the work action generating a single option in a worker process
+     * @param batchAction the work action generating a batch of options in a worker process
+     * @param classpath the classpath of the tool
+     * @param isolationMode how the tool is isolated from the Gradle daemon
+     * @param batchSize the configured batch size, if any
+     * @param maxWorkers the maximum number of workers used to select the batch size automatically
+     * @param forkOptionsActions the actions configuring the fork options of the worker processes
+     * @param startupProfile whether to fork the worker processes with the start-up profile
+     * @param skipBytecodeVerification whether the start-up profile skips the bytecode verification of the tool classes
+     * @param runtimeImageService the service linking the runtime images of the worker processes, if any
+     * @param classDataArchiveService the service locating the class data archives of the worker processes, if any
+     * @param normalizeForkOptions whether to rewrite the fork options into a canonical form
+     * @param concurrencyService the service admitting every unit of work, if any
+     * @param classLoaderService the service caching the tool class loader
+     * @param temporaryDirectory the temporary directory of the task
+     */
+    record Settings(
+            String owner,
+            String toolClassName,
+            Class<? extends WorkAction<CodegenParameters>> action,
+            Class<? extends WorkAction<BatchCodegenParameters>> batchAction,
+            FileCollection classpath,
+            IsolationMode isolationMode,
+            @Nullable Integer batchSize,
+            int maxWorkers,
+            List<Action<? super JavaForkOptions>> forkOptionsActions,
+            boolean startupProfile,
+            boolean skipBytecodeVerification,
+            @Nullable RuntimeImageService runtimeImageService,
+            @Nullable ClassDataArchiveService classDataArchiveService,
+            boolean normalizeForkOptions,
+            @Nullable CodegenConcurrencyService concurrencyService,
+            Provider<ToolClassLoaderService> classLoaderService,
+            File temporaryDirectory) {}
+
+    /**
+     * What every unit of work of a task is given besides its options.
+     * @param projectDirectory the project directory
+     * @param localWsdls the local copies of remote WSDLs, keyed by option name
+     * @param wsdlLists the files listing the WSDLs of each group, keyed by the name of its first option
+     * @param stagingDirectory the directory the options are generated into, if only changed files are written
+     * @param executionRecords the directory the execution metrics are written to, if any
+     * @param recordingDirectory the directory the flight recordings are written to, if profiling
+     */
+    record Work(
+            Directory projectDirectory,
+            Map<String, String> localWsdls,
+            Map<String, String> wsdlLists,
+            @Nullable Directory stagingDirectory,
+            @Nullable Directory executionRecords,
+            @Nullable Directory recordingDirectory) {
+
+        void configure(BatchCodegenParameters params) {
+            params.getProjectDirectory().set(this.projectDirectory);
+            params.getLocalWsdls().putAll(this.localWsdls);
+            params.getWsdlLists().putAll(this.wsdlLists);
+            params.getStagingDirectory().set(this.stagingDirectory);
+            params.getExecutionRecords().set(this.executionRecords);
+            params.getRecordingDirectory().set(this.recordingDirectory);
+        }
+    }
+}
@@ -18,13 +18,12 @@ package io.mateo.cxf.codegen.workers;
 import org.gradle.api.Incubating;
 import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.provider.Property;
-import org.gradle.workers.WorkParameters;
 
 /**
  * Parameters for a code generation tool such as {@code wsdl2java} or {@code wsdl2js}.
  */
 @Incubating
-public interface CodegenParameters extends WorkParameters {
+public interface CodegenParameters extends AdmittedWorkParameters {
 
     /**
      * Gets the command-line options holder for the code generation tool.
@@ -37,4 +36,36 @@ public interface CodegenParameters extends WorkParameters {
      * @return the project directory
      */
     DirectoryProperty getProjectDirectory();
+
+    /**
+     * Gets the local copy of a remote WSDL to generate code from instead of the WSDL of the option, if any.
+     * @return the local WSDL
+     */
+    Property<String> getLocalWsdl();
+
+    /**
+     * Gets the file listing the WSDLs of a group of options to generate with a single {@code wsdl2java} invocation
+     * instead of the WSDL of the option, if any.
+     * @return the WSDL list file
+     */
+    Property<String> getWsdlList();
+
+    /**
+     * Gets the directory the option is generated into before only the changed files are written to its output
+     * directory, if any.
+     * @return the staging directory
+     */
+    DirectoryProperty getStagingDirectory();
+
+    /**
+     * Gets the directory the execution metrics of the generated options are written to, if any.
+     * @return the execution records directory
+     */
+    DirectoryProperty getExecutionRecords();
+
+    /**
+     * Gets the directory the flight recordings of the generated options are written to, if profiling.
+     * @return the recording directory
+     */
+    DirectoryProperty getRecordingDirectory();
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The options of a code generation task that are out-of-date, in the groups they are generated by.
+ * <p>
+ * A group holds the options generated by a single unit of work, with one tool invocation per output directory;
+ * without grouping, every group holds a single option. A group is generated as a whole when any of its options is
+ * out-of-date.
+ * @param <T> the option type
+ */
+final class CodegenPlan<T extends Option> {
+
+    private static final Logger logger = Logging.getLogger(CodegenPlan.class);
+
+    private final List<List<T>> groups;
+
+    private final Map<T, @Nullable String> inputFingerprints;
+
+    private final List<T> sharingOutputDirectories;
+
+    private CodegenPlan(
+            List<List<T>> groups, Map<T, @Nullable String> inputFingerprints, List<T> sharingOutputDirectories) {
+        this.groups = groups;
+        this.inputFingerprints = inputFingerprints;
+        this.sharingOutputDirectories = sharingOutputDirectories;
+    }
+
+    /**
+     * Plans the generation of the out-of-date groups. The fingerprints of the out-of-date options are forgotten and
+     * stored right away, so that an option whose generation fails is never considered up-to-date.
+     * @param groups all groups of options
+     * @param inputFingerprints the current input fingerprints of the options, {@code null} for an option whose inputs
+     * cannot be tracked
+     * @param fingerprints the fingerprints recorded by the previous execution
+     * @param regenerateAll whether to generate every option, regardless of its fingerprints
+     * @param <T> the option type
+     * @return the plan
+     */
+    static <T extends Option> CodegenPlan<T> create(
+            List<List<T>> groups,
+            Map<T, @Nullable String> inputFingerprints,
+            OptionFingerprints fingerprints,
+            boolean regenerateAll) {
+        List<List<T>> outOfDate = new ArrayList<>();
+        Map<T, @Nullable String> generated = new LinkedHashMap<>();
+        List<T> skipped = new ArrayList<>();
+        for (List<T> group : groups) {
+            boolean upToDate =
+                    group.stream().allMatch(option -> fingerprints.isUpToDate(option, inputFingerprints.get(option)));
+            if (upToDate && !regenerateAll) {
+                group.forEach(option -> logger.info("Skipping option '{}' as it is up-to-date.", option.getName()));
+                skipped.addAll(group);
+                continue;
+            }
+            outOfDate.add(group);
+            for (T option : group) {
+                fingerprints.remove(option);
+                generated.put(option, inputFingerprints.get(option));
+            }
+        }
+        // Persist before generating so a failed option is never considered up-to-date.
+        fingerprints.store();
+        Set<File> outputDirectories = generated.keySet().stream()
+                .map(option -> option.getOutputDirectory().get().getAsFile())
+                .collect(Collectors.toSet());
+        List<T> sharingOutputDirectories = skipped.stream()
+                .filter(option -> outputDirectories.contains(option.getOutputDirectory().get().getAsFile()))
+                .toList();
+        return new CodegenPlan<>(
+                List.copyOf(outOfDate), Collections.unmodifiableMap(generated), sharingOutputDirectories);
+    }
+
+    /**
+     * Returns the tool invocations generating a group. The tool writes all WSDLs of an invocation to a single output
+     * directory, so the options of a group sharing an output directory are generated by the same invocation, in the
+     * order they were declared. Each invocation is identified by its first option.
+     * @param group the group
+     * @param <T> the option type
+     * @return the options of each invocation
+     */
+    static <T extends Option> List<List<T>> invocations(List<T> group) {
+        Map<File, List<T>> invocations = new LinkedHashMap<>();
+        for (T option : group) {
+            invocations
+                    .computeIfAbsent(option.getOutputDirectory().get().getAsFile(), key -> new ArrayList<>())
+                    .add(option);
+        }
+        return List.copyOf(invocations.values());
+    }
+
+    /**
+     * Returns the tool invocations generating the out-of-date groups.
+     * @return the options of each invocation
+     */
+    List<List<T>> invocations() {
+        return this.groups.stream()
+                .flatMap(group -> invocations(group).stream())
+                .toList();
+    }
+
+    /**
+     * Returns whether every option is up-to-date.
+     * @return whether there is nothing to generate
+     */
+    boolean isEmpty() {
+        return this.groups.isEmpty();
+    }
+
+    /**
+     * Returns the out-of-date groups, in the order the options were declared.
+     * @return the groups, each containing at least one option
+     */
+    List<List<T>> groups() {
+        return this.groups;
+    }
+
+    /**
+     * Returns the out-of-date options, in the order they were declared.
+     * @return the options
+     */
+    List<T> options() {
+        return List.copyOf(this.inputFingerprints.keySet());
+    }
+
+    /**
+     * Returns the input fingerprints of the out-of-date options, to be recorded once they were generated.
+     * @return the input fingerprints, keyed by option
+     */
+    Map<T, @Nullable String> inputFingerprints() {
+        return this.inputFingerprints;
+    }
+
+    /**
+     * Returns the up-to-date options that share an output directory with an out-of-date option, whose outputs change
+     * when the out-of-date options are generated.
+     * @return the options sharing an output directory
+     */
+    List<T> sharingOutputDirectories() {
+        return this.sharingOutputDirectories;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import io.mateo.cxf.codegen.internal.CodegenMetrics;
+import io.mateo.cxf.codegen.internal.CodegenReport;
+import io.mateo.cxf.codegen.internal.FlightRecordings;
+import io.mateo.cxf.codegen.internal.OutputSync;
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import org.gradle.api.file.Directory;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Records what a task generated: the execution history and report of the units of work, the summary of the flight
+ * recordings, the synchronization of the staged outputs and the fingerprints of the generated options.
+ */
+final class CodegenRecorder {
+
+    private static final Logger logger = Logging.getLogger(CodegenRecorder.class);
+
+    private final Task task;
+
+    private final ExecutionHistory history;
+
+    private final OptionFingerprints fingerprints;
+
+    private final CodegenPlan<?> plan;
+
+    private final @Nullable Directory stagingDirectory;
+
+    private final @Nullable Directory executionRecords;
+
+    private final @Nullable Directory recordingDirectory;
+
+    private final @Nullable File reportDirectory;
+
+    /**
+     * Creates a new recorder, deleting the leftovers of the previous execution from the staging and execution records
+     * directories.
+     * @param task the recorded task
+     * @param history the execution history of the task
+     * @param fingerprints the option fingerprints of the task
+     * @param plan the planned generation
+     * @param stagingDirectory the directory the options are generated into, if only changed files are written
+     * @param executionRecords the directory the execution metrics are written to, if any
+     * @param recordingDirectory the directory the flight recordings are written to, if profiling
+     * @param reportDirectory the directory the execution metrics are reported to, if any
+     */
+    CodegenRecorder(
+            Task task,
+            ExecutionHistory history,
+            OptionFingerprints fingerprints,
+            CodegenPlan<?> plan,
+            @Nullable Directory stagingDirectory,
+            @Nullable Directory executionRecords,
+            @Nullable Directory recordingDirectory,
+            @Nullable File reportDirectory) {
+        this.task = task;
+        this.history = history;
+        this.fingerprints = fingerprints;
+        this.plan = plan;
+        this.stagingDirectory = stagingDirectory;
+        this.executionRecords = executionRecords;
+        this.recordingDirectory = recordingDirectory;
+        this.reportDirectory = reportDirectory;
+        if (stagingDirectory != null) {
+            StagedOutputs.clean(firstOptions(plan), stagingDirectory);
+        }
+        if (executionRecords != null) {
+            OutputSync.delete(executionRecords.getAsFile());
+        }
+    }
+
+    /**
+     * Returns what every unit of work of the task is given besides its options.
+     * @param projectDirectory the project directory
+     * @param localWsdls the local copies of remote WSDLs, keyed by option name
+     * @param wsdlLists the files listing the WSDLs of each group, keyed by the name of its first option
+     * @return the work
+     */
+    CodegenExecutor.Work work(
+            Directory projectDirectory, Map<String, String> localWsdls, Map<String, String> wsdlLists) {
+        return new CodegenExecutor.Work(
+                projectDirectory,
+                localWsdls,
+                wsdlLists,
+                this.stagingDirectory,
+                this.executionRecords,
+                this.recordingDirectory);
+    }
+
+    /**
+     * Records the execution metrics of the units of work, whether they succeeded or not.
+     * @param start the time the first unit of work was submitted, worker processes started from then on were not
+     * reused
+     */
+    void executed(long start) {
+        if (this.executionRecords == null) {
+            return;
+        }
+        List<CodegenMetrics.Execution> executions =
+                this.history.collect(this.executionRecords.getAsFile(), this.plan.invocations());
+        this.history.store();
+        WorkerReuse.Statistics reuse = WorkerReuse.collect(this.executionRecords.getAsFile(), start);
+        if (reuse != null) {
+            logger.info("Worker process reuse: {}", reuse);
+        }
+        if (this.reportDirectory != null) {
+            CodegenReport.write(this.reportDirectory, this.task.name(), this.task.path(), this.task.tool(), executions);
+        }
+    }
+
+    /**
+     * Records the successful generation of the plan: summarizes the flight recordings, writes the staged outputs to
+     * the output directories and records the fingerprints of the generated options and of the options sharing their
+     * output directories.
+     */
+    void generated() {
+        CodegenPlan<?> plan = this.plan;
+        List<? extends Option> generated = firstOptions(plan);
+        Directory recordingDirectory = this.recordingDirectory;
+        if (recordingDirectory != null) {
+            logger.lifecycle(FlightRecordings.summarize(generated.stream()
+                    .map(option -> recordingDirectory
+                            .file(option.getName() + FlightRecordings.FILE_EXTENSION)
+                            .getAsFile())
+                    .toList()));
+        }
+        if (this.stagingDirectory != null) {
+            OutputSync.Result result = StagedOutputs.sync(plan.invocations(), this.stagingDirectory);
+            logger.lifecycle("Generated files of {} option(s): {}", plan.inputFingerprints().size(), result);
+        }
+        plan.inputFingerprints().forEach(this.fingerprints::record);
+        this.fingerprints.refreshOutputs(plan.sharingOutputDirectories());
+        this.fingerprints.store();
+    }
+
+    private static List<? extends Option> firstOptions(CodegenPlan<?> plan) {
+        return plan.invocations().stream().map(invocation -> invocation.get(0)).toList();
+    }
+
+    /**
+     * The recorded task.
+     * @param name the name of the task
+     * @param path the path of the task
+     * @param tool the name of the tool run by the task
+     */
+    record Task(String name, String path, String tool) {}
+}
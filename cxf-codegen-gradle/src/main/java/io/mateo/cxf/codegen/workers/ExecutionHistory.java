@@ -0,0 +1,299 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import io.mateo.cxf.codegen.CodegenConcurrencyService;
+import io.mateo.cxf.codegen.internal.CodegenMetrics;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+import org.gradle.api.file.Directory;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Per-option record of the execution time and peak memory of previous executions, used to submit the options
+ * expected to take longest first so that a large WSDL declared last does not become the tail of the task.
+ * <p>
+ * Each line of the backing file holds the duration in milliseconds, the peak heap usage in bytes, or {@code 0} if
+ * unknown, and the option name, separated by a single space. Workers write the {@link CodegenMetrics measurements}
+ * of every generated option to a records directory, which the task collects into the history once all work
+ * completed.
+ */
+final class ExecutionHistory {
+
+    private static final Logger logger = Logging.getLogger(ExecutionHistory.class);
+
+    private final @Nullable File file;
+
+    private final Map<String, Entry> entries;
+
+    private ExecutionHistory(@Nullable File file, Map<String, Entry> entries) {
+        this.file = file;
+        this.entries = entries;
+    }
+
+    /**
+     * Loads the history from the given file. A missing or unreadable file results in an empty history.
+     * @param file the backing file or {@code null} to keep the declaration order of options
+     * @return the history
+     */
+    static ExecutionHistory load(@Nullable File file) {
+        Map<String, Entry> entries = new TreeMap<>();
+        if (file != null && file.isFile()) {
+            try {
+                for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                    String[] parts = line.split(" ", 3);
+                    Entry entry = parts.length == 3 ? Entry.parse(parts[0], parts[1]) : null;
+                    if (entry != null) {
+                        entries.put(parts[2], entry);
+                    }
+                }
+            } catch (IOException ex) {
+                logger.info("Unable to read execution history from {}; options are submitted in order", file, ex);
+                entries.clear();
+            }
+        }
+        return new ExecutionHistory(file, entries);
+    }
+
+    /**
+     * Orders the options by their expected duration, longest first. The duration of an option without history is
+     * estimated from the size of its source documents, scaled by the duration per byte of the options with history.
+     * Without a backing file, the options are returned in their original order.
+     * @param options the options
+     * @param <T> the option type
+     * @return the ordered options
+     */
+    <T extends Option> List<T> longestFirst(List<T> options) {
+        return longestFirstGroups(options.stream().map(List::of).toList()).stream()
+                .map(group -> group.get(0))
+                .toList();
+    }
+
+    /**
+     * Orders groups of options generated by the same unit of work by their expected duration, the sum of the
+     * expected durations of their options, longest first. Without a backing file, the groups are returned in their
+     * original order.
+     * @param groups the groups
+     * @param <T> the option type
+     * @return the ordered groups
+     */
+    <T extends Option> List<List<T>> longestFirstGroups(List<List<T>> groups) {
+        if (this.file == null) {
+            return groups;
+        }
+        ToDoubleFunction<Option> expectedDurations =
+                expectedDurations(groups.stream().flatMap(List::stream).toList());
+        List<List<T>> ordered = new ArrayList<>(groups);
+        ordered.sort(Comparator.comparingDouble((List<T> group) ->
+                        group.stream().mapToDouble(expectedDurations).sum())
+                .reversed());
+        if (logger.isInfoEnabled()) {
+            logger.info(
+                    "Submitting options longest first: {}",
+                    ordered.stream().flatMap(List::stream).map(Option::getName).toList());
+        }
+        return ordered;
+    }
+
+    /**
+     * Returns the expected duration of the options, in the unit used by {@link #longestFirst(List)}, so that it can
+     * be used to balance batches.
+     * @param options all options being generated
+     * @return the expected duration of an option
+     */
+    ToDoubleFunction<Option> expectedDurations(List<? extends Option> options) {
+        double durationPerByte = durationPerByte(options);
+        return option -> this.file != null ? expectedDuration(option, durationPerByte) : 1;
+    }
+
+    /**
+     * Returns the memory the option is expected to use: the recorded peak heap usage if known; otherwise an estimate
+     * from the size of its source documents.
+     * @param option the option
+     * @return the expected memory in bytes
+     */
+    long expectedMemory(Option option) {
+        Entry entry = this.entries.get(option.getName());
+        if (entry != null && entry.peakMemory() > 0) {
+            return entry.peakMemory();
+        }
+        return CodegenConcurrencyService.expectedMemory(option.getSourceDocuments().getFiles());
+    }
+
+    private double expectedDuration(Option option, double durationPerByte) {
+        Entry entry = this.entries.get(option.getName());
+        if (entry != null) {
+            return entry.duration();
+        }
+        return size(option) * durationPerByte;
+    }
+
+    private double durationPerByte(List<? extends Option> options) {
+        long duration = 0;
+        long size = 0;
+        for (Option option : options) {
+            Entry entry = this.entries.get(option.getName());
+            if (entry != null) {
+                duration += entry.duration();
+                size += size(option);
+            }
+        }
+        return duration > 0 && size > 0 ? (double) duration / size : 1;
+    }
+
+    private static long size(Option option) {
+        return option.getSourceDocuments().getFiles().stream()
+                .mapToLong(File::length)
+                .sum();
+    }
+
+    /**
+     * Collects the measurements written by workers to the records directory.
+     * @param recordsDirectory the records directory
+     * @return the measurements, ordered by option name
+     */
+    List<CodegenMetrics.Execution> collect(File recordsDirectory) {
+        return collect(recordsDirectory, List.of());
+    }
+
+    /**
+     * Collects the measurements written by workers to the records directory. Measurements are written under the
+     * name of the first option of a tool invocation, and are {@link CodegenMetrics.Execution#divide(List) divided}
+     * among all options generated by the invocation.
+     * @param recordsDirectory the records directory
+     * @param invocations the options of each tool invocation generating more than one option
+     * @return the measurements, ordered by option name
+     */
+    List<CodegenMetrics.Execution> collect(File recordsDirectory, List<? extends List<? extends Option>> invocations) {
+        if (!recordsDirectory.isDirectory()) {
+            return List.of();
+        }
+        Map<String, List<String>> members = new HashMap<>();
+        for (List<? extends Option> invocation : invocations) {
+            members.put(
+                    invocation.get(0).getName(),
+                    invocation.stream().map(Option::getName).toList());
+        }
+        List<CodegenMetrics.Execution> executions = new ArrayList<>();
+        try (Stream<Path> records = Files.list(recordsDirectory.toPath())) {
+            for (Path record : records.sorted().toList()) {
+                String name = record.getFileName().toString();
+                if (!name.endsWith(".txt")) {
+                    continue;
+                }
+                name = name.substring(0, name.length() - ".txt".length());
+                CodegenMetrics.Execution execution =
+                        CodegenMetrics.Execution.parse(name, Files.readString(record, StandardCharsets.UTF_8));
+                if (execution == null) {
+                    continue;
+                }
+                for (CodegenMetrics.Execution member : execution.divide(members.getOrDefault(name, List.of(name)))) {
+                    executions.add(member);
+                    this.entries.put(
+                            member.name(), new Entry(member.wallTimeMillis(), Math.max(member.peakHeapBytes(), 0)));
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        executions.sort(Comparator.comparing(CodegenMetrics.Execution::name));
+        return executions;
+    }
+
+    /**
+     * Forgets the history of any option not in the given names.
+     * @param names the option names to retain
+     */
+    void retainAll(Collection<String> names) {
+        this.entries.keySet().retainAll(names);
+    }
+
+    /**
+     * Writes the history to the backing file, if any.
+     */
+    void store() {
+        if (this.file == null) {
+            return;
+        }
+        List<String> lines = new ArrayList<>(this.entries.size());
+        this.entries.forEach((name, entry) -> lines.add(entry.duration() + " " + entry.peakMemory() + " " + name));
+        try {
+            Files.createDirectories(this.file.toPath().getParent());
+            Files.write(this.file.toPath(), lines, StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Runs the code generation for an option and writes its measurements to the records directory, along with the
+     * {@link WorkerReuse worker process} when running in one. Nothing is written if the code generation fails.
+     * @param option the option
+     * @param outputDirectory the directory the tool writes the generated files to
+     * @param recordsDirectory the records directory, if any
+     * @param scope where the tool runs relative to the current thread
+     * @param generation the code generation
+     */
+    static void measure(
+            Option option,
+            File outputDirectory,
+            @Nullable Directory recordsDirectory,
+            CodegenMetrics.Scope scope,
+            Runnable generation) {
+        if (recordsDirectory == null) {
+            generation.run();
+            return;
+        }
+        CodegenMetrics.Execution execution =
+                CodegenMetrics.measure(option.getName(), outputDirectory, scope, generation);
+        File record = recordsDirectory.file(option.getName() + ".txt").getAsFile();
+        try {
+            Files.createDirectories(record.toPath().getParent());
+            Files.writeString(record.toPath(), execution.toLine(), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            logger.info("Unable to record the execution of option '{}'", option.getName(), ex);
+        }
+        if (scope == CodegenMetrics.Scope.PROCESS) {
+            WorkerReuse.record(recordsDirectory, option.getName());
+        }
+    }
+
+    private record Entry(long duration, long peakMemory) {
+
+        static @Nullable Entry parse(String duration, String peakMemory) {
+            try {
+                return new Entry(Long.parseLong(duration), Long.parseLong(peakMemory));
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import org.gradle.api.Incubating;
+
+/**
+ * Isolation modes for running a code generation tool with the Worker API.
+ */
+@Incubating
+public enum IsolationMode {
+
+    /**
+     * Runs the tool in a forked worker process.
+     */
+    PROCESS,
+
+    /**
+     * Runs the tool in the Gradle daemon using a class loader created from the tool classpath. The class loader is
+     * cached by {@link ToolClassLoaderService} so that subsequent executions skip class loading. Work items running at
+     * the same time use separate class loaders, but share the system properties of the Gradle daemon.
+     */
+    CLASSLOADER
+}
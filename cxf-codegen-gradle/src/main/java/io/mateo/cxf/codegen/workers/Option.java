@@ -17,11 +17,15 @@ package io.mateo.cxf.codegen.workers;
 
 import org.gradle.api.Incubating;
 import org.gradle.api.Named;
+import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.provider.Property;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
 import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
 
 /**
  * Base option for WSDL to code generation tools.
@@ -44,6 +48,20 @@ public interface Option extends Named {
     @Input
     Property<String> getWsdl();
 
+    /**
+     * The local documents code is generated from, such as the WSDL document, the documents it imports or includes,
+     * and binding files. The contents of these documents are tracked so that changing any of them causes the option
+     * to be regenerated.
+     * <p>
+     * If not set, the convention is the WSDL document and every local document it references through
+     * {@code wsdl:import}, {@code xsd:import}, {@code xsd:include} or {@code xsd:redefine}, directly or transitively,
+     * plus any binding files.
+     * @return source documents
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    ConfigurableFileCollection getSourceDocuments();
+
     /**
      * Specifies the directory the generated code files are written.
      * <p>
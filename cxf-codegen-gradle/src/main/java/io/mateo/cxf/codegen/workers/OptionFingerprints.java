@@ -0,0 +1,335 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import io.mateo.cxf.codegen.internal.WsdlDocuments;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import org.gradle.api.file.Directory;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Per-option fingerprint store used to only regenerate options whose inputs changed since the last execution.
+ * <p>
+ * Each line of the backing file holds the input fingerprint, the output fingerprint and the option name, separated
+ * by a single space. The output fingerprint covers the files an option wrote according to its output manifest when
+ * only changed files are written, and its whole output directory otherwise.
+ */
+final class OptionFingerprints {
+
+    private static final Logger logger = Logging.getLogger(OptionFingerprints.class);
+
+    // Static so that jars are only hashed once per Gradle daemon.
+    private static final Map<String, String> contentHashes = new ConcurrentHashMap<>();
+
+    private final @Nullable File file;
+
+    private final @Nullable Directory stagingDirectory;
+
+    private final Map<String, Entry> entries;
+
+    private OptionFingerprints(@Nullable File file, @Nullable Directory stagingDirectory, Map<String, Entry> entries) {
+        this.file = file;
+        this.stagingDirectory = stagingDirectory;
+        this.entries = entries;
+    }
+
+    /**
+     * Loads the fingerprints from the given file. A missing or unreadable file results in an empty store, which
+     * causes every option to be regenerated.
+     * @param file the backing file or {@code null} to disable incremental generation
+     * @return the fingerprints
+     */
+    static OptionFingerprints load(@Nullable File file) {
+        return load(file, null);
+    }
+
+    /**
+     * Loads the fingerprints from the given file, fingerprinting the outputs of an option by the files recorded in
+     * its {@link StagedOutputs#manifest(Option, Directory) output manifest}, if any.
+     * @param file the backing file or {@code null} to disable incremental generation
+     * @param stagingDirectory the staging directory, if only changed files are written
+     * @return the fingerprints
+     */
+    static OptionFingerprints load(@Nullable File file, @Nullable Directory stagingDirectory) {
+        Map<String, Entry> entries = new TreeMap<>();
+        if (file != null && file.isFile()) {
+            try {
+                for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                    String[] parts = line.split(" ", 3);
+                    if (parts.length == 3) {
+                        entries.put(parts[2], new Entry(parts[0], parts[1]));
+                    }
+                }
+            } catch (IOException ex) {
+                logger.info("Unable to read option fingerprints from {}; all options will be regenerated", file, ex);
+                entries.clear();
+            }
+        }
+        return new OptionFingerprints(file, stagingDirectory, entries);
+    }
+
+    /**
+     * Determines whether the option was previously generated from the same inputs and its outputs are unchanged.
+     * @param option the option
+     * @param inputFingerprint the current input fingerprint, {@code null} if it could not be computed
+     * @return whether the option is up-to-date
+     */
+    boolean isUpToDate(Option option, @Nullable String inputFingerprint) {
+        if (this.file == null || inputFingerprint == null) {
+            return false;
+        }
+        Entry entry = this.entries.get(option.getName());
+        if (entry == null || !entry.input().equals(inputFingerprint)) {
+            return false;
+        }
+        return entry.output().equals(outputFingerprint(option));
+    }
+
+    /**
+     * Records the fingerprints of a successfully generated option.
+     * @param option the option
+     * @param inputFingerprint the input fingerprint, {@code null} if it could not be computed
+     */
+    void record(Option option, @Nullable String inputFingerprint) {
+        if (inputFingerprint == null) {
+            this.entries.remove(option.getName());
+        } else {
+            this.entries.put(option.getName(), new Entry(inputFingerprint, outputFingerprint(option)));
+        }
+    }
+
+    /**
+     * Records the current outputs of options that were not generated but share an output directory with generated
+     * options. Without a manifest, the outputs of an option are fingerprinted by its whole output directory, which
+     * generating the other options changes.
+     * @param options the options that were not generated
+     */
+    void refreshOutputs(Collection<? extends Option> options) {
+        for (Option option : options) {
+            Entry entry = this.entries.get(option.getName());
+            if (entry != null) {
+                this.entries.put(option.getName(), new Entry(entry.input(), outputFingerprint(option)));
+            }
+        }
+    }
+
+    /**
+     * Forgets the fingerprints of the option.
+     * @param option the option
+     */
+    void remove(Option option) {
+        this.entries.remove(option.getName());
+    }
+
+    /**
+     * Forgets the fingerprints of any option not in the given names.
+     * @param names the option names to retain
+     */
+    void retainAll(Collection<String> names) {
+        this.entries.keySet().retainAll(names);
+    }
+
+    /**
+     * Writes the fingerprints to the backing file, if any.
+     */
+    void store() {
+        if (this.file == null) {
+            return;
+        }
+        List<String> lines = new ArrayList<>(this.entries.size());
+        this.entries.forEach((name, entry) -> lines.add(entry.input() + " " + entry.output() + " " + name));
+        try {
+            Files.createDirectories(this.file.toPath().getParent());
+            Files.write(this.file.toPath(), lines, StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Computes the input fingerprint for an option from its tool arguments, the contents of its local input files
+     * and the tool classpath. Paths are hashed relative to the project directory, so that the fingerprint stays the
+     * same when the project is checked out or restored in another location, unless the generated code refers to the
+     * absolute location of the WSDL.
+     * @param arguments the tool arguments
+     * @param wsdl the WSDL location
+     * @param files local input files such as the documents imported by the WSDL and binding files
+     * @param projectDirectory the project directory to resolve relative locations from
+     * @param classpathFingerprint the {@link #classpathContentFingerprint(Collection) content fingerprint} of the tool
+     * classpath
+     * @param absoluteWsdlLocation whether the generated code refers to the absolute location of the WSDL
+     * @return the fingerprint, or {@code null} if the WSDL is a remote resource whose contents can not be tracked
+     */
+    static @Nullable String inputFingerprint(
+            List<String> arguments,
+            String wsdl,
+            Collection<File> files,
+            Directory projectDirectory,
+            String classpathFingerprint,
+            boolean absoluteWsdlLocation) {
+        File wsdlFile = WsdlDocuments.toLocalFile(projectDirectory, wsdl);
+        if (wsdlFile == null) {
+            return null;
+        }
+        Path base = projectDirectory.getAsFile().toPath().toAbsolutePath();
+        MessageDigest digest = newDigest();
+        for (String argument : arguments) {
+            // The contents of the WSDL are hashed below, wherever it is stored.
+            update(digest, argument.replace(wsdlFile.getAbsolutePath(), "$WSDL").replace(base.toString(), "$PROJECT"));
+        }
+        if (absoluteWsdlLocation) {
+            update(digest, wsdlFile.getAbsolutePath());
+        }
+        hashContents(digest, base, wsdlFile);
+        for (File file : files) {
+            hashContents(digest, base, file);
+        }
+        update(digest, classpathFingerprint);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Computes a fingerprint of a classpath from the path, size and modification time of each entry. The fingerprint
+     * is cheap to compute and identifies the files a class loader is created from, but changes when the classpath is
+     * moved or touched.
+     * @param classpath the classpath
+     * @return the fingerprint
+     */
+    static String classpathFingerprint(Collection<File> classpath) {
+        MessageDigest digest = newDigest();
+        for (File entry : classpath) {
+            update(digest, entry.getAbsolutePath());
+            update(digest, entry.length() + ":" + entry.lastModified());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Computes a fingerprint of a classpath from the name and contents of each entry, which stays the same when the
+     * same files are resolved into another location, such as another Gradle user home. The content hash of a file is
+     * cached by its path, size and modification time for the lifetime of the Gradle daemon.
+     * @param classpath the classpath
+     * @return the fingerprint
+     */
+    static String classpathContentFingerprint(Collection<File> classpath) {
+        MessageDigest digest = newDigest();
+        for (File entry : classpath) {
+            update(digest, entry.getName());
+            String key = entry.getAbsolutePath() + ":" + entry.length() + ":" + entry.lastModified();
+            update(digest, contentHashes.computeIfAbsent(key, k -> contentHash(entry)));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private String outputFingerprint(Option option) {
+        Path outputDirectory = option.getOutputDirectory().get().getAsFile().toPath();
+        MessageDigest digest = newDigest();
+        // Contents rather than modification times, which change when outputs are restored from a cache.
+        File manifest =
+                this.stagingDirectory != null ? StagedOutputs.manifest(option, this.stagingDirectory) : null;
+        if (manifest != null && manifest.isFile()) {
+            // Only the files the option wrote, as options may share an output directory.
+            try {
+                for (String path : Files.readAllLines(manifest.toPath(), StandardCharsets.UTF_8)) {
+                    hashContents(digest, outputDirectory, outputDirectory.resolve(path).toFile());
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        } else if (Files.isDirectory(outputDirectory)) {
+            try (Stream<Path> paths = Files.walk(outputDirectory)) {
+                paths.filter(Files::isRegularFile)
+                        .sorted()
+                        .forEach(path -> hashContents(digest, outputDirectory, path.toFile()));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String contentHash(File file) {
+        MessageDigest digest = newDigest();
+        if (file.isFile()) {
+            hashBytes(digest, file);
+        } else if (file.isDirectory()) {
+            try (Stream<Path> paths = Files.walk(file.toPath())) {
+                paths.filter(Files::isRegularFile)
+                        .sorted()
+                        .forEach(path -> hashContents(digest, file.toPath(), path.toFile()));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void hashContents(MessageDigest digest, Path base, File file) {
+        Path path = file.toPath().toAbsolutePath();
+        // Files outside of the base directory, such as cached remote documents, are identified by name only.
+        update(digest, path.startsWith(base) ? base.relativize(path).toString() : file.getName());
+        if (!file.isFile()) {
+            update(digest, "missing");
+            return;
+        }
+        hashBytes(digest, file);
+    }
+
+    private static void hashBytes(MessageDigest digest, File file) {
+        byte[] buffer = new byte[8192];
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private record Entry(String input, String output) {}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import org.gradle.api.Incubating;
+import org.gradle.api.Named;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.SetProperty;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+
+/**
+ * A set of schemas shared by several WSDLs. The schemas are compiled once by the XJC tool, and the types are reused by
+ * every {@link Wsdl2JavaOption} through the produced episode file instead of being generated again for each option.
+ */
+@Incubating
+public interface SharedSchema extends Named {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Internal
+    @Override
+    String getName();
+
+    /**
+     * The schema files to compile.
+     * @return the schemas
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    ConfigurableFileCollection getSchemas();
+
+    /**
+     * Specifies the package name to use for the generated code. If not set, the package name is derived from the
+     * target namespace of the schemas.
+     * @return package name
+     */
+    @Input
+    @Optional
+    Property<String> getPackageName();
+
+    /**
+     * Specifies JAXB binding files.
+     * <p>
+     * The values are evaluated as per {@link org.gradle.api.file.Directory#file(String)}
+     * from {@link org.gradle.api.file.ProjectLayout#getProjectDirectory()}
+     * @return binding files
+     */
+    @Input
+    @Optional
+    SetProperty<String> getBindingFiles();
+
+    /**
+     * Specifies extra arguments passed to the XJC tool, such as {@code -npa} or {@code -no-header}.
+     * @return xjc arguments
+     */
+    @Input
+    @Optional
+    ListProperty<String> getXjcArgs();
+
+    /**
+     * Specifies the directory the generated code files are written.
+     * <p>
+     * If not set, the convention is {@code "build/$name-xjc-generated-sources"}
+     * @return output directory
+     */
+    @OutputDirectory
+    DirectoryProperty getOutputDirectory();
+
+    /**
+     * Specifies the episode file describing the generated types.
+     * <p>
+     * If not set, the convention is {@code "build/xjc-episodes/$name.episode"}
+     * @return episode file
+     */
+    @OutputFile
+    RegularFileProperty getEpisodeFile();
+}
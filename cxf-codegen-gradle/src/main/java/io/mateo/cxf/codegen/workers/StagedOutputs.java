@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import io.mateo.cxf.codegen.internal.OutputSync;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.List;
+import org.gradle.api.file.Directory;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Options generated into a staging directory before their outputs are synchronized, so that only the files whose
+ * contents changed are written to the output directories.
+ */
+final class StagedOutputs {
+
+    private StagedOutputs() {}
+
+    /**
+     * Returns the directory the tool writes the generated files of the option to.
+     * @param option the option
+     * @param stagingDirectory the staging directory, if any
+     * @return the directory of the staged option when staging; otherwise the output directory of the option
+     */
+    static File outputDirectory(Option option, @Nullable Directory stagingDirectory) {
+        if (stagingDirectory == null) {
+            return option.getOutputDirectory().get().getAsFile();
+        }
+        return stagingDirectory.dir(option.getName()).getAsFile();
+    }
+
+    /**
+     * Deletes any leftovers of a previous execution from the staging directories of the options.
+     * @param options the options
+     * @param stagingDirectory the staging directory
+     */
+    static void clean(Collection<? extends Option> options, Directory stagingDirectory) {
+        options.forEach(option -> OutputSync.delete(outputDirectory(option, stagingDirectory)));
+    }
+
+    /**
+     * Synchronizes the staged files of the tool invocations into their output directories. An invocation generates
+     * its options into the staging directory of its first option, so the files it wrote are recorded in the manifest
+     * of its first option, and any manifest the other options kept from generating on their own is deleted.
+     * @param invocations the options of each tool invocation
+     * @param stagingDirectory the staging directory
+     * @return the combined result
+     */
+    static OutputSync.Result sync(List<? extends List<? extends Option>> invocations, Directory stagingDirectory) {
+        OutputSync.Result result = OutputSync.Result.NONE;
+        for (List<? extends Option> invocation : invocations) {
+            Option first = invocation.get(0);
+            result = result.plus(OutputSync.sync(
+                    outputDirectory(first, stagingDirectory),
+                    first.getOutputDirectory().get().getAsFile(),
+                    manifest(first, stagingDirectory)));
+            for (Option option : invocation.subList(1, invocation.size())) {
+                try {
+                    Files.deleteIfExists(manifest(option, stagingDirectory).toPath());
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the file recording the files the option wrote to its output directory. It is kept next to the staging
+     * directory, as options may share an output directory and the staging directory is cleaned before generating.
+     * @param option the option
+     * @param stagingDirectory the staging directory
+     * @return the manifest of the option
+     */
+    static File manifest(Option option, Directory stagingDirectory) {
+        return new File(stagingDirectory.getAsFile().getParentFile(), "output-manifests/" + option.getName() + ".txt");
+    }
+}
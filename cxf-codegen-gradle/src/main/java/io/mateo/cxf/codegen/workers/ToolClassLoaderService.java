@@ -0,0 +1,209 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.gradle.api.Incubating;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Shared build service that caches class loaders created from code generation tool classpaths, keyed by the
+ * fingerprint of the classpath.
+ * <p>
+ * A class loader is only used by one caller at a time, because the tools keep static state, such as JAXB and XJC
+ * singletons, in the classes they load: callers that run at the same time get separate class loaders for the same
+ * classpath. Released class loaders are kept for the lifetime of the Gradle daemon so that repeated builds skip
+ * loading the tool classes. The number of idle class loaders is bounded by {@link Params#getMaxClassLoaders()}; the
+ * class loaders of the least recently used classpaths are closed first. When the classpath of an owner changes, such
+ * as after changing {@code cxfCodegen.cxfVersion}, the class loaders for the previous classpath are closed as soon as
+ * no other owner uses them.
+ */
+@Incubating
+public abstract class ToolClassLoaderService implements BuildService<ToolClassLoaderService.Params> {
+
+    /**
+     * Name the service is registered with.
+     */
+    public static final String NAME = "cxfCodegenToolClassLoaders";
+
+    /**
+     * Default maximum number of cached class loaders.
+     */
+    public static final int DEFAULT_MAX_CLASS_LOADERS = 4;
+
+    private static final Logger logger = Logging.getLogger(ToolClassLoaderService.class);
+
+    // Static so that class loaders outlive a single build in the same daemon.
+    private static final Cache cache = new Cache();
+
+    /**
+     * Returns a class loader for the classpath that no other caller uses, creating it if necessary. Every call must be
+     * paired with a call to {@link #release(ClassLoader)}.
+     * @param owner the owner of the class loader, typically the task path
+     * @param classpath the tool classpath
+     * @return the class loader
+     */
+    public ClassLoader acquire(String owner, Collection<File> classpath) {
+        return cache.acquire(
+                owner, classpath, getParameters().getMaxClassLoaders().getOrElse(DEFAULT_MAX_CLASS_LOADERS));
+    }
+
+    /**
+     * Releases a class loader previously returned by {@link #acquire(String, Collection)}.
+     * @param classLoader the class loader
+     */
+    public void release(ClassLoader classLoader) {
+        cache.release(classLoader, getParameters().getMaxClassLoaders().getOrElse(DEFAULT_MAX_CLASS_LOADERS));
+    }
+
+    /**
+     * Parameters for {@link ToolClassLoaderService}.
+     */
+    public interface Params extends BuildServiceParameters {
+
+        /**
+         * Maximum number of tool class loaders to keep cached.
+         * <p>
+         * If not set, the convention is {@value ToolClassLoaderService#DEFAULT_MAX_CLASS_LOADERS}.
+         * @return maximum number of class loaders
+         */
+        Property<Integer> getMaxClassLoaders();
+    }
+
+    private static final class Cache {
+
+        private final Map<String, Pool> pools = new LinkedHashMap<>(16, 0.75f, true);
+
+        private final Map<ClassLoader, Pool> poolsByClassLoader = new IdentityHashMap<>();
+
+        private final Map<String, String> keysByOwner = new HashMap<>();
+
+        synchronized ClassLoader acquire(String owner, Collection<File> classpath, int maxClassLoaders) {
+            String key = OptionFingerprints.classpathFingerprint(classpath);
+            String previousKey = this.keysByOwner.put(owner, key);
+            if (previousKey != null && !previousKey.equals(key) && !this.keysByOwner.containsValue(previousKey)) {
+                evict(this.pools.remove(previousKey));
+            }
+            Pool pool = this.pools.computeIfAbsent(key, Pool::new);
+            URLClassLoader classLoader = pool.idle.poll();
+            if (classLoader == null) {
+                logger.info("Creating tool class loader for '{}'", owner);
+                classLoader = createClassLoader(classpath);
+                this.poolsByClassLoader.put(classLoader, pool);
+            }
+            pool.users++;
+            trim(maxClassLoaders);
+            return classLoader;
+        }
+
+        synchronized void release(ClassLoader classLoader, int maxClassLoaders) {
+            Pool pool = this.poolsByClassLoader.get(classLoader);
+            if (pool == null) {
+                return;
+            }
+            pool.users--;
+            if (pool.evicted) {
+                close((URLClassLoader) classLoader);
+            } else {
+                // Marks the classpath as recently used.
+                this.pools.get(pool.key);
+                pool.idle.push((URLClassLoader) classLoader);
+                trim(maxClassLoaders);
+            }
+        }
+
+        private void trim(int maxClassLoaders) {
+            int idle = this.pools.values().stream().mapToInt(pool -> pool.idle.size()).sum();
+            Iterator<Pool> iterator = this.pools.values().iterator();
+            while (idle > Math.max(1, maxClassLoaders) && iterator.hasNext()) {
+                Pool eldest = iterator.next();
+                while (idle > Math.max(1, maxClassLoaders) && !eldest.idle.isEmpty()) {
+                    close(eldest.idle.removeLast());
+                    idle--;
+                }
+                if (eldest.idle.isEmpty() && eldest.users == 0) {
+                    iterator.remove();
+                }
+            }
+        }
+
+        private void evict(@Nullable Pool pool) {
+            if (pool != null) {
+                logger.info("Evicting tool class loaders {}", pool.key);
+                pool.evicted = true;
+                while (!pool.idle.isEmpty()) {
+                    close(pool.idle.poll());
+                }
+            }
+        }
+
+        private void close(URLClassLoader classLoader) {
+            this.poolsByClassLoader.remove(classLoader);
+            try {
+                classLoader.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private static URLClassLoader createClassLoader(Collection<File> classpath) {
+            URL[] urls = new URL[classpath.size()];
+            int i = 0;
+            for (File file : classpath) {
+                try {
+                    urls[i++] = file.toURI().toURL();
+                } catch (MalformedURLException ex) {
+                    throw new IllegalArgumentException(ex);
+                }
+            }
+            return new URLClassLoader("cxf-codegen-tool", urls, ClassLoader.getPlatformClassLoader());
+        }
+    }
+
+    private static final class Pool {
+
+        private final String key;
+
+        // Most recently released first, so that the warmest class loader is reused.
+        private final Deque<URLClassLoader> idle = new ArrayDeque<>();
+
+        private int users;
+
+        private boolean evicted;
+
+        Pool(String key) {
+            this.key = key;
+        }
+    }
+}
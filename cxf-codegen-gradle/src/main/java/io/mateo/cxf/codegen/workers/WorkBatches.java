@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+import org.gradle.api.GradleException;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Utilities for grouping options into batches that are processed by a single work item.
+ */
+final class WorkBatches {
+
+    private WorkBatches() {}
+
+    /**
+     * Determines the number of options to process per work item.
+     * @param configured the configured batch size; {@code null} disables batching and a value less than {@code 1}
+     * selects the size automatically
+     * @param optionCount the number of options to process
+     * @param maxWorkers the maximum number of concurrent workers
+     * @return the batch size, at least {@code 1}
+     */
+    static int batchSize(@Nullable Integer configured, int optionCount, int maxWorkers) {
+        if (configured == null) {
+            return 1;
+        }
+        if (configured > 0) {
+            return configured;
+        }
+        int workers = Math.max(1, maxWorkers);
+        return Math.max(1, (optionCount + workers - 1) / workers);
+    }
+
+    /**
+     * Distributes the items round-robin into as few batches as possible without exceeding the batch size, so that
+     * batch sizes differ by at most one.
+     * @param items the items to distribute
+     * @param batchSize the maximum batch size
+     * @param <T> the item type
+     * @return the batches
+     */
+    static <T> List<List<T>> partition(List<T> items, int batchSize) {
+        return partition(items, batchSize, item -> 1);
+    }
+
+    /**
+     * Distributes the items, in order, into as few batches as possible without exceeding the batch size, adding
+     * each item to the batch with the lowest expected duration so far. When the items are ordered longest first, the
+     * batches end up with similar expected durations. Batches are returned longest first.
+     * @param items the items to distribute
+     * @param batchSize the maximum batch size
+     * @param duration the expected duration of an item
+     * @param <T> the item type
+     * @return the batches
+     */
+    static <T> List<List<T>> partition(List<T> items, int batchSize, ToDoubleFunction<? super T> duration) {
+        int batchCount = (items.size() + batchSize - 1) / batchSize;
+        List<List<T>> batches = new ArrayList<>(batchCount);
+        double[] durations = new double[batchCount];
+        for (int i = 0; i < batchCount; i++) {
+            batches.add(new ArrayList<>(batchSize));
+        }
+        for (T item : items) {
+            int shortest = -1;
+            for (int i = 0; i < batchCount; i++) {
+                if (batches.get(i).size() < batchSize && (shortest == -1 || durations[i] < durations[shortest])) {
+                    shortest = i;
+                }
+            }
+            batches.get(shortest).add(item);
+            durations[shortest] += duration.applyAsDouble(item);
+        }
+        List<Integer> indexes = new ArrayList<>(batchCount);
+        for (int i = 0; i < batchCount; i++) {
+            indexes.add(i);
+        }
+        indexes.sort(Comparator.comparingDouble((Integer i) -> durations[i]).reversed());
+        return indexes.stream().map(batches::get).toList();
+    }
+
+    /**
+     * Generates code for every option, continuing past failures. Failures are reported once all options were
+     * processed.
+     * @param options the options
+     * @param generator the code generator
+     */
+    static void runAll(List<Option> options, Consumer<Option> generator) {
+        GradleException failure = null;
+        for (Option option : options) {
+            try {
+                generator.accept(option);
+            } catch (RuntimeException ex) {
+                GradleException optionFailure =
+                        new GradleException("Code generation failed for option '" + option.getName() + "'", ex);
+                if (failure == null) {
+                    failure = optionFailure;
+                } else {
+                    failure.addSuppressed(optionFailure);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.gradle.api.file.Directory;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Statistics on how often worker processes are reused. Every option generated in a worker process records when it
+ * was generated and the process ID and start time of the process in the records directory, next to its
+ * {@link ExecutionHistory execution record}. An option reuses a worker process unless the process was started by the
+ * task for it: the first option of every process started after the task began does not count as reused.
+ */
+final class WorkerReuse {
+
+    private static final Logger logger = Logging.getLogger(WorkerReuse.class);
+
+    private static final String FILE_EXTENSION = ".process";
+
+    private WorkerReuse() {}
+
+    /**
+     * Records the current worker process as the process that generated the option.
+     * @param recordsDirectory the records directory
+     * @param name the name of the option
+     */
+    static void record(Directory recordsDirectory, String name) {
+        File record = recordsDirectory.file(name + FILE_EXTENSION).getAsFile();
+        String process = ProcessHandle.current().pid() + " "
+                + ManagementFactory.getRuntimeMXBean().getStartTime() + " " + System.currentTimeMillis();
+        try {
+            Files.createDirectories(record.toPath().getParent());
+            Files.writeString(record.toPath(), process, StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            logger.info("Unable to record the worker process of option '{}'", name, ex);
+        }
+    }
+
+    /**
+     * Collects the worker processes recorded in the records directory since the task started.
+     * @param recordsDirectory the records directory
+     * @param taskStart the time the task started, in milliseconds since the epoch
+     * @return the statistics, or {@code null} if no worker process was recorded
+     */
+    static @Nullable Statistics collect(File recordsDirectory, long taskStart) {
+        if (!recordsDirectory.isDirectory()) {
+            return null;
+        }
+        Map<String, Long> startTimes = new HashMap<>();
+        int options = 0;
+        try (Stream<Path> records = Files.list(recordsDirectory.toPath())) {
+            for (Path record : records.toList()) {
+                if (!record.getFileName().toString().endsWith(FILE_EXTENSION)) {
+                    continue;
+                }
+                String[] parts = Files.readString(record, StandardCharsets.UTF_8).trim().split(" ");
+                // Records written before the task started are left over from options that were not generated again.
+                if (parts.length == 3 && Long.parseLong(parts[2]) >= taskStart) {
+                    options++;
+                    startTimes.put(parts[0], Long.parseLong(parts[1]));
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (NumberFormatException ex) {
+            logger.info("Ignoring malformed worker process records in {}", recordsDirectory, ex);
+            return null;
+        }
+        if (options == 0) {
+            return null;
+        }
+        int started = (int) startTimes.values().stream()
+                .filter(startTime -> startTime >= taskStart)
+                .count();
+        return new Statistics(options, startTimes.size(), started);
+    }
+
+    /**
+     * Worker process reuse of a task.
+     * @param options the number of options generated in worker processes
+     * @param processes the number of worker processes that generated them
+     * @param startedProcesses the number of those processes started while the task ran
+     */
+    record Statistics(int options, int processes, int startedProcesses) {
+
+        /**
+         * Returns the share of options that reused a running worker process.
+         * @return the hit rate, between {@code 0} and {@code 1}
+         */
+        double hitRate() {
+            return (double) (this.options - this.startedProcesses) / this.options;
+        }
+
+        @Override
+        public String toString() {
+            return "%d option(s) in %d worker process(es), %d started and %d reused, %.0f%% hit rate"
+                    .formatted(
+                            this.options,
+                            this.processes,
+                            this.startedProcesses,
+                            this.processes - this.startedProcesses,
+                            hitRate() * 100);
+        }
+    }
+}
@@ -15,33 +15,63 @@
  */
 package io.mateo.cxf.codegen.workers;
 
+import io.mateo.cxf.codegen.CodegenConcurrencyService;
+import io.mateo.cxf.codegen.internal.RelocatablePaths;
+import io.mateo.cxf.codegen.internal.RemoteDocumentCache;
+import io.mateo.cxf.codegen.internal.ClassDataArchiveService;
+import io.mateo.cxf.codegen.internal.RuntimeImageService;
+import io.mateo.cxf.codegen.internal.WsdlDocuments;
+import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import javax.inject.Inject;
 import org.gradle.api.Action;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.Incubating;
+import org.gradle.api.InvalidUserDataException;
 import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.Directory;
+import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.model.ObjectFactory;
 import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.CacheableTask;
 import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Nested;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFile;
 import org.gradle.api.tasks.TaskAction;
 import org.gradle.process.JavaForkOptions;
-import org.gradle.workers.WorkQueue;
 import org.gradle.workers.WorkerExecutor;
 import org.jspecify.annotations.Nullable;
 
 /**
  * Generates Java sources from WSDL files using the Apache CXF {@code wsdl2java} tool.
  * Code generation is performed in an isolated worker process for each WSDL file.
+ * <p>
+ * When {@link #getOptionFingerprints()} is set, only options whose WSDL, binding files, option values or outputs
+ * changed since the previous execution are regenerated.
  */
 @Incubating
 @CacheableTask
 public abstract class Wsdl2Java extends DefaultTask {
 
+    private static final String TOOL_CLASS_NAME = "org.apache.cxf.tools.wsdlto.WSDLToJava";
+
+    private static final Logger logger = Logging.getLogger(Wsdl2Java.class);
+
     private @Nullable List<Action<? super JavaForkOptions>> forkOptionsActions;
 
     /**
@@ -58,6 +88,274 @@ public abstract class Wsdl2Java extends DefaultTask {
     @Nested
     public abstract ListProperty<Wsdl2JavaOption> getOptions();
 
+    /**
+     * The WSDLs of {@link #getOptions()} as tracked for up-to-date checks and the build cache, keyed by option name.
+     * The local WSDL of a {@link Wsdl2JavaOption#getRelocatable() relocatable} option is relative to the project
+     * directory, as the generated code refers to its {@link Wsdl2JavaOption#getWsdlLocation() wsdlLocation} instead.
+     * Otherwise, the generated code refers to the WSDL as given, so it is tracked as-is.
+     * @return the tracked WSDLs
+     */
+    @Input
+    public Provider<Map<String, String>> getWsdlInputs() {
+        Directory projectDirectory = getLayout().getProjectDirectory();
+        return getOptions().map(options -> {
+            Map<String, String> wsdls = new LinkedHashMap<>();
+            for (Wsdl2JavaOption option : options) {
+                String wsdl = option.getWsdl().get();
+                wsdls.put(
+                        option.getName(),
+                        option.getRelocatable().getOrElse(false)
+                                ? RelocatablePaths.wsdlLocation(projectDirectory, wsdl)
+                                : wsdl);
+            }
+            return wsdls;
+        });
+    }
+
+    /**
+     * Directories of WSDLs to generate code for in addition to {@link #getOptions()}. The options of the WSDLs in
+     * these directories are only derived when the task executes.
+     * @return the WSDL directories
+     */
+    @Nested
+    public abstract ListProperty<WsdlDirectory> getWsdlDirectories();
+
+    /**
+     * File used to record the fingerprints of each generated option between executions. When not set, every option
+     * is regenerated each time the task executes.
+     * @return the option fingerprints file
+     */
+    @Optional
+    @OutputFile
+    public abstract RegularFileProperty getOptionFingerprints();
+
+    /**
+     * File used to record the execution time and peak memory of each option between executions. Options expected to
+     * take longest are submitted first, so that a large WSDL does not start last and delay the completion of the
+     * task, and batches are balanced by expected duration. The recorded peak memory of an option is also used for
+     * the admission by {@link #getConcurrencyService()}.
+     * <p>
+     * If not set, options are submitted in the order they are declared.
+     * @return the execution history file
+     */
+    @Internal
+    public abstract RegularFileProperty getExecutionHistory();
+
+    /**
+     * Directory the execution metrics of the generated options are reported to: the wall time, CPU time, peak heap
+     * usage, and the number and size of the files written by each option, as {@code <task name>.json} and as a
+     * sortable {@code index.html} page across all reported tasks.
+     * <p>
+     * If not set, no report is written.
+     * @return the report directory
+     */
+    @Internal
+    public abstract DirectoryProperty getReportDirectory();
+
+    /**
+     * Whether to record every generated option with Java Flight Recorder, using the {@code profile} settings of the
+     * JDK. The recordings are written to {@link #getRecordingDirectory()} as {@code <option name>.jfr}, and a summary
+     * of the hot methods and allocations across them is logged once all options are generated. While enabled, every
+     * option is generated, and the task is neither up-to-date nor loaded from the build cache.
+     * <p>
+     * If not set, no recordings are made.
+     * @return whether to profile the code generation
+     */
+    @Internal
+    public abstract Property<Boolean> getProfiling();
+
+    /**
+     * Directory the flight recordings are written to when {@link #getProfiling() profiling}.
+     * @return the recording directory
+     */
+    @Internal
+    public abstract DirectoryProperty getRecordingDirectory();
+
+    /**
+     * Whether to fork the worker processes with JVM arguments tuned for start-up: JIT compilation limited to the C1
+     * compiler, the serial garbage collector, and a maximum heap size derived from the memory expected by the largest
+     * generated option. Arguments for options
+     * already set by the {@link #forkOptions(Action) fork options} are left out. Only used with
+     * {@link IsolationMode#PROCESS}.
+     * <p>
+     * If not set, the worker processes are forked with the default arguments.
+     * @return whether to use the start-up profile
+     */
+    @Internal
+    public abstract Property<Boolean> getStartupProfile();
+
+    /**
+     * Whether the {@link #getStartupProfile() start-up profile} also skips the bytecode verification of the classes
+     * loaded from the tool classpath with {@code -XX:-BytecodeVerificationRemote}. Only enable it when every artifact
+     * of the tool classpath is trusted: classes that are not verified can break the type safety of the JVM. The JDK
+     * deprecated the flag and prints a warning when the JVM starts. Ignored unless the start-up profile is used, and
+     * left out when the flag is already set by the {@link #forkOptions(Action) fork options}.
+     * <p>
+     * If not set, the bytecode is verified.
+     * @return whether to skip the bytecode verification
+     */
+    @Internal
+    public abstract Property<Boolean> getSkipBytecodeVerification();
+
+    /**
+     * Whether to rewrite the fork options of the worker processes into a canonical form, so that tasks of different
+     * projects request compatible worker processes and Gradle reuses the same worker processes for them: JVM
+     * arguments are deduplicated and sorted, system properties passed as JVM arguments become system properties, and
+     * the maximum heap size is rounded up to a power of two. Only used with {@link IsolationMode#PROCESS}.
+     * <p>
+     * If not set, the fork options are used as configured.
+     * @return whether to normalize the fork options
+     */
+    @Internal
+    public abstract Property<Boolean> getNormalizeForkOptions();
+
+    /**
+     * Number of options processed one after another by a single work item, which saves the tool startup cost for
+     * every option but the first in each batch. A value less than {@code 1} picks the size automatically from the
+     * number of options and {@link #getMaxWorkers()}.
+     * <p>
+     * If not set, each option is processed by its own work item.
+     * @return the batch size
+     */
+    @Internal
+    public abstract Property<Integer> getBatchSize();
+
+    /**
+     * Maximum number of workers used to determine the batch size when it is selected automatically.
+     * <p>
+     * If not set, the convention is the value of {@code --max-workers}.
+     * @return the maximum number of workers
+     */
+    @Internal
+    public abstract Property<Integer> getMaxWorkers();
+
+    /**
+     * How the code generation tool is isolated from the Gradle daemon. With {@link IsolationMode#CLASSLOADER}, the
+     * tool runs in the Gradle daemon and the fork options are not used.
+     * <p>
+     * If not set, {@link IsolationMode#PROCESS} is used.
+     * @return the isolation mode
+     */
+    @Internal
+    public abstract Property<IsolationMode> getIsolationMode();
+
+    /**
+     * Service limiting how much code generation runs at the same time across all projects of the build, if any. Every
+     * unit of work acquires a lease for its expected memory before it is submitted, released once it completed.
+     * @return the concurrency service
+     */
+    @Internal
+    public abstract Property<CodegenConcurrencyService> getConcurrencyService();
+
+    /**
+     * Service caching the tool class loader when using {@link IsolationMode#CLASSLOADER}.
+     * @return the class loader service
+     */
+    @Internal
+    public abstract Property<ToolClassLoaderService> getClassLoaderService();
+
+    /**
+     * Service linking the runtime images that worker processes run with when using {@link IsolationMode#PROCESS}.
+     * <p>
+     * If not set, worker processes run with the full Java runtime.
+     * @return the runtime image service
+     */
+    @Internal
+    public abstract Property<RuntimeImageService> getRuntimeImageService();
+
+    /**
+     * Service locating the class data archives that worker processes create and map their classes from when using
+     * {@link IsolationMode#PROCESS}. Archives are only created by worker processes running on Java 19 and newer.
+     * <p>
+     * If not set, worker processes load their classes without a class data archive.
+     * @return the class data archive service
+     */
+    @Internal
+    public abstract Property<ClassDataArchiveService> getClassDataArchiveService();
+
+    /**
+     * Whether to mirror remote WSDL documents, and the documents they import or include, into
+     * {@link #getRemoteDocumentCache()} before generating code. Cached copies are revalidated with conditional
+     * requests, and are used as-is when the remote endpoint is unavailable or {@link #getOffline()} is enabled.
+     * <p>
+     * If not set, remote documents are fetched by the tool on every execution.
+     * @return whether to cache remote documents
+     */
+    @Internal
+    public abstract Property<Boolean> getCacheRemoteDocuments();
+
+    /**
+     * Directory where remote documents are cached when {@link #getCacheRemoteDocuments()} is enabled.
+     * <p>
+     * If not set, the convention is {@code $gradleUserHome/caches/cxf-codegen/remote-documents}.
+     * @return the remote document cache directory
+     */
+    @Internal
+    public abstract DirectoryProperty getRemoteDocumentCache();
+
+    /**
+     * Whether to use cached copies of remote documents without contacting the remote endpoints.
+     * <p>
+     * If not set, the convention is the value of {@code --offline}.
+     * @return whether to work offline
+     */
+    @Internal
+    public abstract Property<Boolean> getOffline();
+
+    /**
+     * The fingerprints of the contents of the remote WSDLs of {@link #getOptions()}, and of the remote documents they
+     * import or include, keyed by option name, when {@link #getCacheRemoteDocuments() caching remote documents}.
+     * Computing the fingerprints revalidates the cached copies, so the task is out-of-date whenever a remote document
+     * changed. Without caching, only the URL of a remote WSDL is tracked.
+     * @return the remote document fingerprints
+     */
+    @Input
+    public Provider<Map<String, String>> getRemoteDocumentFingerprints() {
+        Provider<RemoteDocumentCache> remoteDocuments = getRemoteDocumentCache()
+                .zip(getOffline().orElse(false), (directory, offline) -> new RemoteDocumentCache(
+                        directory.getAsFile(), offline));
+        Provider<Map<String, String>> fingerprints = getOptions().zip(remoteDocuments, (options, cache) -> {
+            Map<String, String> remoteFingerprints = new LinkedHashMap<>();
+            for (Wsdl2JavaOption option : options) {
+                String wsdl = option.getWsdl().get();
+                if (RemoteDocumentCache.isRemote(wsdl) && !option.getWsdlList().getOrElse(false)) {
+                    remoteFingerprints.put(option.getName(), cache.fingerprint(wsdl));
+                }
+            }
+            return remoteFingerprints;
+        });
+        return getCacheRemoteDocuments()
+                .filter(Boolean::booleanValue)
+                .flatMap(enabled -> fingerprints)
+                .orElse(Map.of());
+    }
+
+    /**
+     * Whether to generate code into a staging directory and only write the generated files whose contents changed
+     * to the output directories. Files written by the previous execution that are no longer generated are deleted,
+     * while unchanged files are left untouched so that tasks consuming the generated sources, such as Java
+     * compilation, see as few changes as possible.
+     * <p>
+     * If not set, the tool writes every generated file to the output directories.
+     * @return whether to only write changed files
+     */
+    @Internal
+    public abstract Property<Boolean> getWriteChangedFilesOnly();
+
+    /**
+     * Whether to group options whose tool arguments only differ in the WSDL and output directory, and generate each
+     * group with a single unit of work, which saves the worker startup cost for every option but the first in each
+     * group. Within a group, the options sharing an output directory are generated by a single tool invocation using
+     * {@code -wsdlList}, which also saves the tool setup cost. Options using {@code wsdlList} themselves or a cached
+     * copy of a remote WSDL are not grouped. A group is regenerated as a whole when any of its options is
+     * out-of-date.
+     * <p>
+     * If not set, every option is generated by its own tool invocation.
+     * @return whether to group options
+     */
+    @Internal
+    public abstract Property<Boolean> getGroupOptions();
+
     /**
      * Returns the list of actions to configure the Java fork options used when executing the {@code wsdl2java} tool.
      * @return the actions, never null.
@@ -84,19 +382,161 @@ public abstract class Wsdl2Java extends DefaultTask {
     @Inject
     public abstract ProjectLayout getLayout();
 
+    @Inject
+    public abstract ObjectFactory getObjects();
+
     @TaskAction
     public void generate() {
-        WorkQueue workQueue = getWorkerExecutor().processIsolation(spec -> {
-            spec.getClasspath().from(getWsdl2JavaClasspath());
-            for (Action<? super JavaForkOptions> action : getForkOptionsActions()) {
-                spec.forkOptions(action);
+        Directory projectDirectory = getLayout().getProjectDirectory();
+        List<Wsdl2JavaOption> options = new ArrayList<>(getOptions().get());
+        for (WsdlDirectory directory : getWsdlDirectories().get()) {
+            List<Wsdl2JavaOption> derived = WsdlDirectories.options(getObjects(), projectDirectory, directory);
+            WsdlDirectories.deleteStaleOutputs(directory, derived);
+            options.addAll(derived);
+        }
+        for (Wsdl2JavaOption option : options) {
+            if (option.getRelocatable().getOrElse(false)
+                    && !option.getWsdlLocation().isPresent()
+                    && WsdlDocuments.toLocalFile(projectDirectory, option.getWsdl().get()) != null) {
+                throw new InvalidUserDataException("Option '" + option.getName() + "' is relocatable but sets no"
+                        + " wsdlLocation, so the generated code would refer to the absolute path of its WSDL. Set"
+                        + " wsdlLocation to a location that resolves at runtime, such as a classpath: location.");
             }
-        });
-        for (Wsdl2JavaOption option : getOptions().get()) {
-            workQueue.submit(Wsdl2JavaAction.class, params -> {
-                params.getOption().set(option);
-                params.getProjectDirectory().set(getLayout().getProjectDirectory());
-            });
         }
+        Directory stagingDirectory = stagingDirectory();
+        OptionFingerprints fingerprints =
+                OptionFingerprints.load(getOptionFingerprints().getAsFile().getOrNull(), stagingDirectory);
+        fingerprints.retainAll(options.stream().map(Option::getName).toList());
+        String classpathFingerprint =
+                OptionFingerprints.classpathContentFingerprint(getWsdl2JavaClasspath().getFiles());
+        RemoteDocumentCache remoteDocuments = getCacheRemoteDocuments().getOrElse(false)
+                ? new RemoteDocumentCache(
+                        getRemoteDocumentCache().get().getAsFile(),
+                        getOffline().getOrElse(false))
+                : null;
+        Map<String, String> localWsdls = new HashMap<>();
+        Map<Wsdl2JavaOption, @Nullable String> inputFingerprints = new HashMap<>();
+        for (Wsdl2JavaOption option : options) {
+            String localWsdl = localWsdl(option, remoteDocuments);
+            if (localWsdl != null) {
+                localWsdls.put(option.getName(), localWsdl);
+            }
+            inputFingerprints.put(option, fingerprint(option, projectDirectory, classpathFingerprint, localWsdl));
+        }
+        List<List<Wsdl2JavaOption>> groups = getGroupOptions().getOrElse(false)
+                ? WsdlLists.group(options, projectDirectory, localWsdls)
+                : options.stream().map(List::of).toList();
+        CodegenPlan<Wsdl2JavaOption> plan =
+                CodegenPlan.create(groups, inputFingerprints, fingerprints, getProfiling().getOrElse(false));
+        if (plan.isEmpty()) {
+            return;
+        }
+        Map<String, String> wsdlLists = new HashMap<>();
+        for (List<Wsdl2JavaOption> group : plan.groups()) {
+            if (group.size() > 1) {
+                logger.info(
+                        "Generating options {} with a single unit of work",
+                        group.stream().map(Option::getName).toList());
+            }
+            for (List<Wsdl2JavaOption> invocation : CodegenPlan.invocations(group)) {
+                if (invocation.size() > 1) {
+                    logger.info(
+                            "Generating options {} with a single wsdl2java invocation",
+                            invocation.stream().map(Option::getName).toList());
+                    String first = invocation.get(0).getName();
+                    File wsdlList = new File(getTemporaryDir(), "wsdl-lists/" + first + ".txt");
+                    wsdlLists.put(first, WsdlLists.write(wsdlList, invocation, projectDirectory).getAbsolutePath());
+                }
+            }
+        }
+        ExecutionHistory history = ExecutionHistory.load(getExecutionHistory().getAsFile().getOrNull());
+        history.retainAll(options.stream().map(Option::getName).toList());
+        CodegenRecorder recorder = new CodegenRecorder(
+                new CodegenRecorder.Task(getName(), getPath(), "wsdl2java"),
+                history,
+                fingerprints,
+                plan,
+                stagingDirectory,
+                executionRecords(),
+                getProfiling().getOrElse(false) ? getRecordingDirectory().get() : null,
+                getReportDirectory().map(Directory::getAsFile).getOrNull());
+        CodegenExecutor executor = new CodegenExecutor(
+                getWorkerExecutor(),
+                new CodegenExecutor.Settings(
+                        getPath(),
+                        TOOL_CLASS_NAME,
+                        Wsdl2JavaAction.class,
+                        Wsdl2JavaBatchAction.class,
+                        getWsdl2JavaClasspath(),
+                        getIsolationMode().getOrElse(IsolationMode.PROCESS),
+                        getBatchSize().getOrNull(),
+                        getMaxWorkers().getOrElse(1),
+                        getForkOptionsActions(),
+                        getStartupProfile().getOrElse(false),
+                        getSkipBytecodeVerification().getOrElse(false),
+                        getRuntimeImageService().getOrNull(),
+                        getClassDataArchiveService().getOrNull(),
+                        getNormalizeForkOptions().getOrElse(false),
+                        getConcurrencyService().getOrNull(),
+                        getClassLoaderService(),
+                        getTemporaryDir()),
+                history);
+        // Worker processes started from here on were not reused.
+        long start = System.currentTimeMillis();
+        try {
+            executor.execute(plan.groups(), recorder.work(projectDirectory, localWsdls, wsdlLists));
+        } finally {
+            recorder.executed(start);
+        }
+        recorder.generated();
+    }
+
+    private @Nullable Directory stagingDirectory() {
+        if (!getWriteChangedFilesOnly().getOrElse(false)) {
+            return null;
+        }
+        return getLayout().getBuildDirectory().dir("tmp/" + getName() + "/staging").get();
+    }
+
+    private @Nullable Directory executionRecords() {
+        if (!getExecutionHistory().isPresent() && !getReportDirectory().isPresent()) {
+            return null;
+        }
+        return getLayout().getBuildDirectory().dir("tmp/" + getName() + "/execution-records").get();
+    }
+
+    private static @Nullable String localWsdl(
+            Wsdl2JavaOption option, @Nullable RemoteDocumentCache remoteDocuments) {
+        String wsdl = option.getWsdl().get();
+        if (remoteDocuments == null
+                || !RemoteDocumentCache.isRemote(wsdl)
+                || option.getWsdlList().getOrElse(false)) {
+            return null;
+        }
+        return remoteDocuments.mirror(wsdl).getAbsolutePath();
+    }
+
+    private static @Nullable String fingerprint(
+            Wsdl2JavaOption option,
+            Directory projectDirectory,
+            String classpathFingerprint,
+            @Nullable String localWsdl) {
+        Set<File> files = new LinkedHashSet<>(option.getSourceDocuments().getFiles());
+        option.getBindingFiles()
+                .getOrElse(Set.of())
+                .forEach(binding -> files.add(projectDirectory.file(binding).getAsFile()));
+        files.addAll(option.getEpisodes().getFiles());
+        if (localWsdl != null) {
+            files.addAll(WsdlDocuments.discover(projectDirectory, localWsdl));
+        }
+        List<String> arguments = Wsdl2JavaAction.getArguments(option, projectDirectory, localWsdl);
+        // Without a WSDL location, the tool writes the absolute location of the WSDL into the generated code.
+        return OptionFingerprints.inputFingerprint(
+                arguments,
+                localWsdl != null ? localWsdl : option.getWsdl().get(),
+                files,
+                projectDirectory,
+                classpathFingerprint,
+                !arguments.contains("-wsdlLocation"));
     }
 }
@@ -15,15 +15,21 @@
  */
 package io.mateo.cxf.codegen.workers;
 
+import io.mateo.cxf.codegen.internal.CodegenMetrics;
+import io.mateo.cxf.codegen.internal.FlightRecordings;
+import io.mateo.cxf.codegen.internal.WsdlDocuments;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.cxf.tools.common.ToolContext;
 import org.apache.cxf.tools.wsdlto.WSDLToJava;
 import org.gradle.api.Incubating;
+import org.gradle.api.file.Directory;
 import org.gradle.api.file.RegularFile;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
 import org.gradle.workers.WorkAction;
+import org.jspecify.annotations.Nullable;
 
 /**
  * An action to run the {@code wsdl2java} tool.
@@ -35,7 +41,41 @@ public abstract class Wsdl2JavaAction implements WorkAction<CodegenParameters> {
 
     @Override
     public void execute() {
-        List<String> arguments = getArguments();
+        try {
+            generateOption();
+        } finally {
+            AdmittedWorkQueue.completed(getParameters());
+        }
+    }
+
+    private void generateOption() {
+        Wsdl2JavaOption option = (Wsdl2JavaOption) getParameters().getOption().get();
+        File outputDirectory = StagedOutputs.outputDirectory(
+                option, getParameters().getStagingDirectory().getOrNull());
+        FlightRecordings.record(
+                getParameters().getRecordingDirectory().getAsFile().getOrNull(),
+                option.getName(),
+                () -> ExecutionHistory.measure(
+                        option,
+                        outputDirectory,
+                        getParameters().getExecutionRecords().getOrNull(),
+                        CodegenMetrics.Scope.PROCESS,
+                        () -> generate(
+                                option,
+                                getParameters().getProjectDirectory().get(),
+                                getParameters().getLocalWsdl().getOrNull(),
+                                getParameters().getWsdlList().getOrNull(),
+                                outputDirectory)));
+    }
+
+    static void generate(
+            Wsdl2JavaOption option,
+            Directory projectDirectory,
+            @Nullable String localWsdl,
+            @Nullable String wsdlList,
+            File outputDirectory) {
+        List<String> arguments = WsdlLists.withWsdlList(
+                getArguments(option, projectDirectory, localWsdl, outputDirectory), wsdlList);
         if (logger.isInfoEnabled()) {
             logger.info("Invoking wsdl2java tool with arguments: {}", arguments);
         }
@@ -52,6 +92,43 @@ public abstract class Wsdl2JavaAction implements WorkAction<CodegenParameters> {
 
     List<String> getArguments() { // package private for testing
         Wsdl2JavaOption option = (Wsdl2JavaOption) getParameters().getOption().get();
+        return WsdlLists.withWsdlList(
+                getArguments(
+                        option,
+                        getParameters().getProjectDirectory().get(),
+                        getParameters().getLocalWsdl().getOrNull(),
+                        StagedOutputs.outputDirectory(
+                                option, getParameters().getStagingDirectory().getOrNull())),
+                getParameters().getWsdlList().getOrNull());
+    }
+
+    static List<String> getArguments(Wsdl2JavaOption option, Directory projectDirectory) {
+        return getArguments(option, projectDirectory, null);
+    }
+
+    /**
+     * Returns the tool arguments for the option.
+     * @param option the option
+     * @param projectDirectory the project directory
+     * @param localWsdl the local copy of the remote WSDL to use instead of the WSDL of the option, if any
+     * @return the arguments
+     */
+    static List<String> getArguments(Wsdl2JavaOption option, Directory projectDirectory, @Nullable String localWsdl) {
+        return getArguments(
+                option, projectDirectory, localWsdl, option.getOutputDirectory().get().getAsFile());
+    }
+
+    /**
+     * Returns the tool arguments for the option.
+     * @param option the option
+     * @param projectDirectory the project directory
+     * @param localWsdl the local copy of the remote WSDL to use instead of the WSDL of the option, if any
+     * @param outputDirectory the directory the tool writes the generated files to
+     * @return the arguments
+     */
+    static List<String> getArguments(
+            Wsdl2JavaOption option, Directory projectDirectory, @Nullable String localWsdl, File outputDirectory) {
+        boolean relocatable = option.getRelocatable().getOrElse(false);
         List<String> arguments = new ArrayList<>();
         if (option.getEncoding().isPresent()) {
             arguments.add("-encoding");
@@ -70,16 +147,18 @@ public abstract class Wsdl2JavaAction implements WorkAction<CodegenParameters> {
             });
         }
         arguments.add("-d");
-        String outputDir = option.getOutputDirectory().getAsFile().get().getAbsolutePath();
-        arguments.add(outputDir);
+        arguments.add(outputDirectory.getAbsolutePath());
         if (option.getBindingFiles().isPresent()) {
             option.getBindingFiles().get().forEach(binding -> {
-                RegularFile bindingFile =
-                        getParameters().getProjectDirectory().get().file(binding);
+                RegularFile bindingFile = projectDirectory.file(binding);
                 arguments.add("-b");
                 arguments.add(bindingFile.getAsFile().toPath().toAbsolutePath().toString());
             });
         }
+        option.getEpisodes().getFiles().forEach(episode -> {
+            arguments.add("-b");
+            arguments.add(episode.getAbsolutePath());
+        });
         if (option.getFrontend().isPresent()) {
             arguments.add("-fe");
             arguments.add(option.getFrontend().get());
@@ -114,8 +193,9 @@ public abstract class Wsdl2JavaAction implements WorkAction<CodegenParameters> {
         if (option.getMarkGenerated().isPresent() && option.getMarkGenerated().get()) {
             arguments.add("-mark-generated");
         }
-        if (option.getSuppressGeneratedDate().isPresent()
-                && option.getSuppressGeneratedDate().get()) {
+        if (relocatable
+                || option.getSuppressGeneratedDate().isPresent()
+                        && option.getSuppressGeneratedDate().get()) {
             arguments.add("-suppress-generated-date");
         }
         if (option.getDefaultExcludesNamespace().isPresent()) {
@@ -161,6 +241,10 @@ public abstract class Wsdl2JavaAction implements WorkAction<CodegenParameters> {
         if (option.getWsdlLocation().isPresent()) {
             arguments.add("-wsdlLocation");
             arguments.add(option.getWsdlLocation().get());
+        } else if (localWsdl != null) {
+            // Generated code refers to the remote WSDL rather than its local copy.
+            arguments.add("-wsdlLocation");
+            arguments.add(option.getWsdl().get());
         }
         if (option.getWsdlList().isPresent() && option.getWsdlList().get()) {
             arguments.add("-wsdlList");
@@ -207,7 +291,19 @@ public abstract class Wsdl2JavaAction implements WorkAction<CodegenParameters> {
                 arguments.add(sb.toString());
             }
         }
-        arguments.add(option.getWsdl().get());
+        arguments.add(localWsdl != null ? localWsdl : wsdl(option, projectDirectory, relocatable));
         return List.copyOf(arguments);
     }
+
+    private static String wsdl(Wsdl2JavaOption option, Directory projectDirectory, boolean relocatable) {
+        String wsdl = option.getWsdl().get();
+        if (relocatable) {
+            // The worker's working directory is not necessarily the project directory.
+            File file = WsdlDocuments.toLocalFile(projectDirectory, wsdl);
+            if (file != null) {
+                return file.getAbsolutePath();
+            }
+        }
+        return wsdl;
+    }
 }
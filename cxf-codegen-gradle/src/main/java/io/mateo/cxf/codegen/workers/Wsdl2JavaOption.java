@@ -16,11 +16,16 @@
 package io.mateo.cxf.codegen.workers;
 
 import org.gradle.api.Incubating;
+import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.provider.ListProperty;
 import org.gradle.api.provider.Property;
 import org.gradle.api.provider.SetProperty;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
 
 /**
  * Options for the {@code wsdl2java} code generation tool.
@@ -28,6 +33,15 @@ import org.gradle.api.tasks.Optional;
 @Incubating
 public interface Wsdl2JavaOption extends Option {
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The value is tracked as an input by {@link Wsdl2Java#getWsdlInputs()}.
+     */
+    @Internal
+    @Override
+    Property<String> getWsdl();
+
     /**
      * Specifies zero, or more, package names to use for the generated code.
      * <p>
@@ -127,6 +141,18 @@ public interface Wsdl2JavaOption extends Option {
     @Optional
     SetProperty<String> getBindingFiles();
 
+    /**
+     * Specifies XJC episode files of schemas whose types are generated elsewhere. The types described by the episodes
+     * are reused instead of being generated again when using the JAXB data binding.
+     * <p>
+     * If not set, the convention is the episode file of every {@link SharedSchema} with a schema that is one of
+     * the {@link #getSourceDocuments() source documents} of this option.
+     * @return episode files
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.NONE)
+    ConfigurableFileCollection getEpisodes();
+
     /**
      * Specifies the value of the {@code @WebServiceClient} annotation's
      * {@code wsdlLocation} property.
@@ -284,6 +310,22 @@ public interface Wsdl2JavaOption extends Option {
     @Optional
     Property<Boolean> getSuppressGeneratedDate();
 
+    /**
+     * Enables or disables relocatable generation. When enabled, the generated sources do not
+     * depend on where the project is located:
+     * <ul>
+     * <li>A relative {@link #getWsdl()} is resolved from the project directory.</li>
+     * <li>The generated date is suppressed.</li>
+     * </ul>
+     * A local WSDL is tracked relative to the project directory, so {@link #getWsdlLocation()}
+     * must be set for it, for example to a {@code classpath:} location. Otherwise, the generated
+     * code would refer to the absolute path of the WSDL, and the task fails.
+     * @return relocatable indicator
+     */
+    @Input
+    @Optional
+    Property<Boolean> getRelocatable();
+
     /**
      * Specifies the WSDL service name to use for the generated code.
      * @return service name
@@ -15,15 +15,20 @@
  */
 package io.mateo.cxf.codegen.workers;
 
+import io.mateo.cxf.codegen.internal.CodegenMetrics;
+import io.mateo.cxf.codegen.internal.FlightRecordings;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.cxf.tools.common.ToolContext;
 import org.apache.cxf.tools.wsdlto.javascript.WSDLToJavaScript;
 import org.gradle.api.Incubating;
 import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.file.Directory;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
 import org.gradle.workers.WorkAction;
+import org.jspecify.annotations.Nullable;
 
 /**
  * An action to run the {@code wsdl2js} tool.
@@ -35,7 +40,35 @@ public abstract class Wsdl2JsAction implements WorkAction<CodegenParameters> {
 
     @Override
     public void execute() {
-        List<String> arguments = getArguments();
+        try {
+            generateOption();
+        } finally {
+            AdmittedWorkQueue.completed(getParameters());
+        }
+    }
+
+    private void generateOption() {
+        Wsdl2JsOption option = (Wsdl2JsOption) getParameters().getOption().get();
+        File outputDirectory = StagedOutputs.outputDirectory(
+                option, getParameters().getStagingDirectory().getOrNull());
+        FlightRecordings.record(
+                getParameters().getRecordingDirectory().getAsFile().getOrNull(),
+                option.getName(),
+                () -> ExecutionHistory.measure(
+                        option,
+                        outputDirectory,
+                        getParameters().getExecutionRecords().getOrNull(),
+                        CodegenMetrics.Scope.PROCESS,
+                        () -> generate(
+                                option,
+                                getParameters().getProjectDirectory().get(),
+                                getParameters().getLocalWsdl().getOrNull(),
+                                outputDirectory)));
+    }
+
+    static void generate(
+            Wsdl2JsOption option, Directory projectDirectory, @Nullable String localWsdl, File outputDirectory) {
+        List<String> arguments = getArguments(option, localWsdl, outputDirectory);
         if (logger.isInfoEnabled()) {
             logger.info("Invoking wsdl2js tool with arguments: {}", arguments);
         }
@@ -52,6 +85,35 @@ public abstract class Wsdl2JsAction implements WorkAction<CodegenParameters> {
 
     List<String> getArguments() { // package private for testing
         Wsdl2JsOption option = (Wsdl2JsOption) getParameters().getOption().get();
+        return getArguments(
+                option,
+                getParameters().getLocalWsdl().getOrNull(),
+                StagedOutputs.outputDirectory(
+                        option, getParameters().getStagingDirectory().getOrNull()));
+    }
+
+    static List<String> getArguments(Wsdl2JsOption option) {
+        return getArguments(option, null);
+    }
+
+    /**
+     * Returns the tool arguments for the option.
+     * @param option the option
+     * @param localWsdl the local copy of the remote WSDL to use instead of the WSDL of the option, if any
+     * @return the arguments
+     */
+    static List<String> getArguments(Wsdl2JsOption option, @Nullable String localWsdl) {
+        return getArguments(option, localWsdl, option.getOutputDirectory().get().getAsFile());
+    }
+
+    /**
+     * Returns the tool arguments for the option.
+     * @param option the option
+     * @param localWsdl the local copy of the remote WSDL to use instead of the WSDL of the option, if any
+     * @param outputDirectory the directory the tool writes the generated files to
+     * @return the arguments
+     */
+    static List<String> getArguments(Wsdl2JsOption option, @Nullable String localWsdl, File outputDirectory) {
         List<String> arguments = new ArrayList<>();
         if (option.getWsdlVersion().isPresent()) {
             arguments.add("-wv");
@@ -70,7 +132,7 @@ public abstract class Wsdl2JsAction implements WorkAction<CodegenParameters> {
                     .get());
         }
         arguments.add("-d");
-        arguments.add(option.getOutputDirectory().get().getAsFile().getAbsolutePath());
+        arguments.add(outputDirectory.getAbsolutePath());
         if (option.getValidate().isPresent()) {
             arguments.add("-validate=" + option.getValidate().get());
         }
@@ -84,7 +146,7 @@ public abstract class Wsdl2JsAction implements WorkAction<CodegenParameters> {
         if (option.getQuiet().isPresent() && option.getQuiet().get()) {
             arguments.add("-quiet");
         }
-        arguments.add(option.getWsdl().get());
+        arguments.add(localWsdl != null ? localWsdl : option.getWsdl().get());
         return arguments;
     }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import io.mateo.cxf.codegen.internal.CodegenMetrics;
+import io.mateo.cxf.codegen.internal.FlightRecordings;
+import java.io.File;
+import java.util.Map;
+import org.gradle.api.Incubating;
+import org.gradle.api.file.Directory;
+import org.gradle.workers.WorkAction;
+
+/**
+ * An action to run the {@code wsdl2js} tool for a batch of options, one after another, in the same worker.
+ */
+@Incubating
+public abstract class Wsdl2JsBatchAction implements WorkAction<BatchCodegenParameters> {
+
+    @Override
+    public void execute() {
+        try {
+            generateOptions();
+        } finally {
+            AdmittedWorkQueue.completed(getParameters());
+        }
+    }
+
+    private void generateOptions() {
+        Directory projectDirectory = getParameters().getProjectDirectory().get();
+        Map<String, String> localWsdls = getParameters().getLocalWsdls().get();
+        Directory stagingDirectory = getParameters().getStagingDirectory().getOrNull();
+        Directory executionRecords = getParameters().getExecutionRecords().getOrNull();
+        File recordingDirectory = getParameters().getRecordingDirectory().getAsFile().getOrNull();
+        WorkBatches.runAll(
+                getParameters().getOptions().get(),
+                option -> {
+                    File outputDirectory = StagedOutputs.outputDirectory(option, stagingDirectory);
+                    FlightRecordings.record(
+                            recordingDirectory,
+                            option.getName(),
+                            () -> ExecutionHistory.measure(
+                                    option,
+                                    outputDirectory,
+                                    executionRecords,
+                                    CodegenMetrics.Scope.PROCESS,
+                                    () -> Wsdl2JsAction.generate(
+                                            (Wsdl2JsOption) option,
+                                            projectDirectory,
+                                            localWsdls.get(option.getName()),
+                                            outputDirectory)));
+                });
+    }
+}
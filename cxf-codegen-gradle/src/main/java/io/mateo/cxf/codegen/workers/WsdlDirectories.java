@@ -0,0 +1,203 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import io.mateo.cxf.codegen.internal.OutputSync;
+import io.mateo.cxf.codegen.internal.WsdlDocuments;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.gradle.api.file.ConfigurableFileTree;
+import org.gradle.api.file.Directory;
+import org.gradle.api.file.RelativePath;
+import org.gradle.api.model.ObjectFactory;
+
+/**
+ * Derives the {@link Wsdl2JavaOption options} of the WSDLs in a {@link WsdlDirectory}.
+ */
+final class WsdlDirectories {
+
+    private static final String PACKAGE_NAME = "packageName";
+
+    private static final String BINDING_FILES = "bindingFiles";
+
+    private static final String EXTRA_ARGS = "extraArgs";
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Pattern NON_IDENTIFIER = Pattern.compile("[^a-z0-9_]");
+
+    private WsdlDirectories() {}
+
+    /**
+     * Returns the options of the WSDLs in the directory, ordered by name.
+     * @param objects the object factory to create the options with
+     * @param projectDirectory the project directory
+     * @param directory the directory
+     * @return the options
+     */
+    static List<Wsdl2JavaOption> options(ObjectFactory objects, Directory projectDirectory, WsdlDirectory directory) {
+        File root = directory.getDirectory().get().getAsFile();
+        ConfigurableFileTree wsdls = objects.fileTree().from(root);
+        wsdls.include(directory.getIncludes().get());
+        Map<File, Properties> defaults = new HashMap<>();
+        List<Wsdl2JavaOption> options = new ArrayList<>();
+        wsdls.visit(details -> {
+            if (!details.isDirectory()) {
+                Properties properties = defaults(root, details.getFile().getParentFile(), defaults);
+                options.add(option(objects, projectDirectory, directory, details.getRelativePath(), properties));
+            }
+        });
+        options.sort(Comparator.comparing(Option::getName));
+        return options;
+    }
+
+    /**
+     * Deletes the directories in {@link WsdlDirectory#getOutputDirectory()} that do not belong to any of the options,
+     * such as those of WSDLs that were removed.
+     * @param directory the directory
+     * @param options the options of the directory
+     */
+    static void deleteStaleOutputs(WsdlDirectory directory, List<Wsdl2JavaOption> options) {
+        File outputDirectory = directory.getOutputDirectory().get().getAsFile();
+        Set<File> current = options.stream()
+                .map(option -> option.getOutputDirectory().get().getAsFile())
+                .collect(Collectors.toSet());
+        File[] children = outputDirectory.listFiles();
+        if (children != null) {
+            Arrays.stream(children).filter(child -> !current.contains(child)).forEach(OutputSync::delete);
+        }
+    }
+
+    /**
+     * Returns the name of the directory in {@link WsdlDirectory#getOutputDirectory()} that the code of the WSDL is
+     * generated to.
+     * @param relativePath the path of the WSDL relative to the directory
+     * @return the directory name
+     */
+    static String outputDirectoryName(RelativePath relativePath) {
+        return String.join("-", segmentsWithoutExtension(relativePath));
+    }
+
+    private static Wsdl2JavaOption option(
+            ObjectFactory objects,
+            Directory projectDirectory,
+            WsdlDirectory directory,
+            RelativePath relativePath,
+            Properties defaults) {
+        File wsdl = relativePath.getFile(directory.getDirectory().get().getAsFile());
+        String outputDirectoryName = outputDirectoryName(relativePath);
+        Wsdl2JavaOption option =
+                objects.newInstance(Wsdl2JavaOption.class, directory.getName() + "-" + outputDirectoryName);
+        option.getWsdl().set(wsdl.getAbsolutePath());
+        option.getOutputDirectory().set(directory.getOutputDirectory().dir(outputDirectoryName));
+        String packageName = defaults.getProperty(PACKAGE_NAME);
+        if (packageName == null && directory.getPackagePrefix().isPresent()) {
+            packageName = directory.getPackagePrefix().get() + "." + packageSuffix(relativePath);
+        }
+        if (packageName != null) {
+            option.getPackageNames().add(packageName);
+        }
+        Set<String> bindingFiles = new LinkedHashSet<>();
+        List<String> segments = segmentsWithoutExtension(relativePath);
+        File sameNameBinding = new File(wsdl.getParentFile(), segments.get(segments.size() - 1) + ".xjb");
+        if (sameNameBinding.isFile()) {
+            bindingFiles.add(sameNameBinding.getAbsolutePath());
+        }
+        String defaultBindingFiles = defaults.getProperty(BINDING_FILES, "");
+        if (!defaultBindingFiles.isEmpty()) {
+            bindingFiles.addAll(Arrays.asList(defaultBindingFiles.split(",")));
+        }
+        option.getBindingFiles().set(bindingFiles);
+        String extraArgs = defaults.getProperty(EXTRA_ARGS, "").trim();
+        if (!extraArgs.isEmpty()) {
+            option.getExtraArgs().addAll(WHITESPACE.split(extraArgs));
+        }
+        option.getSourceDocuments()
+                .from(WsdlDocuments.discover(projectDirectory, wsdl.getAbsolutePath()), bindingFiles);
+        return option;
+    }
+
+    private static Properties defaults(File root, File directory, Map<File, Properties> cache) {
+        Properties cached = cache.get(directory);
+        if (cached != null) {
+            return cached;
+        }
+        Properties defaults = new Properties();
+        File parent = directory.getParentFile();
+        if (!directory.equals(root) && parent != null) {
+            defaults.putAll(defaults(root, parent, cache));
+        }
+        File file = new File(directory, WsdlDirectory.DEFAULTS_FILE_NAME);
+        if (file.isFile()) {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            String bindingFiles = properties.getProperty(BINDING_FILES);
+            if (bindingFiles != null) {
+                // Resolved now since the paths are relative to the directory of the file that specifies them.
+                properties.setProperty(
+                        BINDING_FILES,
+                        Arrays.stream(bindingFiles.split(","))
+                                .map(String::trim)
+                                .filter(path -> !path.isEmpty())
+                                .map(path -> directory.toPath().resolve(path).normalize().toString())
+                                .collect(Collectors.joining(",")));
+            }
+            defaults.putAll(properties);
+        }
+        cache.put(directory, defaults);
+        return defaults;
+    }
+
+    private static String packageSuffix(RelativePath relativePath) {
+        return segmentsWithoutExtension(relativePath).stream()
+                .map(segment -> {
+                    String identifier = NON_IDENTIFIER
+                            .matcher(segment.toLowerCase(Locale.ROOT))
+                            .replaceAll("");
+                    return identifier.isEmpty() || Character.isDigit(identifier.charAt(0))
+                            ? "_" + identifier
+                            : identifier;
+                })
+                .collect(Collectors.joining("."));
+    }
+
+    private static List<String> segmentsWithoutExtension(RelativePath relativePath) {
+        List<String> segments = new ArrayList<>(Arrays.asList(relativePath.getSegments()));
+        int last = segments.size() - 1;
+        segments.set(last, segments.get(last).replaceFirst("\\.[^.]*$", ""));
+        return segments;
+    }
+}
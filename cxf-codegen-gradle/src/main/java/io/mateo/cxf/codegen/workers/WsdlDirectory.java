@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import org.gradle.api.Incubating;
+import org.gradle.api.Named;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.SetProperty;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+
+/**
+ * A directory of WSDLs that Java code is generated for, without declaring a {@link Wsdl2JavaOption} for each WSDL.
+ * <p>
+ * The options are derived from the WSDLs found in the directory when code is generated, so the cost of configuring
+ * the build does not grow with the number of WSDLs. The option of a WSDL is configured as follows:
+ * <ul>
+ * <li>The name is the name of this directory followed by the path of the WSDL relative to the directory, without the
+ * extension and with {@code -} as the separator, such as {@code services-billing-invoice} for
+ * {@code billing/invoice.wsdl}.</li>
+ * <li>The output directory is the directory named after the relative path of the WSDL, such as
+ * {@code billing-invoice}, in {@link #getOutputDirectory()}.</li>
+ * <li>A binding file next to the WSDL with the same base name and the {@code .xjb} extension, such as
+ * {@code billing/invoice.xjb}, is used.</li>
+ * <li>If {@link #getPackagePrefix()} is set, the package name is the prefix followed by the relative path of the WSDL,
+ * such as {@code com.example.billing.invoice}.</li>
+ * </ul>
+ * A {@value #DEFAULTS_FILE_NAME} file applies to the WSDLs in its directory and subdirectories, where the nearest file
+ * defining a property wins. The supported properties are:
+ * <ul>
+ * <li>{@code packageName}: the package name, which takes precedence over {@link #getPackagePrefix()}</li>
+ * <li>{@code bindingFiles}: comma separated binding files, relative to the directory of the defaults file</li>
+ * <li>{@code extraArgs}: whitespace separated extra arguments passed to the {@code wsdl2java} tool</li>
+ * </ul>
+ * Every file in the directory is tracked, so changing a WSDL, a schema, a binding file or a defaults file causes the
+ * affected WSDLs to be regenerated.
+ */
+@Incubating
+public interface WsdlDirectory extends Named {
+
+    /**
+     * Name of the file providing the defaults of the WSDLs in a directory.
+     */
+    String DEFAULTS_FILE_NAME = "cxf-codegen.properties";
+
+    /**
+     * {@inheritDoc}
+     */
+    @Internal
+    @Override
+    String getName();
+
+    /**
+     * The directory searched for WSDLs.
+     * @return the directory
+     */
+    @InputDirectory
+    @IgnoreEmptyDirectories
+    @PathSensitive(PathSensitivity.RELATIVE)
+    DirectoryProperty getDirectory();
+
+    /**
+     * Patterns of the WSDLs to generate code for, relative to {@link #getDirectory()}.
+     * <p>
+     * If not set, the convention is {@code **}{@code /*.wsdl}
+     * @return include patterns
+     */
+    @Input
+    SetProperty<String> getIncludes();
+
+    /**
+     * Specifies the prefix of the package names derived from the paths of the WSDLs. If not set, and no defaults file
+     * specifies a package name, the package names are derived from the target namespaces.
+     * @return package prefix
+     */
+    @Input
+    @Optional
+    Property<String> getPackagePrefix();
+
+    /**
+     * Specifies the directory the generated code of every WSDL is written to, in a directory per WSDL.
+     * <p>
+     * If not set, the convention is {@code "build/$name-wsdl2java-generated-sources"}
+     * @return output directory
+     */
+    @OutputDirectory
+    DirectoryProperty getOutputDirectory();
+}
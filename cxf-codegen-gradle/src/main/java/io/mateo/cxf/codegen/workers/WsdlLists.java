@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import io.mateo.cxf.codegen.internal.WsdlDocuments;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.gradle.api.file.Directory;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Groups {@code wsdl2java} options whose tool arguments only differ in the WSDL and output directory, so that each
+ * group is generated by a single unit of work, with a single tool invocation using {@code -wsdlList} for the options
+ * of the group sharing an output directory.
+ */
+final class WsdlLists {
+
+    private static final String WSDL_LIST_ARGUMENT = "-wsdlList";
+
+    private static final String OUTPUT_DIRECTORY_ARGUMENT = "-d";
+
+    private WsdlLists() {}
+
+    /**
+     * Groups the options by their tool arguments, ignoring the WSDL and the output directory. Options that already
+     * use {@code -wsdlList} or a local copy of a remote WSDL are never grouped. Groups are returned in the order of
+     * their first option.
+     * @param options the options
+     * @param projectDirectory the project directory
+     * @param localWsdls the local copies of remote WSDLs, keyed by option name
+     * @return the groups, each containing at least one option
+     */
+    static List<List<Wsdl2JavaOption>> group(
+            List<Wsdl2JavaOption> options, Directory projectDirectory, Map<String, String> localWsdls) {
+        Map<Object, List<Wsdl2JavaOption>> groups = new LinkedHashMap<>();
+        for (Wsdl2JavaOption option : options) {
+            Object key = option;
+            if (!option.getWsdlList().getOrElse(false) && !localWsdls.containsKey(option.getName())) {
+                List<String> arguments = new ArrayList<>(Wsdl2JavaAction.getArguments(option, projectDirectory));
+                arguments.remove(arguments.size() - 1);
+                int outputDirectory = arguments.indexOf(OUTPUT_DIRECTORY_ARGUMENT);
+                arguments.subList(outputDirectory, outputDirectory + 2).clear();
+                key = arguments;
+            }
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(option);
+        }
+        return List.copyOf(groups.values());
+    }
+
+    /**
+     * Writes the WSDLs of the options to a list file, one per line. Local WSDLs are written as absolute paths since
+     * the working directory of the tool is not necessarily the project directory.
+     * @param file the list file
+     * @param options the options
+     * @param projectDirectory the project directory
+     * @return the list file
+     */
+    static File write(File file, List<Wsdl2JavaOption> options, Directory projectDirectory) {
+        List<String> lines = new ArrayList<>(options.size());
+        for (Wsdl2JavaOption option : options) {
+            String wsdl = option.getWsdl().get();
+            File localFile = WsdlDocuments.toLocalFile(projectDirectory, wsdl);
+            lines.add(localFile != null ? localFile.getAbsolutePath() : wsdl);
+        }
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return file;
+    }
+
+    /**
+     * Replaces the WSDL of the tool arguments with a list file.
+     * @param arguments the tool arguments, ending with the WSDL
+     * @param wsdlList the list file, if any
+     * @return the arguments using the list file; the arguments as-is when there is no list file
+     */
+    static List<String> withWsdlList(List<String> arguments, @Nullable String wsdlList) {
+        if (wsdlList == null) {
+            return arguments;
+        }
+        List<String> listArguments = new ArrayList<>(arguments.subList(0, arguments.size() - 1));
+        listArguments.add(WSDL_LIST_ARGUMENT);
+        listArguments.add(wsdlList);
+        return List.copyOf(listArguments);
+    }
+}
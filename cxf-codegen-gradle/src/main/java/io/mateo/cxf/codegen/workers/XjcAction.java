@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import org.gradle.api.GradleException;
+import org.gradle.api.Incubating;
+import org.gradle.api.file.Directory;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.workers.WorkAction;
+
+/**
+ * An action to compile a {@link SharedSchema} with the XJC tool.
+ */
+@Incubating
+public abstract class XjcAction implements WorkAction<XjcParameters> {
+
+    private static final Logger logger = Logging.getLogger(XjcAction.class);
+
+    private static final String TOOL_CLASS_NAME = "com.sun.tools.xjc.Driver";
+
+    @Override
+    public void execute() {
+        SharedSchema schema = getParameters().getSchema().get();
+        List<String> arguments = getArguments(schema, getParameters().getProjectDirectory().get());
+        if (logger.isInfoEnabled()) {
+            logger.info("Invoking xjc tool with arguments: {}", arguments);
+        }
+        // XJC does not create the parent directory of the episode file.
+        File episodeFile = schema.getEpisodeFile().getAsFile().get();
+        if (!episodeFile.getParentFile().isDirectory() && !episodeFile.getParentFile().mkdirs()) {
+            throw new GradleException("Unable to create directory '" + episodeFile.getParent() + "'");
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        int exitCode;
+        try (PrintStream stream = new PrintStream(output, true, Charset.defaultCharset())) {
+            exitCode = run(arguments, stream);
+        }
+        String messages = output.toString(Charset.defaultCharset()).trim();
+        if (exitCode != 0) {
+            throw new GradleException(
+                    "XJC failed for shared schema '%s':%n%s".formatted(schema.getName(), messages));
+        }
+        if (logger.isInfoEnabled() && !messages.isEmpty()) {
+            logger.info(messages);
+        }
+    }
+
+    List<String> getArguments() { // package private for testing
+        return getArguments(
+                getParameters().getSchema().get(),
+                getParameters().getProjectDirectory().get());
+    }
+
+    /**
+     * Returns the tool arguments for the shared schema.
+     * @param schema the shared schema
+     * @param projectDirectory the project directory
+     * @return the arguments
+     */
+    static List<String> getArguments(SharedSchema schema, Directory projectDirectory) {
+        List<String> arguments = new ArrayList<>();
+        arguments.add("-d");
+        arguments.add(schema.getOutputDirectory().getAsFile().get().getAbsolutePath());
+        arguments.add("-episode");
+        arguments.add(schema.getEpisodeFile().getAsFile().get().getAbsolutePath());
+        if (schema.getPackageName().isPresent()) {
+            arguments.add("-p");
+            arguments.add(schema.getPackageName().get());
+        }
+        if (schema.getBindingFiles().isPresent()) {
+            schema.getBindingFiles().get().forEach(binding -> {
+                arguments.add("-b");
+                arguments.add(projectDirectory.file(binding).getAsFile().getAbsolutePath());
+            });
+        }
+        if (schema.getXjcArgs().isPresent()) {
+            arguments.addAll(schema.getXjcArgs().get());
+        }
+        schema.getSchemas().getFiles().forEach(file -> arguments.add(file.getAbsolutePath()));
+        return List.copyOf(arguments);
+    }
+
+    private static int run(List<String> arguments, PrintStream output) {
+        // XJC is only available on the tool classpath, not when compiling the plugin.
+        try {
+            Class<?> toolClass = Class.forName(TOOL_CLASS_NAME, true, XjcAction.class.getClassLoader());
+            Method run = toolClass.getMethod("run", String[].class, PrintStream.class, PrintStream.class);
+            return (int) run.invoke(null, arguments.toArray(String[]::new), output, output);
+        } catch (InvocationTargetException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException rex) {
+                throw rex;
+            }
+            throw new RuntimeException(cause);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Unable to invoke " + TOOL_CLASS_NAME, ex);
+        }
+    }
+}
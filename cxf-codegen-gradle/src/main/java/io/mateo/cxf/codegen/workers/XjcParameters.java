@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import org.gradle.api.Incubating;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkParameters;
+
+/**
+ * Parameters for the XJC tool.
+ */
+@Incubating
+public interface XjcParameters extends WorkParameters {
+
+    /**
+     * Gets the shared schema to compile.
+     * @return the shared schema
+     */
+    Property<SharedSchema> getSchema();
+
+    /**
+     * Gets the project directory.
+     * @return the project directory
+     */
+    DirectoryProperty getProjectDirectory();
+}
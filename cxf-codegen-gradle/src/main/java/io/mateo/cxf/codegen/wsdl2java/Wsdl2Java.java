@@ -15,18 +15,39 @@
  */
 package io.mateo.cxf.codegen.wsdl2java;
 
+import io.mateo.cxf.codegen.CodegenConcurrencyService;
+import io.mateo.cxf.codegen.internal.ClassDataArchiveService.JavaRuntime;
+import io.mateo.cxf.codegen.internal.CodegenDaemonService;
+import io.mateo.cxf.codegen.internal.CodegenMetrics;
+import io.mateo.cxf.codegen.internal.CodegenReport;
+import io.mateo.cxf.codegen.internal.FlightRecordings;
+import io.mateo.cxf.codegen.internal.OutputSync;
+import io.mateo.cxf.codegen.internal.RelocatablePaths;
+import io.mateo.cxf.codegen.internal.RemoteDocumentCache;
+import io.mateo.cxf.codegen.internal.StartupProfile;
+import io.mateo.cxf.codegen.internal.WsdlDocuments;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import javax.inject.Inject;
 import org.gradle.api.Action;
+import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.file.Directory;
+import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.file.ProjectLayout;
 import org.gradle.api.file.RegularFile;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
 import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.JavaExec;
 import org.gradle.api.tasks.Nested;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.TaskAction;
 import org.gradle.process.CommandLineArgumentProvider;
 
 /**
@@ -35,9 +56,27 @@ import org.gradle.process.CommandLineArgumentProvider;
 @CacheableTask
 public abstract class Wsdl2Java extends JavaExec {
 
+    private static final Logger logger = Logging.getLogger(Wsdl2Java.class);
+
+    private final ProjectLayout layout;
+
+    private File stagingDir;
+
+    private File recording;
+
+    private File metricsAgent;
+
+    private File metrics;
+
+    private File localWsdl;
+
     @Inject
     public Wsdl2Java(ProjectLayout layout) {
+        this.layout = layout;
         getArgumentProviders().add(new Wsdl2JavaArgumentProvider(this, layout));
+        getJvmArgumentProviders().add(new FlightRecordingArgumentProvider(this));
+        getJvmArgumentProviders().add(new StartupProfileArgumentProvider(this));
+        getJvmArgumentProviders().add(new ForkedMetricsArgumentProvider(this));
     }
 
     /**
@@ -55,6 +94,169 @@ public abstract class Wsdl2Java extends JavaExec {
     @Internal
     public abstract Property<Boolean> getAddToMainSourceSet();
 
+    /**
+     * Whether to generate code into a staging directory and only write the generated files whose contents changed
+     * to the output directory. Files written by the previous execution that are no longer generated are deleted,
+     * while unchanged files are left untouched so that tasks consuming the generated sources, such as Java
+     * compilation, see as few changes as possible.
+     * <p>
+     * If not set, the tool writes every generated file to the output directory.
+     * @return whether to only write changed files
+     */
+    @Internal
+    public abstract Property<Boolean> getWriteChangedFilesOnly();
+
+    /**
+     * Service limiting how much code generation runs at the same time across all projects of the build.
+     * @return the concurrency service
+     */
+    @Internal
+    public abstract Property<CodegenConcurrencyService> getConcurrencyService();
+
+    /**
+     * Directory the execution metrics of the task are reported to: the wall time, CPU time, peak heap usage, and the
+     * number and size of the files it wrote, as {@code <task name>.json} and as a sortable {@code index.html} page
+     * across all reported tasks. The CPU time and peak heap usage are measured by an agent added to the forked JVM
+     * when it runs Java 17 or later, and are not available when the tool runs in the code generation daemon.
+     * <p>
+     * If not set, no report is written.
+     * @return the report directory
+     */
+    @Internal
+    public abstract DirectoryProperty getReportDirectory();
+
+    /**
+     * Whether to record the forked JVM with Java Flight Recorder, using the {@code profile} settings of the JDK. The
+     * recording is written to {@link #getRecordingDirectory()} as {@code <task name>.jfr}, and a summary of its hot
+     * methods and allocations is logged once the tool completes. While enabled, the task is neither up-to-date nor
+     * loaded from the build cache.
+     * <p>
+     * If not set, no recording is made.
+     * @return whether to profile the code generation
+     */
+    @Internal
+    public abstract Property<Boolean> getProfiling();
+
+    /**
+     * Directory the flight recording is written to when {@link #getProfiling() profiling}.
+     * @return the recording directory
+     */
+    @Internal
+    public abstract DirectoryProperty getRecordingDirectory();
+
+    /**
+     * Whether to fork the JVM with arguments tuned for start-up: JIT compilation limited to the C1 compiler, the
+     * serial garbage collector, and a maximum heap size derived from the size of the WSDL and the documents it
+     * imports. Arguments for options already set
+     * through {@link #getJvmArguments()} or {@link #getMaxHeapSize()} are left out.
+     * <p>
+     * If not set, the JVM is forked with the default arguments.
+     * @return whether to use the start-up profile
+     */
+    @Internal
+    public abstract Property<Boolean> getStartupProfile();
+
+    /**
+     * Whether the {@link #getStartupProfile() start-up profile} also skips the bytecode verification of the classes
+     * loaded from the tool classpath with {@code -XX:-BytecodeVerificationRemote}. Only enable it when every artifact
+     * of the tool classpath is trusted: classes that are not verified can break the type safety of the JVM. The JDK
+     * deprecated the flag and prints a warning when the JVM starts. Ignored unless the start-up profile is used, and
+     * left out when the flag is already set through {@link #getJvmArguments()}.
+     * <p>
+     * If not set, the bytecode is verified.
+     * @return whether to skip the bytecode verification
+     */
+    @Internal
+    public abstract Property<Boolean> getSkipBytecodeVerification();
+
+    /**
+     * Service running the {@code wsdl2java} tool in long-lived code generation daemons instead of forking a JVM for
+     * every run, so that later runs reuse the loaded tool classes and the code compiled by the JIT. A daemon is only
+     * reused by tasks with the same Java launcher, JVM arguments, classpath, working directory and environment. The
+     * tool is forked as usual while {@link #getProfiling() profiling} or debugging, if the environment or working
+     * directory of the task is customized, or if no daemon can be started.
+     * <p>
+     * If not set, the tool is forked for every run.
+     * @return the daemon service
+     */
+    @Internal
+    public abstract Property<CodegenDaemonService> getDaemonService();
+
+    /**
+     * Whether to mirror a remote WSDL, and the documents it imports or includes, into
+     * {@link #getRemoteDocumentCache()} before running the tool. Cached copies are revalidated with conditional
+     * requests whenever the task checks whether it is up-to-date, and are used as-is when the remote endpoint is
+     * unavailable or {@link #getOffline()} is enabled.
+     * <p>
+     * If not set, the tool fetches a remote WSDL itself, and only its URL is tracked as an input, so the task stays
+     * up-to-date when the remote document changes unless it is rerun, such as with {@code --rerun-tasks}.
+     * @return whether to cache remote documents
+     */
+    @Internal
+    public abstract Property<Boolean> getCacheRemoteDocuments();
+
+    /**
+     * Directory where remote documents are cached when {@link #getCacheRemoteDocuments()} is enabled.
+     * <p>
+     * If not set, the convention is {@code $gradleUserHome/caches/cxf-codegen/remote-documents}.
+     * @return the remote document cache directory
+     */
+    @Internal
+    public abstract DirectoryProperty getRemoteDocumentCache();
+
+    /**
+     * Whether to use cached copies of remote documents without contacting the remote endpoints.
+     * <p>
+     * If not set, the convention is the value of {@code --offline}.
+     * @return whether to work offline
+     */
+    @Internal
+    public abstract Property<Boolean> getOffline();
+
+    /**
+     * The fingerprint of the contents of the remote WSDL and of the remote documents it imports or includes, when
+     * {@link #getCacheRemoteDocuments() caching remote documents}. Computing the fingerprint revalidates the cached
+     * copies, so the task is out-of-date whenever a remote document changed.
+     * @return the remote document fingerprint
+     */
+    @Input
+    @Optional
+    public Provider<String> getRemoteDocumentFingerprint() {
+        return cachedRemoteWsdl().zip(remoteDocumentCache(), (wsdl, cache) -> cache.fingerprint(wsdl));
+    }
+
+    private Provider<String> cachedRemoteWsdl() {
+        Wsdl2JavaOptions options = getWsdl2JavaOptions();
+        Provider<String> wsdl = options.getWsdl()
+                .zip(options.getWsdlList().orElse(false), (location, wsdlList) -> wsdlList ? "" : location)
+                .filter(RemoteDocumentCache::isRemote);
+        return getCacheRemoteDocuments().filter(Boolean::booleanValue).flatMap(enabled -> wsdl);
+    }
+
+    private Provider<RemoteDocumentCache> remoteDocumentCache() {
+        return getRemoteDocumentCache()
+                .zip(getOffline().orElse(false), (directory, offline) -> new RemoteDocumentCache(
+                        directory.getAsFile(), offline));
+    }
+
+    /**
+     * The WSDL to process as tracked for up-to-date checks and the build cache. When
+     * {@link Wsdl2JavaOptions#getRelocatable() relocatable}, a local WSDL is relative to the
+     * project directory, as the generated code refers to the
+     * {@link Wsdl2JavaOptions#getWsdlLocation() wsdlLocation} instead. Otherwise, the generated
+     * code refers to the WSDL as given, so it is tracked as-is.
+     * @return the tracked WSDL
+     */
+    @Input
+    @Optional
+    public Provider<String> getWsdlInput() {
+        Wsdl2JavaOptions options = getWsdl2JavaOptions();
+        Directory projectDirectory = this.layout.getProjectDirectory();
+        return options.getWsdl().zip(options.getRelocatable().orElse(false), (wsdl, relocatable) -> relocatable
+                ? RelocatablePaths.wsdlLocation(projectDirectory, wsdl)
+                : wsdl);
+    }
+
     /**
      * Configures the {@code wsdl2java} tool options.
      * @param configurer action or closure to configure tool options
@@ -63,6 +265,158 @@ public abstract class Wsdl2Java extends JavaExec {
         configurer.execute(this.getWsdl2JavaOptions());
     }
 
+    @Override
+    @TaskAction
+    public void exec() {
+        Wsdl2JavaOptions options = getWsdl2JavaOptions();
+        if (options.getRelocatable().getOrElse(false)
+                && !options.getWsdlLocation().isPresent()
+                && WsdlDocuments.toLocalFile(this.layout.getProjectDirectory(), options.getWsdl().get()) != null) {
+            throw new InvalidUserDataException("Task '" + getPath() + "' is relocatable but sets no wsdlLocation, so"
+                    + " the generated code would refer to the absolute path of its WSDL. Set wsdlLocation to a location"
+                    + " that resolves at runtime, such as a classpath: location.");
+        }
+        File recording = getProfiling().getOrElse(false)
+                ? FlightRecordings.prepare(getRecordingDirectory().get().getAsFile(), getName())
+                : null;
+        CodegenConcurrencyService service = getConcurrencyService().getOrNull();
+        CodegenConcurrencyService.Lease lease = service != null ? service.acquire(getPath(), expectedMemory()) : null;
+        File metrics = getReportDirectory().isPresent() && CodegenMetrics.canMeasureForked(JavaRuntime.forTask(this))
+                ? CodegenMetrics.prepareForkedMetrics(getTemporaryDir())
+                : null;
+        String cachedRemoteWsdl = cachedRemoteWsdl().getOrNull();
+        CodegenMetrics.Execution execution;
+        try {
+            this.recording = recording;
+            if (cachedRemoteWsdl != null) {
+                this.localWsdl = remoteDocumentCache().get().mirror(cachedRemoteWsdl);
+            }
+            if (metrics != null) {
+                this.metricsAgent = CodegenMetrics.agentJar(getTemporaryDir());
+                this.metrics = metrics;
+            }
+            execution = CodegenMetrics.measure(
+                    getName(),
+                    getWsdl2JavaOptions().getOutputDir().get().getAsFile(),
+                    CodegenMetrics.Scope.FORKED,
+                    this::generate);
+        } finally {
+            this.recording = null;
+            this.localWsdl = null;
+            this.metricsAgent = null;
+            this.metrics = null;
+            if (lease != null) {
+                lease.close();
+            }
+        }
+        if (recording != null) {
+            logger.lifecycle(FlightRecordings.summarize(List.of(recording)));
+        }
+        if (metrics != null) {
+            execution = execution.withForkedMetrics(metrics);
+        }
+        if (getReportDirectory().isPresent()) {
+            CodegenReport.write(
+                    getReportDirectory().get().getAsFile(), getName(), getPath(), "wsdl2java", List.of(execution));
+        }
+    }
+
+    private long expectedMemory() {
+        String maxHeapSize = getMaxHeapSize();
+        if (maxHeapSize != null) {
+            return CodegenConcurrencyService.parseMemorySize(maxHeapSize);
+        }
+        return CodegenConcurrencyService.expectedMemory(getWsdl2JavaOptions().getSourceDocuments().getFiles());
+    }
+
+    private void generate() {
+        if (!getWriteChangedFilesOnly().getOrElse(false)) {
+            run();
+            return;
+        }
+        File stagingDir = new File(getTemporaryDir(), "staging");
+        OutputSync.delete(stagingDir);
+        this.stagingDir = stagingDir;
+        try {
+            run();
+        } finally {
+            this.stagingDir = null;
+        }
+        OutputSync.Result result = OutputSync.sync(
+                stagingDir,
+                getWsdl2JavaOptions().getOutputDir().get().getAsFile(),
+                new File(getTemporaryDir(), "output-manifest.txt"));
+        logger.lifecycle("Generated files: {}", result);
+    }
+
+    private void run() {
+        CodegenDaemonService daemonService = getDaemonService().getOrNull();
+        if (daemonService == null
+                || this.recording != null
+                || getDebug()
+                || !daemonService.execute(this, this.layout.getProjectDirectory().getAsFile())) {
+            super.exec();
+        }
+    }
+
+    private File outputDir() {
+        return this.stagingDir != null ? this.stagingDir : getWsdl2JavaOptions().getOutputDir().get().getAsFile();
+    }
+
+    private static class FlightRecordingArgumentProvider implements CommandLineArgumentProvider {
+
+        private final Wsdl2Java task;
+
+        public FlightRecordingArgumentProvider(Wsdl2Java task) {
+            this.task = task;
+        }
+
+        @Override
+        public Iterable<String> asArguments() {
+            File recording = this.task.recording;
+            return recording != null ? List.of(FlightRecordings.jvmArgument(recording)) : List.of();
+        }
+    }
+
+    private static class ForkedMetricsArgumentProvider implements CommandLineArgumentProvider {
+
+        private final Wsdl2Java task;
+
+        public ForkedMetricsArgumentProvider(Wsdl2Java task) {
+            this.task = task;
+        }
+
+        @Override
+        public Iterable<String> asArguments() {
+            File metricsAgent = this.task.metricsAgent;
+            File metrics = this.task.metrics;
+            return metricsAgent != null && metrics != null
+                    ? List.of(CodegenMetrics.jvmArgument(metricsAgent, metrics))
+                    : List.of();
+        }
+    }
+
+    private static class StartupProfileArgumentProvider implements CommandLineArgumentProvider {
+
+        private final Wsdl2Java task;
+
+        public StartupProfileArgumentProvider(Wsdl2Java task) {
+            this.task = task;
+        }
+
+        @Override
+        public Iterable<String> asArguments() {
+            if (!this.task.getStartupProfile().getOrElse(false)) {
+                return List.of();
+            }
+            return StartupProfile.jvmArguments(
+                    this.task.getJvmArguments().getOrElse(List.of()),
+                    this.task.getMaxHeapSize(),
+                    this.task.expectedMemory(),
+                    this.task.getSkipBytecodeVerification().getOrElse(false));
+        }
+    }
+
     private static class Wsdl2JavaArgumentProvider implements CommandLineArgumentProvider {
 
         private final Wsdl2Java task;
@@ -82,6 +436,8 @@ public abstract class Wsdl2Java extends JavaExec {
                 throw new IllegalStateException("Cannot generate arguments for task '" + this.task.getName()
                         + "' because 'wsdl' has no value.");
             }
+            boolean relocatable = options.getRelocatable().getOrElse(false);
+            File workingDir = this.task.getWorkingDir();
             List<String> arguments = new ArrayList<>();
             if (options.getEncoding().isPresent()) {
                 arguments.add("-encoding");
@@ -100,14 +456,17 @@ public abstract class Wsdl2Java extends JavaExec {
                 });
             }
             arguments.add("-d");
-            String outputDir = options.getOutputDir().getAsFile().get().getAbsolutePath();
-            arguments.add(outputDir);
+            File outputDir = this.task.outputDir();
+            arguments.add(
+                    relocatable ? RelocatablePaths.relativize(workingDir, outputDir) : outputDir.getAbsolutePath());
             if (options.getBindingFiles().isPresent()) {
                 options.getBindingFiles().get().forEach(binding -> {
                     RegularFile bindingFile = this.layout.getProjectDirectory().file(binding);
                     arguments.add("-b");
                     arguments.add(
-                            bindingFile.getAsFile().toPath().toAbsolutePath().toString());
+                            relocatable
+                                    ? RelocatablePaths.relativize(workingDir, bindingFile.getAsFile())
+                                    : bindingFile.getAsFile().toPath().toAbsolutePath().toString());
                 });
             }
             if (options.getFrontend().isPresent()) {
@@ -146,8 +505,9 @@ public abstract class Wsdl2Java extends JavaExec {
                     && Boolean.TRUE.equals(options.getMarkGenerated().get())) {
                 arguments.add("-mark-generated");
             }
-            if (options.getSuppressGeneratedDate().isPresent()
-                    && Boolean.TRUE.equals(options.getSuppressGeneratedDate().get())) {
+            if (relocatable
+                    || options.getSuppressGeneratedDate().isPresent()
+                            && Boolean.TRUE.equals(options.getSuppressGeneratedDate().get())) {
                 arguments.add("-suppress-generated-date");
             }
             if (options.getDefaultExcludesNamespace().isPresent()) {
@@ -190,9 +550,14 @@ public abstract class Wsdl2Java extends JavaExec {
             if (options.getExtraArgs().isPresent()) {
                 arguments.addAll(options.getExtraArgs().get());
             }
+            File localWsdl = this.task.localWsdl;
             if (options.getWsdlLocation().isPresent()) {
                 arguments.add("-wsdlLocation");
                 arguments.add(options.getWsdlLocation().get());
+            } else if (localWsdl != null) {
+                // Generated code refers to the remote WSDL rather than its local copy.
+                arguments.add("-wsdlLocation");
+                arguments.add(options.getWsdl().get());
             }
             if (options.getWsdlList().isPresent()
                     && Boolean.TRUE.equals(options.getWsdlList().get())) {
@@ -251,7 +616,7 @@ public abstract class Wsdl2Java extends JavaExec {
                     arguments.add(sb.toString());
                 }
             }
-            arguments.add(options.getWsdl().get());
+            arguments.add(localWsdl != null ? localWsdl.getAbsolutePath() : options.getWsdl().get());
             return Collections.unmodifiableList(arguments);
         }
     }
@@ -15,13 +15,18 @@
  */
 package io.mateo.cxf.codegen.wsdl2java;
 
+import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.provider.ListProperty;
 import org.gradle.api.provider.Property;
 import org.gradle.api.provider.SetProperty;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
 
 /**
  * Options for the {@code wsdl2java} tool.
@@ -34,11 +39,27 @@ public abstract class Wsdl2JavaOptions {
     /**
      * WSDL to process. The value can either be a direct path to a file on a local system
      * or URL to a remote file.
+     * <p>
+     * The value is tracked as an input by {@link Wsdl2Java#getWsdlInput()}.
      * @return wsdl file
      */
-    @Input
+    @Internal
     public abstract Property<String> getWsdl();
 
+    /**
+     * The local documents code is generated from, such as the WSDL document, the documents it imports or includes,
+     * and binding files. The contents of these documents are tracked so that changing any of them causes the task
+     * to be out-of-date.
+     * <p>
+     * If not set, the convention is the WSDL document and every local document it references through
+     * {@code wsdl:import}, {@code xsd:import}, {@code xsd:include} or {@code xsd:redefine}, directly or transitively,
+     * plus any binding files.
+     * @return source documents
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getSourceDocuments();
+
     /**
      * Specifies the directory the generated code files are written.
      * <p>
@@ -306,6 +327,25 @@ public abstract class Wsdl2JavaOptions {
     @Optional
     public abstract Property<Boolean> getSuppressGeneratedDate();
 
+    /**
+     * Enables or disables relocatable generation. When enabled, the generated sources and the
+     * task inputs do not depend on where the project is located, which allows build cache
+     * entries to be reused by checkouts in different directories:
+     * <ul>
+     * <li>A local {@link #getWsdl()} is tracked relative to the project directory.</li>
+     * <li>The output directory and binding files are passed to the tool relative to the
+     * working directory.</li>
+     * <li>The generated date is suppressed.</li>
+     * </ul>
+     * {@link #getWsdlLocation()} must be set for a local WSDL, for example to a
+     * {@code classpath:} location. Otherwise, the generated code would refer to the absolute
+     * path of the WSDL, and the task fails.
+     * @return relocatable indicator
+     */
+    @Input
+    @Optional
+    public abstract Property<Boolean> getRelocatable();
+
     /**
      * Specifies the WSDL service name to use for the generated code.
      * @return service name
@@ -15,13 +15,34 @@
  */
 package io.mateo.cxf.codegen.wsdl2js;
 
+import io.mateo.cxf.codegen.CodegenConcurrencyService;
+import io.mateo.cxf.codegen.internal.ClassDataArchiveService.JavaRuntime;
+import io.mateo.cxf.codegen.internal.CodegenDaemonService;
+import io.mateo.cxf.codegen.internal.CodegenMetrics;
+import io.mateo.cxf.codegen.internal.CodegenReport;
+import io.mateo.cxf.codegen.internal.FlightRecordings;
+import io.mateo.cxf.codegen.internal.OutputSync;
+import io.mateo.cxf.codegen.internal.RemoteDocumentCache;
+import io.mateo.cxf.codegen.internal.StartupProfile;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import javax.inject.Inject;
 import org.gradle.api.Action;
 import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.JavaExec;
 import org.gradle.api.tasks.Nested;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.TaskAction;
 import org.gradle.process.CommandLineArgumentProvider;
 
 /**
@@ -30,8 +51,23 @@ import org.gradle.process.CommandLineArgumentProvider;
 @CacheableTask
 public abstract class Wsdl2Js extends JavaExec {
 
+    private static final Logger logger = Logging.getLogger(Wsdl2Js.class);
+
+    private File stagingDir;
+
+    private File recording;
+
+    private File metricsAgent;
+
+    private File metrics;
+
+    private File localWsdl;
+
     public Wsdl2Js() {
         getArgumentProviders().add(new Wsdl2Js.Wsdl2JsArgumentProvider());
+        getJvmArgumentProviders().add(new Wsdl2Js.FlightRecordingArgumentProvider());
+        getJvmArgumentProviders().add(new Wsdl2Js.StartupProfileArgumentProvider());
+        getJvmArgumentProviders().add(new Wsdl2Js.ForkedMetricsArgumentProvider());
     }
 
     /**
@@ -41,6 +77,151 @@ public abstract class Wsdl2Js extends JavaExec {
     @Nested
     public abstract Wsdl2JsOptions getWsdl2JsOptions();
 
+    /**
+     * Whether to generate code into a staging directory and only write the generated files whose contents changed
+     * to the output directory. Files written by the previous execution that are no longer generated are deleted,
+     * while unchanged files are left untouched so that tasks consuming the generated sources, such as Java
+     * compilation, see as few changes as possible.
+     * <p>
+     * If not set, the tool writes every generated file to the output directory.
+     * @return whether to only write changed files
+     */
+    @Internal
+    public abstract Property<Boolean> getWriteChangedFilesOnly();
+
+    /**
+     * Service limiting how much code generation runs at the same time across all projects of the build.
+     * @return the concurrency service
+     */
+    @Internal
+    public abstract Property<CodegenConcurrencyService> getConcurrencyService();
+
+    /**
+     * Directory the execution metrics of the task are reported to: the wall time, CPU time, peak heap usage, and the
+     * number and size of the files it wrote, as {@code <task name>.json} and as a sortable {@code index.html} page
+     * across all reported tasks. The CPU time and peak heap usage are measured by an agent added to the forked JVM
+     * when it runs Java 17 or later, and are not available when the tool runs in the code generation daemon.
+     * <p>
+     * If not set, no report is written.
+     * @return the report directory
+     */
+    @Internal
+    public abstract DirectoryProperty getReportDirectory();
+
+    /**
+     * Whether to record the forked JVM with Java Flight Recorder, using the {@code profile} settings of the JDK. The
+     * recording is written to {@link #getRecordingDirectory()} as {@code <task name>.jfr}, and a summary of its hot
+     * methods and allocations is logged once the tool completes. While enabled, the task is neither up-to-date nor
+     * loaded from the build cache.
+     * <p>
+     * If not set, no recording is made.
+     * @return whether to profile the code generation
+     */
+    @Internal
+    public abstract Property<Boolean> getProfiling();
+
+    /**
+     * Directory the flight recording is written to when {@link #getProfiling() profiling}.
+     * @return the recording directory
+     */
+    @Internal
+    public abstract DirectoryProperty getRecordingDirectory();
+
+    /**
+     * Whether to fork the JVM with arguments tuned for start-up: JIT compilation limited to the C1 compiler, the
+     * serial garbage collector, and a maximum heap size derived from the size of the WSDL and the documents it
+     * imports. Arguments for options already set
+     * through {@link #getJvmArguments()} or {@link #getMaxHeapSize()} are left out.
+     * <p>
+     * If not set, the JVM is forked with the default arguments.
+     * @return whether to use the start-up profile
+     */
+    @Internal
+    public abstract Property<Boolean> getStartupProfile();
+
+    /**
+     * Whether the {@link #getStartupProfile() start-up profile} also skips the bytecode verification of the classes
+     * loaded from the tool classpath with {@code -XX:-BytecodeVerificationRemote}. Only enable it when every artifact
+     * of the tool classpath is trusted: classes that are not verified can break the type safety of the JVM. The JDK
+     * deprecated the flag and prints a warning when the JVM starts. Ignored unless the start-up profile is used, and
+     * left out when the flag is already set through {@link #getJvmArguments()}.
+     * <p>
+     * If not set, the bytecode is verified.
+     * @return whether to skip the bytecode verification
+     */
+    @Internal
+    public abstract Property<Boolean> getSkipBytecodeVerification();
+
+    /**
+     * Service running the {@code wsdl2js} tool in long-lived code generation daemons instead of forking a JVM for every
+     * run, so that later runs reuse the loaded tool classes and the code compiled by the JIT. A daemon is only reused
+     * by tasks with the same Java launcher, JVM arguments, classpath, working directory and environment. The tool is
+     * forked as usual while {@link #getProfiling() profiling} or debugging, if the environment or working directory of
+     * the task is customized, or if no daemon can be started.
+     * <p>
+     * If not set, the tool is forked for every run.
+     * @return the daemon service
+     */
+    @Internal
+    public abstract Property<CodegenDaemonService> getDaemonService();
+
+    /**
+     * Whether to mirror a remote WSDL, and the documents it imports or includes, into
+     * {@link #getRemoteDocumentCache()} before running the tool. Cached copies are revalidated with conditional
+     * requests whenever the task checks whether it is up-to-date, and are used as-is when the remote endpoint is
+     * unavailable or {@link #getOffline()} is enabled.
+     * <p>
+     * If not set, the tool fetches a remote WSDL itself, and only its URL is tracked as an input, so the task stays
+     * up-to-date when the remote document changes unless it is rerun, such as with {@code --rerun-tasks}.
+     * @return whether to cache remote documents
+     */
+    @Internal
+    public abstract Property<Boolean> getCacheRemoteDocuments();
+
+    /**
+     * Directory where remote documents are cached when {@link #getCacheRemoteDocuments()} is enabled.
+     * <p>
+     * If not set, the convention is {@code $gradleUserHome/caches/cxf-codegen/remote-documents}.
+     * @return the remote document cache directory
+     */
+    @Internal
+    public abstract DirectoryProperty getRemoteDocumentCache();
+
+    /**
+     * Whether to use cached copies of remote documents without contacting the remote endpoints.
+     * <p>
+     * If not set, the convention is the value of {@code --offline}.
+     * @return whether to work offline
+     */
+    @Internal
+    public abstract Property<Boolean> getOffline();
+
+    /**
+     * The fingerprint of the contents of the remote WSDL and of the remote documents it imports or includes, when
+     * {@link #getCacheRemoteDocuments() caching remote documents}. Computing the fingerprint revalidates the cached
+     * copies, so the task is out-of-date whenever a remote document changed.
+     * @return the remote document fingerprint
+     */
+    @Input
+    @Optional
+    public Provider<String> getRemoteDocumentFingerprint() {
+        return cachedRemoteWsdl().zip(remoteDocumentCache(), (wsdl, cache) -> cache.fingerprint(wsdl));
+    }
+
+    private Provider<String> cachedRemoteWsdl() {
+        Provider<String> wsdl = getWsdl2JsOptions().getWsdl().filter(RemoteDocumentCache::isRemote);
+        return getCacheRemoteDocuments().filter(Boolean::booleanValue).flatMap(enabled -> wsdl);
+    }
+
+    private Provider<RemoteDocumentCache> remoteDocumentCache() {
+        return getRemoteDocumentCache()
+                .zip(getOffline().orElse(false), (directory, offline) -> new RemoteDocumentCache(
+                        directory.getAsFile(), offline));
+    }
+
+    @Inject
+    public abstract ProjectLayout getLayout();
+
     /**
      * Configures the {@code wsdl2js} tool options.
      * @param configurer action or closure to configure tool options
@@ -49,6 +230,132 @@ public abstract class Wsdl2Js extends JavaExec {
         configurer.execute(this.getWsdl2JsOptions());
     }
 
+    @Override
+    @TaskAction
+    public void exec() {
+        File recording = getProfiling().getOrElse(false)
+                ? FlightRecordings.prepare(getRecordingDirectory().get().getAsFile(), getName())
+                : null;
+        CodegenConcurrencyService service = getConcurrencyService().getOrNull();
+        CodegenConcurrencyService.Lease lease = service != null ? service.acquire(getPath(), expectedMemory()) : null;
+        File metrics = getReportDirectory().isPresent() && CodegenMetrics.canMeasureForked(JavaRuntime.forTask(this))
+                ? CodegenMetrics.prepareForkedMetrics(getTemporaryDir())
+                : null;
+        String cachedRemoteWsdl = cachedRemoteWsdl().getOrNull();
+        CodegenMetrics.Execution execution;
+        try {
+            this.recording = recording;
+            if (cachedRemoteWsdl != null) {
+                this.localWsdl = remoteDocumentCache().get().mirror(cachedRemoteWsdl);
+            }
+            if (metrics != null) {
+                this.metricsAgent = CodegenMetrics.agentJar(getTemporaryDir());
+                this.metrics = metrics;
+            }
+            execution = CodegenMetrics.measure(
+                    getName(),
+                    getWsdl2JsOptions().getOutputDir().get().getAsFile(),
+                    CodegenMetrics.Scope.FORKED,
+                    this::generate);
+        } finally {
+            this.recording = null;
+            this.localWsdl = null;
+            this.metricsAgent = null;
+            this.metrics = null;
+            if (lease != null) {
+                lease.close();
+            }
+        }
+        if (recording != null) {
+            logger.lifecycle(FlightRecordings.summarize(List.of(recording)));
+        }
+        if (metrics != null) {
+            execution = execution.withForkedMetrics(metrics);
+        }
+        if (getReportDirectory().isPresent()) {
+            CodegenReport.write(
+                    getReportDirectory().get().getAsFile(), getName(), getPath(), "wsdl2js", List.of(execution));
+        }
+    }
+
+    private long expectedMemory() {
+        String maxHeapSize = getMaxHeapSize();
+        if (maxHeapSize != null) {
+            return CodegenConcurrencyService.parseMemorySize(maxHeapSize);
+        }
+        return CodegenConcurrencyService.expectedMemory(getWsdl2JsOptions().getSourceDocuments().getFiles());
+    }
+
+    private void generate() {
+        if (!getWriteChangedFilesOnly().getOrElse(false)) {
+            run();
+            return;
+        }
+        File stagingDir = new File(getTemporaryDir(), "staging");
+        OutputSync.delete(stagingDir);
+        this.stagingDir = stagingDir;
+        try {
+            run();
+        } finally {
+            this.stagingDir = null;
+        }
+        OutputSync.Result result = OutputSync.sync(
+                stagingDir,
+                getWsdl2JsOptions().getOutputDir().get().getAsFile(),
+                new File(getTemporaryDir(), "output-manifest.txt"));
+        logger.lifecycle("Generated files: {}", result);
+    }
+
+    private void run() {
+        CodegenDaemonService daemonService = getDaemonService().getOrNull();
+        if (daemonService == null
+                || this.recording != null
+                || getDebug()
+                || !daemonService.execute(this, getLayout().getProjectDirectory().getAsFile())) {
+            super.exec();
+        }
+    }
+
+    private File outputDir() {
+        return this.stagingDir != null ? this.stagingDir : getWsdl2JsOptions().getOutputDir().get().getAsFile();
+    }
+
+    private class FlightRecordingArgumentProvider implements CommandLineArgumentProvider {
+
+        @Override
+        public Iterable<String> asArguments() {
+            File recording = Wsdl2Js.this.recording;
+            return recording != null ? List.of(FlightRecordings.jvmArgument(recording)) : List.of();
+        }
+    }
+
+    private class ForkedMetricsArgumentProvider implements CommandLineArgumentProvider {
+
+        @Override
+        public Iterable<String> asArguments() {
+            File metricsAgent = Wsdl2Js.this.metricsAgent;
+            File metrics = Wsdl2Js.this.metrics;
+            return metricsAgent != null && metrics != null
+                    ? List.of(CodegenMetrics.jvmArgument(metricsAgent, metrics))
+                    : List.of();
+        }
+    }
+
+    private class StartupProfileArgumentProvider implements CommandLineArgumentProvider {
+
+        @Override
+        public Iterable<String> asArguments() {
+            if (!Wsdl2Js.this.getStartupProfile().getOrElse(false)) {
+                return List.of();
+            }
+            return StartupProfile.jvmArguments(
+                    Wsdl2Js.this.getJvmArguments().getOrElse(List.of()),
+                    Wsdl2Js.this.getMaxHeapSize(),
+                    expectedMemory(),
+                    Wsdl2Js.this.getSkipBytecodeVerification().getOrElse(false));
+        }
+    }
+
     private class Wsdl2JsArgumentProvider implements CommandLineArgumentProvider {
 
         @Override
@@ -73,7 +380,7 @@ public abstract class Wsdl2Js extends JavaExec {
                         .get());
             }
             arguments.add("-d");
-            arguments.add(options.getOutputDir().get().getAsFile().getAbsolutePath());
+            arguments.add(Wsdl2Js.this.outputDir().getAbsolutePath());
             if (options.getValidate().isPresent()) {
                 arguments.add("-validate=" + options.getValidate().get());
             }
@@ -87,7 +394,8 @@ public abstract class Wsdl2Js extends JavaExec {
             if (options.getQuiet().isPresent() && options.getQuiet().get()) {
                 arguments.add("-quiet");
             }
-            arguments.add(options.getWsdl().get());
+            File localWsdl = Wsdl2Js.this.localWsdl;
+            arguments.add(localWsdl != null ? localWsdl.getAbsolutePath() : options.getWsdl().get());
             return arguments;
         }
     }
@@ -17,12 +17,14 @@ package io.mateo.cxf.codegen.wsdl2js;
 
 import java.util.Objects;
 import java.util.StringJoiner;
+import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.provider.ListProperty;
 import org.gradle.api.provider.Property;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.InputFiles;
 import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.OutputDirectory;
 import org.gradle.api.tasks.PathSensitive;
@@ -44,6 +46,19 @@ public abstract class Wsdl2JsOptions {
     @Input
     public abstract Property<String> getWsdl();
 
+    /**
+     * The local documents code is generated from, such as the WSDL document and the documents it imports or
+     * includes. The contents of these documents are tracked so that changing any of them causes the task to be
+     * out-of-date.
+     * <p>
+     * If not set, the convention is the WSDL document and every local document it references through
+     * {@code wsdl:import}, {@code xsd:import}, {@code xsd:include} or {@code xsd:redefine}, directly or transitively.
+     * @return source documents
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getSourceDocuments();
+
     /**
      * Specifies the WSDL version the tool expects.
      * <p>
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.gradle.api.GradleException;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CodegenConcurrencyServiceTests {
+
+    private static final long MIB = 1024 * 1024;
+
+    @TempDir
+    Path documentsDir;
+
+    @Test
+    void leasesAreLimitedByMaxConcurrentTools() {
+        CodegenConcurrencyService service = service(2, null);
+
+        CodegenConcurrencyService.Lease first = service.tryAcquire(MIB);
+        CodegenConcurrencyService.Lease second = service.tryAcquire(MIB);
+
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(service.tryAcquire(MIB)).isNull();
+    }
+
+    @Test
+    void leasesAreLimitedByHeapBudget() {
+        CodegenConcurrencyService service = service(null, 512 * MIB);
+
+        CodegenConcurrencyService.Lease first = service.tryAcquire(384 * MIB);
+
+        assertThat(first).isNotNull();
+        assertThat(service.tryAcquire(256 * MIB)).isNull();
+        assertThat(service.tryAcquire(128 * MIB)).isNotNull();
+    }
+
+    @Test
+    void leaseExceedingHeapBudgetIsGrantedWhenNoOtherLeaseIsHeld() {
+        CodegenConcurrencyService service = service(null, 512 * MIB);
+
+        CodegenConcurrencyService.Lease lease = service.tryAcquire(1024 * MIB);
+
+        assertThat(lease).isNotNull();
+        assertThat(service.tryAcquire(MIB)).isNull();
+    }
+
+    @Test
+    void closingLeaseAdmitsWaitingWork() throws Exception {
+        CodegenConcurrencyService service = service(1, null);
+        CodegenConcurrencyService.Lease first = service.acquire(":first", MIB);
+
+        CompletableFuture<CodegenConcurrencyService.Lease> second =
+                CompletableFuture.supplyAsync(() -> service.acquire(":second", MIB));
+        Thread.sleep(100);
+        assertThat(second).isNotDone();
+        first.close();
+
+        assertThat(second.get(10, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    void closingLeaseTwiceReleasesItOnce() {
+        CodegenConcurrencyService service = service(2, null);
+        CodegenConcurrencyService.Lease first = service.tryAcquire(MIB);
+        service.tryAcquire(MIB);
+
+        first.close();
+        first.close();
+
+        assertThat(service.tryAcquire(MIB)).isNotNull();
+        assertThat(service.tryAcquire(MIB)).isNull();
+    }
+
+    @Test
+    void expectedMemoryGrowsWithDocumentSize() throws IOException {
+        File wsdl = Files.write(this.documentsDir.resolve("service.wsdl"), new byte[1024]).toFile();
+        File xsd = Files.write(this.documentsDir.resolve("types.xsd"), new byte[2048]).toFile();
+
+        assertThat(CodegenConcurrencyService.expectedMemory(List.of()))
+                .isEqualTo(CodegenConcurrencyService.BASE_MEMORY);
+        assertThat(CodegenConcurrencyService.expectedMemory(List.of(wsdl, xsd)))
+                .isEqualTo(CodegenConcurrencyService.BASE_MEMORY
+                        + 3072 * CodegenConcurrencyService.MEMORY_PER_DOCUMENT_BYTE);
+    }
+
+    @Test
+    void memorySizes() {
+        assertThat(CodegenConcurrencyService.parseMemorySize("1024")).isEqualTo(1024);
+        assertThat(CodegenConcurrencyService.parseMemorySize("64k")).isEqualTo(64 * 1024);
+        assertThat(CodegenConcurrencyService.parseMemorySize("512m")).isEqualTo(512 * MIB);
+        assertThat(CodegenConcurrencyService.parseMemorySize("4G")).isEqualTo(4096 * MIB);
+    }
+
+    @Test
+    void invalidMemorySizeFails() {
+        assertThatExceptionOfType(GradleException.class)
+                .isThrownBy(() -> CodegenConcurrencyService.parseMemorySize("lots"))
+                .withMessage("Invalid memory size 'lots'");
+    }
+
+    private static CodegenConcurrencyService service(Integer maxConcurrentTools, Long heapBudget) {
+        return ProjectBuilder.builder()
+                .build()
+                .getGradle()
+                .getSharedServices()
+                .registerIfAbsent(CodegenConcurrencyService.NAME, CodegenConcurrencyService.class, spec -> {
+                    spec.getParameters().getMaxConcurrentTools().set(maxConcurrentTools);
+                    spec.getParameters().getHeapBudget().set(heapBudget);
+                })
+                .get();
+    }
+}
@@ -20,15 +20,26 @@ import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatNoException;
 
 import io.mateo.cxf.codegen.dsl.CxfCodegenExtension;
+import io.mateo.cxf.codegen.internal.ClassDataSharingArguments;
+import io.mateo.cxf.codegen.internal.CodegenDaemonService;
 import io.mateo.cxf.codegen.internal.GeneratedVersionAccessor;
+import io.mateo.cxf.codegen.internal.RuntimeImageLauncher;
 import io.mateo.cxf.codegen.junit.TaskNameGenerator;
+import io.mateo.cxf.codegen.workers.SharedSchema;
 import io.mateo.cxf.codegen.workers.Wsdl2JavaOption;
 import io.mateo.cxf.codegen.workers.Wsdl2JsOption;
+import io.mateo.cxf.codegen.workers.WsdlDirectory;
+import io.mateo.cxf.codegen.workers.Xjc;
 import io.mateo.cxf.codegen.wsdl2java.Wsdl2Java;
 import io.mateo.cxf.codegen.wsdl2js.Wsdl2Js;
+import java.io.IOException;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -38,9 +49,11 @@ import org.gradle.api.Project;
 import org.gradle.api.Task;
 import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.ExcludeRule;
 import org.gradle.api.artifacts.ModuleDependency;
 import org.gradle.api.file.SourceDirectorySet;
 import org.gradle.api.specs.Spec;
+import org.gradle.api.tasks.JavaExec;
 import org.gradle.api.tasks.SourceSet;
 import org.gradle.api.tasks.SourceSetContainer;
 import org.gradle.api.tasks.TaskCollection;
@@ -206,6 +219,20 @@ class CxfCodegenPluginTests {
         assertThat(paths).isNotEmpty().doesNotContain(outputDir);
     }
 
+    @Test
+    void wsdl2JavaTasksAreOnlyRealizedWhenSourcesAreQueried(TestInfo testInfo) {
+        List<String> realized = new ArrayList<>();
+        project.getTasks().register(testInfo.getDisplayName(), Wsdl2Java.class, task -> realized.add(task.getName()));
+        project.getPluginManager().apply("java");
+        SourceSetContainer sourceSets = project.getExtensions().getByType(SourceSetContainer.class);
+
+        assertThat(realized).isEmpty();
+
+        sourceSets.getByName(SourceSet.MAIN_SOURCE_SET_NAME).getJava().getSrcDirs();
+
+        assertThat(realized).containsExactly(testInfo.getDisplayName());
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     void aggregateTaskWillRunWsdl2JavaTaskTypes() {
@@ -246,6 +273,330 @@ class CxfCodegenPluginTests {
         });
     }
 
+    @Test
+    void classDataSharingIsDisabledByDefault() {
+        Wsdl2Java wsdl2Java = project.getTasks().register("a", Wsdl2Java.class).get();
+
+        assertThat(wsdl2Java.getJvmArgumentProviders()).noneMatch(ClassDataSharingArguments.class::isInstance);
+    }
+
+    @Test
+    void classDataSharingAddsJvmArgumentsToCodegenTasks() {
+        Project project = getProject(p ->
+                p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.CLASS_DATA_SHARING_PROPERTY, "true"));
+        Wsdl2Java wsdl2Java = project.getTasks().register("a", Wsdl2Java.class).get();
+        Wsdl2Js wsdl2Js = project.getTasks().register("b", Wsdl2Js.class).get();
+
+        assertThat(wsdl2Java.getJvmArgumentProviders())
+                .filteredOn(ClassDataSharingArguments.class::isInstance)
+                .hasSize(1);
+        assertThat(wsdl2Js.getJvmArgumentProviders())
+                .filteredOn(ClassDataSharingArguments.class::isInstance)
+                .hasSize(1);
+        assertThat(project.getTasks().register("c", JavaExec.class).get().getJvmArgumentProviders())
+                .isEmpty();
+    }
+
+    @Test
+    void startupProfileIsDisabledByDefault() {
+        Wsdl2Java wsdl2Java = project.getTasks().register("a", Wsdl2Java.class).get();
+
+        assertThat(jvmArguments(wsdl2Java)).isEmpty();
+    }
+
+    @Test
+    void startupProfileAddsJvmArgumentsToCodegenTasks() {
+        Wsdl2Java wsdl2Java = project.getTasks().register("a", Wsdl2Java.class).get();
+        wsdl2Java.getStartupProfile().set(true);
+        wsdl2Java.setMaxHeapSize("1g");
+        Wsdl2Js wsdl2Js = project.getTasks().register("b", Wsdl2Js.class).get();
+        wsdl2Js.getStartupProfile().set(true);
+        wsdl2Js.setMaxHeapSize("512m");
+        wsdl2Js.jvmArgs("-XX:+UseParallelGC");
+
+        assertThat(jvmArguments(wsdl2Java))
+                .containsExactly("-XX:TieredStopAtLevel=1", "-XX:+UseSerialGC");
+        assertThat(jvmArguments(wsdl2Js)).containsExactly("-XX:TieredStopAtLevel=1");
+    }
+
+    @Test
+    void startupProfileSkipsBytecodeVerificationOnlyWhenRequested() {
+        Wsdl2Java wsdl2Java = project.getTasks().register("a", Wsdl2Java.class).get();
+        wsdl2Java.getStartupProfile().set(true);
+        wsdl2Java.getSkipBytecodeVerification().set(true);
+        Wsdl2Js wsdl2Js = project.getTasks().register("b", Wsdl2Js.class).get();
+        wsdl2Js.getSkipBytecodeVerification().set(true);
+
+        assertThat(jvmArguments(wsdl2Java)).contains("-XX:-BytecodeVerificationRemote");
+        assertThat(jvmArguments(wsdl2Js)).isEmpty();
+    }
+
+    @Test
+    void runtimeImageIsDisabledByDefault() {
+        Wsdl2Java wsdl2Java = project.getTasks().register("a", Wsdl2Java.class).get();
+
+        assertThat(wsdl2Java.getJavaLauncher().get()).isNotInstanceOf(RuntimeImageLauncher.class);
+    }
+
+    @Test
+    void runtimeImageIsUsedByCodegenTasks() {
+        Project project = getProject(
+                p -> p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.RUNTIME_IMAGE_PROPERTY, "true"));
+        Wsdl2Java wsdl2Java = project.getTasks().register("a", Wsdl2Java.class).get();
+        Wsdl2Js wsdl2Js = project.getTasks().register("b", Wsdl2Js.class).get();
+
+        assertThat(wsdl2Java.getJavaLauncher().get()).isInstanceOf(RuntimeImageLauncher.class);
+        assertThat(wsdl2Js.getJavaLauncher().get()).isInstanceOf(RuntimeImageLauncher.class);
+        assertThat(project.getTasks().register("c", JavaExec.class).get().getJavaLauncher().get())
+                .isNotInstanceOf(RuntimeImageLauncher.class);
+    }
+
+    @Test
+    void runtimeImageIsUsedByWorkers() {
+        Project project = getProject(p -> {
+            p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.WORKERS_PROPERTY, "true");
+            p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.RUNTIME_IMAGE_PROPERTY, "true");
+        });
+        io.mateo.cxf.codegen.workers.Wsdl2Java wsdl2Java = project.getTasks()
+                .named("wsdl2java", io.mateo.cxf.codegen.workers.Wsdl2Java.class)
+                .get();
+        io.mateo.cxf.codegen.workers.Wsdl2Js wsdl2Js = project.getTasks()
+                .named("wsdl2js", io.mateo.cxf.codegen.workers.Wsdl2Js.class)
+                .get();
+
+        assertThat(wsdl2Java.getRuntimeImageService().get()).isSameAs(wsdl2Js.getRuntimeImageService().get());
+    }
+
+    @Test
+    void classDataSharingIsUsedByWorkers() {
+        Project project = getProject(p -> {
+            p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.WORKERS_PROPERTY, "true");
+            p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.CLASS_DATA_SHARING_PROPERTY, "true");
+        });
+        io.mateo.cxf.codegen.workers.Wsdl2Java wsdl2Java = project.getTasks()
+                .named("wsdl2java", io.mateo.cxf.codegen.workers.Wsdl2Java.class)
+                .get();
+        io.mateo.cxf.codegen.workers.Wsdl2Js wsdl2Js = project.getTasks()
+                .named("wsdl2js", io.mateo.cxf.codegen.workers.Wsdl2Js.class)
+                .get();
+
+        assertThat(wsdl2Java.getClassDataArchiveService().get())
+                .isSameAs(wsdl2Js.getClassDataArchiveService().get());
+    }
+
+    @Test
+    void daemonIsDisabledByDefault() {
+        Wsdl2Java wsdl2Java = project.getTasks().register("a", Wsdl2Java.class).get();
+
+        assertThat(wsdl2Java.getDaemonService().isPresent()).isFalse();
+    }
+
+    @Test
+    void daemonIsUsedByCodegenTasks() {
+        Project project =
+                getProject(p -> p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.DAEMON_PROPERTY, "true"));
+        Wsdl2Java wsdl2Java = project.getTasks().register("a", Wsdl2Java.class).get();
+        Wsdl2Js wsdl2Js = project.getTasks().register("b", Wsdl2Js.class).get();
+
+        assertThat(wsdl2Java.getDaemonService().get()).isSameAs(wsdl2Js.getDaemonService().get());
+    }
+
+    @Test
+    void daemonIsConfiguredFromGradleProperties() {
+        Project project = getProject(p -> {
+            p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.DAEMON_PROPERTY, "true");
+            p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.DAEMON_IDLE_TIMEOUT_PROPERTY, "30s");
+            p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.DAEMON_MAX_INVOCATIONS_PROPERTY, "1");
+            p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.DAEMON_MAX_HEAP_USAGE_PROPERTY, "50");
+            p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.DAEMON_REQUEST_TIMEOUT_PROPERTY, "2h");
+        });
+        Wsdl2Java wsdl2Java = project.getTasks().register("a", Wsdl2Java.class).get();
+
+        CodegenDaemonService.Params parameters = wsdl2Java.getDaemonService().get().getParameters();
+        assertThat(parameters.getIdleTimeout().get()).isEqualTo(Duration.ofSeconds(30));
+        assertThat(parameters.getMaxInvocations().get()).isOne();
+        assertThat(parameters.getMaxHeapUsage().get()).isEqualTo(50);
+        assertThat(parameters.getRequestTimeout().get()).isEqualTo(Duration.ofHours(2));
+    }
+
+    @Test
+    void invalidDaemonLimitsFail() {
+        assertThatCode(() -> getProject(p -> {
+                    p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.DAEMON_PROPERTY, "true");
+                    p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.DAEMON_MAX_HEAP_USAGE_PROPERTY, "150");
+                }))
+                .hasStackTraceContaining("Invalid value '150' for Gradle property '"
+                        + CxfCodegenPlugin.DAEMON_MAX_HEAP_USAGE_PROPERTY + "': expected a positive integer up to 100");
+        assertThatCode(() -> getProject(p -> {
+                    p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.DAEMON_PROPERTY, "true");
+                    p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.DAEMON_IDLE_TIMEOUT_PROPERTY, "soon");
+                }))
+                .hasStackTraceContaining("Invalid value 'soon' for Gradle property '"
+                        + CxfCodegenPlugin.DAEMON_IDLE_TIMEOUT_PROPERTY
+                        + "': expected a duration such as 30s, 15m or 1h");
+    }
+
+    @Test
+    void forkOptionsAreNotNormalizedByDefault() {
+        Project project =
+                getProject(p -> p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.WORKERS_PROPERTY, "true"));
+        io.mateo.cxf.codegen.workers.Wsdl2Java wsdl2Java = project.getTasks()
+                .named("wsdl2java", io.mateo.cxf.codegen.workers.Wsdl2Java.class)
+                .get();
+
+        assertThat(wsdl2Java.getNormalizeForkOptions().getOrElse(false)).isFalse();
+    }
+
+    @Test
+    void forkOptionsAreNormalizedForWorkers() {
+        Project project = getProject(p -> {
+            p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.WORKERS_PROPERTY, "true");
+            p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.NORMALIZE_FORK_OPTIONS_PROPERTY, "true");
+        });
+        io.mateo.cxf.codegen.workers.Wsdl2Java wsdl2Java = project.getTasks()
+                .named("wsdl2java", io.mateo.cxf.codegen.workers.Wsdl2Java.class)
+                .get();
+        io.mateo.cxf.codegen.workers.Wsdl2Js wsdl2Js = project.getTasks()
+                .named("wsdl2js", io.mateo.cxf.codegen.workers.Wsdl2Js.class)
+                .get();
+
+        assertThat(wsdl2Java.getNormalizeForkOptions().get()).isTrue();
+        assertThat(wsdl2Js.getNormalizeForkOptions().get()).isTrue();
+    }
+
+    @Test
+    void slimToolClasspathsSplitDependenciesByTool() {
+        Project project = getProject(p ->
+                p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.SLIM_TOOL_CLASSPATHS_PROPERTY, "true"));
+        Configuration cxfCodegen =
+                project.getConfigurations().getByName(CxfCodegenPlugin.CXF_CODEGEN_CONFIGURATION_NAME);
+        Configuration wsdl2Java = project.getConfigurations().getByName(CxfCodegenPlugin.WSDL2JAVA_CONFIGURATION_NAME);
+        Configuration wsdl2Js = project.getConfigurations().getByName(CxfCodegenPlugin.WSDL2JS_CONFIGURATION_NAME);
+
+        assertThat(cxfCodegen.getDependencies())
+                .extracting(Dependency::getName)
+                .containsExactly("slf4j-nop", "cxf-core", "cxf-tools-common", "cxf-tools-wsdlto-core");
+        assertThat(wsdl2Java.getExtendsFrom()).isEmpty();
+        assertThat(wsdl2Java.getDependencies())
+                .extracting(Dependency::getName)
+                .containsExactly(
+                        "slf4j-nop",
+                        "cxf-core",
+                        "cxf-tools-common",
+                        "cxf-tools-wsdlto-core",
+                        "cxf-tools-wsdlto-databinding-jaxb",
+                        "cxf-tools-wsdlto-frontend-jaxws");
+        assertThat(wsdl2Js.getExtendsFrom()).isEmpty();
+        assertThat(wsdl2Js.getDependencies())
+                .extracting(Dependency::getName)
+                .containsExactly(
+                        "slf4j-nop",
+                        "cxf-core",
+                        "cxf-tools-common",
+                        "cxf-tools-wsdlto-core",
+                        "cxf-tools-wsdlto-frontend-javascript");
+    }
+
+    @Test
+    void slimToolClasspathsInheritCxfCodegenExcludes() {
+        Project project = getProject(p ->
+                p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.SLIM_TOOL_CLASSPATHS_PROPERTY, "true"));
+        project.getConfigurations()
+                .getByName(CxfCodegenPlugin.CXF_CODEGEN_CONFIGURATION_NAME)
+                .exclude(Map.of("group", "org.slf4j"));
+        Configuration wsdl2Java = project.getConfigurations().getByName(CxfCodegenPlugin.WSDL2JAVA_CONFIGURATION_NAME);
+
+        assertThat(wsdl2Java.getDependencies()).isNotEmpty();
+        assertThat(wsdl2Java.getExcludeRules()).extracting(ExcludeRule::getGroup).containsExactly("org.slf4j");
+    }
+
+    @Test
+    void slimToolClasspathsAreUsedByCodegenTasks() {
+        Project project = getProject(p ->
+                p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.SLIM_TOOL_CLASSPATHS_PROPERTY, "true"));
+        Wsdl2Java wsdl2Java = project.getTasks().register("a", Wsdl2Java.class).get();
+        Wsdl2Js wsdl2Js = project.getTasks().register("b", Wsdl2Js.class).get();
+
+        // Can not resolve configuration in unit tests, so assert on error message.
+        assertThatCode(() -> wsdl2Java.getClasspath().getFiles())
+                .hasMessageContaining("configuration ':cxfCodegenWsdl2Java'");
+        assertThatCode(() -> wsdl2Js.getClasspath().getFiles())
+                .hasMessageContaining("configuration ':cxfCodegenWsdl2Js'");
+    }
+
+    @Test
+    void codegenTasksDoNotUseConcurrencyServiceByDefault() {
+        Wsdl2Java wsdl2Java = project.getTasks().register("a", Wsdl2Java.class).get();
+        Wsdl2Js wsdl2Js = project.getTasks().register("b", Wsdl2Js.class).get();
+
+        assertThat(wsdl2Java.getConcurrencyService().isPresent()).isFalse();
+        assertThat(wsdl2Js.getConcurrencyService().isPresent()).isFalse();
+    }
+
+    @Test
+    void codegenTasksReportToSharedDirectory() {
+        Wsdl2Java wsdl2Java = project.getTasks().register("a", Wsdl2Java.class).get();
+        Wsdl2Js wsdl2Js = project.getTasks().register("b", Wsdl2Js.class).get();
+
+        assertThat(wsdl2Java.getReportDirectory().get().getAsFile().toPath())
+                .endsWithRaw(Path.of("build", "reports", "cxf-codegen"));
+        assertThat(wsdl2Js.getReportDirectory().get()).isEqualTo(wsdl2Java.getReportDirectory().get());
+    }
+
+    @Test
+    void codegenTasksRecordToSharedDirectory() {
+        Wsdl2Java wsdl2Java = project.getTasks().register("a", Wsdl2Java.class).get();
+        Wsdl2Js wsdl2Js = project.getTasks().register("b", Wsdl2Js.class).get();
+
+        assertThat(wsdl2Java.getProfiling().isPresent()).isFalse();
+        assertThat(wsdl2Java.getRecordingDirectory().get().getAsFile().toPath())
+                .endsWithRaw(Path.of("build", "reports", "cxf-codegen", "jfr"));
+        assertThat(wsdl2Js.getProfiling().isPresent()).isFalse();
+        assertThat(wsdl2Js.getRecordingDirectory().get()).isEqualTo(wsdl2Java.getRecordingDirectory().get());
+    }
+
+    @Test
+    void concurrencyServiceIsConfiguredFromGradleProperties() {
+        Project project = getProject(p -> {
+            p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.MAX_CONCURRENT_TOOLS_PROPERTY, "2");
+            p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.HEAP_BUDGET_PROPERTY, "1g");
+        });
+        Wsdl2Java wsdl2Java = project.getTasks().register("a", Wsdl2Java.class).get();
+
+        CodegenConcurrencyService.Params parameters = wsdl2Java.getConcurrencyService().get().getParameters();
+        assertThat(parameters.getMaxConcurrentTools().get()).isEqualTo(2);
+        assertThat(parameters.getHeapBudget().get()).isEqualTo(1024L * 1024 * 1024);
+    }
+
+    @Test
+    void codegenTasksShareConcurrencyServiceWhenHeapBudgetIsSet() {
+        Project project = getProject(
+                p -> p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.HEAP_BUDGET_PROPERTY, "1g"));
+        Wsdl2Java wsdl2Java = project.getTasks().register("a", Wsdl2Java.class).get();
+        Wsdl2Js wsdl2Js = project.getTasks().register("b", Wsdl2Js.class).get();
+
+        CodegenConcurrencyService service = wsdl2Java.getConcurrencyService().get();
+        assertThat(wsdl2Js.getConcurrencyService().get()).isSameAs(service);
+        assertThat(service.getParameters().getMaxConcurrentTools().isPresent()).isFalse();
+    }
+
+    @Test
+    void invalidMaxConcurrentToolsFails() {
+        assertThatCode(() -> getProject(p -> p.getExtensions()
+                        .getExtraProperties()
+                        .set(CxfCodegenPlugin.MAX_CONCURRENT_TOOLS_PROPERTY, "0")))
+                .hasStackTraceContaining("Invalid value '0' for Gradle property '"
+                        + CxfCodegenPlugin.MAX_CONCURRENT_TOOLS_PROPERTY + "': expected a positive integer");
+    }
+
+    @Test
+    void invalidHeapBudgetFails() {
+        assertThatCode(() -> getProject(
+                        p -> p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.HEAP_BUDGET_PROPERTY, "lots")))
+                .hasStackTraceContaining("Invalid value 'lots' for Gradle property '"
+                        + CxfCodegenPlugin.HEAP_BUDGET_PROPERTY + "'");
+    }
+
     @SuppressWarnings("unchecked") // TaskCollection cast
     @Test
     void aggregateTaskWillRunWsdl2JsTaskTypes() {
@@ -338,6 +689,19 @@ class CxfCodegenPluginTests {
                     assertThat(task.getGroup()).isEqualTo(CxfCodegenPlugin.WSDL2JAVA_GROUP);
                     assertThatCode(() -> task.getWsdl2JavaClasspath().getFiles())
                             .hasMessageContaining("configuration ':cxfCodegen'");
+                    assertThat(task.getOptionFingerprints().get().getAsFile().toPath())
+                            .endsWithRaw(Path.of("build", "tmp", "wsdl2java", "option-fingerprints.txt"));
+                    assertThat(task.getExecutionHistory().get().getAsFile().toPath())
+                            .endsWithRaw(Path.of(".gradle", "cxf-codegen", "wsdl2java", "execution-history.txt"));
+                    assertThat(task.getRecordingDirectory().get().getAsFile().toPath())
+                            .endsWithRaw(Path.of("build", "reports", "cxf-codegen", "jfr"));
+                    assertThat(task.getReportDirectory().get().getAsFile().toPath())
+                            .endsWithRaw(Path.of("build", "reports", "cxf-codegen"));
+                    assertThat(task.getClassLoaderService().isPresent()).isTrue();
+                    assertThat(task.getCacheRemoteDocuments().getOrElse(false)).isFalse();
+                    assertThat(task.getRemoteDocumentCache().get().getAsFile().toPath())
+                            .endsWithRaw(Path.of("caches", "cxf-codegen", "remote-documents"));
+                    assertThat(task.getOffline().get()).isFalse();
                     assertThat(task.getOptions().get()).singleElement().satisfies(option -> assertThat(option.getName())
                             .isEqualTo("foo"));
                 });
@@ -359,11 +723,108 @@ class CxfCodegenPluginTests {
                     assertThat(task.getGroup()).isEqualTo(CxfCodegenPlugin.WSDL2JS_GROUP);
                     assertThatCode(() -> task.getWsdl2JsClasspath().getFiles())
                             .hasMessageContaining("configuration ':cxfCodegen'");
+                    assertThat(task.getOptionFingerprints().get().getAsFile().toPath())
+                            .endsWithRaw(Path.of("build", "tmp", "wsdl2js", "option-fingerprints.txt"));
+                    assertThat(task.getExecutionHistory().get().getAsFile().toPath())
+                            .endsWithRaw(Path.of(".gradle", "cxf-codegen", "wsdl2js", "execution-history.txt"));
+                    assertThat(task.getRecordingDirectory().get().getAsFile().toPath())
+                            .endsWithRaw(Path.of("build", "reports", "cxf-codegen", "jfr"));
+                    assertThat(task.getReportDirectory().get().getAsFile().toPath())
+                            .endsWithRaw(Path.of("build", "reports", "cxf-codegen"));
+                    assertThat(task.getClassLoaderService().isPresent()).isTrue();
+                    assertThat(task.getCacheRemoteDocuments().getOrElse(false)).isFalse();
+                    assertThat(task.getRemoteDocumentCache().get().getAsFile().toPath())
+                            .endsWithRaw(Path.of("caches", "cxf-codegen", "remote-documents"));
+                    assertThat(task.getOffline().get()).isFalse();
                     assertThat(task.getOptions().get()).singleElement().satisfies(option -> assertThat(option.getName())
                             .isEqualTo("foo"));
                 });
     }
 
+    @Test
+    void sharedSchemaDefaults() {
+        Project project =
+                getProject(p -> p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.WORKERS_PROPERTY, "true"));
+        SharedSchema schema = project.getExtensions()
+                .getByType(CxfCodegenExtension.class)
+                .getSharedSchemas()
+                .create("common");
+        assertThat(schema.getOutputDirectory().get().getAsFile().toPath())
+                .endsWithRaw(Path.of("build", "common-xjc-generated-sources"));
+        assertThat(schema.getEpisodeFile().get().getAsFile().toPath())
+                .endsWithRaw(Path.of("build", "xjc-episodes", "common.episode"));
+    }
+
+    @Test
+    void wsdlDirectoryDefaults() {
+        Project project =
+                getProject(p -> p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.WORKERS_PROPERTY, "true"));
+        WsdlDirectory directory = project.getExtensions()
+                .getByType(CxfCodegenExtension.class)
+                .getWsdlDirectories()
+                .create("services");
+        assertThat(directory.getIncludes().get()).containsExactly("**/*.wsdl");
+        assertThat(directory.getOutputDirectory().get().getAsFile().toPath())
+                .endsWithRaw(Path.of("build", "services-wsdl2java-generated-sources"));
+        assertThat(project.getTasks().withType(io.mateo.cxf.codegen.workers.Wsdl2Java.class))
+                .singleElement()
+                .satisfies(task -> assertThat(task.getWsdlDirectories().get()).containsExactly(directory));
+    }
+
+    @Test
+    void workersXjcTaskConfigured() {
+        Project project =
+                getProject(p -> p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.WORKERS_PROPERTY, "true"));
+        project.getExtensions()
+                .getByType(CxfCodegenExtension.class)
+                .getSharedSchemas()
+                .create("common");
+        assertThat(project.getTasks().withType(Xjc.class)).singleElement().satisfies(task -> {
+            assertThat(task.getName()).isEqualTo(CxfCodegenPlugin.XJC_TASK_NAME);
+            assertThat(task.getDescription()).isEqualTo("Generates Java sources for all shared schemas");
+            assertThat(task.getGroup()).isEqualTo(CxfCodegenPlugin.WSDL2JAVA_GROUP);
+            assertThatCode(() -> task.getXjcClasspath().getFiles()).hasMessageContaining("configuration ':cxfCodegen'");
+            assertThat(task.getSchemas().get()).singleElement().satisfies(schema -> assertThat(schema.getName())
+                    .isEqualTo("common"));
+        });
+    }
+
+    @Test
+    void javaOptionsUseEpisodesOfReferencedSharedSchemas() throws IOException {
+        Project project =
+                getProject(p -> p.getExtensions().getExtraProperties().set(CxfCodegenPlugin.WORKERS_PROPERTY, "true"));
+        Path projectDir = project.getProjectDir().toPath();
+        Files.writeString(projectDir.resolve("common.xsd"), "<schema xmlns=\"http://www.w3.org/2001/XMLSchema\"/>");
+        Files.writeString(projectDir.resolve("shared.wsdl"), """
+                <definitions xmlns="http://schemas.xmlsoap.org/wsdl/" xmlns:xsd="http://www.w3.org/2001/XMLSchema">
+                    <types>
+                        <xsd:schema>
+                            <xsd:import namespace="urn:common" schemaLocation="common.xsd"/>
+                        </xsd:schema>
+                    </types>
+                </definitions>
+                """);
+        Files.writeString(
+                projectDir.resolve("standalone.wsdl"), "<definitions xmlns=\"http://schemas.xmlsoap.org/wsdl/\"/>");
+        CxfCodegenExtension extension = project.getExtensions().getByType(CxfCodegenExtension.class);
+        SharedSchema schema = extension
+                .getSharedSchemas()
+                .create("common", it -> it.getSchemas().from("common.xsd"));
+        Wsdl2JavaOption shared = extension
+                .getOptions()
+                .create("shared", Wsdl2JavaOption.class, option -> option.getWsdl().set("shared.wsdl"));
+        Wsdl2JavaOption standalone = extension
+                .getOptions()
+                .create("standalone", Wsdl2JavaOption.class, option -> option.getWsdl().set("standalone.wsdl"));
+
+        assertThat(shared.getEpisodes().getFiles())
+                .containsExactly(schema.getEpisodeFile().get().getAsFile());
+        assertThat(shared.getEpisodes().getBuildDependencies().getDependencies(null))
+                .extracting(Task::getName)
+                .containsExactly(CxfCodegenPlugin.XJC_TASK_NAME);
+        assertThat(standalone.getEpisodes().getFiles()).isEmpty();
+    }
+
     @Test
     void disableAddingJavaWorkerOutputToMain() {
         Project project =
@@ -412,6 +873,12 @@ class CxfCodegenPluginTests {
         assertThatNoException().isThrownBy(() -> project.getAllTasks(false));
     }
 
+    private static List<String> jvmArguments(JavaExec task) {
+        List<String> arguments = new ArrayList<>();
+        task.getJvmArgumentProviders().forEach(provider -> provider.asArguments().forEach(arguments::add));
+        return arguments;
+    }
+
     public Project getProject(Consumer<Project> configurer) {
         Project project = ProjectBuilder.builder().build();
         configurer.accept(project);
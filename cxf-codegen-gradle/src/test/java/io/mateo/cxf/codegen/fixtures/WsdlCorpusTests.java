@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.fixtures;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+
+class WsdlCorpusTests {
+
+    @TempDir
+    Path temp;
+
+    @Test
+    void writesOneWsdlPerServiceWithSchemasPerNamespaceAndSharedImport() throws IOException {
+        List<Path> wsdls = new WsdlCorpus().services(3).namespaces(2).sharedImports(2).write(this.temp);
+
+        assertThat(wsdls)
+                .map(wsdl -> wsdl.getFileName().toString())
+                .containsExactly("service0.wsdl", "service1.wsdl", "service2.wsdl");
+        try (Stream<Path> files = Files.list(this.temp)) {
+            assertThat(files.map(Path::getFileName).map(Path::toString))
+                    .containsExactlyInAnyOrder(
+                            "service0.wsdl",
+                            "service1.wsdl",
+                            "service2.wsdl",
+                            "ns0.xsd",
+                            "ns1.xsd",
+                            "common0.xsd",
+                            "common1.xsd");
+        }
+    }
+
+    @Test
+    void documentsAreWellFormedAndSized() throws Exception {
+        Path wsdl = new WsdlCorpus()
+                .portTypes(2)
+                .operations(3)
+                .complexTypes(4)
+                .depth(3)
+                .namespaces(2)
+                .write(this.temp)
+                .get(0);
+
+        Document service = parse(wsdl);
+        assertThat(service.getElementsByTagNameNS("http://schemas.xmlsoap.org/wsdl/", "portType").getLength())
+                .isEqualTo(2);
+        assertThat(service.getElementsByTagNameNS("http://schemas.xmlsoap.org/wsdl/", "message").getLength())
+                .isEqualTo(12);
+        Document schema = parse(this.temp.resolve("ns0.xsd"));
+        assertThat(schema.getElementsByTagNameNS("http://www.w3.org/2001/XMLSchema", "complexType").getLength())
+                .as("two named types with three levels of nested types each")
+                .isEqualTo(8);
+    }
+
+    @Test
+    void writingIsDeterministic() throws IOException {
+        WsdlCorpus corpus = WsdlCorpus.of("medium");
+        Path first = corpus.write(this.temp.resolve("first")).get(1);
+        Path second = corpus.write(this.temp.resolve("second")).get(1);
+
+        assertThat(first).hasSameTextualContentAs(second);
+        assertThat(this.temp.resolve("first/ns3.xsd")).hasSameTextualContentAs(this.temp.resolve("second/ns3.xsd"));
+    }
+
+    @Test
+    void unknownSize() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> WsdlCorpus.of("huge"))
+                .withMessage("Unknown corpus size 'huge'");
+    }
+
+    @Test
+    void invalidParameter() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new WsdlCorpus().operations(0))
+                .withMessage("'operations' must be at least 1 but was 0");
+    }
+
+    private static Document parse(Path file) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        return factory.newDocumentBuilder().parse(file.toFile());
+    }
+}
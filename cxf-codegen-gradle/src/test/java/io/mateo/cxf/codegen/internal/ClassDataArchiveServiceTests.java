@@ -0,0 +1,206 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.mateo.cxf.codegen.internal.ClassDataArchiveService.ArchiveFormat;
+import io.mateo.cxf.codegen.internal.ClassDataArchiveService.JavaRuntime;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ClassDataArchiveServiceTests {
+
+    private static final String TOOL_MAIN_CLASS = TrainingTool.class.getName();
+
+    @TempDir
+    Path temp;
+
+    private File cacheDirectory;
+
+    private File toolJar;
+
+    @BeforeEach
+    void createToolJar() throws IOException {
+        this.cacheDirectory = this.temp.resolve("cache").toFile();
+        this.toolJar = this.temp.resolve("tool.jar").toFile();
+        String entryName = TOOL_MAIN_CLASS.replace('.', '/') + ".class";
+        try (InputStream input = TrainingTool.class.getClassLoader().getResourceAsStream(entryName);
+                JarOutputStream output = new JarOutputStream(Files.newOutputStream(this.toolJar.toPath()))) {
+            output.putNextEntry(new JarEntry(entryName));
+            input.transferTo(output);
+            output.closeEntry();
+        }
+    }
+
+    @Test
+    void archiveIsCreatedByTrainingRunAndReused() {
+        List<String> first = jvmArguments(TOOL_MAIN_CLASS);
+
+        assertThat(first).singleElement().satisfies(argument -> {
+            File archive = new File(argument.substring(argument.indexOf('=') + 1));
+            assertThat(archive).isFile();
+            assertThat(new File(archive.getParentFile(), "training.log")).content().contains("Generated");
+        });
+        File archive = new File(first.get(0).substring(first.get(0).indexOf('=') + 1));
+        long lastModified = archive.lastModified();
+
+        assertThat(jvmArguments(TOOL_MAIN_CLASS)).isEqualTo(first);
+        assertThat(archive.lastModified()).isEqualTo(lastModified);
+    }
+
+    @Test
+    void failedTrainingRunIsNotRetried() {
+        assertThat(jvmArguments("com.example.Missing")).isEmpty();
+
+        File[] directories = this.cacheDirectory.listFiles();
+        assertThat(directories).hasSize(1);
+        File log = new File(directories[0], "training.log");
+        assertThat(new File(directories[0], "failed")).isFile();
+        assertThat(log.delete()).isTrue();
+
+        assertThat(jvmArguments("com.example.Missing")).isEmpty();
+        assertThat(log).doesNotExist();
+    }
+
+    @Test
+    void keyDependsOnRuntimeArgumentsMainClassAndClasspath() throws IOException {
+        JavaRuntime runtime = JavaRuntime.current();
+        List<File> classpath = List.of(this.toolJar);
+        String key = ClassDataArchiveService.key(runtime, List.of(), TOOL_MAIN_CLASS, classpath);
+
+        assertThat(ClassDataArchiveService.key(runtime, List.of(), TOOL_MAIN_CLASS, classpath))
+                .isEqualTo(key);
+        assertThat(ClassDataArchiveService.key(
+                        new JavaRuntime(runtime.executable(), runtime.featureVersion(), "other"),
+                        List.of(),
+                        TOOL_MAIN_CLASS,
+                        classpath))
+                .isNotEqualTo(key);
+        assertThat(ClassDataArchiveService.key(runtime, List.of("-Xmx1g"), TOOL_MAIN_CLASS, classpath))
+                .isNotEqualTo(key);
+        assertThat(ClassDataArchiveService.key(runtime, List.of(), "com.example.Other", classpath))
+                .isNotEqualTo(key);
+        try (OutputStream output = Files.newOutputStream(this.toolJar.toPath())) {
+            output.write(1);
+        }
+        assertThat(ClassDataArchiveService.key(runtime, List.of(), TOOL_MAIN_CLASS, classpath))
+                .isNotEqualTo(key);
+    }
+
+    @Test
+    void archiveFormatDependsOnFeatureVersion() {
+        assertThat(ArchiveFormat.of(11)).isNull();
+        assertThat(ArchiveFormat.of(17)).isEqualTo(ArchiveFormat.APP_CDS);
+        assertThat(ArchiveFormat.of(21)).isEqualTo(ArchiveFormat.APP_CDS);
+        assertThat(ArchiveFormat.of(25)).isEqualTo(ArchiveFormat.AOT_CACHE);
+        File archive = new File("tool.aot");
+        assertThat(ArchiveFormat.AOT_CACHE.dumpArgument(archive))
+                .isEqualTo("-XX:AOTCacheOutput=" + archive.getAbsolutePath());
+        assertThat(ArchiveFormat.AOT_CACHE.useArguments(archive))
+                .containsExactly("-XX:AOTCache=" + archive.getAbsolutePath());
+        assertThat(ArchiveFormat.APP_CDS.dumpArgument(archive))
+                .isEqualTo("-XX:ArchiveClassesAtExit=" + archive.getAbsolutePath());
+        assertThat(ArchiveFormat.APP_CDS.useArguments(archive))
+                .containsExactly("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+    }
+
+    @Test
+    void workerArchiveIsCreatedByWorkerProcesses() {
+        JavaRuntime runtime = new JavaRuntime(new File("java"), 21, "21.0.1");
+
+        List<String> arguments = workerJvmArguments(runtime, List.of("-Xmx512m"));
+
+        assertThat(arguments)
+                .hasSize(4)
+                .startsWith("-XX:+AutoCreateSharedArchive")
+                .contains("-Xlog:cds=off", "-Xlog:cds+dynamic=off");
+        File archive = new File(arguments.get(1).substring(arguments.get(1).indexOf('=') + 1));
+        assertThat(archive).hasName("worker.jsa").doesNotExist();
+        assertThat(archive.getParentFile()).isDirectory();
+        assertThat(workerJvmArguments(runtime, List.of("-Xmx512m"))).isEqualTo(arguments);
+        assertThat(workerJvmArguments(runtime, List.of("-Xmx1g"))).isNotEqualTo(arguments);
+    }
+
+    @Test
+    void workerArchiveRequiresJava19() {
+        assertThat(workerJvmArguments(new JavaRuntime(new File("java"), 17, "17.0.9"), List.of()))
+                .isEmpty();
+        assertThat(workerJvmArguments(null, List.of())).isEmpty();
+    }
+
+    @Test
+    void workerArchiveIsNotUsedWithConfiguredArchive() {
+        JavaRuntime runtime = new JavaRuntime(new File("java"), 21, "21.0.1");
+
+        assertThat(workerJvmArguments(runtime, List.of("-Xshare:off"))).isEmpty();
+        assertThat(workerJvmArguments(runtime, List.of("-XX:SharedArchiveFile=app.jsa")))
+                .isEmpty();
+    }
+
+    @Test
+    void runtimeIsReadFromReleaseFile() throws IOException {
+        Path javaHome = Files.createDirectories(this.temp.resolve("jdk/bin"));
+        File executable = javaHome.resolve("java").toFile();
+
+        assertThat(JavaRuntime.forExecutable(executable)).isNull();
+
+        Files.writeString(this.temp.resolve("jdk/release"), "JAVA_VERSION=\"21.0.1\"\n");
+        assertThat(JavaRuntime.forExecutable(executable)).isEqualTo(new JavaRuntime(executable, 21, "21.0.1"));
+
+        Files.writeString(
+                this.temp.resolve("jdk/release"),
+                "JAVA_VERSION=\"17.0.9\"\nJAVA_RUNTIME_VERSION=\"17.0.9+9\"\n");
+        assertThat(JavaRuntime.forExecutable(executable)).isEqualTo(new JavaRuntime(executable, 17, "17.0.9+9"));
+
+        Files.writeString(this.temp.resolve("jdk/release"), "JAVA_VERSION=\"1.8.0_392\"\n");
+        assertThat(JavaRuntime.forExecutable(executable)).isNull();
+    }
+
+    private List<String> workerJvmArguments(@Nullable JavaRuntime runtime, List<String> jvmArgs) {
+        return ClassDataArchiveService.workerJvmArguments(
+                this.cacheDirectory, runtime, jvmArgs, List.of(this.toolJar));
+    }
+
+    private List<String> jvmArguments(String mainClass) {
+        return ClassDataArchiveService.jvmArguments(
+                this.cacheDirectory, JavaRuntime.current(), List.of(), mainClass, List.of(this.toolJar));
+    }
+
+    /**
+     * Stands in for a code generation tool: parses the WSDL and creates the output directory.
+     */
+    public static final class TrainingTool {
+
+        public static void main(String[] args) throws Exception {
+            Files.createDirectories(Path.of(args[1]));
+            DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new File(args[2]));
+            System.out.println("Generated");
+        }
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.mateo.cxf.codegen.internal.ClassDataArchiveService.JavaRuntime;
+import io.mateo.cxf.codegen.internal.CodegenDaemonService.Limits;
+import io.mateo.cxf.codegen.internal.CodegenDaemonService.Request;
+import io.mateo.cxf.codegen.internal.CodegenDaemonService.Result;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CodegenDaemonServiceTests {
+
+    private static final Limits LIMITS = new Limits(Duration.ofSeconds(10), 100, 100);
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    @TempDir
+    Path temp;
+
+    private File daemonDirectory;
+
+    private File toolJar;
+
+    private final ByteArrayOutputStream standardOutput = new ByteArrayOutputStream();
+
+    private final ByteArrayOutputStream errorOutput = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void createToolJar() throws IOException {
+        this.daemonDirectory = this.temp.resolve("daemons").toFile();
+        this.toolJar = this.temp.resolve("tool.jar").toFile();
+        try (JarOutputStream output = new JarOutputStream(Files.newOutputStream(this.toolJar.toPath()))) {
+            for (Class<?> type : List.of(Tool.class, Tool.Context.class)) {
+                String entryName = type.getName().replace('.', '/') + ".class";
+                try (InputStream input = type.getClassLoader().getResourceAsStream(entryName)) {
+                    output.putNextEntry(new JarEntry(entryName));
+                    input.transferTo(output);
+                    output.closeEntry();
+                }
+            }
+        }
+    }
+
+    @Test
+    void daemonIsStartedAndReused() {
+        Result first = execute(LIMITS, "first");
+        Result second = execute(LIMITS, "second");
+
+        assertThat(first.exitValue()).isZero();
+        assertThat(first.invocation()).isOne();
+        assertThat(second.pid()).isEqualTo(first.pid());
+        assertThat(second.invocation()).isEqualTo(2);
+        assertThat(this.temp.resolve("first")).isDirectory();
+        assertThat(this.temp.resolve("second")).isDirectory();
+        assertThat(this.standardOutput.toString(StandardCharsets.UTF_8))
+                .contains("Generated first", "Generated second");
+    }
+
+    @Test
+    void daemonIsRecycledAfterMaxInvocations() {
+        Limits limits = new Limits(LIMITS.idleTimeout(), 1, LIMITS.maxHeapUsage());
+
+        Result first = execute(limits, "first");
+        Result second = execute(limits, "second");
+
+        assertThat(second.pid()).isNotEqualTo(first.pid());
+        assertThat(second.invocation()).isOne();
+    }
+
+    @Test
+    void idleDaemonStops() {
+        Result result = execute(new Limits(Duration.ofMillis(200), 100, 100), "first");
+
+        ProcessHandle.of(result.pid()).ifPresent(daemon -> daemon.onExit().join());
+        File[] directories = this.daemonDirectory.listFiles();
+        assertThat(directories).hasSize(1);
+        assertThat(directories[0].list()).isEmpty();
+    }
+
+    @Test
+    void failureIsReportedAndDaemonIsReused() {
+        Result failure = execute(LIMITS, "fail");
+        Result result = execute(LIMITS, "first");
+
+        assertThat(failure.exitValue()).isOne();
+        assertThat(failure.failure()).isEqualTo("Failed to generate");
+        assertThat(this.errorOutput.toString(StandardCharsets.UTF_8)).contains("IllegalStateException");
+        assertThat(result.exitValue()).isZero();
+        assertThat(result.pid()).isEqualTo(failure.pid());
+    }
+
+    @Test
+    void systemPropertiesAreRestoredAfterEachRequest() {
+        execute(LIMITS, "first");
+        execute(LIMITS, "second");
+
+        assertThat(this.standardOutput.toString(StandardCharsets.UTF_8))
+                .contains("Previous run: null")
+                .doesNotContain("Previous run: first");
+    }
+
+    @Test
+    void daemonIsRecycledWhenThreadsAreLeftRunning() {
+        Result leak = execute(LIMITS, "leak");
+        Result result = execute(LIMITS, "first");
+
+        assertThat(leak.exitValue()).isZero();
+        assertThat(result.pid()).isNotEqualTo(leak.pid());
+        assertThat(result.invocation()).isOne();
+        assertThat(this.standardOutput.toString(StandardCharsets.UTF_8)).doesNotContain("Leaked output");
+    }
+
+    @Test
+    void outputOfThreadsStartedByTheToolIsCaptured() {
+        execute(LIMITS, "fork");
+
+        assertThat(this.standardOutput.toString(StandardCharsets.UTF_8)).contains("Forked output");
+    }
+
+    @Test
+    void unresponsiveDaemonIsStopped() {
+        Result first = execute(LIMITS, "first");
+
+        Result result = CodegenDaemonService.execute(
+                this.daemonDirectory,
+                LIMITS,
+                Duration.ofMillis(500),
+                request("hang"),
+                this.standardOutput,
+                this.errorOutput);
+
+        assertThat(result).isNull();
+        assertThat(ProcessHandle.of(first.pid())).isEmpty();
+        assertThat(this.temp.resolve("hang")).doesNotExist();
+    }
+
+    @Test
+    void inheritedEnvironmentIsNotCustomized() {
+        Map<String, String> inherited = Map.of("PATH", "/usr/bin", "JAVA_MAIN_CLASS_42", "Launcher");
+
+        assertThat(CodegenDaemonService.customizesEnvironment(Map.of("PATH", "/usr/bin"), inherited))
+                .isFalse();
+    }
+
+    @Test
+    void changedAddedOrRemovedVariablesCustomizeEnvironment() {
+        Map<String, String> inherited = Map.of("PATH", "/usr/bin", "HOME", "/home/user");
+
+        assertThat(CodegenDaemonService.customizesEnvironment(
+                        Map.of("PATH", "/opt/bin", "HOME", "/home/user"), inherited))
+                .isTrue();
+        assertThat(CodegenDaemonService.customizesEnvironment(
+                        Map.of("PATH", "/usr/bin", "HOME", "/home/user", "LANG", "C"), inherited))
+                .isTrue();
+        assertThat(CodegenDaemonService.customizesEnvironment(Map.of("PATH", "/usr/bin"), inherited))
+                .isTrue();
+    }
+
+    @Test
+    void keyDependsOnExecutableArgumentsClasspathWorkingDirectoryAndEnvironment() throws IOException {
+        Request request = request("first");
+        String key = CodegenDaemonService.key(request);
+
+        assertThat(CodegenDaemonService.key(request("second"))).isEqualTo(key);
+        assertThat(CodegenDaemonService.key(new Request(
+                        "java",
+                        request.jvmArguments(),
+                        request.classpath(),
+                        request.workingDir(),
+                        request.environment(),
+                        request.mainClass(),
+                        request.arguments())))
+                .isNotEqualTo(key);
+        assertThat(CodegenDaemonService.key(new Request(
+                        request.executable(),
+                        List.of("-Xmx1g"),
+                        request.classpath(),
+                        request.workingDir(),
+                        request.environment(),
+                        request.mainClass(),
+                        request.arguments())))
+                .isNotEqualTo(key);
+        assertThat(CodegenDaemonService.key(new Request(
+                        request.executable(),
+                        request.jvmArguments(),
+                        request.classpath(),
+                        this.daemonDirectory,
+                        request.environment(),
+                        request.mainClass(),
+                        request.arguments())))
+                .isNotEqualTo(key);
+        assertThat(CodegenDaemonService.key(new Request(
+                        request.executable(),
+                        request.jvmArguments(),
+                        request.classpath(),
+                        request.workingDir(),
+                        Map.of("LANG", "C"),
+                        request.mainClass(),
+                        request.arguments())))
+                .isNotEqualTo(key);
+        Files.writeString(this.toolJar.toPath(), "changed");
+        assertThat(CodegenDaemonService.key(request)).isNotEqualTo(key);
+    }
+
+    private Result execute(Limits limits, String outputDirectory) {
+        Result result = CodegenDaemonService.execute(
+                this.daemonDirectory,
+                limits,
+                REQUEST_TIMEOUT,
+                request(outputDirectory),
+                this.standardOutput,
+                this.errorOutput);
+        assertThat(result).isNotNull();
+        return result;
+    }
+
+    private Request request(String outputDirectory) {
+        return new Request(
+                JavaRuntime.current().executable().getAbsolutePath(),
+                List.of("-Xmx64m"),
+                List.of(this.toolJar),
+                this.temp.toFile(),
+                System.getenv(),
+                Tool.class.getName(),
+                List.of(outputDirectory));
+    }
+
+    /**
+     * Stands in for a code generation tool: creates the output directory relative to the working directory.
+     */
+    public static final class Tool {
+
+        private final String outputDirectory;
+
+        public Tool(String[] args) {
+            this.outputDirectory = args[0];
+        }
+
+        public void run(Context context) throws IOException, InterruptedException {
+            if (this.outputDirectory.equals("fail")) {
+                throw new IllegalStateException("Failed to generate");
+            }
+            if (this.outputDirectory.equals("hang")) {
+                Thread.sleep(60_000);
+            }
+            if (this.outputDirectory.equals("leak")) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        Thread.sleep(3_000);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    System.out.println("Leaked output");
+                });
+                thread.start();
+            }
+            if (this.outputDirectory.equals("fork")) {
+                Thread thread = new Thread(() -> System.out.println("Forked output"));
+                thread.start();
+                thread.join();
+            }
+            System.out.println("Previous run: " + System.getProperty("tool.previousRun"));
+            System.setProperty("tool.previousRun", this.outputDirectory);
+            Files.createDirectories(Path.of(this.outputDirectory));
+            System.out.println("Generated " + this.outputDirectory);
+        }
+
+        /**
+         * Stands in for the tool context.
+         */
+        public static final class Context {}
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CodegenMetricsTests {
+
+    @TempDir
+    Path temp;
+
+    @Test
+    void generatedFilesAreCounted() {
+        Path output = this.temp.resolve("output");
+
+        CodegenMetrics.Execution execution =
+                CodegenMetrics.measure("calculator", output.toFile(), CodegenMetrics.Scope.THREAD, () -> {
+                    write(output.resolve("com/example/Foo.java"), "class Foo {}");
+                    write(output.resolve("com/example/Bar.java"), "class Bar {}");
+                });
+
+        assertThat(execution.name()).isEqualTo("calculator");
+        assertThat(execution.wallTimeMillis()).isNotNegative();
+        assertThat(execution.generatedFiles()).isEqualTo(2);
+        assertThat(execution.bytesWritten()).isEqualTo(24);
+        assertThat(execution.peakHeapBytes()).isEqualTo(-1);
+    }
+
+    @Test
+    void filesNotWrittenByTheExecutionAreNotCounted() throws IOException {
+        Path output = this.temp.resolve("output");
+        write(output.resolve("com/example/Other.java"), "class Other {}");
+        Files.setLastModifiedTime(
+                output.resolve("com/example/Other.java"), FileTime.from(Instant.parse("2020-01-01T00:00:00Z")));
+
+        CodegenMetrics.Execution execution =
+                CodegenMetrics.measure("calculator", output.toFile(), CodegenMetrics.Scope.THREAD, () -> {
+                    write(output.resolve("com/example/Foo.java"), "class Foo {}");
+                });
+
+        assertThat(execution.generatedFiles()).isEqualTo(1);
+        assertThat(execution.bytesWritten()).isEqualTo(12);
+    }
+
+    @Test
+    void filesRewrittenWithTheSameModificationTimeAreCounted() throws IOException {
+        Path output = this.temp.resolve("output");
+        Path foo = output.resolve("com/example/Foo.java");
+        write(foo, "class Foo {}");
+        FileTime lastModified = Files.getLastModifiedTime(foo);
+
+        CodegenMetrics.Execution execution =
+                CodegenMetrics.measure("calculator", output.toFile(), CodegenMetrics.Scope.THREAD, () -> {
+                    write(foo, "class Baz {}");
+                    setLastModifiedTime(foo, lastModified);
+                });
+
+        assertThat(execution.generatedFiles()).isEqualTo(1);
+        assertThat(execution.bytesWritten()).isEqualTo(12);
+    }
+
+    @Test
+    void missingOutputDirectoryHasNoGeneratedFiles() {
+        CodegenMetrics.Execution execution = CodegenMetrics.measure(
+                "calculator", this.temp.resolve("missing").toFile(), CodegenMetrics.Scope.PROCESS, () -> {});
+
+        assertThat(execution.generatedFiles()).isZero();
+        assertThat(execution.bytesWritten()).isZero();
+        assertThat(execution.peakHeapBytes()).isPositive();
+    }
+
+    @Test
+    void forkedExecutionHasNoCpuTimeOrPeakHeap() {
+        CodegenMetrics.Execution execution = CodegenMetrics.measure(
+                "wsdl2java", this.temp.toFile(), CodegenMetrics.Scope.FORKED, () -> {});
+
+        assertThat(execution.cpuTimeMillis()).isEqualTo(-1);
+        assertThat(execution.peakHeapBytes()).isEqualTo(-1);
+    }
+
+    @Test
+    void forkedExecutionIsCompletedWithTheMeasurementsOfTheAgent() {
+        Path metrics = this.temp.resolve("metrics.txt");
+        ForkedMetricsAgent.write(metrics);
+        CodegenMetrics.Execution execution = new CodegenMetrics.Execution("wsdl2java", 1200, -1, -1, 42, 65536);
+
+        CodegenMetrics.Execution forked = execution.withForkedMetrics(metrics.toFile());
+
+        assertThat(forked.wallTimeMillis()).isEqualTo(1200);
+        assertThat(forked.cpuTimeMillis()).isNotNegative();
+        assertThat(forked.peakHeapBytes()).isPositive();
+        assertThat(forked.generatedFiles()).isEqualTo(42);
+    }
+
+    @Test
+    void forkedExecutionWithoutMeasurementsIsUnchanged() {
+        Path metrics = this.temp.resolve("metrics.txt");
+        CodegenMetrics.Execution execution = new CodegenMetrics.Execution("wsdl2java", 1200, -1, -1, 42, 65536);
+
+        assertThat(execution.withForkedMetrics(metrics.toFile())).isEqualTo(execution);
+        write(metrics, "many");
+        assertThat(execution.withForkedMetrics(metrics.toFile())).isEqualTo(execution);
+    }
+
+    @Test
+    void lineRoundTrips() {
+        CodegenMetrics.Execution execution = new CodegenMetrics.Execution("calculator", 1200, 900, -1, 42, 65536);
+
+        assertThat(execution.toLine()).isEqualTo("1200 900 -1 42 65536");
+        assertThat(CodegenMetrics.Execution.parse("calculator", execution.toLine() + "\n"))
+                .isEqualTo(execution);
+    }
+
+    @Test
+    void malformedLinesAreIgnored() {
+        assertThat(CodegenMetrics.Execution.parse("calculator", "1200 900")).isNull();
+        assertThat(CodegenMetrics.Execution.parse("calculator", "1200 900 -1 42 many"))
+                .isNull();
+    }
+
+    private static void setLastModifiedTime(Path file, FileTime lastModified) {
+        try {
+            Files.setLastModifiedTime(file, lastModified);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void write(Path file, String content) {
+        try {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, content);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
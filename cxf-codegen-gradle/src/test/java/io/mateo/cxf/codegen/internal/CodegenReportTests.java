@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CodegenReportTests {
+
+    @TempDir
+    Path temp;
+
+    @Test
+    void executionsAreWrittenAsJson() {
+        CodegenReport.write(
+                this.temp.toFile(),
+                "wsdl2java",
+                ":wsdl2java",
+                "wsdl2java",
+                List.of(
+                        new CodegenMetrics.Execution("calculator", 1200, 900, 268435456, 42, 65536),
+                        new CodegenMetrics.Execution("forked", 3000, -1, -1, 7, 1024)));
+
+        assertThat(this.temp.resolve("wsdl2java.json"))
+                .hasContent("""
+                        {
+                          "task": ":wsdl2java",
+                          "tool": "wsdl2java",
+                          "executions": [
+                            {"name": "calculator", "wallTimeMillis": 1200, "cpuTimeMillis": 900, \
+                        "peakHeapBytes": 268435456, "generatedFiles": 42, "bytesWritten": 65536},
+                            {"name": "forked", "wallTimeMillis": 3000, "cpuTimeMillis": null, \
+                        "peakHeapBytes": null, "generatedFiles": 7, "bytesWritten": 1024}
+                          ]
+                        }
+                        """);
+    }
+
+    @Test
+    void pageIncludesReportsOfAllTasks() throws IOException {
+        CodegenReport.write(
+                this.temp.toFile(),
+                "wsdl2java",
+                ":wsdl2java",
+                "wsdl2java",
+                List.of(new CodegenMetrics.Execution("calculator", 1200, 900, 268435456, 42, 65536)));
+        CodegenReport.write(
+                this.temp.toFile(),
+                "wsdl2js",
+                ":wsdl2js",
+                "wsdl2js",
+                List.of(new CodegenMetrics.Execution("hello", 300, 250, 1048576, 3, 2048)));
+
+        assertThat(this.temp.resolve(CodegenReport.INDEX_FILE_NAME))
+                .content()
+                .contains("\"task\": \":wsdl2java\"", "\"task\": \":wsdl2js\"")
+                .doesNotContain("/*REPORTS*/");
+        assertThat(this.temp).isDirectoryNotContaining("glob:**.tmp");
+    }
+
+    @Test
+    void namesAreEscaped() {
+        assertThat(CodegenReport.json(
+                        ":wsdl2java",
+                        "wsdl2java",
+                        List.of(new CodegenMetrics.Execution("</script>\"", 1, 1, 1, 1, 1))))
+                .contains("\"name\": \"\\u003c/script>\\\"\"");
+    }
+}
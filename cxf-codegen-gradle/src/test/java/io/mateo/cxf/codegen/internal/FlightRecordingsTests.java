@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FlightRecordingsTests {
+
+    @TempDir
+    Path temp;
+
+    @Test
+    void jvmArgumentStartsRecordingDumpedOnExit() {
+        File recording = this.temp.resolve("calculator.jfr").toFile();
+
+        assertThat(FlightRecordings.jvmArgument(recording))
+                .isEqualTo("-XX:StartFlightRecording=settings=profile,dumponexit=true,filename="
+                        + recording.getAbsolutePath());
+    }
+
+    @Test
+    void generationIsRecorded() {
+        File recordings = this.temp.resolve("jfr").toFile();
+
+        FlightRecordings.record(recordings, "calculator", FlightRecordingsTests::allocate);
+
+        assertThat(new File(recordings, "calculator.jfr")).isNotEmpty();
+        assertThat(FlightRecordings.summarize(List.of(new File(recordings, "calculator.jfr"))))
+                .startsWith("Summary of 1 flight recording(s)")
+                .contains("Hot methods (", "Allocations (");
+    }
+
+    @Test
+    void failedGenerationIsRecorded() {
+        File recordings = this.temp.resolve("jfr").toFile();
+
+        assertThatIllegalStateException().isThrownBy(() -> FlightRecordings.record(recordings, "failed", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertThat(new File(recordings, "failed.jfr")).exists();
+    }
+
+    @Test
+    void generationRunsWithoutRecordingDirectory() {
+        List<String> runs = new ArrayList<>();
+
+        FlightRecordings.record(null, "calculator", () -> runs.add("calculator"));
+
+        assertThat(runs).containsExactly("calculator");
+    }
+
+    @Test
+    void previousRecordingIsDeleted() throws IOException {
+        Path previous = Files.createDirectories(this.temp.resolve("jfr")).resolve("wsdl2java.jfr");
+        Files.writeString(previous, "previous");
+
+        File recording = FlightRecordings.prepare(previous.getParent().toFile(), "wsdl2java");
+
+        assertThat(recording).isEqualTo(previous.toFile()).doesNotExist();
+    }
+
+    @Test
+    void missingRecordingsAreIgnored() {
+        assertThat(FlightRecordings.summarize(List.of(this.temp.resolve("missing.jfr").toFile())))
+                .isEqualTo("""
+                        Summary of 0 flight recording(s)
+                        Hot methods (0 execution samples)
+                          none recorded
+                        Allocations (0 MiB sampled)
+                          none recorded""");
+    }
+
+    private static void allocate() {
+        List<byte[]> allocations = new ArrayList<>();
+        long end = System.nanoTime() + 200_000_000L;
+        while (System.nanoTime() < end) {
+            allocations.add(new byte[1024]);
+            if (allocations.size() > 1024) {
+                allocations.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OutputSyncTests {
+
+    private static final FileTime PREVIOUS_BUILD = FileTime.from(Instant.parse("2020-01-01T00:00:00Z"));
+
+    @TempDir
+    Path temp;
+
+    @Test
+    void filesAreAddedToMissingOutputDirectory() throws IOException {
+        Path staging = this.temp.resolve("staging");
+        Path output = this.temp.resolve("output");
+        write(staging.resolve("com/example/Foo.java"), "class Foo {}");
+
+        OutputSync.Result result = OutputSync.sync(staging.toFile(), output.toFile(), manifest());
+
+        assertThat(result).isEqualTo(new OutputSync.Result(1, 0, 0, 0));
+        assertThat(output.resolve("com/example/Foo.java")).hasContent("class Foo {}");
+        assertThat(staging).doesNotExist();
+        assertThat(manifest()).hasContent("com/example/Foo.java");
+    }
+
+    @Test
+    void onlyChangedFilesAreWritten() throws IOException {
+        Path staging = this.temp.resolve("staging");
+        Path output = this.temp.resolve("output");
+        write(output.resolve("com/example/Unchanged.java"), "class Unchanged {}");
+        write(output.resolve("com/example/Modified.java"), "class Modified {}");
+        write(output.resolve("com/example/removed/Deleted.java"), "class Deleted {}");
+        writeManifest("com/example/Unchanged.java", "com/example/Modified.java", "com/example/removed/Deleted.java");
+        write(staging.resolve("com/example/Unchanged.java"), "class Unchanged {}");
+        write(staging.resolve("com/example/Modified.java"), "class Modified { int value; }");
+        write(staging.resolve("com/example/Added.java"), "class Added {}");
+
+        OutputSync.Result result = OutputSync.sync(staging.toFile(), output.toFile(), manifest());
+
+        assertThat(result).isEqualTo(new OutputSync.Result(1, 1, 1, 1));
+        assertThat(result).hasToString("1 added, 1 modified, 1 unchanged, 1 deleted");
+        assertThat(Files.getLastModifiedTime(output.resolve("com/example/Unchanged.java")))
+                .isEqualTo(PREVIOUS_BUILD);
+        assertThat(output.resolve("com/example/Modified.java")).hasContent("class Modified { int value; }");
+        assertThat(output.resolve("com/example/Added.java")).hasContent("class Added {}");
+        assertThat(output.resolve("com/example/removed")).doesNotExist();
+        assertThat(staging).doesNotExist();
+    }
+
+    @Test
+    void previousFilesAreDeletedWhenNothingIsStaged() throws IOException {
+        Path output = this.temp.resolve("output");
+        write(output.resolve("com/example/Foo.java"), "class Foo {}");
+        writeManifest("com/example/Foo.java");
+
+        OutputSync.Result result =
+                OutputSync.sync(this.temp.resolve("staging").toFile(), output.toFile(), manifest());
+
+        assertThat(result).isEqualTo(new OutputSync.Result(0, 0, 0, 1));
+        assertThat(output).isEmptyDirectory();
+        assertThat(manifest()).isEmpty();
+    }
+
+    @Test
+    void filesWrittenByOthersAreKept() throws IOException {
+        Path staging = this.temp.resolve("staging");
+        Path output = this.temp.resolve("output");
+        write(output.resolve("com/example/Foo.java"), "class Foo {}");
+        write(output.resolve("com/example/other/Bar.java"), "class Bar {}");
+        writeManifest("com/example/Foo.java");
+        write(staging.resolve("com/example/Foo.java"), "class Foo {}");
+
+        OutputSync.Result result = OutputSync.sync(staging.toFile(), output.toFile(), manifest());
+
+        assertThat(result).isEqualTo(new OutputSync.Result(0, 0, 1, 0));
+        assertThat(output.resolve("com/example/other/Bar.java")).hasContent("class Bar {}");
+    }
+
+    @Test
+    void resultsAreCombined() {
+        OutputSync.Result result = OutputSync.Result.NONE
+                .plus(new OutputSync.Result(1, 2, 3, 4))
+                .plus(new OutputSync.Result(4, 3, 2, 1));
+
+        assertThat(result).isEqualTo(new OutputSync.Result(5, 5, 5, 5));
+    }
+
+    private File manifest() {
+        return this.temp.resolve("output-manifest.txt").toFile();
+    }
+
+    private void writeManifest(String... files) throws IOException {
+        Files.write(manifest().toPath(), List.of(files));
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, PREVIOUS_BUILD);
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.gradle.api.GradleException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RemoteDocumentCacheTests {
+
+    private static final String WSDL = """
+            <definitions xmlns="http://schemas.xmlsoap.org/wsdl/" xmlns:xsd="http://www.w3.org/2001/XMLSchema">
+                <types>
+                    <xsd:schema>
+                        <xsd:import namespace="urn:types" schemaLocation="schemas/types.xsd"/>
+                    </xsd:schema>
+                </types>
+            </definitions>
+            """;
+
+    private static final String XSD = """
+            <schema xmlns="http://www.w3.org/2001/XMLSchema" targetNamespace="urn:types"/>
+            """;
+
+    @TempDir
+    Path cacheDir;
+
+    private final Map<String, String> documents = new ConcurrentHashMap<>();
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        this.documents.put("/service", WSDL);
+        this.documents.put("/schemas/types.xsd", XSD);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.createContext("/", this::handle);
+        this.server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        this.server.stop(0);
+    }
+
+    @Test
+    void remoteLocations() {
+        assertThat(RemoteDocumentCache.isRemote("https://example.com/service?wsdl"))
+                .isTrue();
+        assertThat(RemoteDocumentCache.isRemote("http://example.com/service?wsdl"))
+                .isTrue();
+        assertThat(RemoteDocumentCache.isRemote("file:/tmp/example.wsdl")).isFalse();
+        assertThat(RemoteDocumentCache.isRemote("src/main/wsdl/example.wsdl")).isFalse();
+    }
+
+    @Test
+    void importsAreRewrittenToLocalCopies() throws IOException {
+        File wsdl = new RemoteDocumentCache(this.cacheDir.toFile(), false).mirror(url("/service?wsdl"));
+
+        assertThat(wsdl).isFile().hasName("service.xml");
+        Matcher schemaLocation =
+                Pattern.compile("schemaLocation=\"([^\"]+)\"").matcher(Files.readString(wsdl.toPath()));
+        assertThat(schemaLocation.find()).isTrue();
+        assertThat(new File(URI.create(schemaLocation.group(1)))).hasName("types.xsd").hasContent(XSD);
+        assertThat(this.requests).containsExactly("GET /service", "GET /schemas/types.xsd");
+    }
+
+    @Test
+    void cachedCopiesAreRevalidated() {
+        File first = new RemoteDocumentCache(this.cacheDir.toFile(), false).mirror(url("/service?wsdl"));
+        this.requests.clear();
+
+        File second = new RemoteDocumentCache(this.cacheDir.toFile(), false).mirror(url("/service?wsdl"));
+
+        assertThat(second).isEqualTo(first);
+        assertThat(this.requests)
+                .containsExactly("GET /service If-None-Match=\"v1\"", "GET /schemas/types.xsd If-None-Match=\"v1\"");
+    }
+
+    @Test
+    void changedDocumentsAreUpdated() throws IOException {
+        File wsdl = new RemoteDocumentCache(this.cacheDir.toFile(), false).mirror(url("/service?wsdl"));
+        this.documents.put("/service", WSDL.replace("<types>", "<documentation>changed</documentation><types>"));
+
+        new RemoteDocumentCache(this.cacheDir.toFile(), false).mirror(url("/service?wsdl"));
+
+        assertThat(Files.readString(wsdl.toPath())).contains("changed");
+    }
+
+    @Test
+    void fingerprintChangesWhenAnImportedDocumentChanges() {
+        String fingerprint = new RemoteDocumentCache(this.cacheDir.toFile(), false).fingerprint(url("/service?wsdl"));
+
+        assertThat(new RemoteDocumentCache(this.cacheDir.toFile(), false).fingerprint(url("/service?wsdl")))
+                .isEqualTo(fingerprint);
+        this.documents.put("/schemas/types.xsd", XSD.replace("urn:types", "urn:changed"));
+        assertThat(new RemoteDocumentCache(this.cacheDir.toFile(), false).fingerprint(url("/service?wsdl")))
+                .isNotEqualTo(fingerprint);
+    }
+
+    @Test
+    void fingerprintOnlyCoversTheDocumentsOfItsLocation() {
+        RemoteDocumentCache cache = new RemoteDocumentCache(this.cacheDir.toFile(), false);
+        String fingerprint = cache.fingerprint(url("/schemas/types.xsd"));
+        cache.fingerprint(url("/service?wsdl"));
+
+        assertThat(cache.fingerprint(url("/schemas/types.xsd"))).isEqualTo(fingerprint);
+    }
+
+    @Test
+    void cachedCopyIsUsedWhenEndpointIsUnavailable() {
+        File first = new RemoteDocumentCache(this.cacheDir.toFile(), false).mirror(url("/service?wsdl"));
+        String location = url("/service?wsdl");
+        this.server.stop(0);
+
+        assertThat(new RemoteDocumentCache(this.cacheDir.toFile(), false).mirror(location))
+                .isEqualTo(first);
+    }
+
+    @Test
+    void offlineUsesCachedCopyWithoutRequests() {
+        File first = new RemoteDocumentCache(this.cacheDir.toFile(), false).mirror(url("/service?wsdl"));
+        this.requests.clear();
+
+        File offline = new RemoteDocumentCache(this.cacheDir.toFile(), true).mirror(url("/service?wsdl"));
+
+        assertThat(offline).isEqualTo(first);
+        assertThat(this.requests).isEmpty();
+    }
+
+    @Test
+    void offlineWithoutCachedCopyFails() {
+        String location = url("/service?wsdl");
+
+        assertThatExceptionOfType(GradleException.class)
+                .isThrownBy(() -> new RemoteDocumentCache(this.cacheDir.toFile(), true).mirror(location))
+                .withMessage("No cached copy of '" + location + "' is available in offline mode");
+    }
+
+    @Test
+    void missingDocumentWithoutCachedCopyFails() {
+        String location = url("/missing?wsdl");
+
+        assertThatExceptionOfType(GradleException.class)
+                .isThrownBy(() -> new RemoteDocumentCache(this.cacheDir.toFile(), false).mirror(location))
+                .withMessage("Unable to fetch '" + location + "': HTTP status 404");
+    }
+
+    private String url(String path) {
+        return "http://" + this.server.getAddress().getHostString() + ":"
+                + this.server.getAddress().getPort() + path;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        this.requests.add(exchange.getRequestMethod() + " " + path
+                + (ifNoneMatch != null ? " If-None-Match=" + ifNoneMatch : ""));
+        String document = this.documents.get(path);
+        if (document == null) {
+            exchange.sendResponseHeaders(404, -1);
+        } else {
+            String etag = document.equals(WSDL) || document.equals(XSD) ? "\"v1\"" : "\"v2\"";
+            if (etag.equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = document.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("ETag", etag);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+        }
+        exchange.close();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.mateo.cxf.codegen.internal.ClassDataArchiveService.JavaRuntime;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RuntimeImageServiceTests {
+
+    private static final String AVAILABLE_MODULES = """
+            java.base@21.0.1
+            java.compiler@21.0.1
+            java.se@21.0.1
+            java.xml@21.0.1
+            jdk.compiler@21.0.1
+            jdk.management@21.0.1
+            jdk.unsupported@21.0.1
+            jdk.zipfs@21.0.1
+            """;
+
+    @TempDir
+    Path temp;
+
+    private File cacheDirectory;
+
+    private File toolJar;
+
+    @BeforeEach
+    void createToolJar() throws IOException {
+        this.cacheDirectory = this.temp.resolve("cache").toFile();
+        this.toolJar = this.temp.resolve("tool.jar").toFile();
+        String entryName = Tool.class.getName().replace('.', '/') + ".class";
+        try (InputStream input = Tool.class.getClassLoader().getResourceAsStream(entryName);
+                JarOutputStream output = new JarOutputStream(Files.newOutputStream(this.toolJar.toPath()))) {
+            output.putNextEntry(new JarEntry(entryName));
+            input.transferTo(output);
+            output.closeEntry();
+        }
+    }
+
+    @Test
+    void imageIsLinkedAndReused() {
+        File executable = executable(JavaRuntime.current());
+
+        assertThat(executable).isFile();
+        File image = executable.getParentFile().getParentFile();
+        assertThat(new File(image, "release")).content().contains("java.base", "java.xml", "jdk.compiler");
+        assertThat(new File(image, "release")).content().doesNotContain("java.desktop", "jdk.jshell");
+        long lastModified = image.lastModified();
+
+        assertThat(executable(JavaRuntime.current())).isEqualTo(executable);
+        assertThat(image.lastModified()).isEqualTo(lastModified);
+    }
+
+    @Test
+    void failedLinkIsNotRetried() throws IOException {
+        Path bin = Files.createDirectories(this.temp.resolve("jre/bin"));
+        JavaRuntime runtime = new JavaRuntime(bin.resolve("java").toFile(), 21, "21.0.1");
+
+        assertThat(executable(runtime)).isNull();
+
+        File[] directories = this.cacheDirectory.listFiles();
+        assertThat(directories).hasSize(1);
+        File log = new File(directories[0], "link.log");
+        assertThat(log).content().contains("No jdeps or jlink tool");
+        assertThat(new File(directories[0], "failed")).isFile();
+        assertThat(log.delete()).isTrue();
+
+        assertThat(executable(runtime)).isNull();
+        assertThat(log).doesNotExist();
+    }
+
+    @Test
+    void modulesIncludeRequiredAndAvailableToolModules() {
+        assertThat(RuntimeImageService.modules("java.base,java.xml\n", AVAILABLE_MODULES, false))
+                .containsExactly("java.base", "java.xml", "jdk.compiler", "jdk.management", "jdk.zipfs");
+    }
+
+    @Test
+    void workerModulesIncludeGradleWorkerRuntimeModules() {
+        assertThat(RuntimeImageService.modules("java.logging", AVAILABLE_MODULES, true))
+                .containsExactly(
+                        "java.base",
+                        "java.logging",
+                        "java.se",
+                        "jdk.compiler",
+                        "jdk.management",
+                        "jdk.unsupported",
+                        "jdk.zipfs");
+    }
+
+    @Test
+    void keyDependsOnRuntimeClasspathAndPurpose() throws IOException {
+        JavaRuntime runtime = JavaRuntime.current();
+        List<File> classpath = List.of(this.toolJar);
+        String key = RuntimeImageService.key(runtime, classpath, false);
+
+        assertThat(RuntimeImageService.key(runtime, classpath, false)).isEqualTo(key);
+        assertThat(RuntimeImageService.key(
+                        new JavaRuntime(runtime.executable(), runtime.featureVersion(), "other"), classpath, false))
+                .isNotEqualTo(key);
+        assertThat(RuntimeImageService.key(runtime, classpath, true)).isNotEqualTo(key);
+        try (OutputStream output = Files.newOutputStream(this.toolJar.toPath())) {
+            output.write(1);
+        }
+        assertThat(RuntimeImageService.key(runtime, classpath, false)).isNotEqualTo(key);
+    }
+
+    private File executable(JavaRuntime runtime) {
+        return RuntimeImageService.executable(this.cacheDirectory, runtime, List.of(this.toolJar), false);
+    }
+
+    /**
+     * Stands in for a code generation tool that parses a WSDL.
+     */
+    public static final class Tool {
+
+        public static void main(String[] args) throws Exception {
+            DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new File(args[0]));
+        }
+    }
+}
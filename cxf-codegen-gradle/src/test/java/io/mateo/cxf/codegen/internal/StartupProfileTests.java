@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class StartupProfileTests {
+
+    private static final long MIB = 1024 * 1024;
+
+    @Test
+    void defaultJvmArguments() {
+        assertThat(StartupProfile.jvmArguments(List.of(), null, 100 * MIB, false))
+                .containsExactly("-XX:TieredStopAtLevel=1", "-XX:+UseSerialGC", "-Xmx256m");
+    }
+
+    @Test
+    void configuredJvmArgumentsTakePrecedence() {
+        List<String> jvmArguments = List.of("-XX:TieredStopAtLevel=4", "-XX:+UseG1GC", "-Xmx2g");
+
+        assertThat(StartupProfile.jvmArguments(jvmArguments, null, 100 * MIB, false)).isEmpty();
+    }
+
+    @Test
+    void bytecodeVerificationIsOnlySkippedWhenRequested() {
+        assertThat(StartupProfile.jvmArguments(List.of(), null, 100 * MIB, true))
+                .containsExactly(
+                        "-XX:TieredStopAtLevel=1", "-XX:+UseSerialGC", "-XX:-BytecodeVerificationRemote", "-Xmx256m");
+    }
+
+    @Test
+    void configuredBytecodeVerificationTakesPrecedence() {
+        List<String> jvmArguments = List.of("-XX:+BytecodeVerificationRemote");
+
+        assertThat(StartupProfile.jvmArguments(jvmArguments, null, 100 * MIB, true))
+                .doesNotContain("-XX:-BytecodeVerificationRemote");
+    }
+
+    @Test
+    void configuredMaxHeapSizeTakesPrecedence() {
+        assertThat(StartupProfile.jvmArguments(List.of(), "1g", 100 * MIB, false))
+                .noneMatch(argument -> argument.startsWith("-Xmx"));
+    }
+
+    @Test
+    void heapSizeIsRoundedUpToPowerOfTwo() {
+        assertThat(StartupProfile.heapSize(0)).isEqualTo(StartupProfile.MIN_HEAP_SIZE);
+        assertThat(StartupProfile.heapSize(256 * MIB)).isEqualTo(256 * MIB);
+        assertThat(StartupProfile.heapSize(257 * MIB)).isEqualTo(512 * MIB);
+        assertThat(StartupProfile.heapSize(1024 * MIB)).isEqualTo(1024 * MIB);
+        assertThat(StartupProfile.heapSize(1500 * MIB)).isEqualTo(2048 * MIB);
+    }
+}
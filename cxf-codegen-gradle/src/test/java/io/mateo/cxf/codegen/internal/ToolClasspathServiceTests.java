@@ -0,0 +1,203 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import io.mateo.cxf.codegen.CxfCodegenPlugin;
+import io.mateo.cxf.codegen.dsl.CxfCodegenExtension;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.ResolveException;
+import org.gradle.api.attributes.Usage;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ToolClasspathServiceTests {
+
+    @TempDir
+    Path projectDir;
+
+    private Project root;
+
+    private Project child;
+
+    private ToolClasspathService service;
+
+    @BeforeEach
+    void setUp() {
+        this.root = ProjectBuilder.builder().withProjectDir(this.projectDir.toFile()).build();
+        this.child = ProjectBuilder.builder().withName("child").withParent(this.root).build();
+        this.service = this.root
+                .getGradle()
+                .getSharedServices()
+                .registerIfAbsent(ToolClasspathService.NAME, ToolClasspathService.class)
+                .get();
+    }
+
+    @Test
+    void classpathIsResolvedOnceForSameDependencies() throws IOException {
+        File repository = repository("repository");
+        this.root.getRepositories().flatDir(flatDir -> flatDir.dir(repository));
+        this.child.getRepositories().flatDir(flatDir -> flatDir.dir(repository));
+        Configuration rootTool = toolConfiguration(this.root, "com.example:tool:1.0");
+        Configuration childTool = toolConfiguration(this.child, "com.example:tool:1.0");
+
+        Object classpath = this.service.classpath(rootTool, this.root.getRepositories());
+
+        assertThat(classpath)
+                .asInstanceOf(InstanceOfAssertFactories.collection(File.class))
+                .extracting(File::getName)
+                .containsExactly("tool-1.0.jar");
+        assertThat(this.service.classpath(childTool, this.child.getRepositories())).isSameAs(classpath);
+        assertThat(childTool.getState()).isEqualTo(Configuration.State.UNRESOLVED);
+    }
+
+    @Test
+    void classpathIsNotSharedWithOtherRepositories() throws IOException {
+        this.root.getRepositories().flatDir(flatDir -> flatDir.dir(repository("root")));
+        this.child.getRepositories().flatDir(flatDir -> flatDir.dir(repository("child")));
+        Configuration rootTool = toolConfiguration(this.root, "com.example:tool:1.0");
+        Configuration childTool = toolConfiguration(this.child, "com.example:tool:1.0");
+
+        Object classpath = this.service.classpath(rootTool, this.root.getRepositories());
+
+        assertThat(ToolClasspathService.key(childTool, this.child.getRepositories()))
+                .isNotEqualTo(ToolClasspathService.key(rootTool, this.root.getRepositories()));
+        assertThat(this.service.classpath(childTool, this.child.getRepositories())).isNotSameAs(classpath);
+        assertThat(childTool.getState()).isEqualTo(Configuration.State.RESOLVED);
+    }
+
+    @Test
+    void constraintsAndAttributesArePartOfKey() {
+        Configuration tool = toolConfiguration(this.root, "com.example:tool:1.0");
+        String key = ToolClasspathService.key(tool, this.root.getRepositories());
+
+        this.root.getDependencies().getConstraints().add(tool.getName(), "com.example:library:2.0");
+        String constrainedKey = ToolClasspathService.key(tool, this.root.getRepositories());
+        Usage runtime = this.root.getObjects().named(Usage.class, Usage.JAVA_RUNTIME);
+        tool.getAttributes().attribute(Usage.USAGE_ATTRIBUTE, runtime);
+
+        assertThat(constrainedKey).isNotNull().isNotEqualTo(key);
+        assertThat(ToolClasspathService.key(tool, this.root.getRepositories())).isNotEqualTo(constrainedKey);
+    }
+
+    @Test
+    void conflictResolutionIsPartOfKey() {
+        Configuration tool = toolConfiguration(this.root, "com.example:tool:1.0");
+        String key = ToolClasspathService.key(tool, this.root.getRepositories());
+
+        tool.getResolutionStrategy().failOnVersionConflict();
+
+        assertThat(ToolClasspathService.key(tool, this.root.getRepositories())).isNotNull().isNotEqualTo(key);
+    }
+
+    @Test
+    void forcedModulesAreNotShared() {
+        Configuration tool = toolConfiguration(this.root, "com.example:tool:1.0");
+
+        tool.getResolutionStrategy().force("com.example:library:2.0");
+
+        assertThat(ToolClasspathService.key(tool, this.root.getRepositories())).isNull();
+    }
+
+    @Test
+    void eachDependencyRulesAreNotShared() {
+        Configuration tool = toolConfiguration(this.root, "com.example:tool:1.0");
+
+        tool.getResolutionStrategy().eachDependency(details -> details.useVersion("2.0"));
+
+        assertThat(ToolClasspathService.key(tool, this.root.getRepositories())).isNull();
+    }
+
+    @Test
+    void dependencySubstitutionRulesAreNotShared() {
+        Configuration tool = toolConfiguration(this.root, "com.example:tool:1.0");
+
+        tool.getResolutionStrategy().dependencySubstitution(substitutions -> substitutions
+                .substitute(substitutions.module("com.example:tool"))
+                .using(substitutions.module("com.example:other:1.0")));
+
+        assertThat(ToolClasspathService.key(tool, this.root.getRepositories())).isNull();
+        assertThat(this.service.classpath(tool, this.root.getRepositories())).isSameAs(tool);
+    }
+
+    @Test
+    void componentSelectionRulesAreNotShared() {
+        Configuration tool = toolConfiguration(this.root, "com.example:tool:1.0");
+
+        tool.getResolutionStrategy().componentSelection(rules -> rules.all(selection -> {}));
+
+        assertThat(ToolClasspathService.key(tool, this.root.getRepositories())).isNull();
+    }
+
+    @Test
+    void failedResolutionIsNotShared() {
+        Configuration rootTool = toolConfiguration(this.root, "com.example:tool:1.0");
+        Configuration childTool = toolConfiguration(this.child, "com.example:tool:1.0");
+
+        assertThatExceptionOfType(ResolveException.class)
+                .isThrownBy(() -> this.service.classpath(rootTool, this.root.getRepositories()));
+        assertThatExceptionOfType(ResolveException.class)
+                .isThrownBy(() -> this.service.classpath(childTool, this.child.getRepositories()));
+        assertThat(childTool.getState()).isNotEqualTo(Configuration.State.UNRESOLVED);
+    }
+
+    @Test
+    void fileDependenciesAreNotShared() {
+        Configuration tool = toolConfiguration(this.root, this.root.files("tool.jar"));
+
+        assertThat(ToolClasspathService.key(tool, this.root.getRepositories())).isNull();
+        assertThat(this.service.classpath(tool, this.root.getRepositories())).isSameAs(tool);
+    }
+
+    @Test
+    void defaultDependenciesAreKeyedByCxfVersion() {
+        this.root.getPluginManager().apply(CxfCodegenPlugin.class);
+        this.child.getPluginManager().apply(CxfCodegenPlugin.class);
+        Configuration rootTool = this.root.getConfigurations().getByName("cxfCodegen");
+        Configuration childTool = this.child.getConfigurations().getByName("cxfCodegen");
+
+        assertThat(ToolClasspathService.key(rootTool, this.root.getRepositories()))
+                .isNotNull()
+                .isEqualTo(ToolClasspathService.key(childTool, this.child.getRepositories()));
+
+        this.child.getExtensions().getByType(CxfCodegenExtension.class).getCxfVersion().set("4.0.0");
+
+        assertThat(ToolClasspathService.key(rootTool, this.root.getRepositories()))
+                .isNotEqualTo(ToolClasspathService.key(childTool, this.child.getRepositories()));
+    }
+
+    private File repository(String name) throws IOException {
+        Path repository = Files.createDirectories(this.projectDir.resolve(name));
+        Files.createFile(repository.resolve("tool-1.0.jar"));
+        return repository.toFile();
+    }
+
+    private static Configuration toolConfiguration(Project project, Object dependency) {
+        Configuration configuration = project.getConfigurations().create("tool");
+        project.getDependencies().add(configuration.getName(), dependency);
+        return configuration;
+    }
+}
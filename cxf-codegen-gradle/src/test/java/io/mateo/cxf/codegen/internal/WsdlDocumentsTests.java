@@ -0,0 +1,156 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.gradle.api.file.Directory;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WsdlDocumentsTests {
+
+    @TempDir
+    Path projectDir;
+
+    private Directory projectDirectory;
+
+    @BeforeEach
+    void setUp() {
+        this.projectDirectory = ProjectBuilder.builder()
+                .withProjectDir(this.projectDir.toFile())
+                .build()
+                .getLayout()
+                .getProjectDirectory();
+    }
+
+    @Test
+    void fileUriIsLocal() throws IOException {
+        File wsdl = write("example.wsdl", "<definitions/>");
+
+        assertThat(WsdlDocuments.toLocalFile(this.projectDirectory, wsdl.toURI().toString()))
+                .isEqualTo(wsdl);
+    }
+
+    @Test
+    void remoteWsdlHasNoDocuments() {
+        assertThat(WsdlDocuments.discover(this.projectDirectory, "https://example.com/example?wsdl"))
+                .isEmpty();
+    }
+
+    @Test
+    void importedAndIncludedSchemasAreDiscovered() throws IOException {
+        File wsdl = write("example.wsdl", """
+                <wsdl:definitions xmlns:wsdl="http://schemas.xmlsoap.org/wsdl/"
+                        xmlns:xsd="http://www.w3.org/2001/XMLSchema">
+                    <wsdl:import namespace="urn:other" location="other.wsdl"/>
+                    <wsdl:types>
+                        <xsd:schema>
+                            <xsd:import namespace="urn:types" schemaLocation="schemas/types.xsd"/>
+                        </xsd:schema>
+                    </wsdl:types>
+                </wsdl:definitions>
+                """);
+        File other = write("other.wsdl", """
+                <definitions xmlns="http://schemas.xmlsoap.org/wsdl/"/>
+                """);
+        File types = write("schemas/types.xsd", """
+                <schema xmlns="http://www.w3.org/2001/XMLSchema">
+                    <include schemaLocation="common/common.xsd"/>
+                </schema>
+                """);
+        File common = write("schemas/common/common.xsd", """
+                <schema xmlns="http://www.w3.org/2001/XMLSchema">
+                    <redefine schemaLocation="../base.xsd"/>
+                </schema>
+                """);
+        File base = write("schemas/base.xsd", """
+                <schema xmlns="http://www.w3.org/2001/XMLSchema"/>
+                """);
+
+        assertThat(WsdlDocuments.discover(this.projectDirectory, "example.wsdl"))
+                .containsExactly(wsdl, other, types, common, base);
+    }
+
+    @Test
+    void remoteReferencesAreNotFollowed() throws IOException {
+        File wsdl = write("example.wsdl", """
+                <definitions xmlns="http://schemas.xmlsoap.org/wsdl/">
+                    <import namespace="urn:remote" location="https://example.com/remote.wsdl"/>
+                </definitions>
+                """);
+
+        assertThat(WsdlDocuments.discover(this.projectDirectory, "example.wsdl"))
+                .containsExactly(wsdl);
+    }
+
+    @Test
+    void missingReferencesAreIncluded() throws IOException {
+        File wsdl = write("example.wsdl", """
+                <definitions xmlns="http://schemas.xmlsoap.org/wsdl/"
+                        xmlns:xsd="http://www.w3.org/2001/XMLSchema">
+                    <types>
+                        <xsd:schema>
+                            <xsd:include schemaLocation="missing.xsd"/>
+                        </xsd:schema>
+                    </types>
+                </definitions>
+                """);
+
+        assertThat(WsdlDocuments.discover(this.projectDirectory, "example.wsdl"))
+                .containsExactly(wsdl, this.projectDir.resolve("missing.xsd").toFile());
+    }
+
+    @Test
+    void cyclicReferencesAreDiscoveredOnce() throws IOException {
+        File wsdl = write("example.wsdl", """
+                <definitions xmlns="http://schemas.xmlsoap.org/wsdl/"
+                        xmlns:xsd="http://www.w3.org/2001/XMLSchema">
+                    <types>
+                        <xsd:schema>
+                            <xsd:import schemaLocation="a.xsd"/>
+                        </xsd:schema>
+                    </types>
+                </definitions>
+                """);
+        File a = write("a.xsd", """
+                <schema xmlns="http://www.w3.org/2001/XMLSchema">
+                    <import schemaLocation="b.xsd"/>
+                </schema>
+                """);
+        File b = write("b.xsd", """
+                <schema xmlns="http://www.w3.org/2001/XMLSchema">
+                    <import schemaLocation="a.xsd"/>
+                </schema>
+                """);
+
+        assertThat(WsdlDocuments.discover(this.projectDirectory, "example.wsdl"))
+                .containsExactly(wsdl, a, b);
+    }
+
+    private File write(String path, String content) throws IOException {
+        Path file = this.projectDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+        return file.toFile();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.mateo.cxf.codegen.CodegenConcurrencyService;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.gradle.api.Action;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+import org.gradle.workers.WorkQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AdmittedWorkQueueTests {
+
+    @TempDir
+    Path temporaryDir;
+
+    private Project project;
+
+    private CodegenConcurrencyService service;
+
+    private RecordingWorkQueue workQueue;
+
+    @BeforeEach
+    void setUp() {
+        this.project = ProjectBuilder.builder().build();
+        this.service = this.project
+                .getGradle()
+                .getSharedServices()
+                .registerIfAbsent(CodegenConcurrencyService.NAME, CodegenConcurrencyService.class, spec -> spec
+                        .getParameters()
+                        .getMaxConcurrentTools()
+                        .set(1))
+                .get();
+        this.workQueue = new RecordingWorkQueue();
+    }
+
+    @Test
+    void leaseIsReleasedOnceItsWorkCompleted() throws Exception {
+        AdmittedWorkQueue queue = admittedWorkQueue();
+        queue.submit(List.of(), Wsdl2JavaAction.class, params -> {});
+
+        CompletableFuture<CodegenConcurrencyService.Lease> other =
+                CompletableFuture.supplyAsync(() -> this.service.acquire(":other", 1));
+        Thread.sleep(300);
+        assertThat(other).isNotDone();
+        AdmittedWorkQueue.completed(this.workQueue.parameters.get(0));
+
+        other.get(10, TimeUnit.SECONDS).close();
+        assertThat(this.workQueue.awaited).isZero();
+    }
+
+    @Test
+    void submittedWorkIsAwaitedWhenNoLeaseCanBeGranted() {
+        AdmittedWorkQueue queue = admittedWorkQueue();
+        queue.submit(List.of(), Wsdl2JavaAction.class, params -> {});
+        queue.submit(List.of(), Wsdl2JavaAction.class, params -> {});
+        queue.await();
+
+        assertThat(this.workQueue.parameters).hasSize(2);
+        assertThat(this.workQueue.awaited).isEqualTo(2);
+        assertThat(this.service.tryAcquire(1)).isNotNull();
+    }
+
+    @Test
+    void workIsNotMarkedWithoutService() {
+        AdmittedWorkQueue queue =
+                new AdmittedWorkQueue(this.workQueue, null, ":test", option -> 1, this.temporaryDir.toFile());
+        queue.submit(List.of(), Wsdl2JavaAction.class, params -> {});
+
+        assertThat(this.workQueue.parameters.get(0).getCompletionMarker().isPresent()).isFalse();
+    }
+
+    private AdmittedWorkQueue admittedWorkQueue() {
+        return new AdmittedWorkQueue(this.workQueue, this.service, ":test", option -> 1, this.temporaryDir.toFile());
+    }
+
+    private final class RecordingWorkQueue implements WorkQueue {
+
+        private final List<CodegenParameters> parameters = new ArrayList<>();
+
+        private int awaited;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T extends WorkParameters> void submit(
+                Class<? extends WorkAction<T>> workActionClass, Action<? super T> parameterAction) {
+            CodegenParameters params =
+                    AdmittedWorkQueueTests.this.project.getObjects().newInstance(CodegenParameters.class);
+            parameterAction.execute((T) params);
+            this.parameters.add(params);
+        }
+
+        @Override
+        public void await() {
+            this.awaited++;
+        }
+    }
+}
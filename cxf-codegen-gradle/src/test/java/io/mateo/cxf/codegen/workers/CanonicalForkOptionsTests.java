@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import org.gradle.api.Project;
+import org.gradle.api.tasks.JavaExec;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+
+class CanonicalForkOptionsTests {
+
+    @Test
+    void jvmArgumentsAreDeduplicatedAndSorted() {
+        List<String> arguments = CanonicalForkOptions.jvmArguments(List.of(
+                "-XX:+UseSerialGC",
+                "-Xss1m",
+                "-ea",
+                "--add-opens",
+                "java.base/java.lang=ALL-UNNAMED",
+                "-XX:-UseSerialGC",
+                "-ea",
+                "-Xss2m"));
+
+        assertThat(arguments)
+                .containsExactly(
+                        "--add-opens", "java.base/java.lang=ALL-UNNAMED", "-XX:-UseSerialGC", "-Xss2m", "-ea");
+    }
+
+    @Test
+    void repeatedOptionsWithSeparateValuesAreKept() {
+        List<String> arguments = CanonicalForkOptions.jvmArguments(List.of(
+                "--add-opens", "java.base/java.util=ALL-UNNAMED", "--add-opens", "java.base/java.lang=ALL-UNNAMED"));
+
+        assertThat(arguments)
+                .containsExactly(
+                        "--add-opens",
+                        "java.base/java.lang=ALL-UNNAMED",
+                        "--add-opens",
+                        "java.base/java.util=ALL-UNNAMED");
+    }
+
+    @Test
+    void maxHeapSizeIsRoundedUpToPowerOfTwo() {
+        assertThat(CanonicalForkOptions.maxHeapSize(null)).isNull();
+        assertThat(CanonicalForkOptions.maxHeapSize("128m")).isEqualTo("128m");
+        assertThat(CanonicalForkOptions.maxHeapSize("300m")).isEqualTo("512m");
+        assertThat(CanonicalForkOptions.maxHeapSize("1g")).isEqualTo("1024m");
+        assertThat(CanonicalForkOptions.maxHeapSize("1500M")).isEqualTo("2048m");
+    }
+
+    @Test
+    void equivalentForkOptionsBecomeEqual() {
+        Project project = ProjectBuilder.builder().build();
+        JavaExec first = project.getTasks().register("first", JavaExec.class).get();
+        first.jvmArgs("-XX:+UseSerialGC", "-Dtool.mode=fast", "-Xmx300m", "-ea");
+        JavaExec second = project.getTasks().register("second", JavaExec.class).get();
+        second.jvmArgs("-ea", "-XX:+UseSerialGC", "-ea");
+        second.systemProperty("tool.mode", "fast");
+        second.setMaxHeapSize("400m");
+
+        CanonicalForkOptions.apply(first);
+        CanonicalForkOptions.apply(second);
+
+        assertThat(first.getJvmArgs()).isEqualTo(second.getJvmArgs()).containsExactly("-XX:+UseSerialGC", "-ea");
+        assertThat(first.getSystemProperties())
+                .isEqualTo(second.getSystemProperties())
+                .isEqualTo(Map.of("tool.mode", "fast"));
+        assertThat(first.getMaxHeapSize()).isEqualTo(second.getMaxHeapSize()).isEqualTo("512m");
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CodegenPlanTests {
+
+    @TempDir
+    Path projectDir;
+
+    private Project project;
+
+    private File store;
+
+    @BeforeEach
+    void setUp() {
+        this.project =
+                ProjectBuilder.builder().withProjectDir(this.projectDir.toFile()).build();
+        this.store = this.projectDir.resolve("fingerprints.txt").toFile();
+    }
+
+    @Test
+    void upToDateGroupsAreSkipped() throws IOException {
+        Wsdl2JavaOption first = option("first");
+        Wsdl2JavaOption second = option("second");
+        record(Map.of(first, "a", second, "b"));
+
+        CodegenPlan<Wsdl2JavaOption> plan = CodegenPlan.create(
+                List.of(List.of(first), List.of(second)),
+                Map.of(first, "a", second, "changed"),
+                OptionFingerprints.load(this.store),
+                false);
+
+        assertThat(plan.groups()).containsExactly(List.of(second));
+        assertThat(plan.inputFingerprints()).containsExactly(Map.entry(second, "changed"));
+    }
+
+    @Test
+    void groupIsPlannedAsAWhole() throws IOException {
+        Wsdl2JavaOption first = option("first");
+        Wsdl2JavaOption second = option("second");
+        record(Map.of(first, "a", second, "b"));
+
+        CodegenPlan<Wsdl2JavaOption> plan = CodegenPlan.create(
+                List.of(List.of(first, second)),
+                Map.of(first, "a", second, "changed"),
+                OptionFingerprints.load(this.store),
+                false);
+
+        assertThat(plan.groups()).containsExactly(List.of(first, second));
+        assertThat(plan.options()).containsExactly(first, second);
+    }
+
+    @Test
+    void plannedOptionsAreForgottenBeforeGenerating() throws IOException {
+        Wsdl2JavaOption first = option("first");
+        record(Map.of(first, "a"));
+
+        CodegenPlan.create(
+                List.of(List.of(first)), Map.of(first, "changed"), OptionFingerprints.load(this.store), false);
+
+        assertThat(OptionFingerprints.load(this.store).isUpToDate(first, "a")).isFalse();
+    }
+
+    @Test
+    void regenerateAllPlansUpToDateOptions() throws IOException {
+        Wsdl2JavaOption first = option("first");
+        record(Map.of(first, "a"));
+
+        CodegenPlan<Wsdl2JavaOption> plan = CodegenPlan.create(
+                List.of(List.of(first)), Map.of(first, "a"), OptionFingerprints.load(this.store), true);
+
+        assertThat(plan.isEmpty()).isFalse();
+        assertThat(plan.options()).containsExactly(first);
+    }
+
+    private Wsdl2JavaOption option(String name) throws IOException {
+        Wsdl2JavaOption option = this.project.getObjects().newInstance(Wsdl2JavaOption.class, name);
+        Path output = Files.createDirectories(this.projectDir.resolve(name));
+        Files.writeString(output.resolve("Example.java"), "class Example {}");
+        option.getOutputDirectory().set(output.toFile());
+        return option;
+    }
+
+    private void record(Map<Wsdl2JavaOption, String> inputFingerprints) {
+        OptionFingerprints fingerprints = OptionFingerprints.load(this.store);
+        inputFingerprints.forEach(fingerprints::record);
+        fingerprints.store();
+    }
+}
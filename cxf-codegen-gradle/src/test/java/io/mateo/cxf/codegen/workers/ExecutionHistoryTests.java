@@ -0,0 +1,209 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import io.mateo.cxf.codegen.CodegenConcurrencyService;
+import io.mateo.cxf.codegen.internal.CodegenMetrics;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.gradle.api.Project;
+import org.gradle.api.file.Directory;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ExecutionHistoryTests {
+
+    @TempDir
+    Path projectDir;
+
+    private Project project;
+
+    private File store;
+
+    @BeforeEach
+    void setUp() {
+        this.project =
+                ProjectBuilder.builder().withProjectDir(this.projectDir.toFile()).build();
+        this.store = this.projectDir.resolve("execution-history.txt").toFile();
+    }
+
+    @Test
+    void declarationOrderIsKeptWithoutFile() throws IOException {
+        List<Wsdl2JavaOption> options = List.of(option("small", 10), option("large", 1000));
+
+        assertThat(ExecutionHistory.load(null).longestFirst(options)).containsExactlyElementsOf(options);
+    }
+
+    @Test
+    void recordedOptionsAreOrderedLongestFirst() throws IOException {
+        Files.writeString(this.store.toPath(), "100 0 first\n5000 0 second\n300 0 third\n");
+        List<Wsdl2JavaOption> options = List.of(option("first", 10), option("second", 10), option("third", 10));
+
+        assertThat(names(ExecutionHistory.load(this.store).longestFirst(options)))
+                .containsExactly("second", "third", "first");
+    }
+
+    @Test
+    void optionsWithoutHistoryAreEstimatedFromDocumentSize() throws IOException {
+        Files.writeString(this.store.toPath(), "1000 0 recorded\n100 0 quick\n");
+        List<Wsdl2JavaOption> options =
+                List.of(option("quick", 100), option("recorded", 1000), option("new", 5000), option("tiny", 1));
+
+        assertThat(names(ExecutionHistory.load(this.store).longestFirst(options)))
+                .containsExactly("new", "recorded", "quick", "tiny");
+    }
+
+    @Test
+    void unreadableEntriesAreIgnored() throws IOException {
+        Files.writeString(this.store.toPath(), "garbage\nabc 0 first\n200 0 second\n");
+        List<Wsdl2JavaOption> options = List.of(option("first", 10), option("second", 10));
+
+        assertThat(names(ExecutionHistory.load(this.store).longestFirst(options)))
+                .containsExactly("second", "first");
+    }
+
+    @Test
+    void measuredExecutionIsRecorded() throws IOException {
+        Wsdl2JavaOption option = option("measured", 10);
+        Directory records = this.project.getLayout().getProjectDirectory().dir("records");
+        File outputDir = this.projectDir.resolve("generated").toFile();
+        ExecutionHistory.measure(option, outputDir, records, CodegenMetrics.Scope.PROCESS, () -> {
+            byte[][] allocations = new byte[16][];
+            for (int i = 0; i < allocations.length; i++) {
+                allocations[i] = new byte[1024 * 1024];
+            }
+            write(new File(outputDir, "Measured.java"), "class Measured {}");
+        });
+        ExecutionHistory history = ExecutionHistory.load(this.store);
+        List<CodegenMetrics.Execution> executions = history.collect(records.getAsFile());
+        history.store();
+
+        assertThat(executions).singleElement().satisfies(execution -> {
+            assertThat(execution.name()).isEqualTo("measured");
+            assertThat(execution.peakHeapBytes()).isGreaterThan(0);
+            assertThat(execution.generatedFiles()).isEqualTo(1);
+            assertThat(execution.bytesWritten()).isEqualTo(17);
+        });
+        assertThat(this.store).content().matches("\\d+ [1-9]\\d* measured\\R?");
+        assertThat(ExecutionHistory.load(this.store).expectedMemory(option)).isGreaterThan(0);
+    }
+
+    @Test
+    void invocationExecutionIsDividedAmongItsOptions() throws IOException {
+        Wsdl2JavaOption first = option("first", 10);
+        Wsdl2JavaOption second = option("second", 10);
+        Directory records = this.project.getLayout().getProjectDirectory().dir("records");
+        Files.createDirectories(records.getAsFile().toPath());
+        Files.writeString(records.file("first.txt").getAsFile().toPath(), "101 -1 4096 3 30");
+        ExecutionHistory history = ExecutionHistory.load(this.store);
+
+        List<CodegenMetrics.Execution> executions =
+                history.collect(records.getAsFile(), List.of(List.of(first, second)));
+        history.store();
+
+        assertThat(executions)
+                .containsExactly(
+                        new CodegenMetrics.Execution("first", 51, -1, 4096, 2, 15),
+                        new CodegenMetrics.Execution("second", 50, -1, 4096, 1, 15));
+        assertThat(Files.readAllLines(this.store.toPath())).containsExactly("51 4096 first", "50 4096 second");
+    }
+
+    @Test
+    void failedExecutionIsNotRecorded() throws IOException {
+        Wsdl2JavaOption option = option("failed", 10);
+        Directory records = this.project.getLayout().getProjectDirectory().dir("records");
+
+        File outputDir = this.projectDir.resolve("generated").toFile();
+
+        assertThatIllegalStateException()
+                .isThrownBy(() ->
+                        ExecutionHistory.measure(option, outputDir, records, CodegenMetrics.Scope.PROCESS, () -> {
+                            throw new IllegalStateException("boom");
+                        }));
+        assertThat(records.file("failed.txt").getAsFile()).doesNotExist();
+    }
+
+    @Test
+    void expectedMemoryIsEstimatedWithoutRecordedPeak() throws IOException {
+        Files.writeString(this.store.toPath(), "100 0 option\n");
+        Wsdl2JavaOption option = option("option", 10);
+
+        assertThat(ExecutionHistory.load(this.store).expectedMemory(option))
+                .isEqualTo(CodegenConcurrencyService.expectedMemory(
+                        option.getSourceDocuments().getFiles()));
+    }
+
+    @Test
+    void longestFirstLowersMakespanOnSkewedCorpus() throws IOException {
+        // Seven quick WSDLs and a large one declared last, generated by four workers.
+        Map<String, Long> durations = Map.of(
+                "a", 10L, "b", 12L, "c", 9L, "d", 11L, "e", 10L, "f", 8L, "g", 10L, "large", 60L);
+        List<Wsdl2JavaOption> options = new ArrayList<>();
+        StringBuilder history = new StringBuilder();
+        for (String name : List.of("a", "b", "c", "d", "e", "f", "g", "large")) {
+            options.add(option(name, 10));
+            history.append(durations.get(name)).append(" 0 ").append(name).append('\n');
+        }
+        Files.writeString(this.store.toPath(), history);
+
+        long declarationOrder = makespan(options, durations, 4);
+        long longestFirst = makespan(ExecutionHistory.load(this.store).longestFirst(options), durations, 4);
+
+        assertThat(declarationOrder).isEqualTo(72);
+        assertThat(longestFirst).isEqualTo(60);
+    }
+
+    private static long makespan(List<Wsdl2JavaOption> options, Map<String, Long> durations, int workers) {
+        long[] available = new long[workers];
+        for (Wsdl2JavaOption option : options) {
+            Arrays.sort(available);
+            available[0] += durations.get(option.getName());
+        }
+        return Arrays.stream(available).max().orElse(0);
+    }
+
+    private Wsdl2JavaOption option(String name, int size) throws IOException {
+        Path wsdl = Files.write(this.projectDir.resolve(name + ".wsdl"), new byte[size]);
+        Wsdl2JavaOption option = this.project.getObjects().newInstance(Wsdl2JavaOption.class, name);
+        option.getSourceDocuments().from(wsdl.toFile());
+        return option;
+    }
+
+    private static List<String> names(List<? extends Option> options) {
+        return options.stream().map(Option::getName).toList();
+    }
+
+    private static void write(File file, String content) {
+        try {
+            Files.createDirectories(file.toPath().getParent());
+            Files.writeString(file.toPath(), content);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.gradle.api.Project;
+import org.gradle.api.file.Directory;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OptionFingerprintsTests {
+
+    @TempDir
+    Path projectDir;
+
+    private Project project;
+
+    private Directory projectDirectory;
+
+    private Wsdl2JavaOption option;
+
+    private File store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.project =
+                ProjectBuilder.builder().withProjectDir(this.projectDir.toFile()).build();
+        this.projectDirectory = this.project.getLayout().getProjectDirectory();
+        this.option = this.project.getObjects().newInstance(Wsdl2JavaOption.class, "test");
+        this.option.getOutputDirectory().set(this.projectDir.resolve("out").toFile());
+        Files.writeString(this.projectDir.resolve("example.wsdl"), "<definitions/>");
+        this.store = this.projectDir.resolve("fingerprints.txt").toFile();
+    }
+
+    @Test
+    void remoteWsdlIsNeverUpToDate() {
+        String fingerprint =
+                fingerprint(List.of("https://example.com/example?wsdl"), "https://example.com/example?wsdl");
+
+        assertThat(fingerprint).isNull();
+        assertThat(OptionFingerprints.load(this.store).isUpToDate(this.option, fingerprint))
+                .isFalse();
+    }
+
+    @Test
+    void recordedOptionIsUpToDate() throws IOException {
+        String fingerprint = fingerprint(List.of("example.wsdl"), "example.wsdl");
+        generateOutput();
+        OptionFingerprints fingerprints = OptionFingerprints.load(this.store);
+        fingerprints.record(this.option, fingerprint);
+        fingerprints.store();
+
+        assertThat(OptionFingerprints.load(this.store).isUpToDate(this.option, fingerprint))
+                .isTrue();
+    }
+
+    @Test
+    void wsdlContentChangeIsDetected() throws IOException {
+        String fingerprint = fingerprint(List.of("example.wsdl"), "example.wsdl");
+
+        Files.writeString(this.projectDir.resolve("example.wsdl"), "<definitions name=\"changed\"/>");
+
+        assertThat(fingerprint(List.of("example.wsdl"), "example.wsdl")).isNotEqualTo(fingerprint);
+    }
+
+    @Test
+    void argumentChangeIsDetected() {
+        String fingerprint = fingerprint(List.of("example.wsdl"), "example.wsdl");
+
+        assertThat(fingerprint(List.of("-mark-generated", "example.wsdl"), "example.wsdl"))
+                .isNotEqualTo(fingerprint);
+    }
+
+    @Test
+    void outputChangeIsDetected() throws IOException {
+        String fingerprint = fingerprint(List.of("example.wsdl"), "example.wsdl");
+        generateOutput();
+        OptionFingerprints fingerprints = OptionFingerprints.load(this.store);
+        fingerprints.record(this.option, fingerprint);
+        fingerprints.store();
+
+        Files.delete(this.projectDir.resolve(Path.of("out", "Example.java")));
+
+        assertThat(OptionFingerprints.load(this.store).isUpToDate(this.option, fingerprint))
+                .isFalse();
+    }
+
+    @Test
+    void movedProjectKeepsFingerprint(@TempDir Path movedDir) throws IOException {
+        Files.writeString(movedDir.resolve("example.wsdl"), "<definitions/>");
+        Directory movedDirectory = ProjectBuilder.builder()
+                .withProjectDir(movedDir.toFile())
+                .build()
+                .getLayout()
+                .getProjectDirectory();
+
+        String output = this.projectDirectory.dir("out").getAsFile().getAbsolutePath();
+        String movedOutput = movedDirectory.dir("out").getAsFile().getAbsolutePath();
+        List<String> arguments = List.of("-d", output, "-wsdlLocation", "example.wsdl");
+        List<String> movedArguments = List.of("-d", movedOutput, "-wsdlLocation", "example.wsdl");
+
+        assertThat(fingerprint(movedArguments, "example.wsdl", movedDirectory))
+                .isEqualTo(fingerprint(arguments, "example.wsdl"));
+        // Without a WSDL location, the generated code refers to the absolute path of the WSDL.
+        assertThat(fingerprint(List.of("-d", movedOutput), "example.wsdl", movedDirectory))
+                .isNotEqualTo(fingerprint(List.of("-d", output), "example.wsdl"));
+    }
+
+    @Test
+    void restoredOutputIsUpToDate() throws IOException {
+        String fingerprint = fingerprint(List.of("example.wsdl"), "example.wsdl");
+        generateOutput();
+        OptionFingerprints fingerprints = OptionFingerprints.load(this.store);
+        fingerprints.record(this.option, fingerprint);
+        fingerprints.store();
+
+        this.projectDir.resolve(Path.of("out", "Example.java")).toFile().setLastModified(0);
+
+        assertThat(OptionFingerprints.load(this.store).isUpToDate(this.option, fingerprint))
+                .isTrue();
+    }
+
+    @Test
+    void manifestLimitsOutputsToWrittenFiles() throws IOException {
+        Directory stagingDirectory = this.projectDirectory.dir("staging");
+        String fingerprint = fingerprint(List.of("example.wsdl"), "example.wsdl");
+        generateOutput();
+        Path manifest = StagedOutputs.manifest(this.option, stagingDirectory).toPath();
+        Files.createDirectories(manifest.getParent());
+        Files.writeString(manifest, "Example.java");
+        OptionFingerprints fingerprints = OptionFingerprints.load(this.store, stagingDirectory);
+        fingerprints.record(this.option, fingerprint);
+        fingerprints.store();
+
+        // Written by another option sharing the output directory.
+        Files.writeString(this.projectDir.resolve(Path.of("out", "Other.java")), "class Other {}");
+
+        assertThat(OptionFingerprints.load(this.store, stagingDirectory).isUpToDate(this.option, fingerprint))
+                .isTrue();
+    }
+
+    @Test
+    void refreshedOutputsAreUpToDate() throws IOException {
+        String fingerprint = fingerprint(List.of("example.wsdl"), "example.wsdl");
+        generateOutput();
+        OptionFingerprints fingerprints = OptionFingerprints.load(this.store);
+        fingerprints.record(this.option, fingerprint);
+
+        Files.writeString(this.projectDir.resolve(Path.of("out", "Other.java")), "class Other {}");
+        fingerprints.refreshOutputs(List.of(this.option));
+        fingerprints.store();
+
+        assertThat(OptionFingerprints.load(this.store).isUpToDate(this.option, fingerprint))
+                .isTrue();
+    }
+
+    @Test
+    void classpathContentFingerprintIgnoresLocation(@TempDir Path otherDir) throws IOException {
+        Path jar = Files.writeString(this.projectDir.resolve("tool.jar"), "tool");
+        Path copy = Files.writeString(otherDir.resolve("tool.jar"), "tool");
+        copy.toFile().setLastModified(0);
+
+        assertThat(OptionFingerprints.classpathContentFingerprint(List.of(copy.toFile())))
+                .isEqualTo(OptionFingerprints.classpathContentFingerprint(List.of(jar.toFile())));
+
+        Files.writeString(copy, "changed tool");
+
+        assertThat(OptionFingerprints.classpathContentFingerprint(List.of(copy.toFile())))
+                .isNotEqualTo(OptionFingerprints.classpathContentFingerprint(List.of(jar.toFile())));
+    }
+
+    @Test
+    void withoutStoreNothingIsUpToDate() throws IOException {
+        String fingerprint = fingerprint(List.of("example.wsdl"), "example.wsdl");
+        generateOutput();
+        OptionFingerprints fingerprints = OptionFingerprints.load(null);
+        fingerprints.record(this.option, fingerprint);
+
+        assertThat(fingerprints.isUpToDate(this.option, fingerprint)).isFalse();
+    }
+
+    private String fingerprint(List<String> arguments, String wsdl) {
+        return fingerprint(arguments, wsdl, this.projectDirectory);
+    }
+
+    private static String fingerprint(List<String> arguments, String wsdl, Directory projectDirectory) {
+        return OptionFingerprints.inputFingerprint(
+                arguments,
+                wsdl,
+                List.of(),
+                projectDirectory,
+                OptionFingerprints.classpathContentFingerprint(List.of()),
+                !arguments.contains("-wsdlLocation"));
+    }
+
+    private void generateOutput() throws IOException {
+        Path output = this.projectDir.resolve("out");
+        Files.createDirectories(output);
+        Files.writeString(output.resolve("Example.java"), "class Example {}");
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ToolClassLoaderServiceTests {
+
+    @TempDir
+    Path classpathDir;
+
+    private ToolClassLoaderService service;
+
+    @BeforeEach
+    void setUp() {
+        this.service = ProjectBuilder.builder()
+                .build()
+                .getGradle()
+                .getSharedServices()
+                .registerIfAbsent(ToolClassLoaderService.NAME, ToolClassLoaderService.class, spec -> spec.getParameters()
+                        .getMaxClassLoaders()
+                        .set(2))
+                .get();
+    }
+
+    @Test
+    void sameClasspathReusesClassLoader() {
+        List<File> classpath = classpath("same");
+
+        ClassLoader first = this.service.acquire(":a", classpath);
+        this.service.release(first);
+        ClassLoader second = this.service.acquire(":b", classpath);
+        this.service.release(second);
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void changedClasspathForOwnerEvictsPreviousClassLoader() {
+        List<File> previous = classpath("previous");
+
+        ClassLoader first = this.service.acquire(":owner", previous);
+        this.service.release(first);
+        this.service.release(this.service.acquire(":owner", classpath("current")));
+        ClassLoader second = this.service.acquire(":owner", previous);
+        this.service.release(second);
+
+        assertThat(second).isNotSameAs(first);
+    }
+
+    @Test
+    void cacheIsBounded() {
+        List<File> eldest = classpath("eldest");
+
+        ClassLoader first = this.service.acquire(":one", eldest);
+        this.service.release(first);
+        this.service.release(this.service.acquire(":two", classpath("two")));
+        this.service.release(this.service.acquire(":three", classpath("three")));
+        ClassLoader second = this.service.acquire(":four", eldest);
+        this.service.release(second);
+
+        assertThat(second).isNotSameAs(first);
+    }
+
+    @Test
+    void concurrentUsersGetSeparateClassLoaders() {
+        List<File> classpath = classpath("concurrent");
+
+        ClassLoader first = this.service.acquire(":a", classpath);
+        ClassLoader second = this.service.acquire(":b", classpath);
+        this.service.release(first);
+        this.service.release(second);
+        ClassLoader third = this.service.acquire(":c", classpath);
+        this.service.release(third);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(third).isSameAs(second);
+    }
+
+    @Test
+    void classLoaderInUseIsNotEvicted() {
+        List<File> inUse = classpath("inUse");
+
+        ClassLoader first = this.service.acquire(":one", inUse);
+        this.service.release(this.service.acquire(":two", classpath("other")));
+        this.service.release(this.service.acquire(":three", classpath("another")));
+        this.service.release(this.service.acquire(":four", classpath("yetAnother")));
+        this.service.release(first);
+        ClassLoader second = this.service.acquire(":five", inUse);
+        this.service.release(second);
+
+        assertThat(second).isSameAs(first);
+    }
+
+    private List<File> classpath(String name) {
+        return List.of(this.classpathDir.resolve(name).toFile());
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.gradle.api.GradleException;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+
+class WorkBatchesTests {
+
+    @Test
+    void batchingDisabledByDefault() {
+        assertThat(WorkBatches.batchSize(null, 100, 4)).isEqualTo(1);
+    }
+
+    @Test
+    void configuredBatchSize() {
+        assertThat(WorkBatches.batchSize(10, 100, 4)).isEqualTo(10);
+    }
+
+    @Test
+    void automaticBatchSizeUsesAllWorkers() {
+        assertThat(WorkBatches.batchSize(0, 100, 8)).isEqualTo(13);
+        assertThat(WorkBatches.batchSize(0, 3, 8)).isEqualTo(1);
+    }
+
+    @Test
+    void partitionBalancesBatches() {
+        List<List<Integer>> batches = WorkBatches.partition(List.of(1, 2, 3, 4, 5, 6, 7), 3);
+
+        assertThat(batches).containsExactly(List.of(1, 4, 7), List.of(2, 5), List.of(3, 6));
+    }
+
+    @Test
+    void partitionBalancesExpectedDurations() {
+        List<List<Integer>> batches =
+                WorkBatches.partition(List.of(100, 10, 9, 8, 7, 6, 5, 4, 3), 3, Integer::doubleValue);
+
+        assertThat(batches).containsExactly(List.of(100, 4, 3), List.of(10, 7, 6), List.of(9, 8, 5));
+    }
+
+    @Test
+    void runAllContinuesPastFailures() {
+        ObjectFactory objects = ProjectBuilder.builder().build().getObjects();
+        List<Option> options = List.of(
+                objects.newInstance(Wsdl2JavaOption.class, "first"),
+                objects.newInstance(Wsdl2JavaOption.class, "second"),
+                objects.newInstance(Wsdl2JavaOption.class, "third"));
+        List<String> processed = new ArrayList<>();
+
+        assertThatExceptionOfType(GradleException.class)
+                .isThrownBy(() -> WorkBatches.runAll(options, option -> {
+                    processed.add(option.getName());
+                    if (!option.getName().equals("second")) {
+                        throw new IllegalStateException("boom");
+                    }
+                }))
+                .withMessage("Code generation failed for option 'first'")
+                .satisfies(ex -> assertThat(ex.getSuppressed()).hasSize(1));
+        assertThat(processed).containsExactly("first", "second", "third");
+    }
+}
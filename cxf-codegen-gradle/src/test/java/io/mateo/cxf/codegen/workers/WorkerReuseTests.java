@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.mateo.cxf.codegen.internal.CodegenMetrics;
+import java.io.File;
+import java.nio.file.Path;
+import org.gradle.api.Project;
+import org.gradle.api.file.Directory;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WorkerReuseTests {
+
+    @TempDir
+    Path projectDir;
+
+    private Project project;
+
+    private Directory records;
+
+    @BeforeEach
+    void setUp() {
+        this.project =
+                ProjectBuilder.builder().withProjectDir(this.projectDir.toFile()).build();
+        this.records = this.project.getLayout().getProjectDirectory().dir("records");
+    }
+
+    @Test
+    void optionsInRunningWorkerProcessAreReused() {
+        long taskStart = System.currentTimeMillis();
+        measure("first", CodegenMetrics.Scope.PROCESS);
+        measure("second", CodegenMetrics.Scope.PROCESS);
+
+        WorkerReuse.Statistics statistics = WorkerReuse.collect(this.records.getAsFile(), taskStart);
+
+        assertThat(statistics).isEqualTo(new WorkerReuse.Statistics(2, 1, 0));
+        assertThat(statistics.hitRate()).isEqualTo(1.0);
+    }
+
+    @Test
+    void firstOptionInStartedWorkerProcessIsNotReused() {
+        measure("first", CodegenMetrics.Scope.PROCESS);
+        measure("second", CodegenMetrics.Scope.PROCESS);
+
+        WorkerReuse.Statistics statistics = WorkerReuse.collect(this.records.getAsFile(), 0);
+
+        assertThat(statistics).isEqualTo(new WorkerReuse.Statistics(2, 1, 1));
+        assertThat(statistics.hitRate()).isEqualTo(0.5);
+        assertThat(statistics)
+                .hasToString("2 option(s) in 1 worker process(es), 1 started and 0 reused, 50% hit rate");
+    }
+
+    @Test
+    void optionsOfEarlierExecutionsAreIgnored() {
+        measure("first", CodegenMetrics.Scope.PROCESS);
+
+        assertThat(WorkerReuse.collect(this.records.getAsFile(), Long.MAX_VALUE)).isNull();
+    }
+
+    @Test
+    void optionsOutsideWorkerProcessesAreNotRecorded() {
+        measure("first", CodegenMetrics.Scope.THREAD);
+
+        assertThat(WorkerReuse.collect(this.records.getAsFile(), 0)).isNull();
+        assertThat(WorkerReuse.collect(this.projectDir.resolve("missing").toFile(), 0))
+                .isNull();
+    }
+
+    private void measure(String name, CodegenMetrics.Scope scope) {
+        Wsdl2JavaOption option = this.project.getObjects().newInstance(Wsdl2JavaOption.class, name);
+        File outputDir = this.projectDir.resolve(name).toFile();
+        ExecutionHistory.measure(option, outputDir, this.records, scope, () -> {});
+    }
+}
@@ -112,6 +112,21 @@ class Wsdl2JavaActionTests {
         assertThat(actual).containsExactlyElementsOf(expected);
     }
 
+    @Test
+    void episodes() {
+        Path episode = this.outputDirectory.resolve("common.episode");
+        List<String> expected = List.of(
+                "-d",
+                this.outputDirectory.toString(),
+                "-b",
+                episode.toAbsolutePath().toString(),
+                this.wsdl.toAbsolutePath().toString());
+
+        List<String> actual = getTestArguments(option -> option.getEpisodes().from(episode));
+
+        assertThat(actual).containsExactlyElementsOf(expected);
+    }
+
     @Test
     void frontend() {
         List<String> expected = List.of(
@@ -254,6 +269,65 @@ class Wsdl2JavaActionTests {
         assertThat(actual).containsExactlyElementsOf(expected);
     }
 
+    @Test
+    void localWsdl() {
+        List<String> expected = List.of(
+                "-d",
+                this.outputDirectory.toString(),
+                "-wsdlLocation",
+                "https://example.com/service?wsdl",
+                this.wsdl.toAbsolutePath().toString());
+
+        var option = this.project.getObjects().newInstance(Wsdl2JavaOption.class, "test");
+        option.getOutputDirectory().set(this.outputDirectory.toFile());
+        option.getWsdl().set("https://example.com/service?wsdl");
+        List<String> actual = Wsdl2JavaAction.getArguments(
+                option,
+                this.project.getLayout().getProjectDirectory(),
+                this.wsdl.toAbsolutePath().toString());
+
+        assertThat(actual).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void relocatable() {
+        List<String> expected = List.of(
+                "-d",
+                this.outputDirectory.toString(),
+                "-suppress-generated-date",
+                this.project
+                        .getLayout()
+                        .getProjectDirectory()
+                        .file("wsdls/example.wsdl")
+                        .getAsFile()
+                        .getAbsolutePath());
+
+        List<String> actual = getTestArguments(option -> {
+            option.getWsdl().set("wsdls/example.wsdl");
+            option.getRelocatable().set(true);
+        });
+
+        assertThat(actual).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void relocatableKeepsWsdlLocation() {
+        List<String> expected = List.of(
+                "-d",
+                this.outputDirectory.toString(),
+                "-suppress-generated-date",
+                "-wsdlLocation",
+                "classpath:wsdl/example.wsdl",
+                this.wsdl.toAbsolutePath().toString());
+
+        List<String> actual = getTestArguments(option -> {
+            option.getWsdlLocation().set("classpath:wsdl/example.wsdl");
+            option.getRelocatable().set(true);
+        });
+
+        assertThat(actual).containsExactlyElementsOf(expected);
+    }
+
     @Test
     void defaultExcludesNamespace() {
         List<String> expected = List.of(
@@ -524,6 +598,39 @@ class Wsdl2JavaActionTests {
         assertThat(actual).containsExactlyElementsOf(expected);
     }
 
+    @Test
+    void stagingDirectory() {
+        Path stagingDirectory = this.outputDirectory.resolve("staging");
+        CodegenParameters parameters =
+                createParameters(option -> option.getWsdl().set(this.wsdl.toAbsolutePath().toString()));
+        parameters.getProjectDirectory().set(this.project.getLayout().getProjectDirectory());
+        parameters.getStagingDirectory().set(stagingDirectory.toFile());
+
+        List<String> actual = new TestAction(parameters).getArguments();
+
+        assertThat(actual)
+                .containsExactly(
+                        "-d",
+                        stagingDirectory.resolve("test").toString(),
+                        this.wsdl.toAbsolutePath().toString());
+    }
+
+    @Test
+    void wsdlListFile() {
+        String wsdlList = this.outputDirectory.resolve("wsdls.txt").toString();
+        CodegenParameters parameters = createParameters(option -> {
+            option.getWsdl().set(this.wsdl.toAbsolutePath().toString());
+            option.getVerbose().set(true);
+        });
+        parameters.getProjectDirectory().set(this.project.getLayout().getProjectDirectory());
+        parameters.getWsdlList().set(wsdlList);
+
+        List<String> actual = new TestAction(parameters).getArguments();
+
+        assertThat(actual)
+                .containsExactly("-d", this.outputDirectory.toString(), "-verbose", "-wsdlList", wsdlList);
+    }
+
     @Test
     void wsdlMissingResultsInFailure() {
         assertThatExceptionOfType(IllegalStateException.class)
@@ -16,23 +16,26 @@
 package io.mateo.cxf.codegen.workers;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
+import java.io.File;
 import java.util.Map;
+import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.Project;
 import org.gradle.testfixtures.ProjectBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 class Wsdl2JavaTests {
 
+    private Project project;
+
     private Wsdl2Java wsdl2Java;
 
     @BeforeEach
     void setUp() {
-        this.wsdl2Java = ProjectBuilder.builder()
-                .build()
-                .getTasks()
-                .register("test", Wsdl2Java.class)
-                .get();
+        this.project = ProjectBuilder.builder().build();
+        this.wsdl2Java = this.project.getTasks().register("test", Wsdl2Java.class).get();
     }
 
     @Test
@@ -48,4 +51,36 @@ class Wsdl2JavaTests {
         var forkOptionsActions = this.wsdl2Java.getForkOptionsActions();
         assertThat(forkOptionsActions).hasSize(2);
     }
+
+    @Test
+    void relocatableWsdlInputIsRelativeToProjectDirectory() {
+        File wsdl = this.project.file("wsdls/example.wsdl");
+        this.wsdl2Java.getOptions().add(option("relocatable", wsdl.getAbsolutePath(), true));
+        this.wsdl2Java.getOptions().add(option("absolute", wsdl.getAbsolutePath(), false));
+        this.wsdl2Java.getOptions().add(option("remote", "https://example.com/example.wsdl", true));
+
+        assertThat(this.wsdl2Java.getWsdlInputs().get())
+                .containsExactly(
+                        Map.entry("relocatable", "wsdls/example.wsdl"),
+                        Map.entry("absolute", wsdl.getAbsolutePath()),
+                        Map.entry("remote", "https://example.com/example.wsdl"));
+    }
+
+    @Test
+    void relocatableOptionWithoutWsdlLocationFails() {
+        File wsdl = this.project.file("wsdls/example.wsdl");
+        this.wsdl2Java.getOptions().add(option("relocatable", wsdl.getAbsolutePath(), true));
+
+        assertThatExceptionOfType(InvalidUserDataException.class)
+                .isThrownBy(this.wsdl2Java::generate)
+                .withMessageContaining("Option 'relocatable' is relocatable but sets no wsdlLocation");
+    }
+
+    private Wsdl2JavaOption option(String name, String wsdl, boolean relocatable) {
+        Wsdl2JavaOption option = this.project.getObjects().newInstance(Wsdl2JavaOption.class, name);
+        option.getWsdl().set(wsdl);
+        option.getRelocatable().set(relocatable);
+        option.getOutputDirectory().set(this.project.file(name));
+        return option;
+    }
 }
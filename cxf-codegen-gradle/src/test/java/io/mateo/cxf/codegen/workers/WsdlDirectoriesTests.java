@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WsdlDirectoriesTests {
+
+    @TempDir
+    Path projectDir;
+
+    private Project project;
+
+    private WsdlDirectory directory;
+
+    @BeforeEach
+    void setUp() {
+        this.project = ProjectBuilder.builder().withProjectDir(this.projectDir.toFile()).build();
+        this.directory = this.project.getObjects().newInstance(WsdlDirectory.class, "services");
+        this.directory.getDirectory().set(this.projectDir.resolve("wsdls").toFile());
+        this.directory.getIncludes().set(Set.of("**/*.wsdl"));
+        this.directory.getOutputDirectory().set(this.projectDir.resolve("generated").toFile());
+    }
+
+    @Test
+    void optionsAreDerivedFromRelativePaths() throws IOException {
+        write("wsdls/billing/invoice.wsdl", "");
+        write("wsdls/orders.wsdl", "");
+        write("wsdls/types.xsd", "");
+
+        List<Wsdl2JavaOption> options = options();
+
+        assertThat(options).extracting(Option::getName).containsExactly("services-billing-invoice", "services-orders");
+        Wsdl2JavaOption invoice = options.get(0);
+        assertThat(invoice.getWsdl().get())
+                .isEqualTo(this.projectDir.resolve("wsdls/billing/invoice.wsdl").toFile().getAbsolutePath());
+        assertThat(invoice.getOutputDirectory().get().getAsFile())
+                .isEqualTo(this.projectDir.resolve("generated/billing-invoice").toFile());
+        assertThat(invoice.getPackageNames().get()).isEmpty();
+        assertThat(invoice.getBindingFiles().get()).isEmpty();
+        assertThat(invoice.getSourceDocuments().getFiles())
+                .containsExactly(this.projectDir.resolve("wsdls/billing/invoice.wsdl").toFile());
+    }
+
+    @Test
+    void packageNameIsDerivedFromPackagePrefix() throws IOException {
+        write("wsdls/billing/Invoice-v2.wsdl", "");
+        write("wsdls/2024/orders.wsdl", "");
+        this.directory.getPackagePrefix().set("com.example");
+
+        assertThat(options())
+                .extracting(option -> option.getPackageNames().get())
+                .containsExactly(List.of("com.example._2024.orders"), List.of("com.example.billing.invoicev2"));
+    }
+
+    @Test
+    void sameNameBindingFileIsUsed() throws IOException {
+        write("wsdls/orders.wsdl", "");
+        File binding = write("wsdls/orders.xjb", "");
+
+        assertThat(options()).singleElement().satisfies(option -> {
+            assertThat(option.getBindingFiles().get()).containsExactly(binding.getAbsolutePath());
+            assertThat(option.getSourceDocuments().getFiles()).contains(binding);
+        });
+    }
+
+    @Test
+    void nearestDefaultsFileWins() throws IOException {
+        write("wsdls/billing/invoice.wsdl", "");
+        write("wsdls/orders.wsdl", "");
+        write("wsdls/common.xjb", "");
+        write("wsdls/billing/billing.xjb", "");
+        write(
+                "wsdls/" + WsdlDirectory.DEFAULTS_FILE_NAME,
+                "packageName=com.example.services\nbindingFiles=common.xjb\nextraArgs=-verbose  -autoNameResolution\n");
+        write("wsdls/billing/" + WsdlDirectory.DEFAULTS_FILE_NAME, "bindingFiles=billing.xjb, ../common.xjb\n");
+        this.directory.getPackagePrefix().set("com.example");
+
+        List<Wsdl2JavaOption> options = options();
+
+        assertThat(options.get(0).getPackageNames().get()).containsExactly("com.example.services");
+        assertThat(options.get(0).getBindingFiles().get())
+                .containsExactly(
+                        this.projectDir.resolve("wsdls/billing/billing.xjb").toFile().getAbsolutePath(),
+                        this.projectDir.resolve("wsdls/common.xjb").toFile().getAbsolutePath());
+        assertThat(options.get(0).getExtraArgs().get()).containsExactly("-verbose", "-autoNameResolution");
+        assertThat(options.get(1).getBindingFiles().get())
+                .containsExactly(this.projectDir.resolve("wsdls/common.xjb").toFile().getAbsolutePath());
+    }
+
+    @Test
+    void staleOutputsAreDeleted() throws IOException {
+        write("wsdls/orders.wsdl", "");
+        File current = write("generated/orders/Orders.java", "");
+        File stale = write("generated/removed/Removed.java", "");
+
+        WsdlDirectories.deleteStaleOutputs(this.directory, options());
+
+        assertThat(current).exists();
+        assertThat(stale.getParentFile()).doesNotExist();
+    }
+
+    private List<Wsdl2JavaOption> options() {
+        return WsdlDirectories.options(
+                this.project.getObjects(), this.project.getLayout().getProjectDirectory(), this.directory);
+    }
+
+    private File write(String path, String content) throws IOException {
+        Path file = this.projectDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, content).toFile();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.gradle.api.Project;
+import org.gradle.api.file.Directory;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WsdlListsTests {
+
+    @TempDir
+    Path projectDir;
+
+    private Project project;
+
+    private Directory projectDirectory;
+
+    @BeforeEach
+    void setUp() {
+        this.project = ProjectBuilder.builder().withProjectDir(this.projectDir.toFile()).build();
+        this.projectDirectory = this.project.getLayout().getProjectDirectory();
+    }
+
+    @Test
+    void optionsOnlyDifferingInWsdlAreGrouped() {
+        Wsdl2JavaOption first = option("first", "first.wsdl", "shared");
+        Wsdl2JavaOption second = option("second", "second.wsdl", "shared");
+        Wsdl2JavaOption third = option("third", "third.wsdl", "shared");
+        third.getMarkGenerated().set(true);
+        Wsdl2JavaOption fourth = option("fourth", "fourth.wsdl", "shared");
+
+        List<List<Wsdl2JavaOption>> groups =
+                WsdlLists.group(List.of(first, second, third, fourth), this.projectDirectory, Map.of());
+
+        assertThat(groups).containsExactly(List.of(first, second, fourth), List.of(third));
+    }
+
+    @Test
+    void optionsWithDifferentOutputDirectoriesAreGroupedWithOneInvocationPerDirectory() {
+        Wsdl2JavaOption first = option("first", "first.wsdl", "first");
+        Wsdl2JavaOption second = option("second", "second.wsdl", "second");
+        Wsdl2JavaOption third = option("third", "third.wsdl", "first");
+
+        List<List<Wsdl2JavaOption>> groups =
+                WsdlLists.group(List.of(first, second, third), this.projectDirectory, Map.of());
+
+        assertThat(groups).containsExactly(List.of(first, second, third));
+        assertThat(CodegenPlan.invocations(groups.get(0))).containsExactly(List.of(first, third), List.of(second));
+    }
+
+    @Test
+    void optionsUsingWsdlListOrLocalWsdlAreNotGrouped() {
+        Wsdl2JavaOption first = option("first", "first.wsdl", "shared");
+        first.getWsdlList().set(true);
+        Wsdl2JavaOption second = option("second", "second.wsdl", "shared");
+        second.getWsdlList().set(true);
+        Wsdl2JavaOption third = option("third", "https://example.com/third?wsdl", "shared");
+        Wsdl2JavaOption fourth = option("fourth", "https://example.com/fourth?wsdl", "shared");
+
+        List<List<Wsdl2JavaOption>> groups = WsdlLists.group(
+                List.of(first, second, third, fourth),
+                this.projectDirectory,
+                Map.of("third", "/cache/third.xml", "fourth", "/cache/fourth.xml"));
+
+        assertThat(groups).containsExactly(List.of(first), List.of(second), List.of(third), List.of(fourth));
+    }
+
+    @Test
+    void listFileContainsOneWsdlPerLine() throws IOException {
+        Wsdl2JavaOption first = option("first", "wsdls/first.wsdl", "shared");
+        Wsdl2JavaOption second = option("second", "https://example.com/second?wsdl", "shared");
+        File file = this.projectDir.resolve("build/tmp/wsdl-lists/first.txt").toFile();
+
+        File wsdlList = WsdlLists.write(file, List.of(first, second), this.projectDirectory);
+
+        assertThat(Files.readAllLines(wsdlList.toPath()))
+                .containsExactly(
+                        this.projectDirectory.file("wsdls/first.wsdl").getAsFile().getAbsolutePath(),
+                        "https://example.com/second?wsdl");
+    }
+
+    @Test
+    void wsdlIsReplacedByListFile() {
+        assertThat(WsdlLists.withWsdlList(List.of("-d", "out", "service.wsdl"), "wsdls.txt"))
+                .containsExactly("-d", "out", "-wsdlList", "wsdls.txt");
+        assertThat(WsdlLists.withWsdlList(List.of("-d", "out", "service.wsdl"), null))
+                .containsExactly("-d", "out", "service.wsdl");
+    }
+
+    private Wsdl2JavaOption option(String name, String wsdl, String outputDirectory) {
+        Wsdl2JavaOption option = this.project.getObjects().newInstance(Wsdl2JavaOption.class, name);
+        option.getWsdl().set(wsdl);
+        option.getOutputDirectory().set(this.projectDir.resolve(outputDirectory).toFile());
+        return option;
+    }
+}
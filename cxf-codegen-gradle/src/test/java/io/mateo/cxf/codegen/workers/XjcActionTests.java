@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.workers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class XjcActionTests {
+
+    private Project project;
+
+    private Path outputDirectory;
+
+    private Path episodeFile;
+
+    private Path schema;
+
+    @BeforeAll
+    void beforeAll(@TempDir Path projectDir) {
+        this.project =
+                ProjectBuilder.builder().withProjectDir(projectDir.toFile()).build();
+        Path buildDirectory =
+                this.project.getLayout().getBuildDirectory().get().getAsFile().toPath();
+        this.outputDirectory = buildDirectory.resolve("common-xjc-generated-sources");
+        this.episodeFile = buildDirectory.resolve("xjc-episodes").resolve("common.episode");
+        this.schema = projectDir.resolve("common.xsd");
+    }
+
+    @Test
+    void schemasOnly() {
+        List<String> expected = List.of(
+                "-d",
+                this.outputDirectory.toString(),
+                "-episode",
+                this.episodeFile.toString(),
+                this.schema.toString());
+
+        List<String> actual = getTestArguments(schema -> {});
+
+        assertThat(actual).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void packageName() {
+        List<String> expected = List.of(
+                "-d",
+                this.outputDirectory.toString(),
+                "-episode",
+                this.episodeFile.toString(),
+                "-p",
+                "com.example.common",
+                this.schema.toString());
+
+        List<String> actual = getTestArguments(schema -> schema.getPackageName().set("com.example.common"));
+
+        assertThat(actual).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void bindingFiles() {
+        List<String> expected = List.of(
+                "-d",
+                this.outputDirectory.toString(),
+                "-episode",
+                this.episodeFile.toString(),
+                "-b",
+                this.project.file("common.xjb").getAbsolutePath(),
+                this.schema.toString());
+
+        List<String> actual = getTestArguments(schema -> schema.getBindingFiles().add("common.xjb"));
+
+        assertThat(actual).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void xjcArgs() {
+        List<String> expected = List.of(
+                "-d",
+                this.outputDirectory.toString(),
+                "-episode",
+                this.episodeFile.toString(),
+                "-npa",
+                "-no-header",
+                this.schema.toString());
+
+        List<String> actual = getTestArguments(schema -> schema.getXjcArgs().set(List.of("-npa", "-no-header")));
+
+        assertThat(actual).containsExactlyElementsOf(expected);
+    }
+
+    private List<String> getTestArguments(Consumer<SharedSchema> configurer) {
+        var parameters = this.project.getObjects().newInstance(XjcParameters.class);
+        var schema = this.project.getObjects().newInstance(SharedSchema.class, "common");
+        // Plugin configures conventions for the output directory and episode file.
+        schema.getOutputDirectory().set(this.outputDirectory.toFile());
+        schema.getEpisodeFile().set(this.episodeFile.toFile());
+        schema.getSchemas().from(this.schema);
+        configurer.accept(schema);
+        parameters.getSchema().set(schema);
+        parameters.getProjectDirectory().set(this.project.getLayout().getProjectDirectory());
+        return new TestAction(parameters).getArguments();
+    }
+
+    static class TestAction extends XjcAction {
+
+        private final XjcParameters parameters;
+
+        public TestAction(XjcParameters parameters) {
+            this.parameters = parameters;
+        }
+
+        @Override
+        public XjcParameters getParameters() {
+            return this.parameters;
+        }
+    }
+}
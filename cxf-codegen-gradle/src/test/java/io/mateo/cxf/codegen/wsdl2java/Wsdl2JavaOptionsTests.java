@@ -23,6 +23,7 @@ import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.List;
 import org.gradle.api.Action;
+import org.gradle.api.InvalidUserDataException;
 import org.gradle.api.Project;
 import org.gradle.testfixtures.ProjectBuilder;
 import org.junit.jupiter.api.AfterEach;
@@ -306,6 +307,62 @@ class Wsdl2JavaOptionsTests {
         assertThat(actual).containsExactlyElementsOf(expected);
     }
 
+    @Test
+    void relocatable(TestInfo testInfo) {
+        Path wsdl = this.project
+                .getLayout()
+                .getProjectDirectory()
+                .file("wsdls/example.wsdl")
+                .getAsFile()
+                .toPath();
+        List<String> expected = List.of(
+                "-d",
+                "build",
+                "-b",
+                "bindings/binding.xml",
+                "-suppress-generated-date",
+                "-wsdlLocation",
+                "classpath:wsdls/example.wsdl",
+                wsdl.toString());
+
+        Wsdl2Java task = createTaskWithConfiguration(testInfo.getDisplayName(), options -> {
+            options.getWsdl().set(wsdl.toString());
+            options.getWsdlLocation().set("classpath:wsdls/example.wsdl");
+            options.getBindingFiles().add("bindings/binding.xml");
+            options.getRelocatable().set(true);
+        });
+
+        assertThat(task.getArgumentProviders().get(0).asArguments()).containsExactlyElementsOf(expected);
+        assertThat(task.getWsdlInput().get()).isEqualTo("wsdls/example.wsdl");
+    }
+
+    @Test
+    void relocatableWithoutWsdlLocationFails(TestInfo testInfo) {
+        Path wsdl = this.project
+                .getLayout()
+                .getProjectDirectory()
+                .file("wsdls/example.wsdl")
+                .getAsFile()
+                .toPath();
+
+        Wsdl2Java task = createTaskWithConfiguration(testInfo.getDisplayName(), options -> {
+            options.getWsdl().set(wsdl.toString());
+            options.getRelocatable().set(true);
+        });
+
+        assertThatExceptionOfType(InvalidUserDataException.class)
+                .isThrownBy(task::exec)
+                .withMessageContaining("sets no wsdlLocation");
+    }
+
+    @Test
+    void wsdlInputIsUnchangedWhenNotRelocatable(TestInfo testInfo) {
+        Wsdl2Java task = createTask(testInfo.getDisplayName());
+
+        assertThat(task.getWsdlInput().get())
+                .isEqualTo(this.wsdl.toAbsolutePath().toUri().toString());
+    }
+
     @Test
     void defaultExcludesNamespace(TestInfo testInfo) {
         List<String> expected = List.of(
@@ -0,0 +1,330 @@
+/*
+ * Copyright 2020-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mateo.cxf.codegen.fixtures;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates a deterministic set of document/literal WSDLs and the XSDs they import, for tests and benchmarks that need
+ * inputs larger than the bundled WSDLs.
+ * <p>
+ * Each service is written to its own {@code service<n>.wsdl}. The complex types are spread across the schemas of the
+ * type namespaces, {@code ns<n>.xsd}, and every complex type nests anonymous types down to the configured depth. Each
+ * type namespace schema imports every shared schema, {@code common<n>.xsd}. Writing the same corpus twice produces
+ * identical files.
+ */
+public final class WsdlCorpus {
+
+    private int services = 1;
+
+    private int portTypes = 1;
+
+    private int operations = 5;
+
+    private int complexTypes = 10;
+
+    private int depth = 2;
+
+    private int sharedImports = 1;
+
+    private int namespaces = 1;
+
+    /**
+     * Returns a corpus of a named size used by the benchmarks.
+     * @param size {@code small}, {@code medium}, or {@code large}
+     * @return the corpus
+     */
+    public static WsdlCorpus of(String size) {
+        return switch (size) {
+            case "small" -> new WsdlCorpus();
+            case "medium" -> new WsdlCorpus()
+                    .services(2)
+                    .portTypes(2)
+                    .operations(25)
+                    .complexTypes(100)
+                    .depth(3)
+                    .sharedImports(2)
+                    .namespaces(4);
+            case "large" -> new WsdlCorpus()
+                    .services(4)
+                    .portTypes(4)
+                    .operations(50)
+                    .complexTypes(1000)
+                    .depth(4)
+                    .sharedImports(4)
+                    .namespaces(16);
+            default -> throw new IllegalArgumentException("Unknown corpus size '" + size + "'");
+        };
+    }
+
+    public WsdlCorpus services(int services) {
+        this.services = requireAtLeast("services", services, 1);
+        return this;
+    }
+
+    public WsdlCorpus portTypes(int portTypes) {
+        this.portTypes = requireAtLeast("portTypes", portTypes, 1);
+        return this;
+    }
+
+    public WsdlCorpus operations(int operations) {
+        this.operations = requireAtLeast("operations", operations, 1);
+        return this;
+    }
+
+    public WsdlCorpus complexTypes(int complexTypes) {
+        this.complexTypes = requireAtLeast("complexTypes", complexTypes, 1);
+        return this;
+    }
+
+    public WsdlCorpus depth(int depth) {
+        this.depth = requireAtLeast("depth", depth, 0);
+        return this;
+    }
+
+    public WsdlCorpus sharedImports(int sharedImports) {
+        this.sharedImports = requireAtLeast("sharedImports", sharedImports, 0);
+        return this;
+    }
+
+    public WsdlCorpus namespaces(int namespaces) {
+        this.namespaces = requireAtLeast("namespaces", namespaces, 1);
+        return this;
+    }
+
+    /**
+     * Writes the corpus to the directory.
+     * @param directory the directory
+     * @return the WSDL files, one per service
+     */
+    public List<Path> write(Path directory) {
+        List<Path> wsdls = new ArrayList<>(this.services);
+        try {
+            Files.createDirectories(directory);
+            for (int i = 0; i < this.sharedImports; i++) {
+                write(directory.resolve("common" + i + ".xsd"), commonSchema(i));
+            }
+            for (int i = 0; i < this.namespaces; i++) {
+                write(directory.resolve("ns" + i + ".xsd"), namespaceSchema(i));
+            }
+            for (int i = 0; i < this.services; i++) {
+                Path wsdl = directory.resolve("service" + i + ".wsdl");
+                write(wsdl, serviceWsdl(i));
+                wsdls.add(wsdl);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return wsdls;
+    }
+
+    private String commonSchema(int index) {
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <xsd:schema xmlns:xsd="http://www.w3.org/2001/XMLSchema" targetNamespace="urn:corpus:common%1$d"
+                        elementFormDefault="qualified">
+                  <xsd:complexType name="Common%1$d">
+                    <xsd:sequence>
+                      <xsd:element name="code" type="xsd:string"/>
+                      <xsd:element name="updated" type="xsd:dateTime"/>
+                    </xsd:sequence>
+                  </xsd:complexType>
+                </xsd:schema>
+                """.formatted(index);
+    }
+
+    private String namespaceSchema(int namespace) {
+        StringBuilder schema = new StringBuilder();
+        schema.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<xsd:schema xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\"");
+        for (int i = 0; i < this.sharedImports; i++) {
+            schema.append(" xmlns:c").append(i).append("=\"urn:corpus:common").append(i).append('"');
+        }
+        schema.append("\n        targetNamespace=\"urn:corpus:ns")
+                .append(namespace)
+                .append("\" elementFormDefault=\"qualified\">\n");
+        for (int i = 0; i < this.sharedImports; i++) {
+            schema.append("  <xsd:import namespace=\"urn:corpus:common")
+                    .append(i)
+                    .append("\" schemaLocation=\"common")
+                    .append(i)
+                    .append(".xsd\"/>\n");
+        }
+        for (int type = namespace; type < this.complexTypes; type += this.namespaces) {
+            schema.append("  <xsd:complexType name=\"Type").append(type).append("\">\n");
+            schema.append("    <xsd:sequence>\n");
+            schema.append("      <xsd:element name=\"id\" type=\"xsd:long\"/>\n");
+            schema.append("      <xsd:element name=\"name\" type=\"xsd:string\"/>\n");
+            for (int i = 0; i < this.sharedImports; i++) {
+                schema.append("      <xsd:element name=\"common")
+                        .append(i)
+                        .append("\" type=\"c")
+                        .append(i)
+                        .append(":Common")
+                        .append(i)
+                        .append("\" minOccurs=\"0\"/>\n");
+            }
+            nestedElements(schema, 1, "      ");
+            schema.append("    </xsd:sequence>\n");
+            schema.append("  </xsd:complexType>\n");
+        }
+        return schema.append("</xsd:schema>\n").toString();
+    }
+
+    private void nestedElements(StringBuilder schema, int level, String indent) {
+        if (level > this.depth) {
+            return;
+        }
+        schema.append(indent).append("<xsd:element name=\"level").append(level).append("\" minOccurs=\"0\">\n");
+        schema.append(indent).append("  <xsd:complexType>\n");
+        schema.append(indent).append("    <xsd:sequence>\n");
+        schema.append(indent)
+                .append("      <xsd:element name=\"value")
+                .append(level)
+                .append("\" type=\"xsd:string\" maxOccurs=\"unbounded\"/>\n");
+        nestedElements(schema, level + 1, indent + "      ");
+        schema.append(indent).append("    </xsd:sequence>\n");
+        schema.append(indent).append("  </xsd:complexType>\n");
+        schema.append(indent).append("</xsd:element>\n");
+    }
+
+    private String serviceWsdl(int service) {
+        String namespace = "urn:corpus:service" + service;
+        StringBuilder wsdl = new StringBuilder();
+        wsdl.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<wsdl:definitions xmlns:wsdl=\"http://schemas.xmlsoap.org/wsdl/\"\n")
+                .append("        xmlns:soap=\"http://schemas.xmlsoap.org/wsdl/soap/\"\n")
+                .append("        xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\" xmlns:tns=\"")
+                .append(namespace)
+                .append("\"\n        targetNamespace=\"")
+                .append(namespace)
+                .append("\" name=\"Service")
+                .append(service)
+                .append("\">\n");
+        wsdl.append("  <wsdl:types>\n    <xsd:schema targetNamespace=\"").append(namespace).append('"');
+        for (int i = 0; i < this.namespaces; i++) {
+            wsdl.append(" xmlns:ns").append(i).append("=\"urn:corpus:ns").append(i).append('"');
+        }
+        wsdl.append(" elementFormDefault=\"qualified\">\n");
+        for (int i = 0; i < this.namespaces; i++) {
+            wsdl.append("      <xsd:import namespace=\"urn:corpus:ns")
+                    .append(i)
+                    .append("\" schemaLocation=\"ns")
+                    .append(i)
+                    .append(".xsd\"/>\n");
+        }
+        StringBuilder messages = new StringBuilder();
+        StringBuilder portTypes = new StringBuilder();
+        StringBuilder bindings = new StringBuilder();
+        StringBuilder ports = new StringBuilder();
+        for (int portType = 0; portType < this.portTypes; portType++) {
+            String name = "Port" + portType;
+            portTypes.append("  <wsdl:portType name=\"").append(name).append("PortType\">\n");
+            bindings.append("  <wsdl:binding name=\"")
+                    .append(name)
+                    .append("Binding\" type=\"tns:")
+                    .append(name)
+                    .append("PortType\">\n")
+                    .append("    <soap:binding style=\"document\"")
+                    .append(" transport=\"http://schemas.xmlsoap.org/soap/http\"/>\n");
+            for (int operation = 0; operation < this.operations; operation++) {
+                int index = (service * this.portTypes + portType) * this.operations + operation;
+                String operationName = name + "Op" + operation;
+                element(wsdl, operationName, "request", index % this.complexTypes);
+                element(wsdl, operationName + "Response", "result", (index + 1) % this.complexTypes);
+                message(messages, operationName);
+                message(messages, operationName + "Response");
+                portTypes
+                        .append("    <wsdl:operation name=\"")
+                        .append(operationName)
+                        .append("\">\n      <wsdl:input message=\"tns:")
+                        .append(operationName)
+                        .append("Message\"/>\n      <wsdl:output message=\"tns:")
+                        .append(operationName)
+                        .append("ResponseMessage\"/>\n    </wsdl:operation>\n");
+                bindings.append("    <wsdl:operation name=\"")
+                        .append(operationName)
+                        .append("\">\n      <soap:operation soapAction=\"")
+                        .append(namespace)
+                        .append('/')
+                        .append(operationName)
+                        .append("\"/>\n")
+                        .append("      <wsdl:input><soap:body use=\"literal\"/></wsdl:input>\n")
+                        .append("      <wsdl:output><soap:body use=\"literal\"/></wsdl:output>\n")
+                        .append("    </wsdl:operation>\n");
+            }
+            portTypes.append("  </wsdl:portType>\n");
+            bindings.append("  </wsdl:binding>\n");
+            ports.append("    <wsdl:port name=\"")
+                    .append(name)
+                    .append("\" binding=\"tns:")
+                    .append(name)
+                    .append("Binding\">\n      <soap:address location=\"http://localhost/service")
+                    .append(service)
+                    .append('/')
+                    .append(name)
+                    .append("\"/>\n    </wsdl:port>\n");
+        }
+        wsdl.append("    </xsd:schema>\n  </wsdl:types>\n")
+                .append(messages)
+                .append(portTypes)
+                .append(bindings)
+                .append("  <wsdl:service name=\"Service")
+                .append(service)
+                .append("\">\n")
+                .append(ports)
+                .append("  </wsdl:service>\n</wsdl:definitions>\n");
+        return wsdl.toString();
+    }
+
+    private void element(StringBuilder wsdl, String name, String field, int type) {
+        wsdl.append("      <xsd:element name=\"")
+                .append(name)
+                .append("\">\n        <xsd:complexType>\n          <xsd:sequence>\n")
+                .append("            <xsd:element name=\"")
+                .append(field)
+                .append("\" type=\"ns")
+                .append(type % this.namespaces)
+                .append(":Type")
+                .append(type)
+                .append("\"/>\n          </xsd:sequence>\n        </xsd:complexType>\n      </xsd:element>\n");
+    }
+
+    private static void message(StringBuilder messages, String element) {
+        messages.append("  <wsdl:message name=\"")
+                .append(element)
+                .append("Message\">\n    <wsdl:part name=\"parameters\" element=\"tns:")
+                .append(element)
+                .append("\"/>\n  </wsdl:message>\n");
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+
+    private static int requireAtLeast(String name, int value, int minimum) {
+        if (value < minimum) {
+            throw new IllegalArgumentException("'" + name + "' must be at least " + minimum + " but was " + value);
+        }
+        return value;
+    }
+}